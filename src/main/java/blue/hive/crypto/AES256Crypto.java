@@ -1,13 +1,26 @@
 package blue.hive.crypto;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.crypto.Cipher;
 import javax.crypto.CipherInputStream;
 import javax.crypto.CipherOutputStream;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -23,6 +36,21 @@ import blue.hive.io.BHiveBase64OutputStream;
 /**
  * 암호화 처리기 (AES256)
  *
+ * Key/IV Spec은 Key 설정시 한번만 만들고, Cipher는 모드별 Pool에서 재사용한다.
+ * (Cipher.getInstance의 Provider 조회를 요청마다 하지 않으며, 같은 Key로 init하면 Key Schedule도 재계산하지 않는다)
+ * 암복호화 Stream은 close될때 Cipher를 Pool로 반환한다. 인스턴스는 여러 쓰레드에서 공유해서 사용한다.
+ *
+ * getBufferedEncryptChiperOutputStream/getBufferedDecryptChiperInputStream은 bufferedThreshold 이하의 작은 메시지를
+ * 쓰레드별로 재사용하는 버퍼에 모아 한번의 doFinal과 Base64 Encoding으로 처리하고, 큰 메시지는 Stream으로 처리한다.
+ *
+ * cipherAlgorithm이 GCM_CIPHER_ALGORITHM이면 메시지마다 임의의 12바이트 Nonce를 만들어 인증 암호화(AES-GCM)하고
+ * 암호문 앞에 Nonce를 붙인다. Base64 암호문은 Envelope 헤더("BH2:")로 시작하며, 헤더는 Base64 문자가 아닌 ':'를 포함하므로
+ * 헤더가 없는 기존 암호문(CBC/ECB)과 구분된다.
+ * Base64 암호문을 복호화할때는 설정된 알고리즘과 상관없이 헤더가 있으면 GCM으로, 없으면 기존 알고리즘(GCM 설정이면 CBC)으로 복호화한다.
+ * (기존 CBC 클라이언트의 요청도 계속 처리할 수 있으며, 그 응답은 getLegacyCrypto로 암호화한다)
+ * 기존 클라이언트 전환이 끝나면 allowLegacyCiphertext를 false로 설정하여 헤더가 없는 Base64 암호문(고정 IV CBC)을 거부한다.
+ * Base64를 사용하지 않는 바이트배열 API는 헤더 없이 설정된 알고리즘으로만 처리한다. (GCM: Nonce + 암호문 + 인증 Tag)
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class AES256Crypto {
@@ -36,14 +64,73 @@ public class AES256Crypto {
 		Arrays.fill(DEFAULT_IV, (byte)0);
 	}
 
+	/** 인증 암호화(AES-GCM) 알고리즘 */
+	public static final String GCM_CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+
+	/** GCM Nonce 길이 (bytes) */
+	private static final int GCM_NONCE_LENGTH = 12;
+
+	/** GCM 인증 Tag 길이 (bits) */
+	private static final int GCM_TAG_LENGTH = 128;
+
+	/** Envelope 헤더 길이 ("BH" + 버전 + ":") */
+	public static final int ENVELOPE_HEADER_LENGTH = 4;
+
+	/** GCM 암호문 Envelope 헤더 (버전 2) */
+	public static final String ENVELOPE_GCM_HEADER = "BH2:";
+	private static final byte[] ENVELOPE_GCM_HEADER_BYTES = ENVELOPE_GCM_HEADER.getBytes(UTF8);
+
+	/** 한번에 암복호화할 메시지 최대 크기 기본값 (초과하면 Stream 처리) */
+	public static final int DEFAULT_BUFFERED_THRESHOLD = 16 * 1024;
+
+	/** Base64 Encoding 문자표 */
+	private static final byte[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(UTF8);
+
+	/** BHiveBase64OutputStream이 끝에 붙이는 줄바꿈 */
+	private static final byte[] BASE64_LINE_SEPARATOR = { '\r', '\n' };
+
+	/** 쓰레드별 재사용 버퍼 (평문, 암호문, Base64) */
+	private static final ThreadLocalBuffer PLAIN_BUFFER = new ThreadLocalBuffer();
+	private static final ThreadLocalBuffer CIPHER_BUFFER = new ThreadLocalBuffer();
+	private static final ThreadLocalBuffer BASE64_BUFFER = new ThreadLocalBuffer();
+
+	/** 쓰레드별 Nonce 생성기 (SecureRandom 공유시 동기화 경합 방지) */
+	private static final ThreadLocal<SecureRandom> NONCE_RANDOM = new ThreadLocal<SecureRandom>() {
+		@Override
+		protected SecureRandom initialValue() {
+			return new SecureRandom();
+		}
+	};
+
+	/** 모드별 Pool에 보관할 최대 Cipher 수 */
+	private static final int MAX_POOLED_CIPHERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
 	//Cipher Init Parameters
 	String cipherAlgorithm = null;
 	String secretKey;
 	byte[] iv;
 
+	/** GCM 모드 여부 */
+	boolean gcmMode = false;
+
+	/** Envelope 헤더가 없는 암호문에 사용할 알고리즘 (GCM 모드이면 CBC) */
+	String legacyAlgorithm = null;
+
+	/** GCM 모드에서 Envelope 헤더가 없는 Base64 암호문(기존 CBC) 복호화 허용여부 */
+	volatile boolean allowLegacyCiphertext = true;
+
 	//Cipher
-	SecretKeySpec secretSpec = null;
-	IvParameterSpec ivSpec = null;
+	volatile SecretKeySpec secretSpec = null;
+	volatile IvParameterSpec ivSpec = null;
+
+	/** GCM 모드에서 기존 CBC 암호문 응답용 처리기 */
+	private volatile AES256Crypto legacyCrypto = null;
+
+	//Cipher Pool
+	private final CipherPool encryptCipherPool = new CipherPool(false, Cipher.ENCRYPT_MODE);
+	private final CipherPool decryptCipherPool = new CipherPool(false, Cipher.DECRYPT_MODE);
+	private final CipherPool gcmEncryptCipherPool = new CipherPool(true, Cipher.ENCRYPT_MODE);
+	private final CipherPool gcmDecryptCipherPool = new CipherPool(true, Cipher.DECRYPT_MODE);
 
 	public String getSecretKey() {
 		return secretKey;
@@ -56,6 +143,9 @@ public class AES256Crypto {
 		} else if(secretKey.length() > 0) {
 			this.secretKey = org.apache.commons.lang3.StringUtils.rightPad(secretKey, 16, "\0");	
 		}
+		//Init Secret
+		this.secretSpec = this.secretKey != null ? new SecretKeySpec(this.secretKey.getBytes(UTF8), "AES") : null;
+		this.legacyCrypto = null;
 	}
 
 	public AES256Crypto() {
@@ -72,23 +162,131 @@ public class AES256Crypto {
 	
 	public AES256Crypto(String cipherAlgorithm, String secretKey, byte[] iv) {
 		this.cipherAlgorithm = cipherAlgorithm;
+		this.gcmMode = cipherAlgorithm.contains("GCM");
+		this.legacyAlgorithm = gcmMode ? DEFAULT_CIPHER_ALGORITHM : cipherAlgorithm;
 		setSecretKey(secretKey);
 		this.iv = Arrays.copyOf(iv, iv.length);
+		//Init IV
+		this.ivSpec = new IvParameterSpec(this.iv);
+	}
+
+	/**
+	 * GCM(인증 암호화) 모드 여부
+	 * @return GCM 모드이면 true
+	 */
+	public boolean isGcmMode() {
+		return gcmMode;
+	}
+
+	/**
+	 * GCM 모드에서 Envelope 헤더가 없는 Base64 암호문(기존 CBC) 복호화 허용여부
+	 * @return 허용하면 true (기본값)
+	 */
+	public boolean isAllowLegacyCiphertext() {
+		return allowLegacyCiphertext;
+	}
+
+	/**
+	 * GCM 모드에서 Envelope 헤더가 없는 Base64 암호문(기존 CBC) 복호화 허용여부 설정
+	 *
+	 * false이면 decryptBase64String, getDecryptChiperInputStream, getBufferedDecryptChiperInputStream에서
+	 * 헤더가 없는 암호문을 복호화하지 않고 실패로 처리한다. (고정 IV CBC의 Padding Oracle 차단)
+	 * CBC/ECB 설정이면 헤더가 없는 암호문이 설정된 형식이므로 적용하지 않는다.
+	 * @param allowLegacyCiphertext 허용여부
+	 */
+	public void setAllowLegacyCiphertext(boolean allowLegacyCiphertext) {
+		this.allowLegacyCiphertext = allowLegacyCiphertext;
+	}
+
+	/**
+	 * Envelope 헤더가 없는 Base64 암호문 복호화 가능 여부 확인
+	 * @throws GeneralSecurityException GCM 모드에서 허용하지 않는 경우
+	 */
+	private void checkLegacyCiphertextAllowed() throws GeneralSecurityException {
+		if(gcmMode && !allowLegacyCiphertext) {
+			throw new GeneralSecurityException("Legacy cipher text without the envelope header is not allowed.");
+		}
+	}
+
+	/**
+	 * Envelope 헤더가 없는 기존 암호문(CBC/ECB)용 처리기
+	 *
+	 * GCM 모드이면 같은 Key/IV의 CBC 처리기를, 아니면 자신을 반환한다.
+	 * @return 기존 암호문용 처리기
+	 */
+	public AES256Crypto getLegacyCrypto() {
+		if(!gcmMode) {
+			return this;
+		}
+		AES256Crypto legacy = this.legacyCrypto;
+		if(legacy == null) {
+			legacy = new AES256Crypto(legacyAlgorithm, secretKey != null ? secretKey : "", iv);
+			this.legacyCrypto = legacy;
+		}
+		return legacy;
+	}
+
+	/**
+	 * 초기화된 Cipher 생성
+	 * @param algorithm 알고리즘
+	 * @param mode Cipher.ENCRYPT_MODE, Cipher.DECRYPT_MODE
+	 * @param params 초기화 Parameter (ECB이면 null)
+	 * @return Cipher
+	 * @throws GeneralSecurityException 알고리즘이나 Key가 올바르지 않음
+	 */
+	private Cipher createCipher(String algorithm, int mode, AlgorithmParameterSpec params) throws GeneralSecurityException {
+		Cipher cipher = Cipher.getInstance(algorithm);
+		initCipher(cipher, mode, params);
+		return cipher;
+	}
+
+	/**
+	 * 미리 만든 Key Spec으로 Cipher 초기화
+	 */
+	private void initCipher(Cipher cipher, int mode, AlgorithmParameterSpec params) throws GeneralSecurityException {
+		SecretKeySpec keySpec = this.secretSpec;
+		if(keySpec == null) {
+			throw new InvalidKeyException("secretKey is empty.");
+		}
+		if(params == null) {
+			cipher.init(mode, keySpec);
+		} else {
+			cipher.init(mode, keySpec, params);
+		}
 	}
 
+	/**
+	 * 기존 알고리즘의 초기화 Parameter
+	 * @return IV (ECB이면 null)
+	 */
+	private AlgorithmParameterSpec getLegacyParameterSpec() {
+		return legacyAlgorithm.contains("ECB") ? null : this.ivSpec;
+	}
+
+	/**
+	 * 메시지별 GCM Nonce 생성
+	 */
+	private static byte[] newNonce() {
+		byte[] nonce = new byte[GCM_NONCE_LENGTH];
+		NONCE_RANDOM.get().nextBytes(nonce);
+		return nonce;
+	}
+
+	private static GCMParameterSpec getGcmParameterSpec(byte[] nonce, int offset) {
+		return new GCMParameterSpec(GCM_TAG_LENGTH, nonce, offset, GCM_NONCE_LENGTH);
+	}
+
+	/**
+	 * 암호화 Cipher 생성 (Pool과 무관한 새 인스턴스, GCM이면 임의의 Nonce로 초기화되며 Cipher.getIV로 획득)
+	 * @return Cipher
+	 * @throws Exception 알고리즘이나 Key가 올바르지 않음
+	 */
 	public Cipher getEncryptChiper() throws Exception {
 		try {
-			//Init Secret
-			this.secretSpec = new SecretKeySpec(this.secretKey.getBytes("UTF-8"), "AES");
-			//Init IV
-			this.ivSpec = new IvParameterSpec(this.iv);
-			Cipher cipher = Cipher.getInstance(this.cipherAlgorithm);
-			if(cipherAlgorithm.contains("ECB")) {
-				cipher.init(Cipher.ENCRYPT_MODE, this.secretSpec);
-			} else {
-				cipher.init(Cipher.ENCRYPT_MODE, this.secretSpec, this.ivSpec);
+			if(gcmMode) {
+				return createCipher(GCM_CIPHER_ALGORITHM, Cipher.ENCRYPT_MODE, getGcmParameterSpec(newNonce(), 0));
 			}
-			return cipher;
+			return createCipher(legacyAlgorithm, Cipher.ENCRYPT_MODE, getLegacyParameterSpec());
 		} catch (Exception ex) {
 			logger.warn("getEncryptChiper FAILED. cipherAlgorithm:{}, secretKey:{}, iv:{} - EXCEPTION: {} - {}",
 					cipherAlgorithm, secretKey, iv,
@@ -96,19 +294,17 @@ public class AES256Crypto {
 			throw ex;
 		}
 	}
+	/**
+	 * 복호화 Cipher 생성 (Pool과 무관한 새 인스턴스, GCM은 메시지의 Nonce가 필요하므로 지원하지 않음)
+	 * @return Cipher
+	 * @throws Exception 알고리즘이나 Key가 올바르지 않음
+	 */
 	public Cipher getDecryptChiper() throws Exception {
 		try {
-			//Init Secret
-			this.secretSpec = new SecretKeySpec(this.secretKey.getBytes("UTF-8"), "AES");
-			//Init IV
-			this.ivSpec = new IvParameterSpec(this.iv);
-			Cipher cipher = Cipher.getInstance(this.cipherAlgorithm);
-			if(cipherAlgorithm.contains("ECB")) {
-				cipher.init(Cipher.DECRYPT_MODE, this.secretSpec);
-			} else {
-				cipher.init(Cipher.DECRYPT_MODE, this.secretSpec, this.ivSpec);
+			if(gcmMode) {
+				throw new InvalidAlgorithmParameterException("GCM decrypt cipher requires the message nonce.");
 			}
-			return cipher;
+			return createCipher(legacyAlgorithm, Cipher.DECRYPT_MODE, getLegacyParameterSpec());
 		} catch (Exception ex) {
 			logger.warn("getDecryptChiper FAILED. cipherAlgorithm:{}, secretKey:{}, iv:{} - EXCEPTION: {} - {}",
 					cipherAlgorithm, secretKey, iv,
@@ -139,18 +335,7 @@ public class AES256Crypto {
 		}
 		byte[] cipherBytes = null;
 		try {
-			Cipher cipher = getEncryptChiper();
-			byte[] plainBytes = plainString.getBytes(charset);
-			if(cipherAlgorithm.contains("ECB") && plainBytes.length%16 != 0) {
-				//to multiple of 16 bytes
-				int size = plainBytes.length + (16 - plainBytes.length % 16);
-				byte[] plainBytesPadded = new byte[size];
-				Arrays.fill(plainBytesPadded, (byte) 0);
-				System.arraycopy(plainBytes, 0, plainBytesPadded, 0, plainBytes.length);
-				plainBytes = plainBytesPadded;
-			}
-			
-			cipherBytes = cipher.doFinal(plainBytes);
+			cipherBytes = encrypt(plainString.getBytes(charset));
 		} catch (Exception ex) {
 			logger.warn("encryptString FAILED. plainString: {} - EXCEPTION: {} - {}", plainString,
 					ex.getClass().getName(), ex.getMessage());
@@ -158,7 +343,62 @@ public class AES256Crypto {
 		return cipherBytes;
 	}
 
+	/**
+	 * 주어진 바이트배열을 암호화된 바이트배열로 획득
+	 * @param plainBytes plain bytes data
+	 * @return byte[] byte array value
+	 */
+	public byte[] encryptBytes(byte[] plainBytes) {
+		if(plainBytes == null || plainBytes.length == 0) {
+			logger.warn("encryptBytes FAILED. -> plainBytes is empty.");
+			return null;
+		}
+		byte[] cipherBytes = null;
+		try {
+			cipherBytes = encrypt(plainBytes);
+		} catch (Exception ex) {
+			logger.warn("encryptBytes FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+		}
+		return cipherBytes;
+	}
+
+	/**
+	 * 설정된 알고리즘으로 암호화 (GCM: Nonce + 암호문 + 인증 Tag)
+	 */
+	private byte[] encrypt(byte[] plainBytes) throws GeneralSecurityException {
+		if(gcmMode) {
+			return encryptGcm(plainBytes, 0, plainBytes.length);
+		}
+		Cipher cipher = encryptCipherPool.borrow(getLegacyParameterSpec());
+		if(cipherAlgorithm.contains("ECB") && plainBytes.length%16 != 0) {
+			//to multiple of 16 bytes
+			int size = plainBytes.length + (16 - plainBytes.length % 16);
+			byte[] plainBytesPadded = new byte[size];
+			Arrays.fill(plainBytesPadded, (byte) 0);
+			System.arraycopy(plainBytes, 0, plainBytesPadded, 0, plainBytes.length);
+			plainBytes = plainBytesPadded;
+		}
+
+		byte[] cipherBytes = cipher.doFinal(plainBytes);
+		encryptCipherPool.release(cipher);
+		return cipherBytes;
+	}
+
 	/** 
+	 * GCM 암호화
+	 * @return Nonce + 암호문 + 인증 Tag
+	 */
+	private byte[] encryptGcm(byte[] plainBytes, int off, int len) throws GeneralSecurityException {
+		byte[] nonce = newNonce();
+		Cipher cipher = gcmEncryptCipherPool.borrow(getGcmParameterSpec(nonce, 0));
+		byte[] cipherBytes = new byte[GCM_NONCE_LENGTH + cipher.getOutputSize(len)];
+		System.arraycopy(nonce, 0, cipherBytes, 0, GCM_NONCE_LENGTH);
+		int length = cipher.doFinal(plainBytes, off, len, cipherBytes, GCM_NONCE_LENGTH);
+		gcmEncryptCipherPool.release(cipher);
+		return GCM_NONCE_LENGTH + length == cipherBytes.length ? cipherBytes : Arrays.copyOf(cipherBytes, GCM_NONCE_LENGTH + length);
+	}
+
+	/**
 	 * 주어진 문자열을 기본(UTF-8)인코딩으로 암호화된 바이트배열의 Base64인코딩 문자열 획득 
 	 * @param plainString plain String value
 	 * @return String
@@ -168,7 +408,7 @@ public class AES256Crypto {
 	}
 	
 	/** 
-	 * 주어진 문자열을 주어진 인코딩으로 암호화된 바이트배열의 Base64인코딩 문자열 획득 
+	 * 주어진 문자열을 주어진 인코딩으로 암호화된 바이트배열의 Base64인코딩 문자열 획득 (GCM이면 Envelope 헤더 추가)
 	 * @param plainString plain String value
 	 * @param charset character set
 	 * @return String
@@ -179,7 +419,8 @@ public class AES256Crypto {
 			logger.trace("cipherBytes: " + Arrays.toString(cipherBytes));
 			byte[] cipherBytesBase64Encoded = Base64.encodeBase64(cipherBytes);
 			logger.trace("cipherBytesBase64Encoded: " + Arrays.toString(cipherBytesBase64Encoded));
-			return new String(cipherBytesBase64Encoded, charset);			
+			String base64String = new String(cipherBytesBase64Encoded, charset);
+			return gcmMode ? ENVELOPE_GCM_HEADER + base64String : base64String;
 		}
 		return plainString;
 	}
@@ -194,6 +435,8 @@ public class AES256Crypto {
 	}
 	/** 
 	 * 주어진 OutputStream을 암호화하는 OutputStream을 생성 (Base64Encoding 옵션 적용) 
+	 *
+	 * GCM이면 Envelope 헤더(Base64 사용시)와 Nonce를 먼저 출력한다.
 	 * @param os output stream
 	 * @param useBase64 use base64 encodor
 	 * @return String
@@ -204,10 +447,20 @@ public class AES256Crypto {
 		}
 		try {
 			//Plain -> Chiper(Encrypt) -> Base64Encode -> OutputStream
+			if(gcmMode) {
+				if(useBase64) {
+					os.write(ENVELOPE_GCM_HEADER_BYTES);
+					os = new BHiveBase64OutputStream(os);
+				}
+				byte[] nonce = newNonce();
+				Cipher cipher = gcmEncryptCipherPool.borrow(getGcmParameterSpec(nonce, 0));
+				os.write(nonce);
+				return new PooledCipherOutputStream(os, gcmEncryptCipherPool, cipher);
+			}
 			if(useBase64) {
 				os = new BHiveBase64OutputStream(os);
 			}
-			OutputStream osEncrypted = new CipherOutputStream(os, getEncryptChiper());
+			OutputStream osEncrypted = new PooledCipherOutputStream(os, encryptCipherPool, encryptCipherPool.borrow(getLegacyParameterSpec()));
 			return osEncrypted;
 		} catch (Exception ex) {
 			logger.warn("getEncryptChiperOutputStream FAILED. EXCEPTION: {}", ex.getMessage(), ex);
@@ -215,6 +468,101 @@ public class AES256Crypto {
 		}
 	}
 
+	/**
+	 * 작은 메시지는 모아서 한번에 암호화하는 OutputStream 생성 (Base64Encoding 적용)
+	 *
+	 * bufferedThreshold 바이트까지는 쓰레드별 버퍼에 모았다가 close될때 encryptToBase64로 한번에 출력하고,
+	 * 넘으면 getEncryptChiperOutputStream의 Stream 처리로 전환한다.
+	 * 버퍼 상태에서는 flush해도 출력하지 않으므로 반드시 close해야 한다.
+	 * @param os output stream
+	 * @param bufferedThreshold 한번에 암호화할 최대 크기
+	 * @return OutputStream
+	 */
+	public OutputStream getBufferedEncryptChiperOutputStream(OutputStream os, int bufferedThreshold) {
+		if(os == null) {
+			throw new IllegalArgumentException("OutputStream 'os' parameter cannot be null.");
+		}
+		if(bufferedThreshold <= 0) {
+			return getEncryptChiperOutputStream(os, true);
+		}
+		return new BufferedCipherOutputStream(os, bufferedThreshold);
+	}
+
+	/**
+	 * 평문을 한번의 doFinal로 암호화하고 Base64Encoding하여 한번에 출력 (BHiveBase64OutputStream과 같은 형식)
+	 *
+	 * GCM이면 Envelope 헤더를 출력하고 Nonce + 암호문을 Base64Encoding한다.
+	 * @param plainBytes 평문
+	 * @param off 시작 위치
+	 * @param len 길이
+	 * @param os output stream
+	 * @throws IOException 암호화 또는 출력 실패
+	 */
+	public void encryptToBase64(byte[] plainBytes, int off, int len, OutputStream os) throws IOException {
+		byte[] cipherBytes = null;
+		byte[] base64Bytes = null;
+		try {
+			int cipherLength;
+			if(gcmMode) {
+				byte[] nonce = newNonce();
+				Cipher cipher = gcmEncryptCipherPool.borrow(getGcmParameterSpec(nonce, 0));
+				cipherBytes = CIPHER_BUFFER.borrow(GCM_NONCE_LENGTH + cipher.getOutputSize(len));
+				System.arraycopy(nonce, 0, cipherBytes, 0, GCM_NONCE_LENGTH);
+				cipherLength = GCM_NONCE_LENGTH + cipher.doFinal(plainBytes, off, len, cipherBytes, GCM_NONCE_LENGTH);
+				gcmEncryptCipherPool.release(cipher);
+			} else {
+				Cipher cipher = encryptCipherPool.borrow(getLegacyParameterSpec());
+				cipherBytes = CIPHER_BUFFER.borrow(cipher.getOutputSize(len));
+				cipherLength = cipher.doFinal(plainBytes, off, len, cipherBytes, 0);
+				encryptCipherPool.release(cipher);
+			}
+
+			int headerLength = gcmMode ? ENVELOPE_HEADER_LENGTH : 0;
+			base64Bytes = BASE64_BUFFER.borrow(headerLength + 4 * ((cipherLength + 2) / 3) + BASE64_LINE_SEPARATOR.length);
+			if(gcmMode) {
+				System.arraycopy(ENVELOPE_GCM_HEADER_BYTES, 0, base64Bytes, 0, ENVELOPE_HEADER_LENGTH);
+			}
+			int base64Length = headerLength + encodeBase64(cipherBytes, cipherLength, base64Bytes, headerLength);
+			os.write(base64Bytes, 0, base64Length);
+		} catch (GeneralSecurityException ex) {
+			logger.warn("encryptToBase64 FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+			throw new IOException("FAILED TO ENCRYPT.", ex);
+		} finally {
+			CIPHER_BUFFER.release(cipherBytes);
+			BASE64_BUFFER.release(base64Bytes);
+		}
+	}
+
+	/**
+	 * Base64 Encoding (BHiveBase64OutputStream처럼 줄바꿈 없이 출력하고 끝에 CRLF 추가)
+	 * @return 출력 길이
+	 */
+	private static int encodeBase64(byte[] src, int len, byte[] dst, int dstOffset) {
+		int si = 0;
+		int di = dstOffset;
+		int whole = len - len % 3;
+		while (si < whole) {
+			int bits = (src[si++] & 0xff) << 16 | (src[si++] & 0xff) << 8 | (src[si++] & 0xff);
+			dst[di++] = BASE64_ALPHABET[(bits >>> 18) & 0x3f];
+			dst[di++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+			dst[di++] = BASE64_ALPHABET[(bits >>> 6) & 0x3f];
+			dst[di++] = BASE64_ALPHABET[bits & 0x3f];
+		}
+		int remain = len - whole;
+		if(remain > 0) {
+			int bits = (src[si] & 0xff) << 16 | (remain == 2 ? (src[si + 1] & 0xff) << 8 : 0);
+			dst[di++] = BASE64_ALPHABET[(bits >>> 18) & 0x3f];
+			dst[di++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+			dst[di++] = remain == 2 ? BASE64_ALPHABET[(bits >>> 6) & 0x3f] : (byte)'=';
+			dst[di++] = '=';
+		}
+		if(di > dstOffset) {
+			dst[di++] = BASE64_LINE_SEPARATOR[0];
+			dst[di++] = BASE64_LINE_SEPARATOR[1];
+		}
+		return di - dstOffset;
+	}
+
 	/** 
 	 * 주어진 암호화된 바이트배열을 복호화하여 기본(UTF-8)인코딩의 문자열로 획득 
 	 * @param chiperBytes chiper bytes data
@@ -224,7 +572,7 @@ public class AES256Crypto {
 		return decryptBytes(chiperBytes, UTF8);
 	}
 	/** 
-	 * 주어진 암호화된 바이트배열을 복호화하여 주어진 인코딩의 문자열로 획득 
+	 * 주어진 암호화된 바이트배열을 복호화하여 주어진 인코딩의 문자열로 획득 (GCM이면 Nonce + 암호문 + 인증 Tag)
 	 * @param chiperBytes chiper bytes data
 	 * @param charset character set
 	 * @return String
@@ -236,8 +584,7 @@ public class AES256Crypto {
 		}
 		String plainString = null;
 		try {
-			Cipher cipher = getDecryptChiper();
-			byte[] plainBytes = cipher.doFinal(chiperBytes);
+			byte[] plainBytes = gcmMode ? decryptGcm(chiperBytes, 0, chiperBytes.length) : decryptLegacy(chiperBytes);
 			plainString = new String(plainBytes, charset);
 		} catch (Exception ex) {
 			logger.warn("decryptBytes FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
@@ -245,6 +592,62 @@ public class AES256Crypto {
 		return plainString;
 	}
 
+	/**
+	 * 주어진 암호화된 바이트배열을 복호화한 바이트배열로 획득
+	 * @param chiperBytes chiper bytes data
+	 * @return byte[] byte array value
+	 */
+	public byte[] decryptToBytes(byte[] chiperBytes) {
+		if(chiperBytes == null || chiperBytes.length == 0) {
+			logger.warn("decryptToBytes FAILED. -> chiperBytes is empty.");
+			return null;
+		}
+		byte[] plainBytes = null;
+		try {
+			plainBytes = gcmMode ? decryptGcm(chiperBytes, 0, chiperBytes.length) : decryptLegacy(chiperBytes);
+		} catch (Exception ex) {
+			logger.warn("decryptToBytes FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+		}
+		return plainBytes;
+	}
+
+	/**
+	 * 기존 알고리즘(CBC/ECB) 복호화
+	 */
+	private byte[] decryptLegacy(byte[] cipherBytes) throws GeneralSecurityException {
+		Cipher cipher = decryptCipherPool.borrow(getLegacyParameterSpec());
+		byte[] plainBytes = cipher.doFinal(cipherBytes);
+		decryptCipherPool.release(cipher);
+		return plainBytes;
+	}
+
+	/**
+	 * GCM 복호화 (Nonce + 암호문 + 인증 Tag), 인증에 실패하면 AEADBadTagException
+	 */
+	private byte[] decryptGcm(byte[] cipherBytes, int off, int len) throws GeneralSecurityException {
+		if(len < GCM_NONCE_LENGTH) {
+			throw new InvalidAlgorithmParameterException("GCM cipher text is shorter than the nonce.");
+		}
+		Cipher cipher = gcmDecryptCipherPool.borrow(getGcmParameterSpec(cipherBytes, off));
+		byte[] plainBytes = cipher.doFinal(cipherBytes, off + GCM_NONCE_LENGTH, len - GCM_NONCE_LENGTH);
+		gcmDecryptCipherPool.release(cipher);
+		return plainBytes;
+	}
+
+	/**
+	 * Base64 암호문 복호화 (Envelope 헤더가 있으면 GCM, 없으면 기존 알고리즘)
+	 * @throws GeneralSecurityException 복호화 실패 또는 허용하지 않는 기존 암호문
+	 */
+	private byte[] decryptBase64Bytes(byte[] base64Bytes, int length) throws GeneralSecurityException {
+		if(isEnvelopeHeader(base64Bytes, 0, length)) {
+			byte[] cipherBytes = Base64.decodeBase64(Arrays.copyOfRange(base64Bytes, ENVELOPE_HEADER_LENGTH, length));
+			return decryptGcm(cipherBytes, 0, cipherBytes.length);
+		}
+		checkLegacyCiphertextAllowed();
+		byte[] cipherBytes = Base64.decodeBase64(length == base64Bytes.length ? base64Bytes : Arrays.copyOf(base64Bytes, length));
+		return decryptLegacy(cipherBytes);
+	}
+
 	/** 
 	 * 주어진 암호화된 바이트배열을 Base64Encoding된 문자열을 Base64Decoding과 복호화하여 기본(UTF-8)인코딩 문자열로 획득 
 	 * @param cipherBase64String chiper base64 string
@@ -257,6 +660,8 @@ public class AES256Crypto {
 	
 	/** 
 	 * 주어진 암호화된 바이트배열을 Base64Encoding된 문자열을 Base64Decoding과 복호화하여 charset 인코딩 문자열로 획득 
+	 *
+	 * Envelope 헤더가 있으면 GCM으로, 없으면 기존 알고리즘으로 복호화한다.
 	 * @param cipherBase64String chiper base64 string
 	 * @param charset character set
 	 * @return String
@@ -266,12 +671,37 @@ public class AES256Crypto {
 			logger.warn("decryptBase64String FAILED -> cipherBase64String is empty.");
 			return null;
 		}
-		byte[] cipherBytes = Base64.decodeBase64(cipherBase64String);
-		String plainString = decryptBytes(cipherBytes, charset);
+		String plainString = null;
+		try {
+			byte[] base64Bytes = cipherBase64String.getBytes(UTF8);
+			plainString = new String(decryptBase64Bytes(base64Bytes, base64Bytes.length), charset);
+		} catch (Exception ex) {
+			logger.warn("decryptBase64String FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+		}
 		plainString = StringUtils.trimTrailingWhitespace(plainString);
 		return StringUtils.trimWhitespace(plainString);
 	}
 
+	/**
+	 * Base64 암호문을 복호화한 바이트배열로 획득 (decryptBase64String과 같이 Envelope 헤더를 처리하며 공백을 제거하지 않음)
+	 * @param cipherBase64String chiper base64 string
+	 * @return byte[] (실패시 null)
+	 */
+	public byte[] decryptBase64StringToBytes(String cipherBase64String) {
+		if(StringUtils.isEmpty(cipherBase64String)) {
+			logger.warn("decryptBase64StringToBytes FAILED -> cipherBase64String is empty.");
+			return null;
+		}
+		byte[] plainBytes = null;
+		try {
+			byte[] base64Bytes = cipherBase64String.getBytes(UTF8);
+			plainBytes = decryptBase64Bytes(base64Bytes, base64Bytes.length);
+		} catch (Exception ex) {
+			logger.warn("decryptBase64StringToBytes FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+		}
+		return plainBytes;
+	}
+
 	/** 
 	 * 주어진 InputStream을 복호화하는 InputStream 생성 (Base64Decoding 적용) 
 	 * @param is input stream 
@@ -283,6 +713,10 @@ public class AES256Crypto {
 	
 	/**
 	 * 주어진 InputStream을 복호화하는 InputStream 생성 (Base64Decoding 옵션) 
+	 *
+	 * Base64를 사용하면 Envelope 헤더를 확인하여 GCM 또는 기존 알고리즘으로 복호화하고,
+	 * 사용하지 않으면 설정된 알고리즘으로 복호화한다. GCM은 Nonce를 생성시 읽으며 인증 Tag 확인 전까지 평문을 내보내지 않는다.
+	 * allowLegacyCiphertext가 false인 GCM 모드에서 헤더가 없으면 BHiveRuntimeException이 발생한다.
 	 * @param is input stream 
 	 * @param useBase64 use base64 
 	 * @return inputsteream
@@ -293,14 +727,315 @@ public class AES256Crypto {
 		}
 		try {
 			//InputStream -> Base64Decode -> Chiper(Decrypt) -> Plain
+			boolean gcm = gcmMode;
 			if(useBase64) {
-				is = new BHiveBase64InputStream(is);
+				PushbackInputStream pushbackInputStream = new PushbackInputStream(is, ENVELOPE_HEADER_LENGTH);
+				gcm = startsWithEnvelope(pushbackInputStream);
+				if(gcm) {
+					skipFully(pushbackInputStream, ENVELOPE_HEADER_LENGTH);
+				} else {
+					checkLegacyCiphertextAllowed();
+				}
+				is = new BHiveBase64InputStream(pushbackInputStream);
 			}
-			InputStream isDecrypted = new CipherInputStream(is, getDecryptChiper());
+			if(gcm) {
+				byte[] nonce = new byte[GCM_NONCE_LENGTH];
+				readFully(is, nonce);
+				Cipher cipher = gcmDecryptCipherPool.borrow(getGcmParameterSpec(nonce, 0));
+				return new PooledCipherInputStream(is, gcmDecryptCipherPool, cipher);
+			}
+			InputStream isDecrypted = new PooledCipherInputStream(is, decryptCipherPool, decryptCipherPool.borrow(getLegacyParameterSpec()));
 			return isDecrypted;
 		} catch (Exception ex) {
 			logger.warn("getDecryptChiperInputStream FAILED. EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
 			throw new BHiveRuntimeException("FAILED TO CREATE DECRYPT INPUTSTREAM.", ex);
 		}
 	}
+
+	/**
+	 * 작은 메시지는 한번에 복호화하는 InputStream 생성 (Base64Decoding 적용)
+	 *
+	 * contentLength가 bufferedThreshold 이하이면 Body 전체를 읽어 한번의 doFinal로 복호화한 평문 Stream을 반환하고,
+	 * 모르거나(-1) 크면 getDecryptChiperInputStream의 Stream 처리를 반환한다.
+	 * @param is input stream
+	 * @param contentLength Body 길이 (모르면 -1)
+	 * @param bufferedThreshold 한번에 복호화할 최대 크기
+	 * @return inputsteream
+	 * @throws IOException 읽기 또는 복호화 실패
+	 */
+	public InputStream getBufferedDecryptChiperInputStream(InputStream is, long contentLength, int bufferedThreshold) throws IOException {
+		if(is == null) {
+			throw new IllegalArgumentException("InputStream 'is' parameter cannot be null.");
+		}
+		if(contentLength <= 0 || contentLength > bufferedThreshold) {
+			return getDecryptChiperInputStream(is, true);
+		}
+		byte[] base64Bytes = new byte[(int)contentLength];
+		int length = 0;
+		while (length < base64Bytes.length) {
+			int read = is.read(base64Bytes, length, base64Bytes.length - length);
+			if(read == -1) {
+				break;
+			}
+			length += read;
+		}
+		try {
+			return new ByteArrayInputStream(decryptBase64Bytes(base64Bytes, length));
+		} catch (GeneralSecurityException ex) {
+			logger.warn("getBufferedDecryptChiperInputStream FAILED. - EXCEPTION: {} - {}", ex.getClass().getName(), ex.getMessage());
+			throw new IOException("FAILED TO DECRYPT.", ex);
+		}
+	}
+
+	/**
+	 * Envelope 헤더 여부
+	 * @param data Base64 암호문
+	 * @param off 시작 위치
+	 * @param len 길이
+	 * @return GCM Envelope 헤더로 시작하면 true
+	 */
+	public static boolean isEnvelopeHeader(byte[] data, int off, int len) {
+		if(data == null || len < ENVELOPE_HEADER_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < ENVELOPE_HEADER_LENGTH; i++) {
+			if(data[off + i] != ENVELOPE_GCM_HEADER_BYTES[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stream이 Envelope 헤더로 시작하는지 확인 (읽은 바이트는 되돌림)
+	 * @param pushbackInputStream ENVELOPE_HEADER_LENGTH 이상 되돌릴 수 있는 Stream
+	 * @return GCM Envelope 헤더로 시작하면 true
+	 * @throws IOException 읽기 실패
+	 */
+	public static boolean startsWithEnvelope(PushbackInputStream pushbackInputStream) throws IOException {
+		byte[] header = new byte[ENVELOPE_HEADER_LENGTH];
+		int length = 0;
+		while (length < header.length) {
+			int read = pushbackInputStream.read(header, length, header.length - length);
+			if(read == -1) {
+				break;
+			}
+			length += read;
+		}
+		if(length > 0) {
+			pushbackInputStream.unread(header, 0, length);
+		}
+		return isEnvelopeHeader(header, 0, length);
+	}
+
+	private static void readFully(InputStream is, byte[] buffer) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			int read = is.read(buffer, length, buffer.length - length);
+			if(read == -1) {
+				throw new EOFException("Unexpected end of cipher stream.");
+			}
+			length += read;
+		}
+	}
+
+	private static void skipFully(InputStream is, int count) throws IOException {
+		readFully(is, new byte[count]);
+	}
+
+	/**
+	 * 알고리즘/모드별 Cipher Pool
+	 *
+	 * 꺼낼때 항상 다시 init하므로 예외 등으로 상태가 남은 Cipher가 반환되어도 안전하다. (GCM은 메시지별 Nonce로 init)
+	 * 반환되지 않은 Cipher는 GC되며, MAX_POOLED_CIPHERS를 넘는 반환은 버린다.
+	 */
+	private class CipherPool {
+		private final boolean gcm;
+		private final int mode;
+		private final Queue<Cipher> ciphers = new ConcurrentLinkedQueue<Cipher>();
+		private final AtomicInteger pooled = new AtomicInteger();
+
+		CipherPool(boolean gcm, int mode) {
+			this.gcm = gcm;
+			this.mode = mode;
+		}
+
+		Cipher borrow(AlgorithmParameterSpec params) throws GeneralSecurityException {
+			Cipher cipher = ciphers.poll();
+			if(cipher == null) {
+				return createCipher(gcm ? GCM_CIPHER_ALGORITHM : legacyAlgorithm, mode, params);
+			}
+			pooled.decrementAndGet();
+			initCipher(cipher, mode, params);
+			return cipher;
+		}
+
+		void release(Cipher cipher) {
+			if(pooled.incrementAndGet() <= MAX_POOLED_CIPHERS) {
+				ciphers.offer(cipher);
+			} else {
+				pooled.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * close될때 Cipher를 Pool로 반환하는 CipherOutputStream
+	 */
+	private static class PooledCipherOutputStream extends CipherOutputStream {
+		private final CipherPool pool;
+		private Cipher cipher;
+
+		PooledCipherOutputStream(OutputStream os, CipherPool pool, Cipher cipher) {
+			super(os, cipher);
+			this.pool = pool;
+			this.cipher = cipher;
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			if(cipher != null) {
+				pool.release(cipher);
+				cipher = null;
+			}
+		}
+	}
+
+	/**
+	 * close될때 Cipher를 Pool로 반환하는 CipherInputStream
+	 */
+	private static class PooledCipherInputStream extends CipherInputStream {
+		private final CipherPool pool;
+		private Cipher cipher;
+
+		PooledCipherInputStream(InputStream is, CipherPool pool, Cipher cipher) {
+			super(is, cipher);
+			this.pool = pool;
+			this.cipher = cipher;
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			if(cipher != null) {
+				pool.release(cipher);
+				cipher = null;
+			}
+		}
+	}
+
+	/**
+	 * bufferedThreshold까지는 버퍼에 모아서 close될때 한번에 암호화하고, 넘으면 Stream 암호화로 전환하는 OutputStream
+	 */
+	private class BufferedCipherOutputStream extends OutputStream {
+		private final OutputStream target;
+		private final int threshold;
+		private byte[] buffer;
+		private int count = 0;
+		private OutputStream streaming = null;
+		private boolean closed = false;
+
+		BufferedCipherOutputStream(OutputStream target, int threshold) {
+			this.target = target;
+			this.threshold = threshold;
+			this.buffer = PLAIN_BUFFER.borrow(Math.min(threshold, 1024));
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if(streaming == null && count + 1 > threshold) {
+				switchToStreaming();
+			}
+			if(streaming != null) {
+				streaming.write(b);
+				return;
+			}
+			ensureCapacity(count + 1);
+			buffer[count++] = (byte)b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if(streaming == null && count + len > threshold) {
+				switchToStreaming();
+			}
+			if(streaming != null) {
+				streaming.write(b, off, len);
+				return;
+			}
+			ensureCapacity(count + len);
+			System.arraycopy(b, off, buffer, count, len);
+			count += len;
+		}
+
+		/**
+		 * 버퍼 상태에서는 출력하지 않음 (close에서 한번에 출력)
+		 */
+		@Override
+		public void flush() throws IOException {
+			if(streaming != null) {
+				streaming.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if(closed) {
+				return;
+			}
+			closed = true;
+			if(streaming != null) {
+				streaming.close();
+				return;
+			}
+			try {
+				encryptToBase64(buffer, 0, count, target);
+			} finally {
+				PLAIN_BUFFER.release(buffer);
+				buffer = null;
+			}
+			target.close();
+		}
+
+		private void ensureCapacity(int minCapacity) {
+			if(minCapacity > buffer.length) {
+				int newCapacity = Math.min(Math.max(buffer.length << 1, minCapacity), threshold);
+				buffer = Arrays.copyOf(buffer, newCapacity);
+			}
+		}
+
+		private void switchToStreaming() throws IOException {
+			streaming = getEncryptChiperOutputStream(target, true);
+			streaming.write(buffer, 0, count);
+			PLAIN_BUFFER.release(buffer);
+			buffer = null;
+		}
+	}
+
+	/**
+	 * 쓰레드별 재사용 버퍼
+	 *
+	 * borrow하면 쓰레드에서 꺼내고 release하면 다시 넣으므로 같은 쓰레드에서 중첩 사용해도 공유되지 않는다.
+	 * MAX_RETAINED_LENGTH보다 큰 버퍼는 보관하지 않는다.
+	 */
+	private static final class ThreadLocalBuffer {
+		private static final int MAX_RETAINED_LENGTH = 256 * 1024;
+		private final ThreadLocal<byte[]> buffers = new ThreadLocal<byte[]>();
+
+		byte[] borrow(int minLength) {
+			byte[] buffer = buffers.get();
+			if(buffer == null) {
+				return new byte[minLength];
+			}
+			buffers.set(null);
+			return buffer.length >= minLength ? buffer : new byte[minLength];
+		}
+
+		void release(byte[] buffer) {
+			if(buffer != null && buffer.length <= MAX_RETAINED_LENGTH) {
+				buffers.set(buffer);
+			}
+		}
+	}
 }
@@ -3,11 +3,17 @@ package blue.hive.crypto;
 /**
  * 암호화 처리기 기본 인스턴스 Holder
  *
+ * getCrypto는 setCrypto로 설정한 고정 Key 처리기만 반환한다.
+ * Keyring의 처리기는 Key ID Envelope 없이 암호화하므로 Key 교체(rotate) 후에는 복호화할 Key를 찾을 수 없게 된다.
+ * 따라서 Keyring은 getCrypto로 내보내지 않으며 Key 교체가 필요한 곳은 getKeyring으로 Keyring을 직접 사용한다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class AES256CryptoHolder {
 	
-	private static AES256Crypto instance;
+	private static volatile AES256Crypto instance;
+
+	private static volatile AES256CryptoKeyring keyring;
 
 	public static AES256Crypto getCrypto() {
 		return instance;
@@ -17,4 +23,12 @@ public class AES256CryptoHolder {
 		AES256CryptoHolder.instance = instance;
 	}
 
+	public static AES256CryptoKeyring getKeyring() {
+		return keyring;
+	}
+
+	public static void setKeyring(AES256CryptoKeyring keyring) {
+		AES256CryptoHolder.keyring = keyring;
+	}
+
 }
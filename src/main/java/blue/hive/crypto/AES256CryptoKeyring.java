@@ -0,0 +1,455 @@
+package blue.hive.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.binary.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+/**
+ * 여러 Key의 암호화 처리기(AES256Crypto)를 Key ID로 관리하는 Keyring
+ *
+ * 암호문 앞에 Key ID Envelope("keyId$")를 붙여 암호화하고, 복호화할때는 Envelope의 Key ID로 처리기를 찾으므로
+ * Key를 교체(rotate)해도 이전 Key로 암호화된 데이터를 계속 복호화할 수 있다.
+ * '$'는 Base64 문자가 아니므로 Envelope가 없는 기존 암호문과 구분되며, 기존 암호문은 legacyKeyId(없으면 활성 Key)로 복호화한다.
+ *
+ * Key별 처리기는 등록시 한번만 만들어 Key Spec과 Cipher Pool(Key Schedule)을 재사용하며,
+ * Key 목록과 활성 Key는 불변 상태 객체로 만들어 AtomicReference로 교체하므로 요청 처리중에 Lock 없이 Key를 교체할 수 있다.
+ * getActiveCrypto, getCrypto로 얻은 처리기로 직접 암호화하면 Envelope가 붙지 않으므로 암호화는 Keyring의 메소드를 사용한다.
+ * SecuredRequestBody/SecuredResponseBody 처리기, 암호화 MessageConverter, buildSecureRestApiTemplate은
+ * 고정 secretKey 하나를 사용하므로 Keyring을 사용하지 않으며 Key를 바꾸려면 재시작해야 한다.
+ *
+ * <pre>
+ * &lt;bean id="cryptoKeyring" class="blue.hive.crypto.AES256CryptoKeyring"&gt;
+ * 	&lt;property name="keys"&gt;&lt;map&gt;&lt;entry key="k1" value="${crypto.key.k1}"/&gt;&lt;entry key="k2" value="${crypto.key.k2}"/&gt;&lt;/map&gt;&lt;/property&gt;
+ * 	&lt;property name="activeKeyId" value="k2"/&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class AES256CryptoKeyring {
+	Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** Key ID와 암호문의 구분자 */
+	public static final char KEY_ID_SEPARATOR = '$';
+
+	/** Key ID 최대 길이 */
+	public static final int MAX_KEY_ID_LENGTH = 16;
+
+	/** Key ID 형식 */
+	private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.-]{1," + MAX_KEY_ID_LENGTH + "}");
+
+	/** 암호화 알고리즘 (null이면 AES256Crypto 기본값) */
+	private final String cipherAlgorithm;
+
+	/** Key 목록과 활성 Key (교체시 새 상태로 바꿈) */
+	private final AtomicReference<KeyringState> state = new AtomicReference<KeyringState>(new KeyringState(Collections.<String, AES256Crypto>emptyMap(), null));
+
+	/** Envelope가 없는 기존 암호문을 복호화할 Key ID (null이면 활성 Key) */
+	private volatile String legacyKeyId = null;
+
+	public AES256CryptoKeyring() {
+		this(null);
+	}
+
+	/**
+	 * 생성자
+	 * @param cipherAlgorithm secretKey로 Key를 등록할때 사용할 알고리즘 (null이면 AES256Crypto 기본값)
+	 */
+	public AES256CryptoKeyring(String cipherAlgorithm) {
+		this.cipherAlgorithm = cipherAlgorithm;
+	}
+
+	/**
+	 * Key 등록 (활성 Key가 없으면 활성화)
+	 * @param keyId Key ID ([A-Za-z0-9_.-], 최대 16자)
+	 * @param secretKey 암호화 키
+	 */
+	public void addKey(String keyId, String secretKey) {
+		addKey(keyId, createCrypto(secretKey));
+	}
+
+	/**
+	 * Key 등록 (활성 Key가 없으면 활성화)
+	 * @param keyId Key ID ([A-Za-z0-9_.-], 최대 16자)
+	 * @param crypto Key의 암호화 처리기
+	 */
+	public void addKey(String keyId, AES256Crypto crypto) {
+		putKey(keyId, crypto, false);
+	}
+
+	/**
+	 * Key를 등록하고 활성 Key로 교체 (이후 암호화는 새 Key, 이전 Key의 암호문은 계속 복호화)
+	 * @param keyId Key ID ([A-Za-z0-9_.-], 최대 16자)
+	 * @param secretKey 암호화 키
+	 */
+	public void rotate(String keyId, String secretKey) {
+		rotate(keyId, createCrypto(secretKey));
+	}
+
+	/**
+	 * Key를 등록하고 활성 Key로 교체 (이후 암호화는 새 Key, 이전 Key의 암호문은 계속 복호화)
+	 * @param keyId Key ID ([A-Za-z0-9_.-], 최대 16자)
+	 * @param crypto Key의 암호화 처리기
+	 */
+	public void rotate(String keyId, AES256Crypto crypto) {
+		putKey(keyId, crypto, true);
+		logger.info("AES256CryptoKeyring - active key rotated to '{}'.", keyId);
+	}
+
+	/**
+	 * 등록된 Key를 활성 Key로 교체
+	 * @param keyId Key ID
+	 */
+	public void activate(String keyId) {
+		while (true) {
+			KeyringState current = state.get();
+			if(!current.cryptos.containsKey(keyId)) {
+				throw new IllegalArgumentException("Unknown key id: " + keyId);
+			}
+			if(state.compareAndSet(current, new KeyringState(current.cryptos, keyId))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Key 삭제 (활성 Key는 삭제할 수 없음)
+	 * @param keyId Key ID
+	 */
+	public void removeKey(String keyId) {
+		while (true) {
+			KeyringState current = state.get();
+			if(!current.cryptos.containsKey(keyId)) {
+				return;
+			}
+			if(keyId.equals(current.activeKeyId)) {
+				throw new IllegalArgumentException("Cannot remove the active key: " + keyId);
+			}
+			Map<String, AES256Crypto> cryptos = new LinkedHashMap<String, AES256Crypto>(current.cryptos);
+			cryptos.remove(keyId);
+			if(state.compareAndSet(current, new KeyringState(cryptos, current.activeKeyId))) {
+				return;
+			}
+		}
+	}
+
+	private void putKey(String keyId, AES256Crypto crypto, boolean activate) {
+		if(keyId == null || !KEY_ID_PATTERN.matcher(keyId).matches()) {
+			throw new IllegalArgumentException("Invalid key id: " + keyId);
+		}
+		if(crypto == null) {
+			throw new IllegalArgumentException("crypto parameter cannot be null.");
+		}
+		while (true) {
+			KeyringState current = state.get();
+			Map<String, AES256Crypto> cryptos = new LinkedHashMap<String, AES256Crypto>(current.cryptos);
+			cryptos.put(keyId, crypto);
+			String activeKeyId = activate || current.activeKeyId == null ? keyId : current.activeKeyId;
+			if(state.compareAndSet(current, new KeyringState(cryptos, activeKeyId))) {
+				return;
+			}
+		}
+	}
+
+	private AES256Crypto createCrypto(String secretKey) {
+		if(StringUtils.isEmpty(cipherAlgorithm)) {
+			return new AES256Crypto(secretKey);
+		}
+		return new AES256Crypto(cipherAlgorithm, secretKey);
+	}
+
+	/**
+	 * Key 목록 설정 (Spring Bean 설정용, 기존 목록에 추가)
+	 * @param keys Key ID - 암호화 키
+	 */
+	public void setKeys(Map<String, String> keys) {
+		for (Map.Entry<String, String> entry : keys.entrySet()) {
+			addKey(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * 활성 Key 설정 (Spring Bean 설정용)
+	 * @param activeKeyId Key ID
+	 */
+	public void setActiveKeyId(String activeKeyId) {
+		activate(activeKeyId);
+	}
+
+	public String getActiveKeyId() {
+		return state.get().activeKeyId;
+	}
+
+	public String getLegacyKeyId() {
+		return legacyKeyId;
+	}
+
+	/**
+	 * Envelope가 없는 기존 암호문을 복호화할 Key ID
+	 * @param legacyKeyId Key ID (null이면 활성 Key)
+	 */
+	public void setLegacyKeyId(String legacyKeyId) {
+		this.legacyKeyId = legacyKeyId;
+	}
+
+	/**
+	 * 등록된 Key ID 목록
+	 * @return Key ID 목록
+	 */
+	public Set<String> getKeyIds() {
+		return state.get().cryptos.keySet();
+	}
+
+	/**
+	 * 활성 Key의 암호화 처리기
+	 * @return 암호화 처리기 (등록된 Key가 없으면 null)
+	 */
+	public AES256Crypto getActiveCrypto() {
+		return state.get().activeCrypto;
+	}
+
+	/**
+	 * Key ID의 암호화 처리기
+	 * @param keyId Key ID
+	 * @return 암호화 처리기 (없으면 null)
+	 */
+	public AES256Crypto getCrypto(String keyId) {
+		return state.get().cryptos.get(keyId);
+	}
+
+	/**
+	 * Envelope가 없는 기존 암호문의 암호화 처리기
+	 */
+	private AES256Crypto getLegacyCrypto(KeyringState current) {
+		String keyId = this.legacyKeyId;
+		return keyId != null ? current.cryptos.get(keyId) : current.activeCrypto;
+	}
+
+	/**
+	 * 활성 Key로 암호화하여 Key ID Envelope를 붙인 Base64 문자열 획득
+	 * @param plainString plain String value
+	 * @return String (실패시 null)
+	 */
+	public String encryptStringToBase64(String plainString) {
+		if(StringUtils.isEmpty(plainString)) {
+			logger.warn("encryptStringToBase64 FAILED. -> plainString is empty.");
+			return null;
+		}
+		KeyringState current = state.get();
+		if(current.activeCrypto == null) {
+			logger.warn("encryptStringToBase64 FAILED. -> active key is not set.");
+			return null;
+		}
+		byte[] cipherBytes = current.activeCrypto.encryptString(plainString);
+		if(cipherBytes == null) {
+			return null;
+		}
+		return current.envelope + (current.activeCrypto.isGcmMode() ? AES256Crypto.ENVELOPE_GCM_HEADER : "")
+				+ Base64.encodeBase64String(cipherBytes);
+	}
+
+	/**
+	 * Key ID Envelope의 Key로 Base64 암호문을 복호화
+	 * @param cipherBase64String chiper base64 string
+	 * @return String (실패시 null)
+	 */
+	public String decryptBase64String(String cipherBase64String) {
+		if(StringUtils.isEmpty(cipherBase64String)) {
+			logger.warn("decryptBase64String FAILED -> cipherBase64String is empty.");
+			return null;
+		}
+		KeyringState current = state.get();
+		int separator = indexOfSeparator(cipherBase64String);
+		AES256Crypto crypto = separator < 0 ? getLegacyCrypto(current) : current.cryptos.get(cipherBase64String.substring(0, separator));
+		if(crypto == null) {
+			logger.warn("decryptBase64String FAILED -> unknown key id. cipherBase64String: {}", cipherBase64String);
+			return null;
+		}
+		return crypto.decryptBase64String(cipherBase64String.substring(separator + 1));
+	}
+
+	/**
+	 * Key ID Envelope의 Key로 Base64 암호문을 복호화한 바이트배열로 획득 (공백을 제거하지 않음)
+	 * @param cipherBase64String chiper base64 string
+	 * @return byte[] (실패시 null)
+	 */
+	public byte[] decryptBase64StringToBytes(String cipherBase64String) {
+		if(StringUtils.isEmpty(cipherBase64String)) {
+			logger.warn("decryptBase64StringToBytes FAILED -> cipherBase64String is empty.");
+			return null;
+		}
+		KeyringState current = state.get();
+		int separator = indexOfSeparator(cipherBase64String);
+		AES256Crypto crypto = separator < 0 ? getLegacyCrypto(current) : current.cryptos.get(cipherBase64String.substring(0, separator));
+		if(crypto == null) {
+			logger.warn("decryptBase64StringToBytes FAILED -> unknown key id.");
+			return null;
+		}
+		return crypto.decryptBase64StringToBytes(cipherBase64String.substring(separator + 1));
+	}
+
+	/**
+	 * 활성 Key로 바이트배열을 암호화하여 Key ID Envelope를 붙인 Base64 문자열 획득 (Base64 부분에는 GCM 헤더를 붙이지 않음)
+	 * @param plainBytes plain bytes data
+	 * @return String (실패시 null)
+	 */
+	public String encryptBytesToBase64(byte[] plainBytes) {
+		KeyringState current = state.get();
+		if(current.activeCrypto == null) {
+			logger.warn("encryptBytesToBase64 FAILED. -> active key is not set.");
+			return null;
+		}
+		byte[] cipherBytes = current.activeCrypto.encryptBytes(plainBytes);
+		if(cipherBytes == null) {
+			return null;
+		}
+		return current.envelope + Base64.encodeBase64String(cipherBytes);
+	}
+
+	/**
+	 * Key ID Envelope의 Key로 encryptBytesToBase64의 암호문을 복호화
+	 * @param cipherBase64String chiper base64 string
+	 * @return byte[] (실패시 null)
+	 */
+	public byte[] decryptBase64ToBytes(String cipherBase64String) {
+		if(StringUtils.isEmpty(cipherBase64String)) {
+			logger.warn("decryptBase64ToBytes FAILED -> cipherBase64String is empty.");
+			return null;
+		}
+		KeyringState current = state.get();
+		int separator = indexOfSeparator(cipherBase64String);
+		AES256Crypto crypto = separator < 0 ? getLegacyCrypto(current) : current.cryptos.get(cipherBase64String.substring(0, separator));
+		if(crypto == null) {
+			logger.warn("decryptBase64ToBytes FAILED -> unknown key id. cipherBase64String: {}", cipherBase64String);
+			return null;
+		}
+		return crypto.decryptToBytes(Base64.decodeBase64(cipherBase64String.substring(separator + 1)));
+	}
+
+	/**
+	 * 주어진 OutputStream에 Key ID Envelope를 출력하고 활성 Key로 암호화하는 OutputStream 생성 (Base64Encoding 적용)
+	 * @param os output stream
+	 * @return OutputStream
+	 */
+	public OutputStream getEncryptChiperOutputStream(OutputStream os) {
+		if(os == null) {
+			throw new IllegalArgumentException("OutputStream 'os' parameter cannot be null.");
+		}
+		KeyringState current = state.get();
+		if(current.activeCrypto == null) {
+			throw new BHiveRuntimeException("FAILED TO CREATE ENCRYPT OUTPUTSTREAM. active key is not set.");
+		}
+		try {
+			os.write(current.envelopeBytes);
+		} catch (IOException ex) {
+			throw new BHiveRuntimeException("FAILED TO CREATE ENCRYPT OUTPUTSTREAM.", ex);
+		}
+		return current.activeCrypto.getEncryptChiperOutputStream(os, true);
+	}
+
+	/**
+	 * 주어진 InputStream의 Key ID Envelope를 읽어 해당 Key로 복호화하는 InputStream 생성 (Base64Decoding 적용)
+	 * @param is input stream
+	 * @return inputsteream
+	 */
+	public InputStream getDecryptChiperInputStream(InputStream is) {
+		if(is == null) {
+			throw new IllegalArgumentException("InputStream 'is' parameter cannot be null.");
+		}
+		KeyringState current = state.get();
+		AES256Crypto crypto;
+		PushbackInputStream pushbackInputStream = new PushbackInputStream(is, MAX_KEY_ID_LENGTH + 1);
+		try {
+			String keyId = readKeyId(pushbackInputStream);
+			crypto = keyId == null ? getLegacyCrypto(current) : current.cryptos.get(keyId);
+			if(crypto == null) {
+				throw new BHiveRuntimeException("FAILED TO CREATE DECRYPT INPUTSTREAM. unknown key id: " + keyId);
+			}
+		} catch (IOException ex) {
+			throw new BHiveRuntimeException("FAILED TO CREATE DECRYPT INPUTSTREAM.", ex);
+		}
+		return crypto.getDecryptChiperInputStream(pushbackInputStream, true);
+	}
+
+	/**
+	 * Stream 앞의 Key ID Envelope 읽기 (Envelope가 없으면 읽은 바이트를 되돌림)
+	 * @return Key ID (Envelope가 없으면 null)
+	 */
+	private static String readKeyId(PushbackInputStream pushbackInputStream) throws IOException {
+		byte[] header = new byte[MAX_KEY_ID_LENGTH + 1];
+		int length = 0;
+		while (length < header.length) {
+			int b = pushbackInputStream.read();
+			if(b == -1) {
+				break;
+			}
+			header[length++] = (byte)b;
+			if(b == KEY_ID_SEPARATOR && length > 1) {
+				return new String(header, 0, length - 1, UTF8);
+			}
+		}
+		if(length > 0) {
+			pushbackInputStream.unread(header, 0, length);
+		}
+		return null;
+	}
+
+	/**
+	 * 암호문이 Key ID Envelope로 시작하는지 확인
+	 * @param cipherString 암호문
+	 * @return Envelope가 있으면 true
+	 */
+	public static boolean hasKeyId(String cipherString) {
+		return cipherString != null && indexOfSeparator(cipherString) > 0;
+	}
+
+	/**
+	 * 문자열 앞의 Key ID 구분자 위치
+	 * @return 위치 (Envelope가 없으면 -1)
+	 */
+	private static int indexOfSeparator(String cipherString) {
+		int limit = Math.min(cipherString.length(), MAX_KEY_ID_LENGTH + 1);
+		for (int i = 1; i < limit; i++) {
+			if(cipherString.charAt(i) == KEY_ID_SEPARATOR) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Keyring 상태 (불변, Key 변경시 새로 생성)
+	 */
+	private static final class KeyringState {
+		final Map<String, AES256Crypto> cryptos;
+		final String activeKeyId;
+		final AES256Crypto activeCrypto;
+		final String envelope;
+		final byte[] envelopeBytes;
+
+		KeyringState(Map<String, AES256Crypto> cryptos, String activeKeyId) {
+			this.cryptos = Collections.unmodifiableMap(cryptos);
+			this.activeKeyId = activeKeyId;
+			this.activeCrypto = activeKeyId != null ? cryptos.get(activeKeyId) : null;
+			this.envelope = activeKeyId != null ? activeKeyId + KEY_ID_SEPARATOR : "";
+			this.envelopeBytes = envelope.getBytes(UTF8);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package blue.hive.io;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * maxLength 바이트까지만 저장하고 나머지는 버리는 ByteArrayOutputStream
+ *
+ * 로그 출력용 Tee 복사본의 크기를 제한하기 위해 사용한다. 버린 바이트가 있으면 isTruncated가 true이다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveBoundedByteArrayOutputStream extends ByteArrayOutputStream {
+
+	/** 저장할 최대 바이트 수 */
+	private final int maxLength;
+
+	/** 버린 바이트 유무 */
+	private boolean truncated = false;
+
+	/**
+	 * 생성자
+	 * @param maxLength 저장할 최대 바이트 수
+	 */
+	public BHiveBoundedByteArrayOutputStream(int maxLength) {
+		super(Math.max(0, Math.min(maxLength, 1024)));
+		this.maxLength = Math.max(0, maxLength);
+	}
+
+	@Override
+	public synchronized void write(int b) {
+		if(count >= maxLength) {
+			truncated = true;
+			return;
+		}
+		super.write(b);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) {
+		int remaining = maxLength - count;
+		if(len > remaining) {
+			truncated = true;
+			len = Math.max(0, remaining);
+		}
+		if(len > 0) {
+			super.write(b, off, len);
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		super.reset();
+		truncated = false;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	public synchronized boolean isTruncated() {
+		return truncated;
+	}
+}
@@ -18,7 +18,16 @@ public class BHiveTeeInputStreamWrapper {
 	ByteArrayOutputStream baos;
 
 	public BHiveTeeInputStreamWrapper(InputStream inputStream) {
-		baos = new ByteArrayOutputStream();
+		this(inputStream, -1);
+	}
+
+	/**
+	 * 생성자
+	 * @param inputStream 대상
+	 * @param maxCaptureLength 복사할 최대 바이트 수 (음수이면 제한 없음)
+	 */
+	public BHiveTeeInputStreamWrapper(InputStream inputStream, int maxCaptureLength) {
+		baos = maxCaptureLength < 0 ? new ByteArrayOutputStream() : new BHiveBoundedByteArrayOutputStream(maxCaptureLength);
 		this.teeStream = new TeeInputStream(inputStream, baos);
 	}
 
@@ -41,4 +50,11 @@ public class BHiveTeeInputStreamWrapper {
 		return StringUtils.trimTrailingWhitespace(this.baos.toString("UTF-8"));
 	}
 
+	/**
+	 * @return 최대 복사 크기를 넘어 입력내용 일부를 버렸으면 true
+	 */
+	public boolean isTruncated() {
+		return baos instanceof BHiveBoundedByteArrayOutputStream && ((BHiveBoundedByteArrayOutputStream)baos).isTruncated();
+	}
+
 }
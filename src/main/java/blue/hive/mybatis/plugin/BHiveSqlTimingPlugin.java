@@ -0,0 +1,53 @@
+package blue.hive.mybatis.plugin;
+
+import java.util.Properties;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import blue.hive.spring.web.log.BHiveRequestTiming;
+
+/**
+ * MyBatis SQL 실행시간을 요청별 처리시간(BHiveRequestTiming)의 sql 구간으로 기록하는 Plugin
+ *
+ * 요청 처리중(BHiveServerTimingFilter)이 아니면 대상만 호출한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+@Intercepts({
+	@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+	@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+	@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class })
+})
+public class BHiveSqlTimingPlugin implements Interceptor {
+
+	public Object intercept(Invocation invocation) throws Throwable {
+		BHiveRequestTiming timing = BHiveRequestTiming.current();
+		if(timing == null) {
+			return invocation.proceed();
+		}
+		timing.enter(BHiveRequestTiming.Segment.SQL);
+		try {
+			return invocation.proceed();
+		} finally {
+			timing.exit(BHiveRequestTiming.Segment.SQL);
+		}
+	}
+
+	public Object plugin(Object target) {
+		return Plugin.wrap(target, this);
+	}
+
+	public void setProperties(Properties properties) {
+	}
+
+}
@@ -0,0 +1,84 @@
+package blue.hive.mybatis.support;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import blue.hive.exception.BHiveRuntimeException;
+import blue.hive.spring.web.view.BHiveExcelDataSource;
+
+/**
+ * MyBatis ResultHandler 기반 Excel/CSV 출력 데이터 공급자
+ *
+ * JDBC 커서에서 읽어온 Row를 바로 Excel Sheet/CSV Writer로 전달하므로 전체 결과를 List로 적재하지 않는다.
+ * 실제 Streaming 조회를 위해 Mapper 구문에 fetchSize를 지정해야 한다. (MySQL: fetchSize="-2147483648")
+ *
+ * <pre>
+ * [사용방법 - DAO]
+ * public BHiveExcelDataSource selectUserListForExcel(SearchMap searchMap) {
+ *     return selectExcelDataSource("persistence.UserDAO.selectUserList", searchMap);
+ * }
+ * [사용방법 - Controller]
+ * BHiveExcelCommand command = new BHiveExcelCommand(userDAO.selectUserListForExcel(searchMap), UserVO.class, messageSource);
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveMyBatisExcelDataSource implements BHiveExcelDataSource {
+
+	/** 조회를 수행할 DAO */
+	private final BHiveSqlSessionDaoSupport dao;
+
+	/** 실행할 MyBatis Statement */
+	private final String statement;
+
+	/** Statement 파라미터 */
+	private final Object parameter;
+
+	/**
+	 * 생성자
+	 * @param dao 조회를 수행할 DAO
+	 * @param statement 실행할 MyBatis Statement
+	 * @param parameter Statement 파라미터
+	 */
+	public BHiveMyBatisExcelDataSource(BHiveSqlSessionDaoSupport dao, String statement, Object parameter) {
+		this.dao = dao;
+		this.statement = statement;
+		this.parameter = parameter;
+	}
+
+	public void fetch(final RowHandler handler) throws Exception {
+		try {
+			dao.select(statement, parameter, new ResultHandler<Object>() {
+				public void handleResult(ResultContext<? extends Object> resultContext) {
+					try {
+						handler.handleRow(resultContext.getResultObject());
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new RowHandlerException(e);
+					}
+				}
+			});
+		} catch (RuntimeException e) {
+			//MyBatis/Spring이 감싼 예외에서 ResultHandler 내부의 Checked Exception을 찾아 원래대로 전달
+			for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if(cause instanceof RowHandlerException) {
+					throw (Exception)cause.getCause();
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * ResultHandler 내부에서 발생한 Checked Exception 전달용
+	 */
+	private static class RowHandlerException extends BHiveRuntimeException {
+
+		private static final long serialVersionUID = 3137405982164302261L;
+
+		public RowHandlerException(Throwable cause) {
+			super(cause);
+		}
+	}
+}
@@ -19,6 +19,9 @@ import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import blue.hive.spring.web.view.BHiveExcelDataSource;
+import blue.hive.util.BHiveVOBinder;
+
 /**
  * SqlSessionDaoSupport를 참조하여 sqlSession이 Autowired되게 만든 기본 DAO 클래스
  * 
@@ -183,6 +186,26 @@ public class BHiveSqlSessionDaoSupport implements InitializingBean {
 		return sqlSession.selectList(statement, parameter, rowBounds);
 	}
 
+	/**
+	 * Retrieve a list of result maps from the statement key and parameter
+	 * and bind each map to the given VO class with a compiled
+	 * {@code BHiveVOBinder}.
+	 * 
+	 * @param <E>
+	 *            the returned list element type
+	 * @param statement
+	 *            Unique identifier matching the statement to use.
+	 * @param parameter
+	 *            A parameter object to pass to the statement.
+	 * @param voClass
+	 *            VO class to bind each result map to
+	 * @return List of bound VO
+	 */
+	protected <E> List<E> selectListAs(String statement, Object parameter, Class<E> voClass) {
+		List<Map<String, Object>> mapList = selectList(statement, parameter);
+		return BHiveVOBinder.forClass(voClass).bindList(mapList);
+	}
+
 	/**
 	 * The selectMap is a special case in that it is designed to convert a list
 	 * of results into a Map based on one of the properties in the resulting
@@ -298,6 +321,20 @@ public class BHiveSqlSessionDaoSupport implements InitializingBean {
 	}
 	
 
+	/**
+	 * Create an Excel/CSV data source that streams rows of the statement
+	 * through a {@code ResultHandler} instead of loading the whole list.
+	 * 
+	 * @param statement
+	 *            Unique identifier matching the statement to use.
+	 * @param parameter
+	 *            A parameter object to pass to the statement.
+	 * @return data source for {@code BHiveExcelCommand}
+	 */
+	protected BHiveExcelDataSource selectExcelDataSource(String statement, Object parameter) {
+		return new BHiveMyBatisExcelDataSource(this, statement, parameter);
+	}
+
 	/**
 	 * Execute an insert statement.
 	 * 
@@ -0,0 +1,225 @@
+package blue.hive.mybatis.typehandler;
+
+import java.nio.charset.Charset;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import blue.hive.crypto.AES256Crypto;
+import blue.hive.crypto.AES256CryptoHolder;
+import blue.hive.crypto.AES256CryptoKeyring;
+
+/**
+ * MyBatis Type Handler
+ *
+ * Java String(평문) - DB 암호문(Base64) 컬럼
+ *
+ * 파라미터는 암호화하여 저장하고 조회 결과는 복호화한다. 암호화 처리기는 AES256CryptoHolder에서 획득하며
+ * Keyring이 설정되어 있으면 활성 Key로 암호화하고 Key ID Envelope로 복호화할 Key를 찾는다. (AES256Crypto의 Cipher Pool 사용)
+ * 빈 문자열은 암호화하지 않고 복호화한 값은 공백을 제거하지 않으며(앞뒤 공백 보존), 암복호화에 실패하면 평문을 저장하거나 null을 반환하지 않고 SQLException을 던진다.
+ *
+ * 대량 조회는 typeHandler 없이 암호문으로 조회한 후 decryptAll로 ForkJoinPool에서 병렬 복호화할 수 있다.
+ *
+ * [설정방법]
+ * 모든 String에 적용되지 않도록 typeHandlersPackage로 등록되지 않으며(@MappedJdbcTypes 비움) 컬럼별로 지정한다.
+ * #{juminNo, typeHandler=blue.hive.mybatis.typehandler.BHiveEncryptedStringTypeHandler}
+ * &lt;result column="JUMIN_NO" property="juminNo" typeHandler="blue.hive.mybatis.typehandler.BHiveEncryptedStringTypeHandler"/&gt;
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+@MappedJdbcTypes({})
+public class BHiveEncryptedStringTypeHandler extends BaseTypeHandler<String> {
+
+	private static Logger logger = LoggerFactory.getLogger(BHiveEncryptedStringTypeHandler.class);
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** decryptAll에서 병렬 처리할 최소 건수 (미만이면 호출 쓰레드에서 처리) */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
+	/** 병렬 복호화 작업 하나가 처리할 건수 */
+	private static final int BATCH_SIZE = 256;
+
+	/**
+	 * 평문을 암호화 (Keyring이 있으면 Key ID Envelope 포함)
+	 * @param plainString 평문
+	 * @return 암호문(Base64)
+	 * @throws SQLException 암호화 처리기가 없거나 암호화 실패
+	 */
+	public static String encrypt(String plainString) throws SQLException {
+		if(plainString == null || plainString.isEmpty()) {
+			return plainString;
+		}
+		String cipherString;
+		AES256CryptoKeyring keyring = AES256CryptoHolder.getKeyring();
+		if(keyring != null && keyring.getActiveCrypto() != null) {
+			cipherString = keyring.encryptStringToBase64(plainString);
+		} else {
+			AES256Crypto crypto = getCrypto();
+			byte[] cipherBytes = crypto.encryptString(plainString);
+			cipherString = cipherBytes == null ? null
+					: (crypto.isGcmMode() ? AES256Crypto.ENVELOPE_GCM_HEADER : "") + Base64.encodeBase64String(cipherBytes);
+		}
+		if(cipherString == null) {
+			throw new SQLException("FAILED TO ENCRYPT COLUMN VALUE.");
+		}
+		if(logger.isTraceEnabled()) {
+			logger.trace("encrypt -> \"" + cipherString + "\"");
+		}
+		return cipherString;
+	}
+
+	/**
+	 * 암호문을 복호화 (Keyring이 있으면 Key ID Envelope의 Key 사용)
+	 * @param cipherString 암호문(Base64)
+	 * @return 평문
+	 * @throws SQLException 암호화 처리기가 없거나 복호화 실패
+	 */
+	public static String decrypt(String cipherString) throws SQLException {
+		if(cipherString == null || cipherString.isEmpty()) {
+			return cipherString;
+		}
+		//decryptBase64String은 앞뒤 공백을 제거하므로 바이트배열로 복호화하여 그대로 문자열로 변환
+		byte[] plainBytes;
+		AES256CryptoKeyring keyring = AES256CryptoHolder.getKeyring();
+		if(keyring != null) {
+			plainBytes = keyring.decryptBase64StringToBytes(cipherString);
+		} else {
+			plainBytes = getCrypto().decryptBase64StringToBytes(cipherString);
+		}
+		if(plainBytes == null) {
+			throw new SQLException("FAILED TO DECRYPT COLUMN VALUE.");
+		}
+		return new String(plainBytes, UTF8);
+	}
+
+	private static AES256Crypto getCrypto() throws SQLException {
+		AES256Crypto crypto = AES256CryptoHolder.getCrypto();
+		if(crypto == null) {
+			throw new SQLException("AES256CryptoHolder crypto is not set.");
+		}
+		return crypto;
+	}
+
+	/**
+	 * 암호문 목록을 복호화 (DEFAULT_PARALLEL_THRESHOLD건 이상이면 ForkJoinPool.commonPool에서 병렬 처리)
+	 * @param cipherStrings 암호문 목록
+	 * @return 같은 순서의 평문 목록
+	 * @throws SQLException 복호화 실패
+	 */
+	public static List<String> decryptAll(List<String> cipherStrings) throws SQLException {
+		return decryptAll(cipherStrings, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * 암호문 목록을 복호화 (parallelThreshold건 이상이면 주어진 ForkJoinPool에서 병렬 처리)
+	 *
+	 * 작업마다 BATCH_SIZE건씩 처리하며, Cipher는 AES256Crypto의 Pool에서 쓰레드별로 꺼내 사용한다.
+	 * @param cipherStrings 암호문 목록
+	 * @param pool 병렬 처리할 ForkJoinPool
+	 * @param parallelThreshold 병렬 처리할 최소 건수
+	 * @return 같은 순서의 평문 목록
+	 * @throws SQLException 복호화 실패
+	 */
+	public static List<String> decryptAll(List<String> cipherStrings, ForkJoinPool pool, int parallelThreshold) throws SQLException {
+		if(cipherStrings == null) {
+			return null;
+		}
+		String[] sources = cipherStrings.toArray(new String[cipherStrings.size()]);
+		String[] results = new String[sources.length];
+		if(sources.length < parallelThreshold || pool == null) {
+			for (int i = 0; i < sources.length; i++) {
+				results[i] = decrypt(sources[i]);
+			}
+		} else {
+			try {
+				pool.invoke(new DecryptAction(sources, results, 0, sources.length));
+			} catch (DecryptException ex) {
+				throw ex.getCause();
+			}
+		}
+		return new ArrayList<String>(Arrays.asList(results));
+	}
+
+	@Override
+	public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+		ps.setString(i, encrypt(parameter));
+	}
+
+	@Override
+	public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+		return decrypt(rs.getString(columnName));
+	}
+
+	@Override
+	public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+		return decrypt(rs.getString(columnIndex));
+	}
+
+	@Override
+	public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+		return decrypt(cs.getString(columnIndex));
+	}
+
+	/**
+	 * 범위를 BATCH_SIZE 이하로 나눠 복호화하는 작업
+	 */
+	@SuppressWarnings("serial")
+	private static class DecryptAction extends RecursiveAction {
+		private final String[] sources;
+		private final String[] results;
+		private final int from;
+		private final int to;
+
+		DecryptAction(String[] sources, String[] results, int from, int to) {
+			this.sources = sources;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= BATCH_SIZE) {
+				try {
+					for (int i = from; i < to; i++) {
+						results[i] = decrypt(sources[i]);
+					}
+				} catch (SQLException ex) {
+					throw new DecryptException(ex);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new DecryptAction(sources, results, from, middle), new DecryptAction(sources, results, middle, to));
+		}
+	}
+
+	/**
+	 * 병렬 작업의 복호화 실패 전달용
+	 */
+	@SuppressWarnings("serial")
+	private static class DecryptException extends RuntimeException {
+		DecryptException(SQLException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException)super.getCause();
+		}
+	}
+}
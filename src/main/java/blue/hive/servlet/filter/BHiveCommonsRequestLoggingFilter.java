@@ -2,22 +2,33 @@ package blue.hive.servlet.filter;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
-import org.springframework.util.AntPathMatcher;
+import org.slf4j.MDC;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 
+import blue.hive.exception.BHiveRuntimeException;
+import blue.hive.servlet.filter.log.BHiveAsyncLogDispatcher;
+import blue.hive.servlet.filter.log.BHiveRequestLogEvent;
 import blue.hive.servlet.filter.wrap.BHiveTeeHttpServletResponse;
 import blue.hive.util.BHiveHostingUtil;
+import blue.hive.util.BHivePathPatternIndex;
 
 /**
  * Spring의 CommonsRequestLoggingFilter를
@@ -26,12 +37,30 @@ import blue.hive.util.BHiveHostingUtil;
  * Servlet Filter Matching 보다 자세한 AntPathMatcher지원.
  * Response Payload Logging 추가
  *
+ * 요청/응답 Payload는 maxPayloadLength 바이트까지만 복사하며
+ * 응답은 responsePayloadContentTypes에 해당하는 Content-Type만 복사한다.
+ * samplingRates(ex: /api/**=0.1,/admin/**=1)로 경로별 로깅 비율을 지정할 수 있다. (지정되지 않은 경로는 defaultSamplingRate)
+ * 로깅하지 않는 요청은 요청/응답을 Wrapping하지 않는다.
+ * 경로 패턴은 BHivePathPatternIndex로 미리 컴파일하여 검사한다.
+ *
+ * asyncLogging(기본 true)이면 요청 쓰레드는 로그 이벤트(BHiveRequestLogEvent)만 만들어 Ring Buffer에 넣고
+ * 메시지 구성과 출력은 전용 출력 쓰레드에서 처리한다. Buffer가 가득 차면 로그를 버리고 버린 수를 센다.
+ * 출력 쓰레드는 이벤트에 복사된 요청 쓰레드의 MDC를 설정한 후 출력하고 출력 후 MDC를 비운다.
+ * 비동기 출력기의 등록/버림/출력/오류/대기 건수는 Filter 초기화시 objectName(BHiveRequestLogMXBean)으로 Platform MBeanServer에 등록하고
+ * destroy에서 등록 해제한다. (Filter가 여러개이면 objectName init-param을 다르게 지정)
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilter {
 
 	private String antPatterns = "";
 	private List<String> patterns = new ArrayList<String>();
+	private BHivePathPatternIndex patternIndex = new BHivePathPatternIndex(null);
+
+	/** 로깅하지 않는 정적 리소스 경로 (대소문자 구분 안함) */
+	private final BHivePathPatternIndex staticResourceIndex = new BHivePathPatternIndex(
+			Arrays.asList("/**/*.js", "/**/*.css", "/**/*.png", "/**/*.jpg", "/**/*.gif", "/**/*.map"),
+			BHivePathPatternIndex.DEFAULT_CACHE_SIZE, false);
 
 	private String beforeMessagePrefix = DEFAULT_BEFORE_MESSAGE_PREFIX;
 	private String beforeMessageSuffix = DEFAULT_BEFORE_MESSAGE_SUFFIX;
@@ -40,6 +69,39 @@ public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilte
 
 	private boolean includeResponsePayload = false;
 
+	/** 응답 Payload를 로깅할 Content-Type (포함 문자열, 콤마 구분) */
+	private String responsePayloadContentTypes = "json";
+	private String[] responseContentTypes = new String[] { "json" };
+
+	/** 경로별 로깅 비율 (ant pattern=0~1, 콤마 구분) */
+	private String samplingRates = "";
+	private BHivePathPatternIndex samplingIndex = new BHivePathPatternIndex(null);
+	private double[] samplingRateValues = new double[0];
+
+	/** 경로별 로깅 비율에 해당하지 않는 경로의 로깅 비율 (0~1) */
+	private double defaultSamplingRate = 1.0;
+
+	/** 비동기 로그 출력 여부 */
+	private boolean asyncLogging = true;
+
+	/** 비동기 로그 Ring Buffer 크기 */
+	private int asyncBufferSize = 8192;
+
+	/** 비동기 로그 출력기 */
+	private volatile BHiveAsyncLogDispatcher<BHiveRequestLogEvent> logDispatcher;
+
+	/** 기본 JMX ObjectName */
+	public static final String DEFAULT_OBJECT_NAME = "blue.hive:type=RequestLog";
+
+	/** 비동기 로그 출력 통계 JMX ObjectName */
+	private String objectName = DEFAULT_OBJECT_NAME;
+
+	/** 최초 요청의 로깅 결정을 Async Dispatch에서 재사용하기 위한 Request Attribute */
+	private static final String SHOULD_LOG_ATTRIBUTE = BHiveCommonsRequestLoggingFilter.class.getName() + ".SHOULD_LOG";
+
+	/** 요청 시작시각(nanoTime) Request Attribute */
+	private static final String START_TIME_ATTRIBUTE = BHiveCommonsRequestLoggingFilter.class.getName() + ".START_TIME";
+
 	public String getAntPatterns() {
 		return antPatterns;
 	}
@@ -71,6 +133,75 @@ public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilte
 		this.includeResponsePayload = includeResponsePayload;
 	}
 
+	public String getResponsePayloadContentTypes() {
+		return responsePayloadContentTypes;
+	}
+	public void setResponsePayloadContentTypes(String responsePayloadContentTypes) {
+		this.responsePayloadContentTypes = responsePayloadContentTypes;
+		this.responseContentTypes = StringUtils.isEmpty(responsePayloadContentTypes) ? null : StringUtils.tokenizeToStringArray(responsePayloadContentTypes, ",");
+	}
+
+	public String getSamplingRates() {
+		return samplingRates;
+	}
+	public void setSamplingRates(String samplingRates) {
+		List<String> rulePatterns = new ArrayList<String>();
+		List<Double> rates = new ArrayList<Double>();
+		if(!StringUtils.isEmpty(samplingRates)) {
+			for (String token : StringUtils.tokenizeToStringArray(samplingRates, ",")) {
+				int index = token.lastIndexOf('=');
+				if(index <= 0) {
+					throw new IllegalArgumentException("Invalid samplingRates: " + token);
+				}
+				rulePatterns.add(token.substring(0, index).trim());
+				rates.add(Double.valueOf(token.substring(index + 1).trim()));
+			}
+		}
+		double[] rateValues = new double[rates.size()];
+		for (int i = 0; i < rateValues.length; i++) {
+			rateValues[i] = rates.get(i).doubleValue();
+		}
+		this.samplingRates = samplingRates;
+		this.samplingRateValues = rateValues;
+		this.samplingIndex = new BHivePathPatternIndex(rulePatterns);
+	}
+
+	public double getDefaultSamplingRate() {
+		return defaultSamplingRate;
+	}
+	public void setDefaultSamplingRate(double defaultSamplingRate) {
+		this.defaultSamplingRate = defaultSamplingRate;
+	}
+
+	public boolean isAsyncLogging() {
+		return asyncLogging;
+	}
+	public void setAsyncLogging(boolean asyncLogging) {
+		this.asyncLogging = asyncLogging;
+	}
+
+	public int getAsyncBufferSize() {
+		return asyncBufferSize;
+	}
+	public void setAsyncBufferSize(int asyncBufferSize) {
+		this.asyncBufferSize = asyncBufferSize;
+	}
+
+	public String getObjectName() {
+		return objectName;
+	}
+	public void setObjectName(String objectName) {
+		this.objectName = objectName;
+	}
+
+	/**
+	 * 비동기 로그 출력기 (등록/버림/출력 건수 조회용)
+	 * @return 비동기 로그 출력기 (asyncLogging이 아니면 null)
+	 */
+	public BHiveAsyncLogDispatcher<BHiveRequestLogEvent> getLogDispatcher() {
+		return logDispatcher;
+	}
+
 	public BHiveCommonsRequestLoggingFilter() {
 		this.setIncludeClientInfo(true);
 		this.setIncludeQueryString(true);
@@ -94,39 +225,122 @@ public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilte
 				this.patterns.add(pattern);
 			}
 		}
-		logger.debug("###### BHiveCommonsRequestLoggingFilter - patterns: " + this.patterns);
+		this.patternIndex = new BHivePathPatternIndex(this.patterns);
+		String samplingRates = getFilterConfig().getInitParameter("samplingRates");
+		if(!StringUtils.isEmpty(samplingRates)) {
+			setSamplingRates(samplingRates);
+		}
+		String objectName = getFilterConfig().getInitParameter("objectName");
+		if(!StringUtils.isEmpty(objectName)) {
+			this.objectName = objectName;
+		}
+		logger.debug("###### BHiveCommonsRequestLoggingFilter - patterns: " + this.patterns + ", samplingRates: " + this.samplingRates);
+
+		if(this.asyncLogging) {
+			this.logDispatcher = new BHiveAsyncLogDispatcher<BHiveRequestLogEvent>("bhive-request-log", this.asyncBufferSize, new BHiveAsyncLogDispatcher.EventHandler<BHiveRequestLogEvent>() {
+				public void handle(BHiveRequestLogEvent event) {
+					Map<String, String> mdcContext = event.getMdcContext();
+					if (mdcContext != null) {
+						MDC.setContextMap(mdcContext);
+					}
+					try {
+						logger.debug(createMessage(event));
+					}
+					finally {
+						MDC.clear();
+					}
+				}
+			});
+			this.logDispatcher.start();
+			registerMBean();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if(this.logDispatcher != null) {
+			try {
+				unregisterMBean();
+			} finally {
+				this.logDispatcher.stop();
+				this.logDispatcher = null;
+			}
+		}
+		super.destroy();
+	}
+
+	/**
+	 * 비동기 로그 출력기를 Platform MBeanServer에 등록 (BHiveRequestLogMXBean)
+	 */
+	public void registerMBean() {
+		BHiveAsyncLogDispatcher<BHiveRequestLogEvent> dispatcher = this.logDispatcher;
+		if(dispatcher == null || StringUtils.isEmpty(objectName)) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if(!server.isRegistered(name)) {
+				server.registerMBean(dispatcher, name);
+			}
+		} catch (Exception e) {
+			throw new BHiveRuntimeException("Failed to register MBean: " + objectName, e);
+		}
+	}
+
+	/**
+	 * Platform MBeanServer에서 등록 해제
+	 */
+	public void unregisterMBean() {
+		if(StringUtils.isEmpty(objectName)) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (Exception e) {
+			throw new BHiveRuntimeException("Failed to unregister MBean: " + objectName, e);
+		}
 	}
 
 	@Override
 	protected boolean shouldLog(HttpServletRequest request) {
 		if(logger.isDebugEnabled()) {
-			if(this.patterns.size() > 0) {
-				String servletPath = request.getServletPath();
-				AntPathMatcher antPathMatcher = new AntPathMatcher();
-				for (String pattern : this.patterns) {
-					boolean isMatch = antPathMatcher.match(pattern, servletPath);
-					if(isMatch == true) {
-						return true;
-					}
-				}
-			} 
-				
-			String path = request.getServletPath();
-			path = path.toLowerCase();
-			if(path.endsWith(".js") ||
-				path.endsWith(".css") ||
-				path.endsWith(".png") ||
-				path.endsWith(".jpg") ||
-				path.endsWith(".gif") ||
-				path.endsWith(".map")
-				) {
+			String servletPath = request.getServletPath();
+			if(this.patternIndex.matches(servletPath)) {
+				return isSampled(servletPath);
+			}
+			if(this.staticResourceIndex.matches(servletPath)) {
 				return false;
 			}
-			return true; // has no patterns
+			return isSampled(servletPath); // has no patterns
 		}
 		return false; //logger debug disabled
 	}
 
+	/**
+	 * 경로별 로깅 비율에 따라 이번 요청을 로깅할지 결정
+	 * @param servletPath 요청 경로
+	 * @return 로깅하면 true
+	 */
+	protected boolean isSampled(String servletPath) {
+		double rate = this.defaultSamplingRate;
+		int index = this.samplingIndex.indexOf(servletPath);
+		if(index >= 0) {
+			rate = this.samplingRateValues[index];
+		}
+		if(rate >= 1.0) {
+			return true;
+		}
+		if(rate <= 0.0) {
+			return false;
+		}
+		return ThreadLocalRandom.current().nextDouble() < rate;
+	}
+
 	/**
 	 * Writes a log message before the request is processed.
 	 */
@@ -151,76 +365,101 @@ public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilte
 		boolean isFirstRequest = !isAsyncDispatch(request);
 		HttpServletRequest requestToUse = request;
 
-		if (isIncludePayload() && isFirstRequest && !(request instanceof ContentCachingRequestWrapper)) {
-			requestToUse = new ContentCachingRequestWrapper(request);
+		//로깅 여부(Sampling 포함)는 최초 요청에서 한번 결정
+		boolean shouldLog;
+		if (isFirstRequest) {
+			shouldLog = shouldLog(request);
+			request.setAttribute(SHOULD_LOG_ATTRIBUTE, shouldLog);
+			if (shouldLog) {
+				request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+			}
+		} else {
+			shouldLog = Boolean.TRUE.equals(request.getAttribute(SHOULD_LOG_ATTRIBUTE));
+		}
+
+		if (shouldLog && isIncludePayload() && isFirstRequest && !(request instanceof ContentCachingRequestWrapper)) {
+			requestToUse = new ContentCachingRequestWrapper(request, getMaxPayloadLength());
 		}
 
 		//dmkwon start
 		HttpServletResponse responseToUse = response;
-		if (isIncludeResponsePayload() && isFirstRequest && !(response instanceof BHiveTeeHttpServletResponse)) {
-			responseToUse = new BHiveTeeHttpServletResponse(response);
+		if (shouldLog && isIncludeResponsePayload() && isFirstRequest && !(response instanceof BHiveTeeHttpServletResponse)) {
+			responseToUse = new BHiveTeeHttpServletResponse(response, getMaxPayloadLength(), this.responseContentTypes);
 		}
 		//dmkwon end
 
-		boolean shouldLog = shouldLog(requestToUse);
 		if (shouldLog && isFirstRequest) {
-			beforeRequest(requestToUse, getBeforeMessage(requestToUse));
+			logEvent(requestToUse, createEvent(requestToUse, null, BHiveRequestLogEvent.Phase.BEFORE));
 		}
 		try {
 			filterChain.doFilter(requestToUse, responseToUse);
 		}
 		finally {
 			if (shouldLog && !isAsyncStarted(requestToUse)) {
-				afterRequest(requestToUse, getAfterMessage(requestToUse, responseToUse));
+				logEvent(requestToUse, createEvent(requestToUse, responseToUse, BHiveRequestLogEvent.Phase.AFTER));
 			}
 		}
 	}
 
-	private String getBeforeMessage(HttpServletRequest request) throws IOException {
-		return createMessage(request, null, this.beforeMessagePrefix, this.beforeMessageSuffix);
-	}
-
-	private String getAfterMessage(HttpServletRequest request, HttpServletResponse response) throws IOException {
-		return createMessage(request, response, this.afterMessagePrefix, this.afterMessageSuffix);
+	/**
+	 * 로그 이벤트 출력.
+	 * 비동기 출력기가 실행중이면 등록만 하고(가득 차면 버림) 아니면 요청 쓰레드에서 beforeRequest/afterRequest로 출력
+	 * @param request 요청
+	 * @param event 로그 이벤트
+	 */
+	protected void logEvent(HttpServletRequest request, BHiveRequestLogEvent event) {
+		BHiveAsyncLogDispatcher<BHiveRequestLogEvent> dispatcher = this.logDispatcher;
+		if (dispatcher != null && dispatcher.isRunning()) {
+			dispatcher.publish(event);
+			return;
+		}
+		if (event.getPhase() == BHiveRequestLogEvent.Phase.BEFORE) {
+			beforeRequest(request, createMessage(event));
+		} else {
+			afterRequest(request, createMessage(event));
+		}
 	}
 
-	protected String createMessage(HttpServletRequest request, HttpServletResponse response, String prefix, String suffix) throws IOException {
-		StringBuilder msg = new StringBuilder();
-		msg.append(prefix);
-		msg.append("uri: ").append(request.getRequestURI());
+	/**
+	 * 요청/응답에서 로그 이벤트 생성 (요청 쓰레드에서 필드 복사만 수행)
+	 * @param request 요청
+	 * @param response 응답 (BEFORE는 null)
+	 * @param phase 로그 시점
+	 * @return 로그 이벤트
+	 * @throws IOException 응답 Tee 종료 오류
+	 */
+	protected BHiveRequestLogEvent createEvent(HttpServletRequest request, HttpServletResponse response, BHiveRequestLogEvent.Phase phase) throws IOException {
+		BHiveRequestLogEvent event = new BHiveRequestLogEvent(phase);
+		event.setMdcContext(MDC.getCopyOfContextMap());
+		event.setUri(request.getRequestURI());
 		if (isIncludeQueryString()) {
-			if(!StringUtils.isEmpty(request.getQueryString())) {
-				msg.append('?').append(request.getQueryString());
-			}
+			event.setQueryString(request.getQueryString());
 		}
 		if (isIncludeClientInfo()) {
 			//String client = request.getRemoteAddr();
-			String client = BHiveHostingUtil.getClientIP(request);
-			if (StringUtils.hasLength(client)) {
-				msg.append("\r\n#### - client: ").append(client);
-			}
+			event.setClient(BHiveHostingUtil.getClientIP(request));
 			HttpSession session = request.getSession(false);
 			if (session != null) {
-				msg.append("\r\n#### - session: ").append(session.getId());
-			}
-			String user = request.getRemoteUser();
-			if (user != null) {
-				msg.append("\r\n#### - user: ").append(user);
+				event.setSessionId(session.getId());
 			}
+			event.setUser(request.getRemoteUser());
 		}
 		if (isIncludePayload() && request instanceof ContentCachingRequestWrapper) {
 			ContentCachingRequestWrapper wrapper = (ContentCachingRequestWrapper) request;
 			byte[] buf = wrapper.getContentAsByteArray();
 			if (buf.length > 0) {
-				int length = Math.min(buf.length, getMaxPayloadLength());
-				String payload;
-				try {
-					payload = new String(buf, 0, length, wrapper.getCharacterEncoding());
-				}
-				catch (UnsupportedEncodingException e) {
-					payload = "[unknown]";
+				if (buf.length > getMaxPayloadLength()) {
+					buf = Arrays.copyOf(buf, getMaxPayloadLength());
 				}
-				msg.append("\r\n#### - payload: ").append(StringUtils.trimWhitespace(payload));
+				event.setPayload(buf, wrapper.getCharacterEncoding());
+			}
+		}
+
+		if (response != null) {
+			event.setStatus(response.getStatus());
+			Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+			if (startTime instanceof Long) {
+				event.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (Long) startTime));
 			}
 		}
 
@@ -228,29 +467,79 @@ public class BHiveCommonsRequestLoggingFilter extends CommonsRequestLoggingFilte
 			BHiveTeeHttpServletResponse wrapper = (BHiveTeeHttpServletResponse) response;
 			wrapper.finish();
 			String contentType = wrapper.getContentType();
-			if(contentType != null) {
-				msg.append("\r\n#### - responsecontenttype: ").append(contentType);
-				if(contentType.contains("json") /*|| contentType.contains("html")*/) {
-					byte[] buf = wrapper.getOutputBuffer();
-					if (buf != null && buf.length > 0) {
-						int length = Math.min(buf.length, getMaxPayloadLength());
-						String payload;
-						try {
-							payload = new String(buf, 0, length, wrapper.getCharacterEncoding());
-						}
-						catch (UnsupportedEncodingException e) {
-							payload = "[unknown]";
-						}
-						msg.append("\r\n#### - responsepayload: ").append(StringUtils.trimWhitespace(payload));
-					}
+			event.setResponseContentType(contentType);
+			if(contentType != null && wrapper.isCaptureContentType(contentType)) {
+				byte[] buf = wrapper.getOutputBuffer();
+				if (buf != null && buf.length > 0) {
+					event.setResponsePayload(buf, wrapper.getCharacterEncoding(), wrapper.isOutputTruncated());
 				}
 			}
 		}
+		return event;
+	}
 
-		msg.append(suffix);
-		return msg.toString();
+	protected String createMessage(HttpServletRequest request, HttpServletResponse response, String prefix, String suffix) throws IOException {
+		BHiveRequestLogEvent.Phase phase = response == null ? BHiveRequestLogEvent.Phase.BEFORE : BHiveRequestLogEvent.Phase.AFTER;
+		return createMessage(createEvent(request, response, phase), prefix, suffix);
+	}
+
+	/**
+	 * 로그 이벤트의 로그 메시지 생성 (비동기 출력시 출력 쓰레드에서 호출)
+	 * @param event 로그 이벤트
+	 * @return 로그 메시지
+	 */
+	protected String createMessage(BHiveRequestLogEvent event) {
+		if (event.getPhase() == BHiveRequestLogEvent.Phase.BEFORE) {
+			return createMessage(event, this.beforeMessagePrefix, this.beforeMessageSuffix);
+		}
+		return createMessage(event, this.afterMessagePrefix, this.afterMessageSuffix);
 	}
-}
 
+	protected String createMessage(BHiveRequestLogEvent event, String prefix, String suffix) {
+		StringBuilder msg = new StringBuilder();
+		msg.append(prefix);
+		msg.append("uri: ").append(event.getUri());
+		if(!StringUtils.isEmpty(event.getQueryString())) {
+			msg.append('?').append(event.getQueryString());
+		}
+		if (StringUtils.hasLength(event.getClient())) {
+			msg.append("\r\n#### - client: ").append(event.getClient());
+		}
+		if (event.getSessionId() != null) {
+			msg.append("\r\n#### - session: ").append(event.getSessionId());
+		}
+		if (event.getUser() != null) {
+			msg.append("\r\n#### - user: ").append(event.getUser());
+		}
+		if (event.getPayload() != null) {
+			msg.append("\r\n#### - payload: ").append(StringUtils.trimWhitespace(decodePayload(event.getPayload(), event.getPayloadEncoding())));
+		}
+		if (event.getPhase() == BHiveRequestLogEvent.Phase.AFTER) {
+			msg.append("\r\n#### - status: ").append(event.getStatus());
+			if (event.getElapsedMillis() >= 0) {
+				msg.append(", elapsed: ").append(event.getElapsedMillis()).append("ms");
+			}
+		}
+		if (event.getResponseContentType() != null) {
+			msg.append("\r\n#### - responsecontenttype: ").append(event.getResponseContentType());
+			if (event.getResponsePayload() != null) {
+				msg.append("\r\n#### - responsepayload: ").append(StringUtils.trimWhitespace(decodePayload(event.getResponsePayload(), event.getResponseEncoding())));
+				if (event.isResponsePayloadTruncated()) {
+					msg.append("...");
+				}
+			}
+		}
 
+		msg.append(suffix);
+		return msg.toString();
+	}
 
+	private static String decodePayload(byte[] buf, String encoding) {
+		try {
+			return new String(buf, encoding != null ? encoding : "UTF-8");
+		}
+		catch (UnsupportedEncodingException e) {
+			return "[unknown]";
+		}
+	}
+}
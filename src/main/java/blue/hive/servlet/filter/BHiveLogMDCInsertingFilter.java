@@ -9,15 +9,22 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.MDC;
 
+import blue.hive.util.BHiveLogUtil;
+
 /**
  * slf4j MDC로 주요 관심사를 처리할 수 있게 연동하는 Servlet Filter
  * 
  * client.accessIP: 요청 Client IP (X-FORWARDED-FOR 대응, Localhost IPv6대응)
  * client.accessIP.prefix: client.accessIP IPv4의 맨앞쪽 Segment (127.0.0.1 &ge; 127)
  * client.httpMethod: 요청 HTTP METHOD  
+ * correlationId: 요청 추적 ID (요청 헤더 X-Correlation-Id의 값, 없거나 올바르지 않으면 생성하며 응답 헤더로 반환)
+ * 
+ * 요청 추적 ID는 BHiveMDCTaskExecutor로 비동기 작업에, BHiveCorrelationIdClientHttpRequestInterceptor로 외부 API 요청 헤더에 전달된다.
+ * init-param: correlationIdHeader(헤더명), acceptCorrelationId(요청 헤더의 ID 사용 여부, 기본 true)
  * 
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
@@ -27,10 +34,24 @@ public class BHiveLogMDCInsertingFilter implements Filter {
 	private final static String MDC_ACCESS_IP_PREFIX = "client.accessIP.prefix";
 	private final static String MDC_CLIENT_METHOD = "client.httpMethod";
 
+	/** 요청 추적 ID 헤더명 */
+	private String correlationIdHeader = BHiveLogUtil.CORRELATION_ID_HEADER;
+
+	/** 요청 헤더의 요청 추적 ID 사용 여부 */
+	private boolean acceptCorrelationId = true;
+
 	/* (non-Javadoc)
 	 * @see javax.servlet.Filter#init(javax.servlet.FilterConfig)
 	 */
-	public void init(FilterConfig arg0) throws ServletException {
+	public void init(FilterConfig filterConfig) throws ServletException {
+		String header = filterConfig.getInitParameter("correlationIdHeader");
+		if(header != null && header.trim().length() > 0) {
+			this.correlationIdHeader = header.trim();
+		}
+		String accept = filterConfig.getInitParameter("acceptCorrelationId");
+		if(accept != null) {
+			this.acceptCorrelationId = Boolean.parseBoolean(accept.trim());
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -45,6 +66,7 @@ public class BHiveLogMDCInsertingFilter implements Filter {
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
 		try{
 			insertIntoMDC(request);
+			insertCorrelationId(request, response);
 			chain.doFilter(request, response);
 		} finally {
 			clearMDC();
@@ -77,6 +99,28 @@ public class BHiveLogMDCInsertingFilter implements Filter {
 		}		
 	}
 	
+	/**
+	 * 요청 추적 ID를 MDC에 설정하고 응답 헤더로 반환
+	 * @param request 요청객체
+	 * @param response 응답객체
+	 */
+	private void insertCorrelationId(ServletRequest request, ServletResponse response) {
+		String correlationId = null;
+		if (acceptCorrelationId && request instanceof HttpServletRequest) {
+			String inbound = ((HttpServletRequest) request).getHeader(correlationIdHeader);
+			if(BHiveLogUtil.isValidCorrelationId(inbound)) {
+				correlationId = inbound;
+			}
+		}
+		if(correlationId == null) {
+			correlationId = BHiveLogUtil.createCorrelationId();
+		}
+		MDC.put(BHiveLogUtil.MDC_CORRELATION_ID, correlationId);
+		if (response instanceof HttpServletResponse) {
+			((HttpServletResponse) response).setHeader(correlationIdHeader, correlationId);
+		}
+	}
+
 	/**
 	 * IP주소에서 맨 앞 Segment 획득 (127.0.0.1 &ge; 127)
 	 * @param ipAddress IPv4주소
@@ -101,5 +145,6 @@ public class BHiveLogMDCInsertingFilter implements Filter {
 		MDC.remove(MDC_ACCESS_IP);
 		MDC.remove(MDC_ACCESS_IP_PREFIX);
 		MDC.remove(MDC_CLIENT_METHOD);
+		MDC.remove(BHiveLogUtil.MDC_CORRELATION_ID);
 	}
 }
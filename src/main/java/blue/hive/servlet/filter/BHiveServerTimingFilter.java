@@ -0,0 +1,110 @@
+package blue.hive.servlet.filter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import blue.hive.servlet.filter.wrap.BHiveServerTimingHttpServletResponse;
+import blue.hive.spring.web.log.BHiveRequestTiming;
+
+/**
+ * 요청별 구간 처리시간(controller, service, repository, sql, rest)을 기록하여
+ * Server-Timing 응답 헤더로 반환하고 처리시간이 budgetMillis를 넘으면 느린 요청 로그(WARN)를 출력하는 Filter
+ *
+ * 구간 시간은 BHiveRequestTiming에 Logging Aspect, MyBatis Plugin(BHiveSqlTimingPlugin),
+ * RestTemplate Interceptor(BHiveTimingClientHttpRequestInterceptor)가 기록하므로 DEBUG 로그 없이 동작한다.
+ * init-param: serverTimingEnabled(헤더 반환 여부, 기본 true), headerName(기본 Server-Timing), budgetMillis(기본 3000, 0이하면 로그 안함)
+ * 비동기 요청(Servlet 3 async)은 최초 요청 쓰레드에서 기록된 구간만 포함한다.
+ *
+ * <pre>
+ * &lt;filter&gt;
+ * 	&lt;filter-name&gt;serverTimingFilter&lt;/filter-name&gt;
+ * 	&lt;filter-class&gt;blue.hive.servlet.filter.BHiveServerTimingFilter&lt;/filter-class&gt;
+ * 	&lt;init-param&gt;&lt;param-name&gt;budgetMillis&lt;/param-name&gt;&lt;param-value&gt;1000&lt;/param-value&gt;&lt;/init-param&gt;
+ * &lt;/filter&gt;
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveServerTimingFilter extends OncePerRequestFilter {
+
+	/** Server-Timing 헤더명 */
+	public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	private final Logger slowRequestLogger = LoggerFactory.getLogger(getClass());
+
+	/** Server-Timing 헤더 반환 여부 */
+	private boolean serverTimingEnabled = true;
+
+	/** 헤더명 */
+	private String headerName = SERVER_TIMING_HEADER;
+
+	/** 느린 요청 기준 시간(ms), 0이하면 로그 출력 안함 */
+	private long budgetMillis = 3000;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		BHiveRequestTiming timing = BHiveRequestTiming.start();
+		BHiveServerTimingHttpServletResponse timingResponse = null;
+		if(serverTimingEnabled) {
+			timingResponse = new BHiveServerTimingHttpServletResponse(response, timing, headerName);
+		}
+		try {
+			filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+		} finally {
+			BHiveRequestTiming.clear();
+			if(timingResponse != null) {
+				timingResponse.addServerTimingHeader();
+			}
+			logSlowRequest(request, response, timing);
+		}
+	}
+
+	/**
+	 * 처리시간이 budgetMillis를 넘으면 구간별 처리시간을 WARN으로 출력
+	 * @param request 요청
+	 * @param response 응답
+	 * @param timing 요청 처리시간 기록기
+	 */
+	protected void logSlowRequest(HttpServletRequest request, HttpServletResponse response, BHiveRequestTiming timing) {
+		if(budgetMillis <= 0) {
+			return;
+		}
+		long elapsedMillis = timing.getTotalElapsed() / 1000000;
+		if(elapsedMillis > budgetMillis && slowRequestLogger.isWarnEnabled()) {
+			slowRequestLogger.warn("SLOW REQUEST {} {} - status: {}, elapsed: {}ms (budget: {}ms) [{}]",
+					request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedMillis, budgetMillis, timing.toSummary());
+		}
+	}
+
+	public boolean isServerTimingEnabled() {
+		return serverTimingEnabled;
+	}
+
+	public void setServerTimingEnabled(boolean serverTimingEnabled) {
+		this.serverTimingEnabled = serverTimingEnabled;
+	}
+
+	public String getHeaderName() {
+		return headerName;
+	}
+
+	public void setHeaderName(String headerName) {
+		this.headerName = headerName;
+	}
+
+	public long getBudgetMillis() {
+		return budgetMillis;
+	}
+
+	public void setBudgetMillis(long budgetMillis) {
+		this.budgetMillis = budgetMillis;
+	}
+}
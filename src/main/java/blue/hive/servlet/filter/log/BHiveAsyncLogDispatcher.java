@@ -0,0 +1,207 @@
+package blue.hive.servlet.filter.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 비동기 로그 출력기
+ *
+ * 요청 쓰레드는 이벤트를 Lock-free Ring Buffer에 넣기만 하고 전용 출력 쓰레드(daemon)가 꺼내서 Handler로 출력한다.
+ * Buffer가 가득 차면 요청 쓰레드를 대기시키지 않고 이벤트를 버리며 버린 수를 센다. (drop-and-count)
+ * 버려진 이벤트가 있으면 출력 쓰레드가 경고 로그를 남긴다.
+ * 등록/버림/출력/오류/대기 건수는 BHiveRequestLogMXBean으로 JMX에 노출할 수 있다.
+ *
+ * <pre>
+ * BHiveAsyncLogDispatcher&lt;BHiveRequestLogEvent&gt; dispatcher = new BHiveAsyncLogDispatcher&lt;BHiveRequestLogEvent&gt;("request-log", 8192, handler);
+ * dispatcher.start();
+ * dispatcher.publish(event);
+ * dispatcher.stop(); //남은 이벤트 출력후 종료
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ *
+ * @param <E> 이벤트 타입
+ */
+public class BHiveAsyncLogDispatcher<E> implements BHiveRequestLogMXBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(BHiveAsyncLogDispatcher.class);
+
+	/** 이벤트가 없을때 출력 쓰레드 대기시간 */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	/** 종료시 남은 이벤트 출력 대기시간 (ms) */
+	private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+	/**
+	 * 이벤트 출력 Handler (출력 쓰레드에서 호출)
+	 *
+	 * @param <E> 이벤트 타입
+	 */
+	public interface EventHandler<E> {
+		/**
+		 * 이벤트 출력
+		 * @param event 이벤트
+		 */
+		void handle(E event);
+	}
+
+	private final String name;
+	private final BHiveRingBuffer<E> ringBuffer;
+	private final EventHandler<E> handler;
+
+	private final AtomicLong publishedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	/** 출력 쓰레드에서만 갱신 */
+	private volatile long writtenCount = 0;
+	private volatile long failedCount = 0;
+	private long reportedDroppedCount = 0;
+
+	private volatile boolean running = false;
+	private Thread writerThread;
+
+	/**
+	 * 생성자
+	 * @param name 출력 쓰레드 이름
+	 * @param bufferSize Ring Buffer 크기 (2의 거듭제곱으로 올림)
+	 * @param handler 이벤트 출력 Handler
+	 */
+	public BHiveAsyncLogDispatcher(String name, int bufferSize, EventHandler<E> handler) {
+		this.name = name;
+		this.ringBuffer = new BHiveRingBuffer<E>(bufferSize);
+		this.handler = handler;
+	}
+
+	/**
+	 * 출력 쓰레드 시작
+	 */
+	public synchronized void start() {
+		if(running) {
+			return;
+		}
+		running = true;
+		writerThread = new Thread(new Runnable() {
+			public void run() {
+				drainLoop();
+			}
+		}, name);
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * 출력 쓰레드 종료 (남은 이벤트는 출력후 종료)
+	 */
+	public synchronized void stop() {
+		if(!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writerThread);
+		try {
+			writerThread.join(STOP_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writerThread = null;
+	}
+
+	/**
+	 * 이벤트 등록 (대기하지 않음)
+	 * @param event 이벤트
+	 * @return 등록되었으면 true, Buffer가 가득 차거나 실행중이 아니어서 버려졌으면 false
+	 */
+	public boolean publish(E event) {
+		if(running && ringBuffer.offer(event)) {
+			publishedCount.incrementAndGet();
+			return true;
+		}
+		droppedCount.incrementAndGet();
+		return false;
+	}
+
+	private void drainLoop() {
+		while (true) {
+			E event = ringBuffer.poll();
+			if(event == null) {
+				reportDropped();
+				if(!running) {
+					break;
+				}
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				continue;
+			}
+			try {
+				handler.handle(event);
+				writtenCount++;
+			} catch (Throwable e) {
+				failedCount++;
+				logger.warn("[{}] failed to write log event", name, e);
+			}
+		}
+	}
+
+	private void reportDropped() {
+		long dropped = droppedCount.get();
+		if(dropped != reportedDroppedCount) {
+			logger.warn("[{}] {} log events dropped (buffer full), total dropped: {}", name, dropped - reportedDroppedCount, dropped);
+			reportedDroppedCount = dropped;
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * 등록된 이벤트 수
+	 * @return 등록된 이벤트 수
+	 */
+	public long getPublishedCount() {
+		return publishedCount.get();
+	}
+
+	/**
+	 * Buffer가 가득 차서 버려진 이벤트 수
+	 * @return 버려진 이벤트 수
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * 출력된 이벤트 수
+	 * @return 출력된 이벤트 수
+	 */
+	public long getWrittenCount() {
+		return writtenCount;
+	}
+
+	/**
+	 * 출력중 오류가 발생한 이벤트 수
+	 * @return 오류 이벤트 수
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * 출력 대기중인 이벤트 수
+	 * @return 대기 이벤트 수
+	 */
+	public int getPendingCount() {
+		return ringBuffer.size();
+	}
+
+	public int getBufferSize() {
+		return ringBuffer.capacity();
+	}
+}
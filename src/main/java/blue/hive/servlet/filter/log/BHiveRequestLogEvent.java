@@ -0,0 +1,175 @@
+package blue.hive.servlet.filter.log;
+
+import java.util.Map;
+
+/**
+ * 요청/응답 로그 이벤트
+ *
+ * 요청 쓰레드에서는 필드 복사만 하고 Payload 문자열 변환과 메시지 구성은 로그 출력 쓰레드에서 처리한다.
+ * Payload는 maxPayloadLength로 잘린 byte[] 복사본을 그대로 보관한다.
+ * 요청 쓰레드의 MDC(client.accessIP, correlationId 등)도 복사해 두어 출력 쓰레드에서 같은 MDC로 출력한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveRequestLogEvent {
+
+	/** 로그 시점 */
+	public enum Phase {
+		/** 요청 처리 전 */
+		BEFORE,
+		/** 요청 처리 후 */
+		AFTER
+	}
+
+	private Phase phase;
+	private long timestamp;
+	private String uri;
+	private String queryString;
+	private String client;
+	private String sessionId;
+	private String user;
+
+	private byte[] payload;
+	private String payloadEncoding;
+
+	private String responseContentType;
+	private byte[] responsePayload;
+	private String responseEncoding;
+	private boolean responsePayloadTruncated;
+
+	/** 응답 상태코드 (AFTER) */
+	private int status;
+
+	/** 처리시간 ms (AFTER, 알 수 없으면 -1) */
+	private long elapsedMillis = -1;
+
+	/** 요청 쓰레드의 MDC 복사본 (없으면 null) */
+	private Map<String, String> mdcContext;
+
+	public BHiveRequestLogEvent(Phase phase) {
+		this.phase = phase;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	public Phase getPhase() {
+		return phase;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public void setUri(String uri) {
+		this.uri = uri;
+	}
+
+	public String getQueryString() {
+		return queryString;
+	}
+
+	public void setQueryString(String queryString) {
+		this.queryString = queryString;
+	}
+
+	public String getClient() {
+		return client;
+	}
+
+	public void setClient(String client) {
+		this.client = client;
+	}
+
+	public String getSessionId() {
+		return sessionId;
+	}
+
+	public void setSessionId(String sessionId) {
+		this.sessionId = sessionId;
+	}
+
+	public String getUser() {
+		return user;
+	}
+
+	public void setUser(String user) {
+		this.user = user;
+	}
+
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	public String getPayloadEncoding() {
+		return payloadEncoding;
+	}
+
+	/**
+	 * 요청 Payload 설정
+	 * @param payload 잘린 요청 Payload 복사본
+	 * @param payloadEncoding 문자 인코딩
+	 */
+	public void setPayload(byte[] payload, String payloadEncoding) {
+		this.payload = payload;
+		this.payloadEncoding = payloadEncoding;
+	}
+
+	public String getResponseContentType() {
+		return responseContentType;
+	}
+
+	public void setResponseContentType(String responseContentType) {
+		this.responseContentType = responseContentType;
+	}
+
+	public byte[] getResponsePayload() {
+		return responsePayload;
+	}
+
+	public String getResponseEncoding() {
+		return responseEncoding;
+	}
+
+	public boolean isResponsePayloadTruncated() {
+		return responsePayloadTruncated;
+	}
+
+	/**
+	 * 응답 Payload 설정
+	 * @param responsePayload 잘린 응답 Payload 복사본
+	 * @param responseEncoding 문자 인코딩
+	 * @param truncated 잘렸는지 여부
+	 */
+	public void setResponsePayload(byte[] responsePayload, String responseEncoding, boolean truncated) {
+		this.responsePayload = responsePayload;
+		this.responseEncoding = responseEncoding;
+		this.responsePayloadTruncated = truncated;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public Map<String, String> getMdcContext() {
+		return mdcContext;
+	}
+
+	public void setMdcContext(Map<String, String> mdcContext) {
+		this.mdcContext = mdcContext;
+	}
+}
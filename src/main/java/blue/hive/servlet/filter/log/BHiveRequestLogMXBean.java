@@ -0,0 +1,51 @@
+package blue.hive.servlet.filter.log;
+
+/**
+ * 비동기 요청 로그 출력 통계 JMX 인터페이스
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public interface BHiveRequestLogMXBean {
+
+	/**
+	 * 출력 쓰레드 실행 여부
+	 * @return 실행중이면 true
+	 */
+	boolean isRunning();
+
+	/**
+	 * 등록된 이벤트 수
+	 * @return 등록된 이벤트 수
+	 */
+	long getPublishedCount();
+
+	/**
+	 * Buffer가 가득 차서 버려진 이벤트 수
+	 * @return 버려진 이벤트 수
+	 */
+	long getDroppedCount();
+
+	/**
+	 * 출력된 이벤트 수
+	 * @return 출력된 이벤트 수
+	 */
+	long getWrittenCount();
+
+	/**
+	 * 출력중 오류가 발생한 이벤트 수
+	 * @return 오류 이벤트 수
+	 */
+	long getFailedCount();
+
+	/**
+	 * 출력 대기중인 이벤트 수
+	 * @return 대기 이벤트 수
+	 */
+	int getPendingCount();
+
+	/**
+	 * Ring Buffer 크기
+	 * @return Buffer 크기
+	 */
+	int getBufferSize();
+}
@@ -0,0 +1,122 @@
+package blue.hive.servlet.filter.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 크기가 고정된 Lock-free Ring Buffer (Multi Producer, Multi Consumer)
+ *
+ * Slot별 Sequence로 생산자/소비자 순서를 맞추는 Bounded Queue로
+ * 가득 찬 경우 offer는 대기하지 않고 바로 false를 반환한다.
+ * 용량은 2의 거듭제곱으로 올림된다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ *
+ * @param <E> 원소 타입
+ */
+public class BHiveRingBuffer<E> {
+
+	private final int mask;
+	private final AtomicReferenceArray<E> buffer;
+	private final AtomicLongArray sequences;
+
+	/** 다음 저장 위치 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/** 다음 꺼낼 위치 */
+	private final AtomicLong head = new AtomicLong();
+
+	/**
+	 * 생성자
+	 * @param capacity 용량 (2의 거듭제곱으로 올림)
+	 */
+	public BHiveRingBuffer(int capacity) {
+		if(capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if(size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.buffer = new AtomicReferenceArray<E>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * 원소 저장
+	 * @param element 저장할 원소 (not null)
+	 * @return 저장되었으면 true, 가득 찼으면 false
+	 */
+	public boolean offer(E element) {
+		if(element == null) {
+			throw new NullPointerException("element");
+		}
+		long pos = tail.get();
+		for (;;) {
+			int index = (int)(pos & mask);
+			long diff = sequences.get(index) - pos;
+			if(diff == 0) {
+				if(tail.compareAndSet(pos, pos + 1)) {
+					buffer.set(index, element);
+					sequences.set(index, pos + 1);
+					return true;
+				}
+				pos = tail.get();
+			} else if(diff < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * 원소 꺼내기
+	 * @return 원소 (비어있으면 null)
+	 */
+	public E poll() {
+		long pos = head.get();
+		for (;;) {
+			int index = (int)(pos & mask);
+			long diff = sequences.get(index) - (pos + 1);
+			if(diff == 0) {
+				if(head.compareAndSet(pos, pos + 1)) {
+					E element = buffer.get(index);
+					buffer.set(index, null);
+					sequences.set(index, pos + mask + 1);
+					return element;
+				}
+				pos = head.get();
+			} else if(diff < 0) {
+				return null;
+			} else {
+				pos = head.get();
+			}
+		}
+	}
+
+	/**
+	 * 저장된 원소 수 (동시 변경중에는 근사값)
+	 * @return 원소 수
+	 */
+	public int size() {
+		long size = tail.get() - head.get();
+		if(size < 0) {
+			return 0;
+		}
+		return (int)Math.min(size, capacity());
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+}
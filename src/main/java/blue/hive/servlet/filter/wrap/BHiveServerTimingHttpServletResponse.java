@@ -0,0 +1,91 @@
+package blue.hive.servlet.filter.wrap;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import blue.hive.spring.web.log.BHiveRequestTiming;
+
+/**
+ * 응답 Body를 쓰기 직전에 Server-Timing 헤더를 추가하는 Response Wrapper
+ *
+ * 헤더는 응답이 Commit된 이후에는 추가할 수 없으므로 getOutputStream/getWriter/flushBuffer/sendError/sendRedirect가
+ * 처음 호출될때 그때까지 기록된 구간 시간으로 한번만 추가한다. (Controller 처리가 끝난 뒤 Body를 쓰는 시점)
+ * 응답 Body 없이 끝난 요청은 Filter가 종료시 addServerTimingHeader를 호출한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveServerTimingHttpServletResponse extends HttpServletResponseWrapper {
+
+	private final BHiveRequestTiming timing;
+	private final String headerName;
+	private boolean headerAdded = false;
+
+	/**
+	 * 생성자
+	 * @param response 원본 응답
+	 * @param timing 요청 처리시간 기록기
+	 * @param headerName 헤더명 (Server-Timing)
+	 */
+	public BHiveServerTimingHttpServletResponse(HttpServletResponse response, BHiveRequestTiming timing, String headerName) {
+		super(response);
+		this.timing = timing;
+		this.headerName = headerName;
+	}
+
+	/**
+	 * Server-Timing 헤더 추가 (이미 추가했거나 응답이 Commit되었으면 무시)
+	 */
+	public void addServerTimingHeader() {
+		if(headerAdded) {
+			return;
+		}
+		headerAdded = true;
+		if(!isCommitted()) {
+			addHeader(headerName, timing.toServerTimingHeader());
+		}
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		addServerTimingHeader();
+		return super.getOutputStream();
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		addServerTimingHeader();
+		return super.getWriter();
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		addServerTimingHeader();
+		super.flushBuffer();
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		addServerTimingHeader();
+		super.sendError(sc);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		addServerTimingHeader();
+		super.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		addServerTimingHeader();
+		super.sendRedirect(location);
+	}
+
+	public boolean isHeaderAdded() {
+		return headerAdded;
+	}
+}
@@ -15,6 +15,9 @@ import org.springframework.util.StringUtils;
 /**
  * Blue Hive TeeHttpServletResponse. Logback Access TeeHttpServletResponse 소스 참고
  *
+ * 응답 복사본은 maxCaptureLength 바이트까지만 저장한다.
+ * captureContentTypes가 지정되면 setContentType으로 알려진 Content-Type이 해당하지 않을 때 복사하지 않는다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class BHiveTeeHttpServletResponse extends HttpServletResponseWrapper {
@@ -22,18 +25,61 @@ public class BHiveTeeHttpServletResponse extends HttpServletResponseWrapper {
 	BHiveTeeServletOutputStream teeServletOutputStream;
 	PrintWriter teeWriter;
 
+	/** 복사할 최대 바이트 수 */
+	final int maxCaptureLength;
+
+	/** 복사할 Content-Type (포함 문자열, null이면 모두 복사) */
+	final String[] captureContentTypes;
+
 	public BHiveTeeHttpServletResponse(HttpServletResponse httpServletResponse) {
+		this(httpServletResponse, Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * 생성자
+	 * @param httpServletResponse 원본 응답
+	 * @param maxCaptureLength 복사할 최대 바이트 수
+	 * @param captureContentTypes 복사할 Content-Type (포함 문자열, ex: json), null이면 모두 복사
+	 */
+	public BHiveTeeHttpServletResponse(HttpServletResponse httpServletResponse, int maxCaptureLength, String[] captureContentTypes) {
 		super(httpServletResponse);
+		this.maxCaptureLength = maxCaptureLength;
+		this.captureContentTypes = captureContentTypes;
 	}
 
 	@Override
 	public ServletOutputStream getOutputStream() throws IOException {
 		if (teeServletOutputStream == null) {
-			teeServletOutputStream = new BHiveTeeServletOutputStream(this.getResponse());
+			teeServletOutputStream = new BHiveTeeServletOutputStream(this.getResponse(), maxCaptureLength, isCaptureContentType(getContentType()));
 		}
 		return teeServletOutputStream;
 	}
 
+	@Override
+	public void setContentType(String type) {
+		super.setContentType(type);
+		if (teeServletOutputStream != null && !isCaptureContentType(getContentType())) {
+			teeServletOutputStream.stopCapture();
+		}
+	}
+
+	/**
+	 * 복사 대상 Content-Type인지 확인 (아직 알 수 없으면 복사 대상)
+	 * @param contentType Content-Type
+	 * @return 복사 대상이면 true
+	 */
+	public boolean isCaptureContentType(String contentType) {
+		if (captureContentTypes == null || contentType == null) {
+			return true;
+		}
+		for (String captureContentType : captureContentTypes) {
+			if (contentType.contains(captureContentType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public PrintWriter getWriter() throws IOException {
 		if (this.teeWriter == null) {
@@ -64,6 +110,14 @@ public class BHiveTeeHttpServletResponse extends HttpServletResponseWrapper {
 		}
 	}
 
+	/**
+	 * 복사본이 maxCaptureLength에서 잘렸는지 여부
+	 * @return 잘렸으면 true
+	 */
+	public boolean isOutputTruncated() {
+		return teeServletOutputStream != null && teeServletOutputStream.isTruncated();
+	}
+
 	public void finish() throws IOException {
 		if (this.teeWriter != null) {
 			this.teeWriter.close();
@@ -14,6 +14,8 @@ import org.springframework.util.StringUtils;
 /**
  * Blue Hive TeeServletOutputStream. Logback Access의 TeeServletOutputStream 참고.
  *
+ * 복사본은 captureLimit 바이트까지만 저장하고 나머지는 원본 스트림에만 출력한다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  *
  */
@@ -21,24 +23,71 @@ public class BHiveTeeServletOutputStream extends ServletOutputStream {
 
 	final static Logger logger = LoggerFactory.getLogger(BHiveTeeServletOutputStream.class);
 
+	/** 복사 버퍼 초기 크기 */
+	private static final int INITIAL_CAPTURE_SIZE = 1024;
+
 	final ServletOutputStream underlyingStream;
 	final ByteArrayOutputStream baosCopy;
 
+	/** 복사할 최대 바이트 수 */
+	final int captureLimit;
+
+	/** 복사 여부 */
+	boolean capture;
+
+	/** 원본 스트림에 출력한 전체 바이트 수 */
+	long writtenLength = 0;
+
 	BHiveTeeServletOutputStream(ServletResponse httpServletResponse) throws IOException {
+		this(httpServletResponse, Integer.MAX_VALUE, true);
+	}
+
+	BHiveTeeServletOutputStream(ServletResponse httpServletResponse, int captureLimit, boolean capture) throws IOException {
 		logger.trace("TeeServletOutputStream.constructor() called");
 		this.underlyingStream = httpServletResponse.getOutputStream();
-		baosCopy = new ByteArrayOutputStream();
+		this.captureLimit = Math.max(captureLimit, 0);
+		this.capture = capture;
+		baosCopy = new ByteArrayOutputStream(Math.min(this.captureLimit, INITIAL_CAPTURE_SIZE));
 	}
 
 	byte[] getOutputStreamAsByteArray() {
 		return baosCopy.toByteArray();
 	}
 
+	/**
+	 * 복사 중단. 이미 복사된 내용도 버린다.
+	 */
+	void stopCapture() {
+		this.capture = false;
+		baosCopy.reset();
+	}
+
+	/**
+	 * 복사본이 잘렸는지 여부
+	 * @return 출력한 바이트 수가 복사된 바이트 수보다 많으면 true
+	 */
+	boolean isTruncated() {
+		return capture && writtenLength > baosCopy.size();
+	}
+
+	private void copy(byte byteArray[], int offset, int length) {
+		if (!capture) {
+			return;
+		}
+		int remain = captureLimit - baosCopy.size();
+		if (remain > 0) {
+			baosCopy.write(byteArray, offset, Math.min(length, remain));
+		}
+	}
+
 	@Override
 	public void write(int val) throws IOException {
 		if (underlyingStream != null) {
 			underlyingStream.write(val);
-			baosCopy.write(val);
+			writtenLength++;
+			if (capture && baosCopy.size() < captureLimit) {
+				baosCopy.write(val);
+			}
 		}
 	}
 
@@ -55,9 +104,12 @@ public class BHiveTeeServletOutputStream extends ServletOutputStream {
 		if (underlyingStream == null) {
 			return;
 		}
-		logger.trace("WRITE TeeServletOutputStream.write(byte[], int, int) called. offset:{}, length:{}, byteArray: {}", offset, length, StringUtils.trimTrailingWhitespace(new String(byteArray, offset, length, "UTF-8")));
+		if (logger.isTraceEnabled()) {
+			logger.trace("WRITE TeeServletOutputStream.write(byte[], int, int) called. offset:{}, length:{}, byteArray: {}", offset, length, StringUtils.trimTrailingWhitespace(new String(byteArray, offset, length, "UTF-8")));
+		}
 		underlyingStream.write(byteArray, offset, length);
-		baosCopy.write(byteArray, offset, length);
+		writtenLength += length;
+		copy(byteArray, offset, length);
 	}
 
 	@Override
@@ -77,7 +129,6 @@ public class BHiveTeeServletOutputStream extends ServletOutputStream {
 		}
 		logger.trace("FLUSH TeeServletOutputStream.flush() called");
 		underlyingStream.flush();
-		baosCopy.flush();
 	}
 
 	@Override
@@ -0,0 +1,47 @@
+package blue.hive.spring.client;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import blue.hive.util.BHiveLogUtil;
+
+/**
+ * Request Interceptor for correlation id (MDC의 요청 추적 ID를 요청 헤더로 전달)
+ *
+ * 요청에 이미 헤더가 있거나 현재 쓰레드에 요청 추적 ID가 없으면 변경하지 않는다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveCorrelationIdClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	/** 요청 추적 ID 헤더명 */
+	private final String headerName;
+
+	public BHiveCorrelationIdClientHttpRequestInterceptor() {
+		this(BHiveLogUtil.CORRELATION_ID_HEADER);
+	}
+
+	public BHiveCorrelationIdClientHttpRequestInterceptor(String headerName) {
+		this.headerName = headerName;
+	}
+
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		String correlationId = BHiveLogUtil.getCorrelationId();
+		if(correlationId != null) {
+			HttpHeaders headers = request.getHeaders();
+			if(!headers.containsKey(headerName)) {
+				headers.set(headerName, correlationId);
+			}
+		}
+		return execution.execute(request, body);
+	}
+
+	public String getHeaderName() {
+		return headerName;
+	}
+}
@@ -46,8 +46,10 @@ public class BHiveRestTemplateBuilder {
 		List<HttpMessageConverter<?>> messageConverters = getHttpMessageConverters(API_TYPE.REQUEST_FORM);
 		restTemplate.setMessageConverters(messageConverters);
 
-		//Logging을 위한 Interceptor 설정
+		//호출시간 기록, 요청 추적 ID 전달, Logging을 위한 Interceptor 설정
 		List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+		interceptors.add(new BHiveTimingClientHttpRequestInterceptor());
+		interceptors.add(new BHiveCorrelationIdClientHttpRequestInterceptor());
 		interceptors.add(new BHiveLoggingClientHttpRequestInterceptor());
 		restTemplate.setInterceptors(interceptors);
 
@@ -87,8 +89,10 @@ public class BHiveRestTemplateBuilder {
 		List<HttpMessageConverter<?>> messageConverters = getHttpMessageConverters(API_TYPE.REQUEST_BODY_JSON);
 		restTemplate.setMessageConverters(messageConverters);
 
-		//Logging을 위한 Interceptor 설정
+		//호출시간 기록, 요청 추적 ID 전달, Logging을 위한 Interceptor 설정
 		List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+		interceptors.add(new BHiveTimingClientHttpRequestInterceptor());
+		interceptors.add(new BHiveCorrelationIdClientHttpRequestInterceptor());
 		interceptors.add(new BHiveLoggingClientHttpRequestInterceptor());
 		restTemplate.setInterceptors(interceptors);
 
@@ -122,7 +126,20 @@ public class BHiveRestTemplateBuilder {
 	 * @return BHiveRestTemplate BHiveRestTemplate object
 	 */
 	public static BHiveRestTemplate buildSecureRestApiTemplate(String secretKey) {
-		BHiveRestTemplate restTemplate = buildRestTemplate(API_TYPE.REQUEST_BODY_SECURED_JSON, secretKey);
+		BHiveRestTemplate restTemplate = buildRestTemplate(API_TYPE.REQUEST_BODY_SECURED_JSON, secretKey, null);
+		return restTemplate;
+	}
+
+	/**
+	 * BHiveRestTemplate를 생성 (REST API방식, 주어진 알고리즘으로 암호화 적용) - POST(application/json)
+	 *
+	 * AES256Crypto.GCM_CIPHER_ALGORITHM이면 메시지별 Nonce의 AES-GCM으로 요청하고, 응답은 Envelope 헤더로 GCM/CBC를 구분하여 복호화한다.
+	 * @param secretKey 암호화시 사용할 키
+	 * @param cipherAlgorithm 암호화 알고리즘 (null이면 AES256Crypto 기본값)
+	 * @return BHiveRestTemplate BHiveRestTemplate object
+	 */
+	public static BHiveRestTemplate buildSecureRestApiTemplate(String secretKey, String cipherAlgorithm) {
+		BHiveRestTemplate restTemplate = buildRestTemplate(API_TYPE.REQUEST_BODY_SECURED_JSON, secretKey, cipherAlgorithm);
 		return restTemplate;
 	}
 
@@ -130,17 +147,20 @@ public class BHiveRestTemplateBuilder {
 	 * 내부용 - 실제로 BHiveRestTemplate을 환경에 맞춰 생성
 	 * @param apiType api의 통신 방식
 	 * @param secretKey 암호화시 사용할 키 (API_TYPE.REQUEST_BODY_SECURED_JSON에만 사용)
+	 * @param cipherAlgorithm 암호화 알고리즘 (API_TYPE.REQUEST_BODY_SECURED_JSON에만 사용, null이면 기본값)
 	 * @return BHiveRestTemplate BHiveRestTemplate object
 	 */
-	private static BHiveRestTemplate buildRestTemplate(API_TYPE apiType, String secretKey) {
+	private static BHiveRestTemplate buildRestTemplate(API_TYPE apiType, String secretKey, String cipherAlgorithm) {
 		BHiveRestTemplate restTemplate = new BHiveRestTemplate();
 
 		//MessageConverter 설정
-		List<HttpMessageConverter<?>> messageConverters = getHttpMessageConverters(apiType, secretKey);
+		List<HttpMessageConverter<?>> messageConverters = getHttpMessageConverters(apiType, secretKey, cipherAlgorithm);
 		restTemplate.setMessageConverters(messageConverters);
 
-		//Logging을 위한 Interceptor 설정
+		//호출시간 기록, 요청 추적 ID 전달, Logging을 위한 Interceptor 설정
 		List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+		interceptors.add(new BHiveTimingClientHttpRequestInterceptor());
+		interceptors.add(new BHiveCorrelationIdClientHttpRequestInterceptor());
 		interceptors.add(new BHiveLoggingClientHttpRequestInterceptor());
 		restTemplate.setInterceptors(interceptors);
 
@@ -193,23 +213,24 @@ public class BHiveRestTemplateBuilder {
 	 * RestTemplate에 설정할 MessageConverter 목록을 생성하여 획득 (JSON용 Converter 반환)
 	 * @param apiType api의 통신 방식
 	 * @param secretKey 암호화시 사용할 키 (API_TYPE.REQUEST_BODY_SECURED_JSON에만 사용)
+	 * @param cipherAlgorithm 암호화 알고리즘 (null이면 기본값)
 	 * @return List HttpMessageConverter object list
 	 */
-	private static List<HttpMessageConverter<?>> getHttpMessageConverters(API_TYPE apiType, String secretKey) {
+	private static List<HttpMessageConverter<?>> getHttpMessageConverters(API_TYPE apiType, String secretKey, String cipherAlgorithm) {
 		List<HttpMessageConverter<?>> messageConverters = new ArrayList<HttpMessageConverter<?>>();
 		if(apiType.equals(API_TYPE.REQUEST_BODY_SECURED_JSON)) {
-			HttpMessageConverter<?> converter = getSecuredJsonConverter(secretKey);
+			HttpMessageConverter<?> converter = getSecuredJsonConverter(secretKey, cipherAlgorithm);
 			messageConverters.add(converter);
 		}
 		return messageConverters;
 	}
 
-	private static HttpMessageConverter<?> getSecuredJsonConverter(String secretKey) {
+	private static HttpMessageConverter<?> getSecuredJsonConverter(String secretKey, String cipherAlgorithm) {
 		MappingJackson2HttpMessageConverter httpConverter = new MappingJackson2HttpMessageConverter();
 		List<MediaType> mediaTypes = new ArrayList<MediaType>();
 		mediaTypes.add(new MediaType("application", "secured+json", Charset.forName("UTF-8")));
 		httpConverter.setSupportedMediaTypes(mediaTypes);
-		AES256Crypto crypto = new AES256Crypto(secretKey);
+		AES256Crypto crypto = StringUtils.isEmpty(cipherAlgorithm) ? new AES256Crypto(secretKey) : new AES256Crypto(cipherAlgorithm, secretKey);
 		HttpMessageConverter<?> converter = new BHiveSecuredHttpMessageConverter<Object>(crypto, httpConverter);
 		return converter;
 	}
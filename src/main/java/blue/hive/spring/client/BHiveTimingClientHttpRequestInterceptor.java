@@ -0,0 +1,34 @@
+package blue.hive.spring.client;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import blue.hive.spring.web.log.BHiveRequestTiming;
+
+/**
+ * Request Interceptor for request timing (외부 API 호출시간을 요청별 처리시간의 rest 구간으로 기록)
+ *
+ * 이후 Interceptor와 요청 실행까지의 시간을 기록하며 Interceptor 밖에서 읽는 응답 Body 시간은 포함하지 않는다.
+ * 요청 처리중(BHiveServerTimingFilter)이 아니면 요청만 실행한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveTimingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		BHiveRequestTiming timing = BHiveRequestTiming.current();
+		if(timing == null) {
+			return execution.execute(request, body);
+		}
+		timing.enter(BHiveRequestTiming.Segment.REST);
+		try {
+			return execution.execute(request, body);
+		} finally {
+			timing.exit(BHiveRequestTiming.Segment.REST);
+		}
+	}
+}
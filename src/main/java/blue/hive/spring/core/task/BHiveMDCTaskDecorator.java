@@ -0,0 +1,96 @@
+package blue.hive.spring.core.task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import blue.hive.util.BHiveLogUtil;
+
+/**
+ * 작업 등록 쓰레드의 MDC(요청 추적 ID 등)를 작업 실행 쓰레드로 전달하는 TaskDecorator
+ *
+ * 실행 쓰레드의 기존 MDC는 작업 종료후 복원한다.
+ * generateCorrelationId이면 등록 쓰레드에 요청 추적 ID가 없을때(스케줄러 등) 작업별로 새로 생성한다.
+ * ThreadPoolTaskExecutor.setTaskDecorator에 지정하거나 BHiveMDCTaskExecutor로 기존 TaskExecutor를 감싸서 사용한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveMDCTaskDecorator implements TaskDecorator {
+
+	/** 요청 추적 ID가 없으면 생성 */
+	private boolean generateCorrelationId = false;
+
+	public BHiveMDCTaskDecorator() {
+	}
+
+	public BHiveMDCTaskDecorator(boolean generateCorrelationId) {
+		this.generateCorrelationId = generateCorrelationId;
+	}
+
+	@Override
+	public Runnable decorate(final Runnable runnable) {
+		final Map<String, String> context = captureContext();
+		return new Runnable() {
+			public void run() {
+				Map<String, String> previous = MDC.getCopyOfContextMap();
+				applyContext(context);
+				try {
+					runnable.run();
+				} finally {
+					applyContext(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Callable에 MDC 전달
+	 * @param <T> 결과 타입
+	 * @param callable 작업
+	 * @return MDC를 적용하여 실행하는 작업
+	 */
+	public <T> Callable<T> decorate(final Callable<T> callable) {
+		final Map<String, String> context = captureContext();
+		return new Callable<T>() {
+			public T call() throws Exception {
+				Map<String, String> previous = MDC.getCopyOfContextMap();
+				applyContext(context);
+				try {
+					return callable.call();
+				} finally {
+					applyContext(previous);
+				}
+			}
+		};
+	}
+
+	private Map<String, String> captureContext() {
+		Map<String, String> context = MDC.getCopyOfContextMap();
+		if(generateCorrelationId && (context == null || context.get(BHiveLogUtil.MDC_CORRELATION_ID) == null)) {
+			if(context == null) {
+				context = new HashMap<String, String>();
+			}
+			context.put(BHiveLogUtil.MDC_CORRELATION_ID, BHiveLogUtil.createCorrelationId());
+		}
+		return context;
+	}
+
+	private static void applyContext(Map<String, String> context) {
+		if(context == null) {
+			MDC.clear();
+		} else {
+			MDC.setContextMap(context);
+		}
+	}
+
+	public boolean isGenerateCorrelationId() {
+		return generateCorrelationId;
+	}
+
+	public void setGenerateCorrelationId(boolean generateCorrelationId) {
+		this.generateCorrelationId = generateCorrelationId;
+	}
+}
@@ -0,0 +1,85 @@
+package blue.hive.spring.core.task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * 작업 등록 쓰레드의 MDC(요청 추적 ID 등)를 전달하는 TaskExecutor Decorator
+ *
+ * <pre>
+ * &lt;bean id="mdcExecutor" class="blue.hive.spring.core.task.BHiveMDCTaskExecutor"&gt;
+ * 	&lt;constructor-arg ref="executor"/&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveMDCTaskExecutor implements AsyncTaskExecutor {
+
+	/** 실제 작업을 실행할 TaskExecutor */
+	private final TaskExecutor delegate;
+
+	private final BHiveMDCTaskDecorator taskDecorator;
+
+	public BHiveMDCTaskExecutor(TaskExecutor delegate) {
+		this(delegate, false);
+	}
+
+	/**
+	 * 생성자
+	 * @param delegate 실제 작업을 실행할 TaskExecutor
+	 * @param generateCorrelationId 등록 쓰레드에 요청 추적 ID가 없으면 작업별로 생성
+	 */
+	public BHiveMDCTaskExecutor(TaskExecutor delegate, boolean generateCorrelationId) {
+		Assert.notNull(delegate, "delegate TaskExecutor is required");
+		this.delegate = delegate;
+		this.taskDecorator = new BHiveMDCTaskDecorator(generateCorrelationId);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		delegate.execute(taskDecorator.decorate(task));
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		if(delegate instanceof AsyncTaskExecutor) {
+			((AsyncTaskExecutor)delegate).execute(taskDecorator.decorate(task), startTimeout);
+		} else {
+			execute(task);
+		}
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		if(delegate instanceof AsyncTaskExecutor) {
+			return ((AsyncTaskExecutor)delegate).submit(taskDecorator.decorate(task));
+		}
+		FutureTask<Object> future = new FutureTask<Object>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		if(delegate instanceof AsyncTaskExecutor) {
+			return ((AsyncTaskExecutor)delegate).submit(taskDecorator.decorate(task));
+		}
+		FutureTask<T> future = new FutureTask<T>(task);
+		execute(future);
+		return future;
+	}
+
+	/**
+	 * 실제 작업을 실행할 TaskExecutor
+	 * @return TaskExecutor
+	 */
+	public TaskExecutor getDelegate() {
+		return delegate;
+	}
+}
@@ -10,6 +10,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.util.StringUtils;
 
+import blue.hive.io.BHiveBoundedByteArrayOutputStream;
+
 /**
  * HttpInputMessage을 Tee처리하여 입력내용을
  * 내부 ByteArray에 저장하여 출력등에 사용할 수 있는 유틸 클래스
@@ -23,8 +25,18 @@ public class BHiveTeeHttpInputMessage implements HttpInputMessage {
 	ByteArrayOutputStream baos;
 
 	public BHiveTeeHttpInputMessage(HttpInputMessage httpInputMessage) throws IOException {
+		this(httpInputMessage, -1);
+	}
+
+	/**
+	 * 생성자
+	 * @param httpInputMessage 대상
+	 * @param maxCaptureLength 복사할 최대 바이트 수 (음수이면 제한 없음)
+	 * @throws IOException Body 획득 실패
+	 */
+	public BHiveTeeHttpInputMessage(HttpInputMessage httpInputMessage, int maxCaptureLength) throws IOException {
 		this.httpInputMessage = httpInputMessage;
-		baos = new ByteArrayOutputStream();
+		baos = maxCaptureLength < 0 ? new ByteArrayOutputStream() : new BHiveBoundedByteArrayOutputStream(maxCaptureLength);
 		customBodyStream = new TeeInputStream(httpInputMessage.getBody(), baos);
 	}
 
@@ -57,4 +69,11 @@ public class BHiveTeeHttpInputMessage implements HttpInputMessage {
 		return StringUtils.trimTrailingWhitespace(this.baos.toString("UTF-8"));
 	}
 
+	/**
+	 * @return 최대 복사 크기를 넘어 입력내용 일부를 버렸으면 true
+	 */
+	public boolean isTruncated() {
+		return baos instanceof BHiveBoundedByteArrayOutputStream && ((BHiveBoundedByteArrayOutputStream)baos).isTruncated();
+	}
+
 }
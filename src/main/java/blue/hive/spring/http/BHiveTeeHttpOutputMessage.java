@@ -10,6 +10,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.util.StringUtils;
 
+import blue.hive.io.BHiveBoundedByteArrayOutputStream;
+
 /**
  * HttpOutputMessage을 Tee처리하여 출력내용을
  * 내부 ByteArray에 저장하여 출력등에 사용할 수 있는 유틸 클래스
@@ -23,8 +25,18 @@ public class BHiveTeeHttpOutputMessage implements HttpOutputMessage {
 	ByteArrayOutputStream baos;
 
 	public BHiveTeeHttpOutputMessage(HttpOutputMessage httpOutputMessage) throws IOException {
+		this(httpOutputMessage, -1);
+	}
+
+	/**
+	 * 생성자
+	 * @param httpOutputMessage 대상
+	 * @param maxCaptureLength 복사할 최대 바이트 수 (음수이면 제한 없음)
+	 * @throws IOException Body 획득 실패
+	 */
+	public BHiveTeeHttpOutputMessage(HttpOutputMessage httpOutputMessage, int maxCaptureLength) throws IOException {
 		this.httpOutputMessage = httpOutputMessage;
-		baos = new ByteArrayOutputStream();
+		baos = maxCaptureLength < 0 ? new ByteArrayOutputStream() : new BHiveBoundedByteArrayOutputStream(maxCaptureLength);
 		customBodyStream = new TeeOutputStream(httpOutputMessage.getBody(), baos);
 	}
 
@@ -57,4 +69,11 @@ public class BHiveTeeHttpOutputMessage implements HttpOutputMessage {
 		return StringUtils.trimTrailingWhitespace(this.baos.toString("UTF-8"));
 	}
 
+	/**
+	 * @return 최대 복사 크기를 넘어 출력내용 일부를 버렸으면 true
+	 */
+	public boolean isTruncated() {
+		return baos instanceof BHiveBoundedByteArrayOutputStream && ((BHiveBoundedByteArrayOutputStream)baos).isTruncated();
+	}
+
 }
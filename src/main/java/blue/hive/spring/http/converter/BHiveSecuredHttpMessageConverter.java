@@ -23,6 +23,10 @@ import blue.hive.spring.http.BHiveTeeHttpOutputMessage;
 /**
  * {@link HttpMessageConverter}에 암호화 기능을 추가하는 Generic Converter
  *
+ * 암호문/평문 복사(Tee)는 DEBUG 로그가 켜져있을 때만 maxLogPayloadLength 바이트까지 저장한다.
+ * bufferedThreshold 이하의 메시지는 Stream 대신 버퍼에 모아 한번에 암복호화한다. (0이하면 항상 Stream 처리)
+ * crypto가 AES-GCM이면 Envelope 헤더를 붙여 암호화하고, 읽을때는 헤더 유무로 GCM/기존 CBC 암호문을 구분하여 복호화한다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  *
  */
@@ -32,6 +36,12 @@ public class BHiveSecuredHttpMessageConverter<T> implements HttpMessageConverter
 	AES256Crypto crypto;
 	HttpMessageConverter<T> httpConverter = null;
 
+	/** DEBUG 로그에 출력할 암호문/평문 최대 바이트 수 */
+	int maxLogPayloadLength = 4096;
+
+	/** 한번에 암복호화할 메시지 최대 크기 */
+	int bufferedThreshold = AES256Crypto.DEFAULT_BUFFERED_THRESHOLD;
+
 	/**
 	 * 생성자
 	 * @param crypto 전송계층에 암호화를 처리하기 위한 암호화처리기
@@ -71,15 +81,19 @@ public class BHiveSecuredHttpMessageConverter<T> implements HttpMessageConverter
 	 * @see org.springframework.http.converter.HttpMessageConverter#read(java.lang.Class, org.springframework.http.HttpInputMessage)
 	 */
 	public T read(Class<? extends T> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
-		BHiveTeeHttpInputMessage teeHttpInputMessage = new BHiveTeeHttpInputMessage(inputMessage); //최초 입력 암호문 Tee처리
-		InputStream cis = this.crypto.getDecryptChiperInputStream(teeHttpInputMessage.getBody());
+		if(!logger.isDebugEnabled()) {
+			InputStream cis = this.crypto.getBufferedDecryptChiperInputStream(inputMessage.getBody(), inputMessage.getHeaders().getContentLength(), bufferedThreshold);
+			return httpConverter.read(clazz, new BHiveHttpInputMessage(inputMessage, cis));
+		}
+		BHiveTeeHttpInputMessage teeHttpInputMessage = new BHiveTeeHttpInputMessage(inputMessage, maxLogPayloadLength); //최초 입력 암호문 Tee처리
+		InputStream cis = this.crypto.getBufferedDecryptChiperInputStream(teeHttpInputMessage.getBody(), inputMessage.getHeaders().getContentLength(), bufferedThreshold);
 		BHiveHttpInputMessage cryptoInputMessage = new BHiveHttpInputMessage(teeHttpInputMessage, cis);
-		BHiveTeeHttpInputMessage teeCryptoHttpInputMessage = new BHiveTeeHttpInputMessage(cryptoInputMessage); //복호화된 평문 Tee처리
+		BHiveTeeHttpInputMessage teeCryptoHttpInputMessage = new BHiveTeeHttpInputMessage(cryptoInputMessage, maxLogPayloadLength); //복호화된 평문 Tee처리
 		T result = httpConverter.read(clazz, teeCryptoHttpInputMessage);
 		logger.debug("\r\n  >>>> READ: {}"
 				+ "\r\n  >>>>       => {}",
-				teeHttpInputMessage.getTeeInputString(),
-				teeCryptoHttpInputMessage.getTeeInputString());
+				teeString(teeHttpInputMessage.getTeeInputString(), teeHttpInputMessage.isTruncated()),
+				teeString(teeCryptoHttpInputMessage.getTeeInputString(), teeCryptoHttpInputMessage.isTruncated()));
 		return result;
 	}
 
@@ -87,16 +101,52 @@ public class BHiveSecuredHttpMessageConverter<T> implements HttpMessageConverter
 	 * @see org.springframework.http.converter.HttpMessageConverter#write(java.lang.Object, org.springframework.http.MediaType, org.springframework.http.HttpOutputMessage)
 	 */
 	public void write(T t, MediaType contentType, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
-		BHiveTeeHttpOutputMessage teeHttpOutputMessage = new BHiveTeeHttpOutputMessage(outputMessage); //최종 암호문 출력 Tee처리
-		OutputStream cos = this.crypto.getEncryptChiperOutputStream(teeHttpOutputMessage.getBody());
+		if(!logger.isDebugEnabled()) {
+			OutputStream cos = this.crypto.getBufferedEncryptChiperOutputStream(outputMessage.getBody(), bufferedThreshold);
+			httpConverter.write(t, contentType, new BHiveHttpOutputMessage(outputMessage, cos));
+			cos.close();
+			return;
+		}
+		BHiveTeeHttpOutputMessage teeHttpOutputMessage = new BHiveTeeHttpOutputMessage(outputMessage, maxLogPayloadLength); //최종 암호문 출력 Tee처리
+		OutputStream cos = this.crypto.getBufferedEncryptChiperOutputStream(teeHttpOutputMessage.getBody(), bufferedThreshold);
 		BHiveHttpOutputMessage cryptoOutputMessage = new BHiveHttpOutputMessage(teeHttpOutputMessage, cos);
-		BHiveTeeHttpOutputMessage teeCryptoHttpOutputMessage = new BHiveTeeHttpOutputMessage(cryptoOutputMessage); //평문 Tee처리
+		BHiveTeeHttpOutputMessage teeCryptoHttpOutputMessage = new BHiveTeeHttpOutputMessage(cryptoOutputMessage, maxLogPayloadLength); //평문 Tee처리
 		httpConverter.write(t, contentType, teeCryptoHttpOutputMessage);
 		cos.close();
 		logger.debug("\r\n  >>>> WRITE: {}"
 				+ "\r\n  >>>>        => {}",
-				teeCryptoHttpOutputMessage.getTeeOutputString(),
-				teeHttpOutputMessage.getTeeOutputString());
+				teeString(teeCryptoHttpOutputMessage.getTeeOutputString(), teeCryptoHttpOutputMessage.isTruncated()),
+				teeString(teeHttpOutputMessage.getTeeOutputString(), teeHttpOutputMessage.isTruncated()));
+	}
+
+	/**
+	 * 로그용 Tee 문자열 (최대 크기를 넘어 잘렸으면 표시)
+	 */
+	private static String teeString(String tee, boolean truncated) {
+		return truncated ? tee + "...(truncated)" : tee;
+	}
+
+	public int getMaxLogPayloadLength() {
+		return maxLogPayloadLength;
+	}
+
+	/**
+	 * DEBUG 로그에 출력할 암호문/평문 최대 바이트 수
+	 * @param maxLogPayloadLength 최대 바이트 수
+	 */
+	public void setMaxLogPayloadLength(int maxLogPayloadLength) {
+		this.maxLogPayloadLength = maxLogPayloadLength;
 	}
-}
 
+	public int getBufferedThreshold() {
+		return bufferedThreshold;
+	}
+
+	/**
+	 * 한번에 암복호화할 메시지 최대 크기 (0이하면 항상 Stream 처리)
+	 * @param bufferedThreshold 최대 바이트 수
+	 */
+	public void setBufferedThreshold(int bufferedThreshold) {
+		this.bufferedThreshold = bufferedThreshold;
+	}
+}
@@ -9,6 +9,7 @@ import blue.hive.exception.BHiveConfigurationException;
 import blue.hive.spring.core.task.BHiveIntervalCallable;
 import blue.hive.spring.core.task.BHiveIntervalTask;
 import blue.hive.spring.core.task.BHiveJobCallable;
+import blue.hive.spring.core.task.BHiveMDCTaskExecutor;
 import blue.hive.util.BHiveHostingUtil;
 import blue.hive.util.anyframe.StringUtil;
 
@@ -49,7 +50,8 @@ public class BHiveBatchBeanJob implements InitializingBean, BHiveIntervalCallabl
 		super();
 		this.instanceNameToRunning = instanceNameToRunning;
 		this.batchBean = batchBean;
-		this.taskExecutor = taskExecutor;
+		//배치 실행별 요청 추적 ID를 생성하여 MDC로 전달
+		this.taskExecutor = (taskExecutor == null || taskExecutor instanceof BHiveMDCTaskExecutor) ? taskExecutor : new BHiveMDCTaskExecutor(taskExecutor, true);
 	}
 
 	/* (non-Javadoc)
@@ -0,0 +1,127 @@
+package blue.hive.spring.web.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free 처리시간 히스토그램 (HDR 방식 Log-Linear Bucket)
+ *
+ * 2의 거듭제곱 구간마다 32개의 선형 Bucket을 두어 상대오차 약 3% 이내로 백분위수를 구한다.
+ * 기록은 Atomic 증가 연산만 사용하므로 여러 쓰레드에서 Lock 없이 동시에 기록할 수 있다.
+ * 2^40 ns(약 18분)를 넘는 값은 마지막 Bucket에 기록된다. (최대값은 정확히 유지)
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveLatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_VALUE_BITS = 40;
+	private static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+
+	/**
+	 * 처리시간 기록
+	 * @param nanos 처리시간 (ns)
+	 * @param error 예외 발생 여부
+	 */
+	public void record(long nanos, boolean error) {
+		if(nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(bucketIndex(nanos));
+		totalCount.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+		if(error) {
+			errorCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * 현재 통계 Snapshot (기록중에는 근사값)
+	 * @param name 통계 이름
+	 * @return Snapshot
+	 */
+	public BHiveLatencySnapshot snapshot(String name) {
+		long[] bucketCounts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			bucketCounts[i] = counts.get(i);
+			total += bucketCounts[i];
+		}
+		long max = maxNanos.get();
+		double meanMillis = total == 0 ? 0 : toMillis(totalNanos.get()) / Math.max(totalCount.get(), 1);
+		return new BHiveLatencySnapshot(name, total, errorCount.get(), meanMillis,
+				toMillis(percentile(bucketCounts, total, 0.50, max)),
+				toMillis(percentile(bucketCounts, total, 0.95, max)),
+				toMillis(percentile(bucketCounts, total, 0.99, max)),
+				toMillis(max));
+	}
+
+	/**
+	 * 기록 초기화
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.set(0);
+		totalNanos.set(0);
+		maxNanos.set(0);
+		errorCount.set(0);
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	private static long percentile(long[] bucketCounts, long total, double percentile, long max) {
+		if(total == 0) {
+			return 0;
+		}
+		long rank = (long)Math.ceil(total * percentile);
+		long accumulated = 0;
+		for (int i = 0; i < bucketCounts.length; i++) {
+			accumulated += bucketCounts[i];
+			if(accumulated >= rank) {
+				return Math.min(bucketUpperBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	static int bucketIndex(long value) {
+		if(value < SUB_BUCKET_COUNT) {
+			return (int)value;
+		}
+		if(value > MAX_TRACKABLE_VALUE) {
+			return BUCKET_COUNT - 1;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if(index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		int subBucket = index % SUB_BUCKET_COUNT;
+		return ((long)(SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1000000.0;
+	}
+}
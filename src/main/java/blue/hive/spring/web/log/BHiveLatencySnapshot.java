@@ -0,0 +1,78 @@
+package blue.hive.spring.web.log;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * 처리시간 통계 Snapshot (JMX, JSON 출력용)
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveLatencySnapshot {
+
+	private final String name;
+	private final long count;
+	private final long errorCount;
+	private final double meanMillis;
+	private final double p50Millis;
+	private final double p95Millis;
+	private final double p99Millis;
+	private final double maxMillis;
+
+	@ConstructorProperties({ "name", "count", "errorCount", "meanMillis", "p50Millis", "p95Millis", "p99Millis", "maxMillis" })
+	public BHiveLatencySnapshot(String name, long count, long errorCount, double meanMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+		this.name = name;
+		this.count = count;
+		this.errorCount = errorCount;
+		this.meanMillis = meanMillis;
+		this.p50Millis = p50Millis;
+		this.p95Millis = p95Millis;
+		this.p99Millis = p99Millis;
+		this.maxMillis = maxMillis;
+	}
+
+	/** @return 통계 이름 (계층:클래스#메소드(파라미터)) */
+	public String getName() {
+		return name;
+	}
+
+	/** @return 호출 수 */
+	public long getCount() {
+		return count;
+	}
+
+	/** @return 예외 발생 수 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/** @return 평균 (ms) */
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	/** @return 50% 백분위수 (ms) */
+	public double getP50Millis() {
+		return p50Millis;
+	}
+
+	/** @return 95% 백분위수 (ms) */
+	public double getP95Millis() {
+		return p95Millis;
+	}
+
+	/** @return 99% 백분위수 (ms) */
+	public double getP99Millis() {
+		return p99Millis;
+	}
+
+	/** @return 최대 (ms) */
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [count=" + count + ", errors=" + errorCount + ", mean=" + meanMillis + "ms, p50=" + p50Millis
+				+ "ms, p95=" + p95Millis + "ms, p99=" + p99Millis + "ms, max=" + maxMillis + "ms]";
+	}
+}
@@ -0,0 +1,286 @@
+package blue.hive.spring.web.log;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 로그 출력용 값 Renderer
+ *
+ * Collection/Map/배열은 maxElements개까지, 문자열은 maxLength자까지만 출력하고 나머지는 크기만 표시한다.
+ * 타입별 Renderer를 등록할 수 있으며 나중에 등록한 Renderer가 우선한다. (클래스별 결정은 캐시)
+ * lazy/lazyArgs는 toString이 호출될때(로그가 실제로 출력될때) 문자열을 만드는 객체를 반환하므로
+ * slf4j의 {} 파라미터로 전달하면 출력되지 않는 로그는 문자열을 만들지 않는다.
+ *
+ * <pre>
+ * logger.debug("#### - return: {}", renderer.lazy(retVal));
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveLogArgumentRenderer {
+
+	/**
+	 * 타입별 Renderer
+	 */
+	public interface TypeRenderer {
+		/**
+		 * 값 출력
+		 * @param value 출력할 값 (not null)
+		 * @param out 출력 대상
+		 * @param renderer 하위 값 출력과 길이 제한에 사용할 Renderer
+		 * @param depth 현재 중첩 깊이 (하위 값은 depth + 1로 출력)
+		 */
+		void render(Object value, StringBuilder out, BHiveLogArgumentRenderer renderer, int depth);
+	}
+
+	/** 등록된 Renderer 없음 (캐시용) */
+	private static final TypeRenderer DEFAULT_RENDERER = new TypeRenderer() {
+		public void render(Object value, StringBuilder out, BHiveLogArgumentRenderer renderer, int depth) {
+			renderer.appendTruncated(out, value.toString());
+		}
+	};
+
+	/** Collection/Map/배열 최대 출력 원소 수 */
+	private int maxElements = 10;
+
+	/** 문자열 최대 출력 길이 */
+	private int maxLength = 1000;
+
+	/** 최대 중첩 깊이 */
+	private int maxDepth = 3;
+
+	private final List<RendererEntry> renderers = new CopyOnWriteArrayList<RendererEntry>();
+	private final ConcurrentMap<Class<?>, TypeRenderer> resolvedRenderers = new ConcurrentHashMap<Class<?>, TypeRenderer>();
+
+	public BHiveLogArgumentRenderer() {
+		registerRenderer(Object.class, DEFAULT_RENDERER);
+		registerRenderer(Iterable.class, new TypeRenderer() {
+			public void render(Object value, StringBuilder out, BHiveLogArgumentRenderer renderer, int depth) {
+				Iterator<?> it = ((Iterable<?>)value).iterator();
+				int size = value instanceof Collection ? ((Collection<?>)value).size() : -1;
+				out.append('[');
+				int count = 0;
+				while (it.hasNext()) {
+					if(count >= renderer.getMaxElements()) {
+						out.append(", ...");
+						break;
+					}
+					if(count > 0) {
+						out.append(", ");
+					}
+					renderer.render(it.next(), out, depth + 1);
+					count++;
+				}
+				out.append(']');
+				if(size > renderer.getMaxElements()) {
+					out.append("(size=").append(size).append(')');
+				}
+			}
+		});
+		registerRenderer(Map.class, new TypeRenderer() {
+			public void render(Object value, StringBuilder out, BHiveLogArgumentRenderer renderer, int depth) {
+				Map<?, ?> map = (Map<?, ?>)value;
+				out.append('{');
+				int count = 0;
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					if(count >= renderer.getMaxElements()) {
+						out.append(", ...");
+						break;
+					}
+					if(count > 0) {
+						out.append(", ");
+					}
+					renderer.render(entry.getKey(), out, depth + 1);
+					out.append('=');
+					renderer.render(entry.getValue(), out, depth + 1);
+					count++;
+				}
+				out.append('}');
+				if(map.size() > renderer.getMaxElements()) {
+					out.append("(size=").append(map.size()).append(')');
+				}
+			}
+		});
+		registerRenderer(CharSequence.class, new TypeRenderer() {
+			public void render(Object value, StringBuilder out, BHiveLogArgumentRenderer renderer, int depth) {
+				renderer.appendTruncated(out, (CharSequence)value);
+			}
+		});
+	}
+
+	/**
+	 * 타입별 Renderer 등록 (먼저 등록된 Renderer보다 우선)
+	 * @param type 대상 타입 (하위 타입 포함)
+	 * @param renderer Renderer
+	 */
+	public void registerRenderer(Class<?> type, TypeRenderer renderer) {
+		renderers.add(0, new RendererEntry(type, renderer));
+		resolvedRenderers.clear();
+	}
+
+	/**
+	 * 값을 로그 문자열로 출력
+	 * @param value 값
+	 * @return 로그 문자열
+	 */
+	public String render(Object value) {
+		StringBuilder out = new StringBuilder();
+		render(value, out, 0);
+		return out.toString();
+	}
+
+	/**
+	 * 값을 로그 문자열로 출력
+	 * @param value 값
+	 * @param out 출력 대상
+	 * @param depth 중첩 깊이
+	 */
+	public void render(Object value, StringBuilder out, int depth) {
+		if(value == null) {
+			out.append("<null>");
+			return;
+		}
+		if(depth > maxDepth) {
+			out.append("...");
+			return;
+		}
+		Class<?> type = value.getClass();
+		if(type.isArray()) {
+			renderArray(value, out, depth);
+			return;
+		}
+		try {
+			resolveRenderer(type).render(value, out, this, depth);
+		} catch (RuntimeException e) {
+			out.append('<').append(type.getSimpleName()).append(": ").append(e.toString()).append('>');
+		}
+	}
+
+	private void renderArray(Object array, StringBuilder out, int depth) {
+		int length = Array.getLength(array);
+		Class<?> componentType = array.getClass().getComponentType();
+		if(componentType == byte.class || componentType == char.class) {
+			out.append(componentType.getName()).append('[').append(length).append(']');
+			return;
+		}
+		out.append('[');
+		int count = Math.min(length, maxElements);
+		for (int i = 0; i < count; i++) {
+			if(i > 0) {
+				out.append(", ");
+			}
+			render(Array.get(array, i), out, depth + 1);
+		}
+		if(length > count) {
+			out.append(", ...");
+		}
+		out.append(']');
+		if(length > count) {
+			out.append("(length=").append(length).append(')');
+		}
+	}
+
+	private TypeRenderer resolveRenderer(Class<?> type) {
+		TypeRenderer renderer = resolvedRenderers.get(type);
+		if(renderer == null) {
+			renderer = DEFAULT_RENDERER;
+			for (RendererEntry entry : renderers) {
+				if(entry.type.isAssignableFrom(type)) {
+					renderer = entry.renderer;
+					break;
+				}
+			}
+			resolvedRenderers.put(type, renderer);
+		}
+		return renderer;
+	}
+
+	/**
+	 * maxLength로 잘라서 출력
+	 * @param out 출력 대상
+	 * @param text 문자열
+	 */
+	public void appendTruncated(StringBuilder out, CharSequence text) {
+		if(text.length() <= maxLength) {
+			out.append(text);
+			return;
+		}
+		out.append(text, 0, maxLength).append("...(length=").append(text.length()).append(')');
+	}
+
+	/**
+	 * toString이 호출될때 render하는 객체
+	 * @param value 값
+	 * @return 지연 출력 객체
+	 */
+	public Object lazy(final Object value) {
+		return new Object() {
+			@Override
+			public String toString() {
+				return render(value);
+			}
+		};
+	}
+
+	/**
+	 * toString이 호출될때 메소드 Arguments를 render하는 객체
+	 * @param args 메소드 Arguments
+	 * @return 지연 출력 객체
+	 */
+	public Object lazyArgs(final Object[] args) {
+		return new Object() {
+			@Override
+			public String toString() {
+				if(args == null || args.length == 0) {
+					return "\t\tno arguments.";
+				}
+				StringBuilder out = new StringBuilder();
+				for (int i = 0; i < args.length; i++) {
+					out.append("\r\n\t####  - args[").append(i).append("]: ");
+					render(args[i], out, 0);
+				}
+				return out.toString();
+			}
+		};
+	}
+
+	public int getMaxElements() {
+		return maxElements;
+	}
+
+	public void setMaxElements(int maxElements) {
+		this.maxElements = maxElements;
+	}
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	private static class RendererEntry {
+		private final Class<?> type;
+		private final TypeRenderer renderer;
+
+		RendererEntry(Class<?> type, TypeRenderer renderer) {
+			this.type = type;
+			this.renderer = renderer;
+		}
+	}
+}
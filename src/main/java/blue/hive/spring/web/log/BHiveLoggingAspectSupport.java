@@ -0,0 +1,192 @@
+package blue.hive.spring.web.log;
+
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logging Aspect 공통 처리
+ *
+ * 계층별 Aspect는 하나의 @Around Advice에서 proceedWithLogging을 호출한다.
+ * timingEnabled이면 처리시간(nanoTime)을 메소드별 히스토그램(BHiveMethodTimingRegistry)에 기록하고
+ * verboseLogging이고 DEBUG이면 START/END/EXCEPTION/ELAPSED TIME 로그를 출력한다.
+ * 요청 처리중(BHiveServerTimingFilter)이면 getTimingSegment 구간의 요청별 처리시간(BHiveRequestTiming)에도 누적한다.
+ * 모두 꺼져있으면 대상 메소드만 호출한다.
+ * Arguments와 반환값은 BHiveLogArgumentRenderer의 지연 출력 객체로 전달하므로 로그가 실제로 출력될때만
+ * 크기가 제한된 문자열로 만들어진다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public abstract class BHiveLoggingAspectSupport {
+
+	/** Logger available to subclasses */
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 처리시간 히스토그램 기록 여부 */
+	private boolean timingEnabled = true;
+
+	/** DEBUG 상세 로그 출력 여부 */
+	private boolean verboseLogging = true;
+
+	/** 처리시간 히스토그램 저장소 */
+	private BHiveMethodTimingRegistry timingRegistry = BHiveMethodTimingRegistry.getDefault();
+
+	/** Arguments/반환값 Renderer */
+	private BHiveLogArgumentRenderer argumentRenderer = createArgumentRenderer();
+
+	/**
+	 * Arguments/반환값 Renderer 생성 (타입별 Renderer 추가시 Override)
+	 * @return Renderer
+	 */
+	protected BHiveLogArgumentRenderer createArgumentRenderer() {
+		return new BHiveLogArgumentRenderer();
+	}
+
+	/**
+	 * 통계 이름에 사용할 계층 이름
+	 * @return 계층 이름 (controller, service, repository)
+	 */
+	protected abstract String getLayerName();
+
+	/**
+	 * 요청별 처리시간(Server-Timing)에 누적할 구간
+	 * @return 구간 (null이면 누적하지 않음)
+	 */
+	protected BHiveRequestTiming.Segment getTimingSegment() {
+		return null;
+	}
+
+	/**
+	 * 상세 로그에 메소드 Arguments 출력 여부
+	 * @return 출력하면 true
+	 */
+	protected boolean isLogArguments() {
+		return true;
+	}
+
+	/**
+	 * 대상 메소드를 호출하면서 처리시간 기록과 상세 로그 출력
+	 * @param pjp ProceedingJoinPoint
+	 * @return 대상 메소드 반환값
+	 * @throws Throwable 대상 메소드 예외
+	 */
+	protected Object proceedWithLogging(ProceedingJoinPoint pjp) throws Throwable {
+		boolean verbose = verboseLogging && logger.isDebugEnabled();
+		BHiveRequestTiming.Segment segment = getTimingSegment();
+		BHiveRequestTiming requestTiming = segment != null ? BHiveRequestTiming.current() : null;
+		if(!timingEnabled && !verbose && requestTiming == null) {
+			return pjp.proceed();
+		}
+
+		if(verbose) {
+			logger.debug("\r\n\t##################################################"
+					+ "\r\n\t#### START {}#{}{}", pjp.getTarget().getClass().getSimpleName(), pjp.getSignature().getName(), lazyArgs(pjp));
+		}
+		Throwable thrown = null;
+		Object retVal = null;
+		if(requestTiming != null) {
+			requestTiming.enter(segment);
+		}
+		long startTime = System.nanoTime();
+		try {
+			// execute the profiled method
+			retVal = pjp.proceed();
+			return retVal;
+		} catch (Throwable e) {
+			thrown = e;
+			throw e;
+		} finally {
+			long elapsed = System.nanoTime() - startTime;
+			if(requestTiming != null) {
+				requestTiming.exit(segment);
+			}
+			if(timingEnabled) {
+				getTimer(pjp).record(elapsed, thrown != null);
+			}
+			if(verbose) {
+				// Log the method's profiling result
+				logger.debug("\r\n\t#### ELAPSED TIME : {} ms{}", elapsed / 1000000, thrown != null ? " (thrown Exception)" : "");
+				if(thrown == null) {
+					logger.debug("\r\n\t#### END {}#{}{}\r\n\t####  - return: {}"
+							+ "\r\n\t##################################################",
+							pjp.getTarget().getClass().getSimpleName(), pjp.getSignature().getName(), lazyArgs(pjp),
+							retVal == null ? "" : argumentRenderer.lazy(retVal));
+				} else {
+					logger.debug("\r\n\t#### EXCEPTION AT {}#{}{}\r\n\t####  - EXCEPTION : {}"
+							+ "\r\n\t##################################################",
+							pjp.getTarget().getClass().getSimpleName(), pjp.getSignature().getName(), lazyArgs(pjp),
+							argumentRenderer.lazy(thrown));
+				}
+			}
+		}
+	}
+
+	private BHiveMethodTimingRegistry.MethodTimer getTimer(ProceedingJoinPoint pjp) {
+		Signature signature = pjp.getSignature();
+		Method method = ((MethodSignature)signature).getMethod();
+		Object target = pjp.getTarget();
+		Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+		return timingRegistry.getTimer(getLayerName(), targetClass, method);
+	}
+
+	/**
+	 * Method Arguments의 지연 출력 객체
+	 * @param joinPoint JoinPoint
+	 * @return Arguments 지연 출력 객체 (isLogArguments가 아니면 빈 문자열)
+	 */
+	private Object lazyArgs(JoinPoint joinPoint) {
+		if(!isLogArguments()) {
+			return "";
+		}
+		return argumentRenderer.lazyArgs(joinPoint.getArgs());
+	}
+
+	public boolean isTimingEnabled() {
+		return timingEnabled;
+	}
+
+	public void setTimingEnabled(boolean timingEnabled) {
+		this.timingEnabled = timingEnabled;
+	}
+
+	public boolean isVerboseLogging() {
+		return verboseLogging;
+	}
+
+	public void setVerboseLogging(boolean verboseLogging) {
+		this.verboseLogging = verboseLogging;
+	}
+
+	public BHiveMethodTimingRegistry getTimingRegistry() {
+		return timingRegistry;
+	}
+
+	public void setTimingRegistry(BHiveMethodTimingRegistry timingRegistry) {
+		this.timingRegistry = timingRegistry;
+	}
+
+	public BHiveLogArgumentRenderer getArgumentRenderer() {
+		return argumentRenderer;
+	}
+
+	/**
+	 * Collection/Map/배열 최대 출력 원소 수
+	 * @param maxElements 최대 원소 수
+	 */
+	public void setMaxLogElements(int maxElements) {
+		this.argumentRenderer.setMaxElements(maxElements);
+	}
+
+	/**
+	 * 문자열 최대 출력 길이
+	 * @param maxLength 최대 길이
+	 */
+	public void setMaxLogLength(int maxLength) {
+		this.argumentRenderer.setMaxLength(maxLength);
+	}
+}
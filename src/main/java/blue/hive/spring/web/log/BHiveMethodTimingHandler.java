@@ -0,0 +1,57 @@
+package blue.hive.spring.web.log;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.HttpRequestHandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import blue.hive.jackson.BHiveObjectMapper;
+
+/**
+ * 메소드별 처리시간 통계 JSON 출력 Handler
+ *
+ * BeanNameUrlHandlerMapping 등으로 URL에 연결하여 사용한다. (reset=true 파라미터면 출력후 통계 초기화)
+ *
+ * <pre>
+ * &lt;bean name="/monitor/timing" class="blue.hive.spring.web.log.BHiveMethodTimingHandler" /&gt;
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveMethodTimingHandler implements HttpRequestHandler {
+
+	private BHiveMethodTimingRegistry timingRegistry = BHiveMethodTimingRegistry.getDefault();
+
+	private ObjectMapper objectMapper = new BHiveObjectMapper();
+
+	@Override
+	public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		response.setContentType("application/json; charset=UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		objectMapper.writeValue(response.getOutputStream(), timingRegistry.getSnapshots().values());
+		if("true".equals(request.getParameter("reset"))) {
+			timingRegistry.reset();
+		}
+	}
+
+	public BHiveMethodTimingRegistry getTimingRegistry() {
+		return timingRegistry;
+	}
+
+	public void setTimingRegistry(BHiveMethodTimingRegistry timingRegistry) {
+		this.timingRegistry = timingRegistry;
+	}
+
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+}
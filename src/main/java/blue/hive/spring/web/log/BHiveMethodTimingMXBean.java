@@ -0,0 +1,28 @@
+package blue.hive.spring.web.log;
+
+import java.util.Map;
+
+/**
+ * 메소드 처리시간 통계 JMX 인터페이스
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public interface BHiveMethodTimingMXBean {
+
+	/**
+	 * 메소드별 처리시간 통계
+	 * @return 통계 이름 - Snapshot
+	 */
+	Map<String, BHiveLatencySnapshot> getSnapshots();
+
+	/**
+	 * 통계 대상 메소드 수
+	 * @return 메소드 수
+	 */
+	int getMethodCount();
+
+	/**
+	 * 모든 통계 초기화
+	 */
+	void reset();
+}
@@ -0,0 +1,204 @@
+package blue.hive.spring.web.log;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+/**
+ * 메소드별 처리시간 히스토그램 저장소
+ *
+ * Logging Aspect가 (대상 클래스, 메소드)별로 한번만 MethodTimer(통계 ID, 이름, 히스토그램)를 만들고
+ * 이후 호출은 Map 조회와 히스토그램 기록만 한다.
+ * 통계 이름은 계층:전체클래스명#메소드(전체파라미터타입명)으로 패키지가 다른 같은 이름의 클래스도 구분한다.
+ * JMX(MXBean)로 노출하려면 registerMBean을 호출하거나 Spring MBeanExporter에 등록한다.
+ *
+ * <pre>
+ * &lt;bean id="methodTimingRegistry" class="blue.hive.spring.web.log.BHiveMethodTimingRegistry" factory-method="getDefault" init-method="registerMBean" destroy-method="unregisterMBean" /&gt;
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveMethodTimingRegistry implements BHiveMethodTimingMXBean {
+
+	/** 기본 JMX ObjectName */
+	public static final String DEFAULT_OBJECT_NAME = "blue.hive:type=MethodTiming";
+
+	/** Aspect 기본 저장소 */
+	private static final BHiveMethodTimingRegistry defaultRegistry = new BHiveMethodTimingRegistry();
+
+	/** 대상 클래스 - 메소드 - MethodTimer */
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodTimer>> timerMap = new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, MethodTimer>>();
+
+	private final AtomicInteger idSequence = new AtomicInteger();
+
+	private String objectName = DEFAULT_OBJECT_NAME;
+
+	/**
+	 * Aspect 기본 저장소
+	 * @return 기본 저장소
+	 */
+	public static BHiveMethodTimingRegistry getDefault() {
+		return defaultRegistry;
+	}
+
+	/**
+	 * MethodTimer 획득 (없으면 생성)
+	 * @param layer 계층 이름 (controller, service, repository)
+	 * @param targetClass 대상 클래스
+	 * @param method 메소드
+	 * @return MethodTimer
+	 */
+	public MethodTimer getTimer(String layer, Class<?> targetClass, Method method) {
+		ConcurrentMap<Method, MethodTimer> methodMap = timerMap.get(targetClass);
+		if(methodMap == null) {
+			methodMap = new ConcurrentHashMap<Method, MethodTimer>();
+			ConcurrentMap<Method, MethodTimer> existing = timerMap.putIfAbsent(targetClass, methodMap);
+			if(existing != null) {
+				methodMap = existing;
+			}
+		}
+		MethodTimer timer = methodMap.get(method);
+		if(timer == null) {
+			timer = new MethodTimer(idSequence.incrementAndGet(), createName(layer, targetClass, method));
+			MethodTimer existing = methodMap.putIfAbsent(method, timer);
+			if(existing != null) {
+				timer = existing;
+			}
+		}
+		return timer;
+	}
+
+	private static String createName(String layer, Class<?> targetClass, Method method) {
+		StringBuilder name = new StringBuilder();
+		name.append(layer).append(':').append(targetClass.getName()).append('#').append(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if(i > 0) {
+				name.append(',');
+			}
+			name.append(getTypeName(parameterTypes[i]));
+		}
+		return name.append(')').toString();
+	}
+
+	/**
+	 * 전체 타입명 (배열은 java.lang.String[] 형식)
+	 */
+	private static String getTypeName(Class<?> type) {
+		String canonicalName = type.getCanonicalName();
+		return canonicalName != null ? canonicalName : type.getName();
+	}
+
+	@Override
+	public Map<String, BHiveLatencySnapshot> getSnapshots() {
+		Map<String, BHiveLatencySnapshot> snapshots = new TreeMap<String, BHiveLatencySnapshot>();
+		for (ConcurrentMap<Method, MethodTimer> methodMap : timerMap.values()) {
+			for (MethodTimer timer : methodMap.values()) {
+				snapshots.put(timer.getName(), timer.getHistogram().snapshot(timer.getName()));
+			}
+		}
+		return snapshots;
+	}
+
+	@Override
+	public int getMethodCount() {
+		int count = 0;
+		for (ConcurrentMap<Method, MethodTimer> methodMap : timerMap.values()) {
+			count += methodMap.size();
+		}
+		return count;
+	}
+
+	@Override
+	public void reset() {
+		for (ConcurrentMap<Method, MethodTimer> methodMap : timerMap.values()) {
+			for (MethodTimer timer : methodMap.values()) {
+				timer.getHistogram().reset();
+			}
+		}
+	}
+
+	/**
+	 * Platform MBeanServer에 등록
+	 */
+	public void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if(!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (Exception e) {
+			throw new BHiveRuntimeException("Failed to register MBean: " + objectName, e);
+		}
+	}
+
+	/**
+	 * Platform MBeanServer에서 등록 해제
+	 */
+	public void unregisterMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (Exception e) {
+			throw new BHiveRuntimeException("Failed to unregister MBean: " + objectName, e);
+		}
+	}
+
+	public String getObjectName() {
+		return objectName;
+	}
+
+	public void setObjectName(String objectName) {
+		this.objectName = objectName;
+	}
+
+	/**
+	 * 메소드별 처리시간 기록기
+	 */
+	public static class MethodTimer {
+		private final int id;
+		private final String name;
+		private final BHiveLatencyHistogram histogram = new BHiveLatencyHistogram();
+
+		MethodTimer(int id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		/**
+		 * 처리시간 기록
+		 * @param nanos 처리시간 (ns)
+		 * @param error 예외 발생 여부
+		 */
+		public void record(long nanos, boolean error) {
+			histogram.record(nanos, error);
+		}
+
+		/** @return 통계 ID */
+		public int getId() {
+			return id;
+		}
+
+		/** @return 통계 이름 */
+		public String getName() {
+			return name;
+		}
+
+		public BHiveLatencyHistogram getHistogram() {
+			return histogram;
+		}
+	}
+}
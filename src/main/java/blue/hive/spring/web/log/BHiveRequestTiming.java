@@ -0,0 +1,176 @@
+package blue.hive.spring.web.log;
+
+/**
+ * 요청 단위 구간별 처리시간 기록기
+ *
+ * BHiveServerTimingFilter가 요청 시작시 현재 쓰레드에 생성(start)하고 종료시 제거(clear)한다.
+ * Logging Aspect(controller/service/repository), MyBatis Plugin(sql), RestTemplate Interceptor(rest)가
+ * 구간 진입/종료(enter/exit)를 알리며, 같은 구간이 중첩 호출되면 가장 바깥 호출만 누적한다.
+ * 구간 시간은 포함(inclusive) 시간이므로 controller 시간에는 그 안에서 호출한 service, sql 시간이 포함된다.
+ * 요청 쓰레드에서만 기록되며 다른 쓰레드(비동기 작업 등)에서 실행된 구간은 기록되지 않는다.
+ * 한 요청의 쓰레드에서만 사용하므로 동기화하지 않는다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public final class BHiveRequestTiming {
+
+	/**
+	 * 처리시간 구간
+	 */
+	public enum Segment {
+		CONTROLLER("controller"),
+		SERVICE("service"),
+		REPOSITORY("repository"),
+		SQL("sql"),
+		REST("rest");
+
+		private final String metricName;
+
+		private Segment(String metricName) {
+			this.metricName = metricName;
+		}
+
+		/**
+		 * Server-Timing 헤더에 사용할 이름
+		 * @return 구간 이름
+		 */
+		public String getMetricName() {
+			return metricName;
+		}
+	}
+
+	private static final Segment[] SEGMENTS = Segment.values();
+
+	private static final ThreadLocal<BHiveRequestTiming> CURRENT = new ThreadLocal<BHiveRequestTiming>();
+
+	/** 요청 시작 시간 (nanoTime) */
+	private final long startTime = System.nanoTime();
+
+	private final long[] elapsed = new long[SEGMENTS.length];
+	private final int[] counts = new int[SEGMENTS.length];
+	private final int[] depths = new int[SEGMENTS.length];
+	private final long[] enterTimes = new long[SEGMENTS.length];
+
+	private BHiveRequestTiming() {
+	}
+
+	/**
+	 * 현재 쓰레드에 새 기록기 시작
+	 * @return 기록기
+	 */
+	public static BHiveRequestTiming start() {
+		BHiveRequestTiming timing = new BHiveRequestTiming();
+		CURRENT.set(timing);
+		return timing;
+	}
+
+	/**
+	 * 현재 쓰레드의 기록기
+	 * @return 기록기 (요청 처리중이 아니면 null)
+	 */
+	public static BHiveRequestTiming current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * 현재 쓰레드의 기록기 제거
+	 */
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * 구간 진입
+	 * @param segment 구간
+	 */
+	public void enter(Segment segment) {
+		int index = segment.ordinal();
+		if(depths[index]++ == 0) {
+			enterTimes[index] = System.nanoTime();
+		}
+	}
+
+	/**
+	 * 구간 종료 (enter와 짝을 맞추어 finally에서 호출)
+	 * @param segment 구간
+	 */
+	public void exit(Segment segment) {
+		int index = segment.ordinal();
+		if(depths[index] > 0 && --depths[index] == 0) {
+			elapsed[index] += System.nanoTime() - enterTimes[index];
+			counts[index]++;
+		}
+	}
+
+	/**
+	 * 구간 누적 처리시간
+	 * @param segment 구간
+	 * @return 처리시간 (nano seconds)
+	 */
+	public long getElapsed(Segment segment) {
+		return elapsed[segment.ordinal()];
+	}
+
+	/**
+	 * 구간 호출 횟수 (중첩 호출은 한번으로 계산)
+	 * @param segment 구간
+	 * @return 호출 횟수
+	 */
+	public int getCount(Segment segment) {
+		return counts[segment.ordinal()];
+	}
+
+	/**
+	 * 요청 시작후 경과시간
+	 * @return 경과시간 (nano seconds)
+	 */
+	public long getTotalElapsed() {
+		return System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Server-Timing 헤더 값 생성 (호출된 구간과 total, 단위 ms)
+	 * <pre>
+	 * controller;dur=12.3, service;dur=10.1, sql;dur=6.4, total;dur=15.0
+	 * </pre>
+	 * @return Server-Timing 헤더 값
+	 */
+	public String toServerTimingHeader() {
+		StringBuilder sb = new StringBuilder(128);
+		for (Segment segment : SEGMENTS) {
+			if(counts[segment.ordinal()] > 0) {
+				appendDuration(sb.append(segment.getMetricName()).append(";dur="), elapsed[segment.ordinal()]).append(", ");
+			}
+		}
+		return appendDuration(sb.append("total;dur="), getTotalElapsed()).toString();
+	}
+
+	/**
+	 * 로그용 구간별 요약 (구간=처리시간ms/호출횟수)
+	 * <pre>
+	 * controller=12.3ms/1, service=10.1ms/2, sql=6.4ms/5
+	 * </pre>
+	 * @return 요약 문자열 (호출된 구간이 없으면 빈 문자열)
+	 */
+	public String toSummary() {
+		StringBuilder sb = new StringBuilder(128);
+		for (Segment segment : SEGMENTS) {
+			int index = segment.ordinal();
+			if(counts[index] > 0) {
+				if(sb.length() > 0) {
+					sb.append(", ");
+				}
+				appendDuration(sb.append(segment.getMetricName()).append('='), elapsed[index]).append("ms/").append(counts[index]);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * nano seconds를 소수점 한자리 ms로 출력
+	 */
+	private static StringBuilder appendDuration(StringBuilder sb, long nanos) {
+		long tenths = nanos / 100000;
+		return sb.append(tenths / 10).append('.').append(tenths % 10);
+	}
+}
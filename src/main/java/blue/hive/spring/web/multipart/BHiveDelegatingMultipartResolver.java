@@ -15,9 +15,13 @@ import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.MultipartResolver;
 
+import blue.hive.util.BHivePathPatternIndex;
+
 /**
  * 특정 URL패턴을 제외하는 Delegating Multipart Resolver
  * 
+ * 기본 AntPathMatcher를 사용하면 제외 패턴을 BHivePathPatternIndex로 미리 컴파일하여 검사한다.
+ * 
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class BHiveDelegatingMultipartResolver implements MultipartResolver, InitializingBean {
@@ -26,8 +30,14 @@ public class BHiveDelegatingMultipartResolver implements MultipartResolver, Init
 	/** Multipart 처리에서 제외할 패턴 목록 */
 	private List<String> excludePatterns = new ArrayList<String>();
 	
+	/** 기본 요청 경로 검사기 */
+	private final PathMatcher defaultPathMatcher = new AntPathMatcher();
+
 	/** 제외할 요청 경로 검사기 (기본값: AntPathMatcher) */
-	private PathMatcher pathMatcher = new AntPathMatcher();
+	private PathMatcher pathMatcher = defaultPathMatcher;
+
+	/** 컴파일된 제외 패턴 (기본 경로 검사기를 사용할때) */
+	private volatile BHivePathPatternIndex excludePatternIndex;
 	
 	/** 위임할 원본 Multipart Resolver */
 	private MultipartResolver multipartResolver = null;
@@ -46,6 +56,7 @@ public class BHiveDelegatingMultipartResolver implements MultipartResolver, Init
 	 */
 	public void setExcludePatterns(List<String> excludePatterns) {
 		this.excludePatterns = excludePatterns;
+		this.excludePatternIndex = null;
 	}
 
 	/** 
@@ -61,6 +72,7 @@ public class BHiveDelegatingMultipartResolver implements MultipartResolver, Init
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
+		this.excludePatternIndex = null;
 	}
 
 	/** 
@@ -116,6 +128,16 @@ public class BHiveDelegatingMultipartResolver implements MultipartResolver, Init
 			return false;
 		}
 		String servletPath = request.getServletPath();
+		if(pathMatcher == defaultPathMatcher) {
+			BHivePathPatternIndex index = excludePatternIndex;
+			if(index == null) {
+				index = new BHivePathPatternIndex(excludePatterns);
+				excludePatternIndex = index;
+			}
+			boolean isMatch = index.matches(servletPath);
+			logger.trace("isExcludeUrlPattern => {}", isMatch);
+			return isMatch;
+		}
 		for (String excludePattern : excludePatterns) {
 			boolean isMatch = pathMatcher.match(excludePattern, servletPath);
 			logger.trace("isExcludeUrlPattern => {}, {} => {}", excludePattern, servletPath, isMatch);
@@ -31,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.mvc.method.annotation.AbstractMessageConverterMethodProcessor;
 import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
@@ -50,6 +51,18 @@ import blue.hive.spring.web.bind.annotation.SecuredResponseBody;
  *
  * 상속등으로 사용하고, secretKey를 서비스에 맞춰서 설정하면 된다.
  *
+ * 요청은 Base64 Decoding -&gt; 복호화(CipherInputStream) -&gt; MessageConverter(Jackson)로,
+ * 응답은 MessageConverter -&gt; 암호화(CipherOutputStream) -&gt; Base64 Encoding으로 Body 전체를 메모리에 두지 않고 처리한다.
+ * 암호문/평문 복사(Tee)는 DEBUG 로그가 켜져있을 때만 maxLogPayloadLength 바이트까지 저장한다.
+ * bufferedThreshold 이하의 메시지는 Stream 대신 버퍼에 모아 한번에 암복호화한다. (0이하면 항상 Stream 처리)
+ * cipherAlgorithm을 AES256Crypto.GCM_CIPHER_ALGORITHM으로 설정하면 요청은 Envelope 헤더로 GCM/기존 CBC를 구분하여 복호화하고,
+ * 응답은 클라이언트가 GCM을 사용하는 것을 알 수 있을 때만 AES-GCM으로, 그 외에는 기존 CBC로 암호화한다.
+ *  - 요청 Body가 Envelope 헤더(BH2:)로 시작하는 GCM 암호문인 경우
+ *  - 요청 Header CIPHER_VERSION_HEADER(X-BHive-Cipher) 값이 CIPHER_VERSION_GCM(BH2)인 경우 (GET 등 Body가 없는 요청)
+ * 따라서 Body가 없는 요청에도 기존 CBC 클라이언트는 그대로 복호화할 수 있으며, GCM 클라이언트는 Header로 GCM 응답을 요청한다.
+ * 모든 클라이언트가 GCM으로 전환되면 allowLegacyCiphertext를 false로 설정한다.
+ * 이 경우 Envelope 헤더가 없는 요청 Body는 거부하고 응답은 항상 AES-GCM으로 암호화한다.
+ *
  * Resolves method arguments annotated with {@code @SecuredRequestBody} and
  * handles return values from methods annotated with
  * {@code @SecuredResponseBody} by reading and writing to the body of the
@@ -70,11 +83,67 @@ import blue.hive.spring.web.bind.annotation.SecuredResponseBody;
 public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends AbstractMessageConverterMethodProcessor implements InitializingBean {
 
 	protected String secretKey = "";
+
+	/** 암호화 알고리즘 (null이면 AES256Crypto 기본값) */
+	protected String cipherAlgorithm = null;
+
+	/** GCM 모드에서 기존 CBC 암호문 요청과 응답 허용여부 */
+	protected boolean allowLegacyCiphertext = true;
+
+	/** 응답 암호화 방식을 지정하는 Request Header */
+	public static final String CIPHER_VERSION_HEADER = "X-BHive-Cipher";
+
+	/** CIPHER_VERSION_HEADER의 GCM 응답 요청 값 */
+	public static final String CIPHER_VERSION_GCM = "BH2";
+
+	/** GCM 암호문 요청 표시 Request Attribute */
+	private static final String GCM_CIPHER_ATTRIBUTE = BHiveSecuredRequestResponseBodyMethodProcessor.class.getName() + ".GCM_CIPHER";
+
+	/** 요청간에 공유하는 암호화 처리기 (secretKey가 바뀌면 다시 생성) */
+	private volatile AES256Crypto crypto;
+
+	/** DEBUG 로그에 출력할 암호문/평문 최대 바이트 수 */
+	private int maxLogPayloadLength = 4096;
+
+	/** 한번에 암복호화할 메시지 최대 크기 */
+	private int bufferedThreshold = AES256Crypto.DEFAULT_BUFFERED_THRESHOLD;
+
+	public int getBufferedThreshold() {
+		return bufferedThreshold;
+	}
+	public void setBufferedThreshold(int bufferedThreshold) {
+		this.bufferedThreshold = bufferedThreshold;
+	}
+
+	public int getMaxLogPayloadLength() {
+		return maxLogPayloadLength;
+	}
+	public void setMaxLogPayloadLength(int maxLogPayloadLength) {
+		this.maxLogPayloadLength = maxLogPayloadLength;
+	}
+
 	public String getSecretKey() {
 		return secretKey;
 	}
 	public void setSecretKey(String secretKey) {
 		this.secretKey = secretKey;
+		this.crypto = null;
+	}
+
+	public String getCipherAlgorithm() {
+		return cipherAlgorithm;
+	}
+	public void setCipherAlgorithm(String cipherAlgorithm) {
+		this.cipherAlgorithm = cipherAlgorithm;
+		this.crypto = null;
+	}
+
+	public boolean isAllowLegacyCiphertext() {
+		return allowLegacyCiphertext;
+	}
+	public void setAllowLegacyCiphertext(boolean allowLegacyCiphertext) {
+		this.allowLegacyCiphertext = allowLegacyCiphertext;
+		this.crypto = null;
 	}
 
 	@Override
@@ -82,6 +151,30 @@ public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends Abs
 		if(StringUtils.isEmpty(secretKey)) {
 			logger.info("!!!!!!!!! Secret Key is empty !!!!!!!!! => check set secretKey property.");
 		}
+		this.crypto = createCrypto();
+	}
+
+	/**
+	 * 요청간에 공유하는 암호화 처리기 획득
+	 * @return 암호화 처리기
+	 */
+	protected AES256Crypto getCrypto() {
+		AES256Crypto current = this.crypto;
+		if(current == null) {
+			current = createCrypto();
+			this.crypto = current;
+		}
+		return current;
+	}
+
+	/**
+	 * 암호화 처리기 생성 (알고리즘 등을 바꾸려면 Override)
+	 * @return 암호화 처리기
+	 */
+	protected AES256Crypto createCrypto() {
+		AES256Crypto crypto = StringUtils.hasText(cipherAlgorithm) ? new AES256Crypto(cipherAlgorithm, secretKey) : new AES256Crypto(secretKey);
+		crypto.setAllowLegacyCiphertext(allowLegacyCiphertext);
+		return crypto;
 	}
 
 	public BHiveSecuredRequestResponseBodyMethodProcessor(List<HttpMessageConverter<?>> messageConverters) {
@@ -147,7 +240,7 @@ public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends Abs
 			}
 			inputStream.reset();
 		} else {
-			final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream);
+			final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream, AES256Crypto.ENVELOPE_HEADER_LENGTH);
 			int b = pushbackInputStream.read();
 			if (b == -1) {
 				return handleEmptyBody(methodParam);
@@ -165,31 +258,54 @@ public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends Abs
 			//};
 
 			//dmkwon add start
-			AES256Crypto crypto = new AES256Crypto(secretKey);
-			BHiveTeeInputStreamWrapper teeInputStream = new BHiveTeeInputStreamWrapper(pushbackInputStream); //원본 요청메시지를 Tee처리
-			final InputStream cipherInputStream = crypto.getDecryptChiperInputStream(teeInputStream.getInputStream());
-			inputMessage = new ServletServerHttpRequest(servletRequest) {
-				@Override
-				public InputStream getBody() throws IOException {
-					// Form POST should not get here
-					return cipherInputStream;
+			AES256Crypto crypto = getCrypto();
+			if(crypto.isGcmMode()) {
+				if(AES256Crypto.startsWithEnvelope(pushbackInputStream)) {
+					//GCM 클라이언트 요청은 GCM으로 응답
+					servletRequest.setAttribute(GCM_CIPHER_ATTRIBUTE, Boolean.TRUE);
+				} else if(!crypto.isAllowLegacyCiphertext()) {
+					throw new HttpMessageNotReadableException("FAILED TO READ CRYPTO REQUEST BODY!! legacy cipher text is not allowed.");
 				}
-			};
-			BHiveTeeHttpInputMessage teeDecryptedHttpInputMessage = new BHiveTeeHttpInputMessage(inputMessage); //복호화된 요청메시지를 Tee처리
+			}
+			long contentLength = inputMessage.getHeaders().getContentLength();
+			boolean debug = logger.isDebugEnabled();
+			BHiveTeeInputStreamWrapper teeInputStream = null; //원본 요청메시지를 Tee처리 (DEBUG일때만)
+			InputStream encryptedInputStream = pushbackInputStream;
+			if(debug) {
+				teeInputStream = new BHiveTeeInputStreamWrapper(pushbackInputStream, maxLogPayloadLength);
+				encryptedInputStream = teeInputStream.getInputStream();
+			}
+			BHiveTeeHttpInputMessage teeDecryptedHttpInputMessage = null; //복호화된 요청메시지를 Tee처리 (DEBUG일때만)
 
 			try {
-				Object result = super.readWithMessageConverters(teeDecryptedHttpInputMessage, methodParam, paramType);
+				final InputStream cipherInputStream = crypto.getBufferedDecryptChiperInputStream(encryptedInputStream, contentLength, bufferedThreshold);
+				inputMessage = new ServletServerHttpRequest(servletRequest) {
+					@Override
+					public InputStream getBody() throws IOException {
+						// Form POST should not get here
+						return cipherInputStream;
+					}
+				};
+				if(debug) {
+					teeDecryptedHttpInputMessage = new BHiveTeeHttpInputMessage(inputMessage, maxLogPayloadLength);
+					inputMessage = teeDecryptedHttpInputMessage;
+				}
+
+				Object result = super.readWithMessageConverters(inputMessage, methodParam, paramType);
 				cipherInputStream.close();
 
-				String requestBody = teeInputStream.getTeeInputString();
-				String decryptedRequestBody = teeDecryptedHttpInputMessage.getTeeInputString(); //!!!!!!!!!!!!
-				logger.debug("\r\n  >>>> READ " + requestBody
-						+ "\r\n  >>>>      => " + decryptedRequestBody
-						+ "\r\n  >>>>      => " + result);
+				if(debug) {
+					logger.debug("\r\n  >>>> READ " + teeString(teeInputStream.getTeeInputString(), teeInputStream.isTruncated())
+							+ "\r\n  >>>>      => " + teeString(teeDecryptedHttpInputMessage.getTeeInputString(), teeDecryptedHttpInputMessage.isTruncated())
+							+ "\r\n  >>>>      => " + result);
+				}
 				return result;
 			} catch (Exception ex) {
-				String requestBody = teeInputStream.getTeeInputString();
-				logger.debug("\r\n  >>>> READ {}" + requestBody
+				if(teeInputStream == null) {
+					throw new HttpMessageNotReadableException("FAILED TO READ CRYPTO REQUEST BODY!!", ex);
+				}
+				String requestBody = teeString(teeInputStream.getTeeInputString(), teeInputStream.isTruncated());
+				logger.debug("\r\n  >>>> READ " + requestBody
 						+ "\r\n  >>>>      => FAILED TO READ CRYPTO REQUEST BODY!! exception: " + ex.getMessage());
 				throw new HttpMessageNotReadableException("FAILED TO READ CRYPTO REQUEST BODY!! requestBody: " + requestBody, ex);
 			}
@@ -230,6 +346,18 @@ public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends Abs
 		//		//dmkwon add end
 	}
 
+	/**
+	 * GCM 응답 여부 판단 (GCM 암호문 요청 Body를 읽었거나 CIPHER_VERSION_HEADER로 GCM을 요청한 경우)
+	 * @param webRequest 요청
+	 * @return GCM으로 응답하면 true
+	 */
+	protected boolean isGcmResponseRequested(NativeWebRequest webRequest) {
+		if(webRequest.getAttribute(GCM_CIPHER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+			return true;
+		}
+		return CIPHER_VERSION_GCM.equalsIgnoreCase(webRequest.getHeader(CIPHER_VERSION_HEADER));
+	}
+
 	@Override
 	protected <T> void writeWithMessageConverters(T returnValue, MethodParameter returnType, NativeWebRequest webRequest)
 			throws IOException, HttpMediaTypeNotAcceptableException {
@@ -239,33 +367,55 @@ public abstract class BHiveSecuredRequestResponseBodyMethodProcessor extends Abs
 		//writeWithMessageConverters(returnValue, returnType, inputMessage, outputMessage);
 
 		//dmkwon add start
-		BHiveTeeHttpOutputMessage teeHttpOutputMessage = new BHiveTeeHttpOutputMessage(outputMessage); //최종 응답메시지를 Tee처리
-		AES256Crypto crypto = new AES256Crypto(secretKey);
-		OutputStream cipherOutputStream = crypto.getEncryptChiperOutputStream(teeHttpOutputMessage.getBody());
-		final BHiveTeeOutputStreamWrapper teeOutputStream = new BHiveTeeOutputStreamWrapper(cipherOutputStream); //Plain 응답메시지를 Tee처리
+		boolean debug = logger.isDebugEnabled();
+		BHiveTeeHttpOutputMessage teeHttpOutputMessage = null; //최종 응답메시지를 Tee처리 (DEBUG일때만)
+		OutputStream encryptedOutputStream = outputMessage.getBody();
+		if(debug) {
+			teeHttpOutputMessage = new BHiveTeeHttpOutputMessage(outputMessage, maxLogPayloadLength);
+			encryptedOutputStream = teeHttpOutputMessage.getBody();
+		}
+		AES256Crypto crypto = getCrypto();
+		if(crypto.isGcmMode() && crypto.isAllowLegacyCiphertext() && !isGcmResponseRequested(webRequest)) {
+			//GCM 요청을 확인하지 못하면(Body가 없는 기존 클라이언트 요청 포함) 기존 CBC로 응답 (기존 암호문을 허용하지 않으면 항상 GCM)
+			crypto = crypto.getLegacyCrypto();
+		}
+		OutputStream cipherOutputStream = crypto.getBufferedEncryptChiperOutputStream(encryptedOutputStream, bufferedThreshold);
+		BHiveTeeOutputStreamWrapper teeOutputStream = null; //Plain 응답메시지를 Tee처리 (DEBUG일때만)
+		if(debug) {
+			teeOutputStream = new BHiveTeeOutputStreamWrapper(cipherOutputStream, maxLogPayloadLength);
+		}
+		final OutputStream plainOutputStream = teeOutputStream != null ? teeOutputStream.getOutputStream() : cipherOutputStream;
 		HttpServletResponse response = outputMessage.getServletResponse();
 		ServletServerHttpResponse outputMessageWrap = new ServletServerHttpResponse(response) {
 			@Override
 			public OutputStream getBody() throws IOException {
 				super.getBody(); //writeHeaders() 처리위임
-				return teeOutputStream.getOutputStream();
+				return plainOutputStream;
 			}
 		};
 
 		try {
 			writeWithMessageConverters(returnValue, returnType, inputMessage, outputMessageWrap);
 			cipherOutputStream.close();
-			String responseBodyPlain = teeOutputStream.getTeeOutputString();
-			String responseBody = teeHttpOutputMessage.getTeeOutputString();
-			logger.debug("\r\n  >>>> WRITE " + responseBodyPlain
-					+ "\r\n  >>>>      => " + responseBody);
+			if(debug) {
+				logger.debug("\r\n  >>>> WRITE " + teeString(teeOutputStream.getTeeOutputString(), teeOutputStream.isTruncated())
+						+ "\r\n  >>>>      => " + teeString(teeHttpOutputMessage.getTeeOutputString(), teeHttpOutputMessage.isTruncated()));
+			}
 		} catch (Exception ex) {
-			String responseBody = teeHttpOutputMessage.getTeeOutputString();
-			logger.debug("\r\n  >>>> WRITE {}" + responseBody
-					+ "\r\n  >>>>      => FAILED TO WRITE CRYPTO RESPONSE BODY!! exception: " + ex.getMessage());
+			if(debug) {
+				logger.debug("\r\n  >>>> WRITE " + teeString(teeHttpOutputMessage.getTeeOutputString(), teeHttpOutputMessage.isTruncated())
+						+ "\r\n  >>>>      => FAILED TO WRITE CRYPTO RESPONSE BODY!! exception: " + ex.getMessage());
+			}
 			throw new HttpMessageNotWritableException("FAILED TO WRITE CRYPTO RESPONSE BODY!!", ex);
 		}
 		//dmkwon add end
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 로그용 Tee 문자열 (최대 크기를 넘어 잘렸으면 표시)
+	 */
+	private static String teeString(String tee, boolean truncated) {
+		return truncated ? tee + "...(truncated)" : tee;
+	}
+
+}
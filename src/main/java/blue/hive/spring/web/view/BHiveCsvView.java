@@ -0,0 +1,86 @@
+package blue.hive.spring.web.view;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.view.AbstractView;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+
+/**
+ * 대용량 CSV 출력 View
+ *
+ * BHiveExcelCommand의 컬럼 실행계획으로 응답 스트림에 바로 출력한다. (전체 데이터를 메모리에 적재하지 않음)
+ * gzip 설정시 요청의 Accept-Encoding이 gzip을 허용하면 압축하여 응답한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveCsvView extends AbstractView {
+
+	/** gzip Content-Encoding 사용 여부 */
+	private boolean gzip = false;
+
+	/** UTF-8 BOM 출력 여부 (Excel에서 한글 인식) */
+	private boolean writeBom = true;
+
+	public BHiveCsvView() {
+		setContentType("text/csv; charset=UTF-8");
+	}
+
+	public boolean isGzip() {
+		return gzip;
+	}
+
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	public boolean isWriteBom() {
+		return writeBom;
+	}
+
+	public void setWriteBom(boolean writeBom) {
+		this.writeBom = writeBom;
+	}
+
+	@Override
+	protected boolean generatesDownloadContent() {
+		return true;
+	}
+
+	@Override
+	protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+		BHiveExcelCommand command = (BHiveExcelCommand)model.get(BHiveExcelCommand.MODEL_KEY);
+		if(command == null) {
+			logger.error("BHiveExcelCommand cannot found at Model");
+			throw new BHiveRuntimeException("CSV파일 생성에 실패하였습니다.");
+		}
+
+		response.setContentType(getContentType());
+		OutputStream out = response.getOutputStream();
+		GZIPOutputStream gzipOut = null;
+		if(gzip && acceptsGzip(request)) {
+			response.setHeader("Content-Encoding", "gzip");
+			response.addHeader("Vary", "Accept-Encoding");
+			gzipOut = new GZIPOutputStream(out, BHiveCsvWriter.DEFAULT_BUFFER_SIZE);
+			out = gzipOut;
+		}
+
+		command.buildCsvDocument(out, writeBom, request, response);
+		if(gzipOut != null) {
+			gzipOut.finish();
+		}
+		response.flushBuffer();
+	}
+
+	private boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+}
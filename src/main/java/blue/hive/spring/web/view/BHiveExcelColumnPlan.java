@@ -0,0 +1,205 @@
+package blue.hive.spring.web.view;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.ReadableInstant;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+/**
+ * Excel 출력 컬럼 실행계획
+ *
+ * 데이터 아이템 클래스의 프로퍼티 getter(MethodHandle), 날짜형/숫자형 여부와 날짜형식별 Formatter를
+ * 클래스 단위로 한번만 구성하여 캐시한다. Row 출력시에는 Reflection/BeanUtils 없이 배열만 순회한다.
+ * 캐시는 SoftReference 기반(ConcurrentReferenceHashMap)이므로 웹어플리케이션 재배포시 ClassLoader를 계속 붙잡지 않는다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelColumnPlan {
+
+	/** 클래스별 실행계획 캐시 */
+	private static final ConcurrentMap<Class<?>, BHiveExcelColumnPlan> planCache = new ConcurrentReferenceHashMap<Class<?>, BHiveExcelColumnPlan>();
+
+	/** 프로퍼티명 - 컬럼 */
+	private final Map<String, Column> columnMap;
+
+	/** 날짜형식 - Formatter 캐시 */
+	private final ConcurrentMap<String, DateTimeFormatter> dateTimeFormatterMap = new ConcurrentHashMap<String, DateTimeFormatter>();
+
+	private BHiveExcelColumnPlan(Class<?> itemClass) {
+		Map<String, Column> columnMap = new HashMap<String, Column>();
+		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(itemClass);
+		for (PropertyDescriptor descriptor : descriptors) {
+			Method readMethod = PropertyUtils.getReadMethod(descriptor);
+			if(readMethod == null) {
+				continue;
+			}
+			columnMap.put(descriptor.getName(), new Column(descriptor.getName(), descriptor.getPropertyType(), readMethod));
+		}
+		this.columnMap = columnMap;
+	}
+
+	/**
+	 * 실행계획 획득 (캐시)
+	 * @param itemClass 출력할 데이터 아이템 클래스
+	 * @return 실행계획
+	 */
+	public static BHiveExcelColumnPlan getPlan(Class<?> itemClass) {
+		BHiveExcelColumnPlan plan = planCache.get(itemClass);
+		if(plan == null) {
+			plan = new BHiveExcelColumnPlan(itemClass);
+			BHiveExcelColumnPlan existing = planCache.putIfAbsent(itemClass, plan);
+			if(existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * 프로퍼티명으로 컬럼 획득
+	 * @param propertyName 프로퍼티명
+	 * @return 컬럼 (읽을수 있는 프로퍼티가 아니면 null)
+	 */
+	public Column getColumn(String propertyName) {
+		return columnMap.get(propertyName);
+	}
+
+	/**
+	 * 날짜형식에 해당하는 Formatter 획득 (기본 TimeZone 적용)
+	 * @param pattern 날짜형식 (ExcelColumn.dateTimeFormat)
+	 * @return Formatter
+	 */
+	public DateTimeFormatter getDateTimeFormatter(String pattern) {
+		DateTimeFormatter formatter = dateTimeFormatterMap.get(pattern);
+		if(formatter == null) {
+			//기존 출력(DateTime.toString(pattern))과 동일하게 JVM 기본 로케일, 기본 TimeZone 기준으로 포매팅
+			formatter = DateTimeFormat.forPattern(pattern).withZone(DateTimeZone.getDefault());
+			dateTimeFormatterMap.putIfAbsent(pattern, formatter);
+		}
+		return formatter;
+	}
+
+	/**
+	 * 출력 컬럼 (프로퍼티 단위)
+	 */
+	public static class Column {
+
+		private final String name;
+		private final Class<?> propertyType;
+		private final MethodHandle getter;
+		private final boolean dateTime;
+		private final boolean date;
+		private final boolean numeric;
+
+		Column(String name, Class<?> propertyType, Method readMethod) {
+			this.name = name;
+			this.propertyType = propertyType;
+			try {
+				if(!readMethod.isAccessible()) {
+					readMethod.setAccessible(true);
+				}
+				this.getter = MethodHandles.lookup().unreflect(readMethod).asType(MethodType.methodType(Object.class, Object.class));
+			} catch (Exception e) {
+				throw new BHiveRuntimeException("Failed to create getter of property: " + name, e);
+			}
+			this.dateTime = propertyType.isAssignableFrom(DateTime.class);
+			this.date = Date.class.isAssignableFrom(propertyType);
+			this.numeric = propertyType.isAssignableFrom(Long.class) ||
+					propertyType.isAssignableFrom(Integer.class) ||
+					propertyType.isAssignableFrom(Short.class) ||
+					propertyType.isAssignableFrom(Double.class) ||
+					propertyType.isAssignableFrom(Float.class);
+		}
+
+		/**
+		 * 프로퍼티 값 획득
+		 * @param dataItem 데이터 아이템
+		 * @return 프로퍼티 값
+		 * @throws InvocationTargetException getter 실행 오류
+		 */
+		public Object getValue(Object dataItem) throws InvocationTargetException {
+			try {
+				return (Object)getter.invokeExact(dataItem);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+
+		/**
+		 * 출력용 문자열 변환 (DateTime 포매팅, 코드표 치환)
+		 * @param value 프로퍼티 값
+		 * @param dateTimeFormatter 날짜형 프로퍼티의 Formatter
+		 * @param codeMap 코드표 (없으면 null)
+		 * @return 출력용 문자열
+		 */
+		public String formatValue(Object value, DateTimeFormatter dateTimeFormatter, Map<String, String> codeMap) {
+			if(value == null) {
+				return null;
+			}
+			if(dateTime) {
+				//DateTime 형이면 날짜 포매팅
+				ReadableInstant instant = (value instanceof ReadableInstant) ? (ReadableInstant)value : new DateTime(value);
+				if(dateTimeFormatter != null) {
+					return dateTimeFormatter.print(instant);
+				}
+				return instant.toString();
+			}
+			String fieldValue = (value.getClass().isArray()) ? toStringFirstElement(value) : value.toString();
+			if(codeMap != null && codeMap.containsKey(fieldValue)) {
+				fieldValue = codeMap.get(fieldValue); //코드변환
+			}
+			return fieldValue;
+		}
+
+		/** BeanUtils.getProperty와 같이 배열은 첫번째 요소를 사용 */
+		private static String toStringFirstElement(Object array) {
+			Object[] values = ObjectUtils.toObjectArray(array);
+			if(values.length == 0 || values[0] == null) {
+				return null;
+			}
+			return values[0].toString();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<?> getPropertyType() {
+			return propertyType;
+		}
+
+		public boolean isDateTime() {
+			return dateTime;
+		}
+
+		public boolean isDate() {
+			return date;
+		}
+
+		public boolean isNumeric() {
+			return numeric;
+		}
+	}
+}
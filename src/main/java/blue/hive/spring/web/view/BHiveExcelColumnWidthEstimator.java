@@ -0,0 +1,107 @@
+package blue.hive.spring.web.view;
+
+/**
+ * Excel 컬럼폭 추정기
+ *
+ * 셀 출력시 컬럼별 최대 표시길이를 누적하고 출력 완료후 한번에 컬럼폭을 적용한다.
+ * Sheet.autoSizeColumn처럼 전체 Row를 다시 읽거나 AWT Font Metric을 사용하지 않는다.
+ * 한글/한자/전각문자는 영문 대비 약 2배 폭으로 계산한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelColumnWidthEstimator {
+
+	/** Excel 최대 컬럼폭 (문자수) */
+	private static final int MAX_COLUMN_CHARS = 255;
+
+	/** 셀 여백 (문자수) */
+	private static final double PADDING_CHARS = 2;
+
+	/** 컬럼별 최대 표시길이 (영문 1문자 = 1) */
+	private final double[] maxDisplayLengths;
+
+	/**
+	 * 생성자
+	 * @param columnCount 컬럼수
+	 */
+	public BHiveExcelColumnWidthEstimator(int columnCount) {
+		this.maxDisplayLengths = new double[columnCount];
+	}
+
+	/**
+	 * 셀 값으로 컬럼 최대 표시길이 갱신 (여러줄이면 가장 긴 줄 기준)
+	 * @param column 컬럼 index
+	 * @param text 셀 표시값
+	 */
+	public void update(int column, CharSequence text) {
+		update(column, text, 1);
+	}
+
+	/**
+	 * 여러 컬럼에 걸친(병합) 셀 값으로 컬럼 최대 표시길이 갱신 (컬럼수로 나누어 적용)
+	 * @param column 컬럼 index
+	 * @param text 셀 표시값
+	 * @param span 병합된 컬럼수
+	 */
+	public void update(int column, CharSequence text, int span) {
+		if(text == null || column < 0 || column >= maxDisplayLengths.length) {
+			return;
+		}
+		double displayLength = getDisplayLength(text) / Math.max(span, 1);
+		if(displayLength > maxDisplayLengths[column]) {
+			maxDisplayLengths[column] = displayLength;
+		}
+	}
+
+	/**
+	 * 추정 컬럼폭 (Sheet.setColumnWidth 단위: 1/256 문자)
+	 * @param column 컬럼 index
+	 * @return 추정 컬럼폭
+	 */
+	public int getColumnWidth(int column) {
+		double chars = Math.min(maxDisplayLengths[column] + PADDING_CHARS, MAX_COLUMN_CHARS);
+		return (int)(chars * 256);
+	}
+
+	/**
+	 * 표시길이 계산 (가장 긴 줄 기준)
+	 * @param text 셀 표시값
+	 * @return 표시길이
+	 */
+	public static double getDisplayLength(CharSequence text) {
+		double maxLineLength = 0;
+		double lineLength = 0;
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c == '\n') {
+				maxLineLength = Math.max(maxLineLength, lineLength);
+				lineLength = 0;
+			} else if(c != '\r') {
+				lineLength += getCharWidth(c);
+			}
+		}
+		return Math.max(maxLineLength, lineLength);
+	}
+
+	/**
+	 * 문자 폭 (영문 1문자 = 1)
+	 * @param c 문자
+	 * @return 문자 폭
+	 */
+	private static double getCharWidth(char c) {
+		if(c < 0x80) {
+			//대문자는 약간 넓게
+			return (c >= 'A' && c <= 'Z') ? 1.2 : 1.0;
+		}
+		if((c >= 0x1100 && c <= 0x11FF)		//한글 자모
+				|| (c >= 0x2E80 && c <= 0xA4CF)	//CJK 부수, 기호, 히라가나, 가타카나, 한자
+				|| (c >= 0xAC00 && c <= 0xD7A3)	//한글 음절
+				|| (c >= 0xF900 && c <= 0xFAFF)	//CJK 호환 한자
+				|| (c >= 0xFE30 && c <= 0xFE4F)	//CJK 호환 형태
+				|| (c >= 0xFF00 && c <= 0xFF60)	//전각 문자
+				|| (c >= 0xFFE0 && c <= 0xFFE6)) {
+			return 2.0;
+		}
+		return 1.0;
+	}
+}
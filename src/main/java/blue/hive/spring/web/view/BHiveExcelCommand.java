@@ -1,12 +1,16 @@
 package blue.hive.spring.web.view;
 
 import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,19 +21,28 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFCellStyle;
 import org.apache.poi.hssf.usermodel.HSSFFont;
-import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.hssf.util.HSSFColor;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.joda.time.DateTime;
+import org.joda.time.ReadableInstant;
+import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
@@ -51,14 +64,19 @@ import blue.hive.util.BHiveVOUtil;
  * 뷰명칭: 뷰클래스
  *  - bHiveExcelView: blue.hive.spring.web.view.BHiveExcelView
  * 	- bHiveXlsxExcelView: blue.hive.spring.web.view.BHiveXlsxExcelView
- * 	- bHiveStreamingExcelView: blue.hive.spring.web.view.BHiveStreamingExcelView
+ * 	- bHiveStreamingExcelView: blue.hive.spring.web.view.BHiveStreamingExcelView (SXSSF, 대용량 .xlsx)
+ * 	- bHiveParallelExcelView: blue.hive.spring.web.view.BHiveParallelExcelView (분할 병렬 출력, 여러 .xlsx를 zip으로 묶음)
  * 	- bHiveCsvView: blue.hive.spring.web.view.BHiveCsvView
  *
+ * 출력 Hook은 Workbook 종류와 관계없이 Sheet, CellStyle 등 ss.usermodel 인터페이스 타입을 사용한다.
+ * 기존 HSSFSheet, HSSFFont 타입의 Hook과 workbook(HSSFWorkbook) 필드는 @Deprecated로 유지하며
+ * HSSF(.xls) 출력에서는 인터페이스 타입 Hook이 기존 HSSF 타입 Hook을 호출하므로 이를 오버라이드한 기존 서브클래스도 그대로 동작한다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 
 @SuppressWarnings("rawtypes")
-public class BHiveExcelCommand {
+public class BHiveExcelCommand implements Cloneable {
 
 	protected final static Logger logger = LoggerFactory.getLogger(BHiveExcelCommand.class);
 
@@ -67,7 +85,15 @@ public class BHiveExcelCommand {
 
 	/** 확장자 */
 	public final static String EXTENSTION = ".xls";
+	public final static String EXTENSION_XLSX = ".xlsx";
 	public final static String EXTENSION_CSV = ".csv";
+	public final static String EXTENSION_ZIP = ".zip";
+
+	/** Excel이 값을 바꾸지 않고 표시하는 최대 정수 (유효자리수 15자리) */
+	private static final long MAX_EXCEL_EXACT_INTEGER = 999999999999999L;
+
+	/** 정수 셀 DataFormat (General 형식은 12자리 이상을 지수로 표시) */
+	private static final String INTEGER_DATA_FORMAT = "0";
 
 	/** 자동 Width 적용후 보정값 (헤더컬럼용) */
 	private static double AUTO_SIZE_HEADERCOLUMN_MULTIFIER = 1.2;
@@ -94,14 +120,22 @@ public class BHiveExcelCommand {
 	protected String title = "";
 	/** 엑셀 SheetName */
 	protected String sheetName = "data sheet";
+	/** 시트당 최대 데이터 Row 수. 초과시 다음 시트로 분할 (0: Workbook 형식의 최대 Row 수 기준) */
+	protected int maxDataRowsPerSheet = 0;
 
 	/** 출력할 데이터셋 */
 	protected List dataList = new ArrayList<Object>();
+	/** 출력할 데이터 공급자 (dataList 또는 ResultHandler 기반 Streaming) */
+	protected BHiveExcelDataSource dataSource;
+	/** 첫번째 출력 데이터 아이템의 클래스 (오류시 metadataClass 호환성 확인용) */
+	protected Class<?> dataItemType;
 	/** 출력한 데이터 아이템의 메타정보 클래스. ExcelColumn Annotation으로 꾸미기 */
 	protected Class<?> metadataClass;
 
 	/** 출력데이터의 가로,세로 병합을 처리하기 위한 병합처리모드 */
 	protected BHiveExcelMergeMode mergeMode = BHiveExcelMergeMode.NONE;
+	/** Row 출력과 동시에 세로 병합을 처리하는 병합처리기 (mergeMode가 NONE이 아닌 경우) */
+	protected BHiveExcelVerticalMerger verticalMerger;
 
 	/** Excel 출력 ExcelColumn Annotation 맵 */
 	protected Map<String, ExcelColumn> anntationMap = new HashMap<String, ExcelColumn>();
@@ -116,14 +150,38 @@ public class BHiveExcelCommand {
 	/** Excel 출력 컬럼 정렬 Map */
 	protected Map<String, Short> columnAlignMap = new HashMap<String, Short>();
 
+	/** 컬럼폭을 Sheet.autoSizeColumn으로 계산할지 여부 (기본: 출력값 길이로 추정. autoSize는 전체 Row를 다시 읽으므로 대용량에서 느림) */
+	protected boolean autoSizeColumn = false;
+	/** 출력값 기반 컬럼폭 추정기 (autoSizeColumn이 false인 경우) */
+	protected BHiveExcelColumnWidthEstimator widthEstimator;
+
+	/** 숫자, Boolean, 날짜를 문자열이 아닌 Excel 고유 타입의 셀로 출력할지 여부 (코드표 적용 컬럼은 문자열) */
+	protected boolean typedCellValue = true;
+
 	/** Excel 출력 코드표 치환 맵 */
 	protected Map<String, Map<String, String>> fieldCodeMapList = new HashMap<String, Map<String, String>>();
 
 	/** 현재시간(출력용) */
 	protected DateTime now = new DateTime();
 
-	/** 엑셀 워크북 */
+	/** 엑셀 워크북 (HSSF, XSSF, SXSSF) */
+	protected Workbook excelWorkbook;
+	/**
+	 * 엑셀 워크북 (HSSF 출력에서만 설정)
+	 * @deprecated 기존 HSSF 서브클래스 호환용. excelWorkbook 사용
+	 */
+	@Deprecated
 	protected HSSFWorkbook workbook;
+	/** 출력중인 시트 */
+	protected Sheet currentSheet;
+	/** 출력중인 시트의 데이터 출력 시작 위치 */
+	protected int currentDataRownumStarted;
+	/** 생성된 시트 수 */
+	protected int sheetCount;
+	/** 세로 병합 비교용 셀 표시값 Formatter */
+	protected DataFormatter mergeDataFormatter = new DataFormatter();
+	/** Workbook별 CellStyle/Font 캐시 */
+	protected BHiveExcelStyleRegistry styleRegistry;
 	/** CSV Writer */
 	protected ICsvBeanWriter csvWriter;
 
@@ -142,6 +200,20 @@ public class BHiveExcelCommand {
 	public BHiveExcelCommand(List dataList, Class<?> metadataClass, MessageSource messageSource) {
 		super();
 		this.dataList = dataList;
+		this.dataSource = new BHiveIterableExcelDataSource(dataList);
+		this.metadataClass = metadataClass;
+		this.messageSource = messageSource;
+	}
+
+	/**
+	 * 생성자 (전체 데이터를 List로 적재하지 않고 데이터 공급자에서 한 건씩 출력)
+	 * @param dataSource 엑셀에 들어갈 데이터 공급자
+	 * @param metadataClass metadata Class object
+	 * @param messageSource message source for i18n
+	 */
+	public BHiveExcelCommand(BHiveExcelDataSource dataSource, Class<?> metadataClass, MessageSource messageSource) {
+		super();
+		this.dataSource = dataSource;
 		this.metadataClass = metadataClass;
 		this.messageSource = messageSource;
 	}
@@ -176,6 +248,59 @@ public class BHiveExcelCommand {
 	}
 
 	////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * 현재 Workbook의 Style/Font 캐시 (같은 속성의 Style, Font는 Workbook당 한번만 생성)
+	 * @return Style 캐시
+	 */
+	protected BHiveExcelStyleRegistry getStyleRegistry() {
+		if(styleRegistry == null || styleRegistry.getWorkbook() != excelWorkbook) {
+			styleRegistry = new BHiveExcelStyleRegistry(excelWorkbook);
+		}
+		return styleRegistry;
+	}
+
+	/**
+	 * 공유 CellStyle 획득 (반복 출력용. 반환된 Style은 수정하지 않음)
+	 * @param spec Style 속성
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getCellStyle(BHiveExcelStyleRegistry.StyleSpec spec) {
+		return getStyleRegistry().getCellStyle(spec);
+	}
+
+	/**
+	 * 공유 CellStyle 획득 (폰트 속성 적용. 반복 출력용. 반환된 Style은 수정하지 않음)
+	 * @param bgColor background color to use
+	 * @param align   align to use
+	 * @param valign  vertical align to use
+	 * @param fontHeightInPoints  font height in points to use
+	 * @param fontColor   font color to use
+	 * @param boldWeight  boldweight to use
+	 * @param underline   under line to use
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, short fontHeightInPoints, short fontColor, boolean boldWeight, byte underline) {
+		return getCellStyle(new BHiveExcelStyleRegistry.StyleSpec()
+				.bgColor(bgColor)
+				.align(align, valign)
+				.font(createFontSpec(fontHeightInPoints, fontColor, boldWeight, null, underline)));
+	}
+
+	/** 
+	 * 출력용 CellStyle 생성 (폰트 적용. 호출시마다 새 Style을 생성하므로 반복 출력에는 getCustomCellStyle 사용)
+	 * @param bgColor background color to use
+	 * @param align   align to use
+	 * @param valign  vertical align to use
+	 * @param font    font to use
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, Font font) {
+		if(excelWorkbook instanceof HSSFWorkbook) {
+			return createCustomCellStyle(bgColor, align, valign, (HSSFFont)font);
+		}
+		return buildCustomCellStyle(bgColor, align, valign, font);
+	}
+
 	/** 
 	 * 출력용 CellStyle 생성 (폰트 적용)
 	 * @param bgColor background color to use
@@ -183,9 +308,15 @@ public class BHiveExcelCommand {
 	 * @param valign  vertical align to use
 	 * @param font    font to use
 	 * @return HSSFCellStyle hssf cell style to use
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). createCustomCellStyle(short, HorizontalAlignment, VerticalAlignment, Font) 사용
 	 */
+	@Deprecated
 	protected HSSFCellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, HSSFFont font) {
-		HSSFCellStyle cellStyle = workbook.createCellStyle();
+		return (HSSFCellStyle)buildCustomCellStyle(bgColor, align, valign, font);
+	}
+
+	private CellStyle buildCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, Font font) {
+		CellStyle cellStyle = excelWorkbook.createCellStyle();
 		cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 		cellStyle.setFillForegroundColor(bgColor);
 		cellStyle.setAlignment(align);
@@ -205,10 +336,10 @@ public class BHiveExcelCommand {
 	 * @param fontColor   font color to use
 	 * @param boldWeight  boldweight to use
 	 * @param underline   under line to use
-	 * @return HSSFCellStyle hssf cell style to use
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, short fontHeightInPoints, short fontColor, boolean boldWeight, byte underline) {
-		HSSFFont font = createFont(fontHeightInPoints, fontColor, boldWeight, null, underline);
+	protected CellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign, short fontHeightInPoints, short fontColor, boolean boldWeight, byte underline) {
+		Font font = createFont(fontHeightInPoints, fontColor, boldWeight, null, underline);
 		return createCustomCellStyle(bgColor, align, valign, font);
 	}
 
@@ -217,23 +348,23 @@ public class BHiveExcelCommand {
 	 * @param bgColor background color to use
 	 * @param align   align to use
 	 * @param valign  vertical align to use
-	 * @return HSSFCellStyle hssf cell style to use
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign) {
-		return createCustomCellStyle(bgColor, align, valign, null);
+	protected CellStyle createCustomCellStyle(short bgColor, HorizontalAlignment align, VerticalAlignment valign) {
+		return createCustomCellStyle(bgColor, align, valign, (Font)null);
 	}
 
 	/** 
-	 * 출력용 Font 생성
+	 * 출력용 Font 생성 (호출시마다 새 Font를 생성하므로 반복 출력에는 getFont 사용)
 	 * @param fontHeightInPoints  font height in points to use
 	 * @param fontColor   font color to use
 	 * @param boldWeight  bold is or not?
 	 * @param fontName    font name to use
 	 * @param underline   under line to use
-	 * @return HSSFCellStyle hssf cell style to use
+	 * @return Font font to use
 	 */
-	private HSSFFont createFont(short fontHeightInPoints, short fontColor, boolean boldWeight, String fontName, byte underline/*HSSFFont.U_NONE*/) {
-		HSSFFont font = workbook.createFont();
+	protected Font createFont(short fontHeightInPoints, short fontColor, boolean boldWeight, String fontName, byte underline/*Font.U_NONE*/) {
+		Font font = excelWorkbook.createFont();
 		font.setFontHeightInPoints(fontHeightInPoints);
 		font.setColor(fontColor);
 		font.setBold(boldWeight);
@@ -246,13 +377,34 @@ public class BHiveExcelCommand {
 		return font;
 	}
 
+	/** 
+	 * 공유 Font 획득 (같은 속성의 Font는 Workbook당 한번만 생성. 반환된 Font는 수정하지 않음)
+	 * @param fontHeightInPoints  font height in points to use
+	 * @param fontColor   font color to use
+	 * @param boldWeight  bold is or not?
+	 * @param fontName    font name to use
+	 * @param underline   under line to use
+	 * @return Font font to use
+	 */
+	protected Font getFont(short fontHeightInPoints, short fontColor, boolean boldWeight, String fontName, byte underline/*Font.U_NONE*/) {
+		return getStyleRegistry().getFont(createFontSpec(fontHeightInPoints, fontColor, boldWeight, fontName, underline));
+	}
+
+	/** 
+	 * 출력용 Font 속성 (폰트명 미지정시 맑은 고딕)
+	 */
+	private BHiveExcelStyleRegistry.FontSpec createFontSpec(short fontHeightInPoints, short fontColor, boolean boldWeight, String fontName, byte underline) {
+		String name = (!StringUtils.isEmpty(fontName)) ? fontName : "맑은 고딕";
+		return new BHiveExcelStyleRegistry.FontSpec(fontHeightInPoints, fontColor, boldWeight, name, underline);
+	}
+
 	/** 
 	 * 출력용 CellStyle에 Border style적용 
 	 * @param cellStyle  cell Style to use
 	 * @param borderColor   border Color to use
 	 * @param borderStyle  border Style to use
 	 */
-	private void setBorderStyleToCellStyle(HSSFCellStyle cellStyle, short borderColor, BorderStyle borderStyle) {
+	protected void setBorderStyleToCellStyle(CellStyle cellStyle, short borderColor, BorderStyle borderStyle) {
 		cellStyle.setLeftBorderColor(borderColor);
 		cellStyle.setRightBorderColor(borderColor);
 		cellStyle.setTopBorderColor(borderColor);
@@ -264,99 +416,161 @@ public class BHiveExcelCommand {
 	}
 
 	/** 
-	 * 제목 출력용 Style 
-	 * @return HSSFCellStyle hssf cell style to use
+	 * 제목 출력용 Style (호출시마다 새 Style 생성. 수정해서 사용 가능)
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createTitleCellStyle() {
+	protected CellStyle createTitleCellStyle() {
 		return createTitleCellStyle((short) 12, false);
 	}
-	protected HSSFCellStyle createTitleCellStyle(short fontHeightInPoints, short fontColor, byte underline, boolean setBorder) {
-		HSSFFont font = createFont(fontHeightInPoints, fontColor, true, null, underline);
-		HSSFCellStyle cellStyle = createCustomCellStyle(HSSFColor.WHITE.index, HorizontalAlignment.CENTER, VerticalAlignment.CENTER, font);
+	protected CellStyle createTitleCellStyle(short fontHeightInPoints, short fontColor, byte underline, boolean setBorder) {
+		Font font = createFont(fontHeightInPoints, fontColor, true, null, underline);
+		CellStyle cellStyle = createCustomCellStyle(HSSFColor.WHITE.index, HorizontalAlignment.CENTER, VerticalAlignment.CENTER, font);
 		if(setBorder == true) {
 			setBorderStyleToCellStyle(cellStyle, HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN);
 			cellStyle.setWrapText(true);
 		}
 		return cellStyle;
 	}
-	protected HSSFCellStyle createTitleCellStyle(short fontHeightInPoints, boolean setBorder) {
-		return createTitleCellStyle(fontHeightInPoints, HSSFColor.BLACK.index, HSSFFont.U_NONE, setBorder);
+	protected CellStyle createTitleCellStyle(short fontHeightInPoints, boolean setBorder) {
+		return createTitleCellStyle(fontHeightInPoints, HSSFColor.BLACK.index, Font.U_NONE, setBorder);
 	}
 
 	/** 
-	 * 부제목 출력용 Style 
-	 * @return HSSFCellStyle hssf cell style to use
+	 * 제목 출력용 공유 Style (반환된 Style은 수정하지 않음)
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getTitleCellStyle() {
+		return getTitleCellStyle((short) 12, false);
+	}
+	protected CellStyle getTitleCellStyle(short fontHeightInPoints, short fontColor, byte underline, boolean setBorder) {
+		BHiveExcelStyleRegistry.StyleSpec spec = new BHiveExcelStyleRegistry.StyleSpec()
+				.bgColor(HSSFColor.WHITE.index)
+				.align(HorizontalAlignment.CENTER, VerticalAlignment.CENTER)
+				.font(createFontSpec(fontHeightInPoints, fontColor, true, null, underline));
+		if(setBorder == true) {
+			spec.border(HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN).wrapText(true);
+		}
+		return getCellStyle(spec);
+	}
+	protected CellStyle getTitleCellStyle(short fontHeightInPoints, boolean setBorder) {
+		return getTitleCellStyle(fontHeightInPoints, HSSFColor.BLACK.index, Font.U_NONE, setBorder);
+	}
+
+	/** 
+	 * 부제목 출력용 Style (호출시마다 새 Style 생성. 수정해서 사용 가능)
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createSubTitleCellStyle() {
-		return createCustomCellStyle(HSSFColor.WHITE.index, HorizontalAlignment.RIGHT, VerticalAlignment.CENTER, (short) 10, HSSFColor.GREY_50_PERCENT.index, false, HSSFFont.U_NONE);
+	protected CellStyle createSubTitleCellStyle() {
+		return createCustomCellStyle(HSSFColor.WHITE.index, HorizontalAlignment.RIGHT, VerticalAlignment.CENTER, (short) 10, HSSFColor.GREY_50_PERCENT.index, false, Font.U_NONE);
 	}
 
 	/** 
-	 * 헤더 출력용 Style 
-	 * @return HSSFCellStyle hssf cell style to use
+	 * 부제목 출력용 공유 Style (반환된 Style은 수정하지 않음)
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getSubTitleCellStyle() {
+		return getCustomCellStyle(HSSFColor.WHITE.index, HorizontalAlignment.RIGHT, VerticalAlignment.CENTER, (short) 10, HSSFColor.GREY_50_PERCENT.index, false, Font.U_NONE);
+	}
+
+	/** 
+	 * 헤더 출력용 Style (호출시마다 새 Style 생성. 수정해서 사용 가능)
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createHeaderCellStyle() {
-		HSSFCellStyle headerStyle = createCustomCellStyle(
+	protected CellStyle createHeaderCellStyle() {
+		CellStyle headerStyle = createCustomCellStyle(
 				HSSFColor.GREY_25_PERCENT.index,
 				HorizontalAlignment.CENTER,
 				VerticalAlignment.CENTER,
 				(short) 10, HSSFColor.BLACK.index, true,
-				HSSFFont.U_NONE);
+				Font.U_NONE);
 		setBorderStyleToCellStyle(headerStyle, HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN);
 		headerStyle.setWrapText(true);
 		return headerStyle;
 	}
 
 	/** 
-	 * Data 출력용 Style 
+	 * 헤더 출력용 공유 Style (반환된 Style은 수정하지 않음)
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getHeaderCellStyle() {
+		return getCellStyle(new BHiveExcelStyleRegistry.StyleSpec()
+				.bgColor(HSSFColor.GREY_25_PERCENT.index)
+				.align(HorizontalAlignment.CENTER, VerticalAlignment.CENTER)
+				.font(createFontSpec((short) 10, HSSFColor.BLACK.index, true, null, Font.U_NONE))
+				.border(HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN)
+				.wrapText(true));
+	}
+
+	/** 
+	 * Data 출력용 Style (호출시마다 새 Style 생성. 수정해서 사용 가능)
 	 * @param align align to use
-	 * @return HSSFCellStyle hssf cell style to use
+	 * @return CellStyle cell style to use
 	 */
-	protected HSSFCellStyle createDataCellStyle(HorizontalAlignment align) {
-		HSSFCellStyle dataCellStyle = createCustomCellStyle(HSSFColor.WHITE.index, align, VerticalAlignment.TOP);
+	protected CellStyle createDataCellStyle(HorizontalAlignment align) {
+		CellStyle dataCellStyle = createCustomCellStyle(HSSFColor.WHITE.index, align, VerticalAlignment.TOP);
 		setBorderStyleToCellStyle(dataCellStyle, HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN);
 		dataCellStyle.setWrapText(true);
 		return dataCellStyle;
 	}
 
+	/** 
+	 * Data 출력용 공유 Style (반환된 Style은 수정하지 않음)
+	 * @param align align to use
+	 * @return CellStyle cell style to use
+	 */
+	protected CellStyle getDataCellStyle(HorizontalAlignment align) {
+		return getCellStyle(createDataCellStyleSpec(align));
+	}
+
+	/** 
+	 * Data 출력용 Style 속성
+	 */
+	private BHiveExcelStyleRegistry.StyleSpec createDataCellStyleSpec(HorizontalAlignment align) {
+		return new BHiveExcelStyleRegistry.StyleSpec()
+				.bgColor(HSSFColor.WHITE.index)
+				.align(align, VerticalAlignment.TOP)
+				.border(HSSFColor.GREY_50_PERCENT.index, BorderStyle.THIN)
+				.wrapText(true);
+	}
+
 	////////////////////////////////////////////////////////////////////////////////
 	//Helper
 
 	/** 
 	 * Excel Row의 특정 Cell에 값을 렌더링 (스타일 적용가능) 
-	 * @param excelRow HSSFRow excelRow
+	 * @param excelRow Row excelRow
 	 * @param cellnum int cell number
 	 * @param cellValue String cell value
-	 * @param cellStyle HSSFCellStyle object
+	 * @param cellStyle CellStyle object
 	 */
-	protected static void renderCustomCellValue(HSSFRow excelRow, int cellnum, String cellValue, HSSFCellStyle cellStyle) {
+	protected static void renderCustomCellValue(Row excelRow, int cellnum, String cellValue, CellStyle cellStyle) {
 		renderCustomCellValue(excelRow, cellnum, cellValue, cellStyle, 1, 1);
 	}
 
 	/** 
 	 * Excel Row의 특정 Cell에 값을 렌더링 (스타일 적용가능) 
-	 * @param excelRow HSSFRow excelRow
+	 * @param excelRow Row excelRow
 	 * @param cellnum int cell number
 	 * @param cellValue String cell value
-	 * @param cellStyle HSSFCellStyle object
+	 * @param cellStyle CellStyle object
 	 * @param colSpan col span value
 	 * @param rowSpan row span value
 	 */
-	protected static void renderCustomCellValue(HSSFRow excelRow, int cellnum, String cellValue, HSSFCellStyle cellStyle, int colSpan, int rowSpan) {
-		HSSFCell excelCell;
+	protected static void renderCustomCellValue(Row excelRow, int cellnum, String cellValue, CellStyle cellStyle, int colSpan, int rowSpan) {
+		Cell excelCell;
 		excelCell = excelRow.createCell(cellnum);
 		excelCell.setCellValue(cellValue);
 		if(cellStyle != null) {
 			excelCell.setCellStyle(cellStyle);
 			for(int r = 0; r < rowSpan; r++) {
 				boolean isRowCreated = false;
-				HSSFRow rowTemp = excelRow.getSheet().getRow(excelRow.getRowNum()+r);
+				Row rowTemp = excelRow.getSheet().getRow(excelRow.getRowNum()+r);
 				if(rowTemp == null) {
 					isRowCreated = true;
 					rowTemp = excelRow.getSheet().createRow(excelRow.getRowNum()+r);
 				}
 				for(int c = 0; c < colSpan; c++) {
-					HSSFCell cellTemp = null;
+					Cell cellTemp = null;
 					if(isRowCreated) {
 						cellTemp = rowTemp.createCell(cellnum+c);
 					} else {
@@ -381,41 +595,170 @@ public class BHiveExcelCommand {
 	////////////////////////////////////////////////////////////////////////////////
 	/** 
 	 * 엑셀 생성 (MAIN Start Method)
-	 * @param workbook HSSFRow excelRow
+	 * @param workbook Workbook (HSSFWorkbook: .xls, XSSFWorkbook/SXSSFWorkbook: .xlsx)
 	 * @param request HttpServletRequest request object
 	 * @param response HttpServletResponse response object
 	 */
-	public void buildExcelDocument(HSSFWorkbook workbook, HttpServletRequest request, HttpServletResponse response) {
-		this.workbook = workbook;
+	public void buildExcelDocument(Workbook workbook, HttpServletRequest request, HttpServletResponse response) {
 		this.request = request;
 		this.response = response;
 
 		try {
 			//http://hammer.tistory.com/26
+			renderWorkbook(workbook);
+		} catch (Exception e) {
+			checkDataItemTypeWithMetadataClass();
+			throw new BHiveRuntimeException("Failed to create excel.", e);
+		}
+	}
 
-			//출력을 위한 설정정보 구성
-			prepareMetadata();
+	/**
+	 * Workbook에 출력 (데이터가 시트당 최대 Row 수를 초과하면 시트를 분할)
+	 * @param workbook 출력할 Workbook
+	 * @throws Exception 데이터 조회 또는 렌더링 오류
+	 */
+	public void renderWorkbook(Workbook workbook) throws Exception {
+		this.excelWorkbook = workbook;
+		this.workbook = (workbook instanceof HSSFWorkbook) ? (HSSFWorkbook)workbook : null;
+		this.verticalMerger = null;
+		this.sheetCount = 0;
+
+		//출력을 위한 설정정보 구성
+		prepareMetadata();
+
+		Sheet excelSheet = startSheet();
+		int rownum = renderExcelRows(excelSheet, currentDataRownumStarted);
+		postRenderSheet(currentSheet, currentDataRownumStarted, rownum);
+	}
+
+	/**
+	 * 새 시트를 생성하고 제목, 헤더를 출력 (두번째 시트부터 시트명에 순번 추가)
+	 * @return Sheet 데이터를 출력할 시트
+	 */
+	protected Sheet startSheet() {
+		sheetCount++;
+		String name = (sheetCount == 1) ? this.sheetName : this.sheetName + " (" + sheetCount + ")";
+		Sheet excelSheet = createSheet(name);
+		this.widthEstimator = (autoSizeColumn) ? null : new BHiveExcelColumnWidthEstimator(columnOrderMap.size());
+
+		int rownum = 0;
+		rownum = renderTitle(excelSheet, rownum);
+		//rownum = renderSubtitle(excelSheet, rownum);
+		rownum = renderExcelHeader(excelSheet, rownum);
+
+		this.currentSheet = excelSheet;
+		this.currentDataRownumStarted = rownum;
+
+		//세로 병합은 출력된 Row를 다시 읽지 않고 출력과 동시에 처리
+		this.verticalMerger = null;
+		if(this.mergeMode == BHiveExcelMergeMode.MERGE_VERTICAL || this.mergeMode == BHiveExcelMergeMode.MERGE_VERTICAL_HIERARCHY) {
+			this.verticalMerger = new BHiveExcelVerticalMerger(excelSheet, columnOrderMap.size(), this.mergeMode == BHiveExcelMergeMode.MERGE_VERTICAL_HIERARCHY);
+		}
+		return excelSheet;
+	}
+
+	/**
+	 * 시트당 최대 데이터 Row 수
+	 * @return maxDataRowsPerSheet 설정값, 미설정시 Workbook 형식(xls: 65,536, xlsx: 1,048,576)의 최대 Row 수에서 제목, 헤더를 제외한 수
+	 */
+	protected int getSheetDataRowLimit() {
+		if(maxDataRowsPerSheet > 0) {
+			return maxDataRowsPerSheet;
+		}
+		SpreadsheetVersion version = (excelWorkbook instanceof HSSFWorkbook) ? SpreadsheetVersion.EXCEL97 : SpreadsheetVersion.EXCEL2007;
+		return version.getMaxRows() - currentDataRownumStarted;
+	}
 
-			HSSFSheet excelSheet = workbook.createSheet(this.sheetName);
+	/**
+	 * 데이터를 일정 Row 수 단위의 여러 xlsx Workbook으로 나누어 병렬 출력하고 zip으로 묶어 응답
+	 * @param partitionWriter 분할 출력기
+	 * @param request HttpServletRequest
+	 * @param response HttpServletResponse
+	 */
+	public void buildZipExcelDocument(BHiveExcelPartitionWriter partitionWriter, HttpServletRequest request, HttpServletResponse response) {
+		this.request = request;
+		this.response = response;
 
-			int rownum = 0;
-			rownum = renderTitle(excelSheet, rownum);
-			//rownum = renderSubtitle(excelSheet, rownum);
-			rownum = renderExcelHeader(excelSheet, rownum);
-			int dataRownumStarted = rownum;
-			rownum = renderExcelRows(excelSheet, rownum);
-			postRenderSheet(excelSheet, dataRownumStarted, rownum);
+		try {
+			setResponseHeader(EXTENSION_ZIP);
+			partitionWriter.write(this, response.getOutputStream());
 		} catch (Exception e) {
 			checkDataItemTypeWithMetadataClass();
 			throw new BHiveRuntimeException("Failed to create excel.", e);
 		}
 	}
+
+	/**
+	 * 분할 출력된 Workbook의 zip entry 파일명
+	 * @param partitionNo 분할 순번 (1부터)
+	 * @return 파일명 (ex: filename_yyyyMMdd_HHmmss_001.xlsx)
+	 */
+	protected String getPartitionFilename(int partitionNo) {
+		return FilenameUtils.removeExtension(filename) + "_" + now.toString("yyyyMMdd_HHmmss") + "_" + String.format("%03d", partitionNo) + EXTENSION_XLSX;
+	}
+
+	/**
+	 * 분할 출력용 복사본 생성 (메타정보는 공유하고 출력상태는 새로 구성)
+	 * prepareMetadata 이후에 호출하여야 하며 복사본은 다른 쓰레드에서 독립적으로 renderWorkbook 할 수 있다.
+	 * @param partitionList 복사본이 출력할 데이터
+	 * @return 분할 출력용 복사본
+	 */
+	protected BHiveExcelCommand copyForPartition(List partitionList) {
+		BHiveExcelCommand copy;
+		try {
+			copy = (BHiveExcelCommand)clone();
+		} catch (CloneNotSupportedException e) {
+			throw new BHiveRuntimeException("Failed to copy excel command.", e);
+		}
+		copy.dataList = partitionList;
+		copy.dataSource = new BHiveIterableExcelDataSource(partitionList);
+		copy.excelWorkbook = null;
+		copy.workbook = null;
+		copy.currentSheet = null;
+		copy.styleRegistry = null;
+		copy.mergeDataFormatter = new DataFormatter();
+		copy.verticalMerger = null;
+		copy.widthEstimator = null;
+		copy.csvWriter = null;
+		copy.request = null;
+		copy.response = null;
+		return copy;
+	}
+
+	/**
+	 * 출력용 Sheet 생성
+	 * SXSSF(Streaming)에서 autoSizeColumn을 사용하는 경우 Window 밖으로 Flush된 Row는 AutoSize 계산에서 제외되므로 생성 즉시 컬럼 추적을 시작한다.
+	 * @param sheetName 시트명
+	 * @return Sheet 생성된 시트
+	 */
+	protected Sheet createSheet(String sheetName) {
+		Sheet excelSheet = excelWorkbook.createSheet(sheetName);
+		if(autoSizeColumn && excelSheet instanceof SXSSFSheet) {
+			((SXSSFSheet)excelSheet).trackAllColumnsForAutoSizing();
+		}
+		return excelSheet;
+	}
+
+	/**
+	 * Workbook 종류에 따른 다운로드 파일 확장자
+	 * @return HSSF: .xls, 그외(XSSF, SXSSF): .xlsx
+	 */
+	protected String getExcelExtension() {
+		if(excelWorkbook == null || excelWorkbook instanceof HSSFWorkbook) {
+			return EXTENSTION;
+		}
+		return EXTENSION_XLSX;
+	}
+
 	/** 
 	 * 오류발생시 Metadata의 클래스 호환성 확인 
 	 */
 	protected void checkDataItemTypeWithMetadataClass() {
-		if(this.dataList.size() > 0) {
-			Class<?> dataItemType = this.dataList.get(0).getClass();
+		Class<?> dataItemType = this.dataItemType;
+		if(dataItemType == null && this.dataList != null && this.dataList.size() > 0) {
+			dataItemType = this.dataList.get(0).getClass();
+		}
+		if(dataItemType != null) {
 			if(!this.metadataClass.isAssignableFrom(dataItemType)) {
 				logger.warn("[CAUTION] Given metadataClass is not assignable from item's class of given list.");
 				logger.warn(" - metadataClass: {}", metadataClass);
@@ -458,22 +801,41 @@ public class BHiveExcelCommand {
 		}
 	}
 
+	/** 
+	 * 타이틀 출력
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+	 * @return next title row index
+	 */
+	protected int renderTitle(Sheet excelSheet, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderTitle((HSSFSheet)excelSheet, rownum);
+		}
+		return renderTitleInternal(excelSheet, rownum);
+	}
+
 	/** 
 	 * 타이틀 출력
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
 	 * @return next title row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderTitle(Sheet, int) 사용
 	 */
+	@Deprecated
 	protected int renderTitle(HSSFSheet excelSheet, int rownum) {
+		return renderTitleInternal(excelSheet, rownum);
+	}
+
+	private int renderTitleInternal(Sheet excelSheet, int rownum) {
 		if(StringUtils.isEmpty(this.title)) {
 			return rownum;
 		}
 
-		HSSFRow excelRow = excelSheet.createRow(rownum);
-		HSSFCell excelCell = excelRow.createCell(0);
+		Row excelRow = excelSheet.createRow(rownum);
+		Cell excelCell = excelRow.createCell(0);
 		excelCell.setCellValue(this.title);
 
-		HSSFCellStyle titleStyle = createTitleCellStyle();
+		CellStyle titleStyle = getTitleCellStyle();
 		excelCell.setCellStyle(titleStyle);
 
 		//컬럼수만큼 셀 가로 병합
@@ -485,21 +847,55 @@ public class BHiveExcelCommand {
 		return rownum;
 	}
 
+	/** 
+	 * 타이틀 직후 커스텀 출력  
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+	 * @return next custom title row index
+	 */
+	protected int renderCustomTitle(Sheet excelSheet, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderCustomTitle((HSSFSheet)excelSheet, rownum);
+		}
+		return rownum;
+	}
+
 	/** 
 	 * 타이틀 직후 커스텀 출력  
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
 	 * @return next custom title row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderCustomTitle(Sheet, int) 사용
 	 */
+	@Deprecated
 	protected int renderCustomTitle(HSSFSheet excelSheet, int rownum) { return rownum; }
 
+	/** 
+	 * 서브 타이틀 출력 (누가, 언제 출력) 
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+	 * @return next sub title row index
+	 */
+	protected int renderSubtitle(Sheet excelSheet, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderSubtitle((HSSFSheet)excelSheet, rownum);
+		}
+		return renderSubtitleInternal(excelSheet, rownum);
+	}
+
 	/** 
 	 * 서브 타이틀 출력 (누가, 언제 출력) 
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
 	 * @return next sub title row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderSubtitle(Sheet, int) 사용
 	 */
+	@Deprecated
 	protected int renderSubtitle(HSSFSheet excelSheet, int rownum) {
+		return renderSubtitleInternal(excelSheet, rownum);
+	}
+
+	private int renderSubtitleInternal(Sheet excelSheet, int rownum) {
 		User me = null;
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		Object principal = authentication.getPrincipal();
@@ -513,11 +909,11 @@ public class BHiveExcelCommand {
 			subtitle = String.format("생성일시: %s", now.toString("yyyy-MM-dd HH:mm:ss"));
 		}
 
-		HSSFRow excelRow = excelSheet.createRow(rownum);
-		HSSFCell excelCell = excelRow.createCell(0);
+		Row excelRow = excelSheet.createRow(rownum);
+		Cell excelCell = excelRow.createCell(0);
 		excelCell.setCellValue(subtitle);
 
-		HSSFCellStyle subTitleStyle = createSubTitleCellStyle();
+		CellStyle subTitleStyle = getSubTitleCellStyle();
 		excelCell.setCellStyle(subTitleStyle);
 
 		//컬럼수만큼 셀 가로 병합
@@ -529,25 +925,59 @@ public class BHiveExcelCommand {
 		return rownum;
 	}
 
+	/** 
+	 * 서브타이틀 직후 커스텀 출력 
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+     * @return next custom sub title row index
+	 */
+	protected int renderCustomSubTitle(Sheet excelSheet, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderCustomSubTitle((HSSFSheet)excelSheet, rownum);
+		}
+		return rownum;
+	}
+
 	/** 
 	 * 서브타이틀 직후 커스텀 출력 
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
      * @return next custom sub title row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderCustomSubTitle(Sheet, int) 사용
 	 */
+	@Deprecated
 	protected int renderCustomSubTitle(HSSFSheet excelSheet, int rownum) { return rownum; }
 
+	/** 
+	 * 헤더 렌더링 
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+	 * @return next header row index
+	 */
+	protected int renderExcelHeader(Sheet excelSheet, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderExcelHeader((HSSFSheet)excelSheet, rownum);
+		}
+		return renderExcelHeaderInternal(excelSheet, rownum);
+	}
+
 	/** 
 	 * 헤더 렌더링 
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
 	 * @return next header row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderExcelHeader(Sheet, int) 사용
 	 */
+	@Deprecated
 	protected int renderExcelHeader(HSSFSheet excelSheet, int rownum) {
-		HSSFCellStyle headerStyle = createHeaderCellStyle();
+		return renderExcelHeaderInternal(excelSheet, rownum);
+	}
 
-		HSSFRow excelHeaderRow1 = excelSheet.createRow(rownum++);
-		HSSFRow excelHeaderRow2 = (hasGroupHeaderMap) ? excelSheet.createRow(rownum++) : excelHeaderRow1;
+	private int renderExcelHeaderInternal(Sheet excelSheet, int rownum) {
+		CellStyle headerStyle = getHeaderCellStyle();
+
+		Row excelHeaderRow1 = excelSheet.createRow(rownum++);
+		Row excelHeaderRow2 = (hasGroupHeaderMap) ? excelSheet.createRow(rownum++) : excelHeaderRow1;
 
 		//자동 높이 적용을 위한 headerMaxLine 계산
 		double headerMaxLine1 = 1; //1줄 개별 높이
@@ -556,10 +986,13 @@ public class BHiveExcelCommand {
 
 		int cellnum = 0;
 		for(String field : columnOrderMap.keySet()) {
-			HSSFCell excelHeaderCell1 = excelHeaderRow1.createCell(cellnum);
-			HSSFCell excelHeaderCell2 = (hasGroupHeaderMap) ? excelHeaderRow2.createCell(cellnum) : excelHeaderCell1;
+			Cell excelHeaderCell1 = excelHeaderRow1.createCell(cellnum);
+			Cell excelHeaderCell2 = (hasGroupHeaderMap) ? excelHeaderRow2.createCell(cellnum) : excelHeaderCell1;
 			String headerValue1 = this.groupHeaderMap.get(field);
 			String headerValue2 = this.headerMap.get(field);
+			if(widthEstimator != null) {
+				widthEstimator.update(cellnum, headerValue2);
+			}
 			if (hasGroupHeaderMap == false) {
 				//일반 헤더 모드
 				excelHeaderCell2.setCellValue(headerValue2);
@@ -586,8 +1019,10 @@ public class BHiveExcelCommand {
 				}
 
 				//autoSize
-				excelSheet.autoSizeColumn(cellnum);
-				excelSheet.setColumnWidth(cellnum, (int)(excelSheet.getColumnWidth(cellnum)*AUTO_SIZE_HEADERCOLUMN_MULTIFIER));
+				if(autoSizeColumn) {
+					excelSheet.autoSizeColumn(cellnum);
+					excelSheet.setColumnWidth(cellnum, (int)(excelSheet.getColumnWidth(cellnum)*AUTO_SIZE_HEADERCOLUMN_MULTIFIER));
+				}
 
 				if (hasGroupHeaderCellValue == false) {
 					//그룹헤더 없는 경우 세로 병합
@@ -600,10 +1035,15 @@ public class BHiveExcelCommand {
 		if (hasGroupHeaderMap) {
 			//그룹헤더 가로 병합
 			mergeHorizontalCellHasEqualValue(excelSheet, excelHeaderRow1.getRowNum(), 0, columnOrderMap.size());
-			//병합후 AutoSize 재적용
-			for(int cellIdx=0; cellIdx <columnOrderMap.keySet().size(); cellIdx++) {
-				excelSheet.autoSizeColumn(cellIdx);
-				excelSheet.setColumnWidth(cellIdx, (int)(excelSheet.getColumnWidth(cellIdx)*AUTO_SIZE_HEADERCOLUMN_MULTIFIER));
+			if(autoSizeColumn) {
+				//병합후 AutoSize 재적용
+				for(int cellIdx=0; cellIdx <columnOrderMap.keySet().size(); cellIdx++) {
+					excelSheet.autoSizeColumn(cellIdx);
+					excelSheet.setColumnWidth(cellIdx, (int)(excelSheet.getColumnWidth(cellIdx)*AUTO_SIZE_HEADERCOLUMN_MULTIFIER));
+				}
+			} else if(widthEstimator != null) {
+				//병합된 그룹헤더는 병합된 컬럼수로 나누어 폭 추정
+				updateGroupHeaderWidth();
 			}
 		}
 
@@ -619,78 +1059,355 @@ public class BHiveExcelCommand {
 		return rownum;
 	}
 
+	/**
+	 * 그룹헤더 값으로 컬럼폭 추정 (값이 같은 연속 컬럼은 가로 병합되므로 병합 컬럼수로 나누어 적용)
+	 */
+	protected void updateGroupHeaderWidth() {
+		String[] groupHeaderValues = new String[columnOrderMap.size()];
+		int cellnum = 0;
+		for(String field : columnOrderMap.keySet()) {
+			groupHeaderValues[cellnum++] = this.groupHeaderMap.get(field);
+		}
+		int beginCellnum = 0;
+		for(cellnum = 1; cellnum <= groupHeaderValues.length; cellnum++) {
+			if(cellnum < groupHeaderValues.length && StringUtils.hasLength(groupHeaderValues[cellnum]) && groupHeaderValues[cellnum].equals(groupHeaderValues[beginCellnum])) {
+				continue;
+			}
+			int span = cellnum - beginCellnum;
+			for(int spanCellnum = beginCellnum; spanCellnum < cellnum; spanCellnum++) {
+				widthEstimator.update(spanCellnum, groupHeaderValues[beginCellnum], span);
+			}
+			beginCellnum = cellnum;
+		}
+	}
+
 	/** 
-	 * 데이터 렌더링 
+	 * 데이터 렌더링 (시트당 최대 Row 수 초과시 startSheet로 다음 시트를 생성하여 계속 출력. 마지막 시트는 currentSheet)
+	 * @param excelSheet Sheet object
+	 * @param rownum int rownum
+	 * @throws Exception 데이터 조회 또는 렌더링 오류
+	 * @return int rendered Excel rows (마지막 시트 기준)
+	 */
+	protected int renderExcelRows(final Sheet excelSheet, int rownum) throws Exception {
+		if(excelSheet instanceof HSSFSheet) {
+			return renderExcelRows((HSSFSheet)excelSheet, rownum);
+		}
+		return renderExcelRowsInternal(excelSheet, rownum);
+	}
+
+	/** 
+	 * 데이터 렌더링 (시트당 최대 Row 수 초과시 startSheet로 다음 시트를 생성하여 계속 출력. 마지막 시트는 currentSheet)
 	 * @param excelSheet HSSFSheet object
 	 * @param rownum int rownum
-	 * @throws IllegalAccessException throws IllegalAccess Exception 
-	 * @throws InvocationTargetException throws Invocation Target Exception
-	 * @throws NoSuchMethodException throws No Such Method Exception
-	 * @return int rendered Excel rows
-	 */
-	protected int renderExcelRows(HSSFSheet excelSheet, int rownum) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-		Map<ExcelColumn.ExcelAlign, HSSFCellStyle> cellStyleMap = new HashMap<ExcelColumn.ExcelAlign, HSSFCellStyle>();
-		HSSFCellStyle cellStyleLeft =createDataCellStyle(HorizontalAlignment.LEFT);
-		HSSFCellStyle cellStyleCenter =createDataCellStyle(HorizontalAlignment.CENTER);
-		HSSFCellStyle cellStyleRight =createDataCellStyle(HorizontalAlignment.RIGHT);
-		HSSFCellStyle cellStyleDefaultFallback = cellStyleLeft;
+	 * @throws Exception 데이터 조회 또는 렌더링 오류
+	 * @return int rendered Excel rows (마지막 시트 기준)
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). renderExcelRows(Sheet, int) 사용
+	 */
+	@Deprecated
+	protected int renderExcelRows(final HSSFSheet excelSheet, int rownum) throws Exception {
+		return renderExcelRowsInternal(excelSheet, rownum);
+	}
+
+	private int renderExcelRowsInternal(final Sheet excelSheet, int rownum) throws Exception {
+		final Map<ExcelColumn.ExcelAlign, CellStyle> cellStyleMap = new HashMap<ExcelColumn.ExcelAlign, CellStyle>();
+		CellStyle cellStyleLeft =getDataCellStyle(HorizontalAlignment.LEFT);
+		CellStyle cellStyleCenter =getDataCellStyle(HorizontalAlignment.CENTER);
+		CellStyle cellStyleRight =getDataCellStyle(HorizontalAlignment.RIGHT);
 		cellStyleMap.put(ExcelColumn.ExcelAlign.Left, cellStyleLeft);
 		cellStyleMap.put(ExcelColumn.ExcelAlign.Center, cellStyleCenter);
 		cellStyleMap.put(ExcelColumn.ExcelAlign.Right, cellStyleRight);
 		cellStyleMap.put(ExcelColumn.ExcelAlign.DefaultByType, null);
 
-		int cellnum = 0;
-		for (Object dt : dataList) {
-			HSSFRow excelRow = excelSheet.createRow(rownum++);
-			cellnum = 0;
-			for(String columnName : columnOrderMap.keySet()) {
-				ExcelColumn annotation = this.anntationMap.get(columnName);
-				String fieldValue = BeanUtils.getProperty(dt, columnName);
-				PropertyDescriptor propDesc = org.springframework.beans.BeanUtils.getPropertyDescriptor(dt.getClass(), columnName);
-				if(propDesc != null) {
-					Class<?> fieldType = propDesc.getPropertyType();
-
-					//필드 타입에 따른 값 변환 및 포매팅 처리
-					if(fieldType.isAssignableFrom(DateTime.class)) {
-						//DateTime 형이면 날짜 포매팅
-						if (fieldValue != null) {
-							DateTime date = new DateTime(fieldValue);
-							fieldValue = date.toString(annotation.dateTimeFormat());
-						}
-					} else if(fieldCodeMapList.containsKey(columnName)) {
-						//codeMap에 해당 필드용 코드변환 맵이 있으면 변환
-						Map<String, String> codeMap = fieldCodeMapList.get(columnName);
-						logger.trace("####[EXCEL] codeMap[" + columnName + " = " + fieldValue + "] => " + codeMap.toString());
-						if(codeMap.containsKey(fieldValue)) {
-							fieldValue = codeMap.get(fieldValue); //코드변환
-						}
+		//데이터 공급자에서 한 건씩 받아 바로 출력 (전체 목록을 적재하지 않음)
+		final Sheet[] currentExcelSheet = { excelSheet };
+		final int[] currentRownum = { rownum };
+		dataSource.fetch(new BHiveExcelDataSource.RowHandler() {
+			private Class<?> boundItemType;
+			private ColumnBinding[] columnBindings;
+
+			public void handleRow(Object dataItem) throws Exception {
+				if(currentRownum[0] - currentDataRownumStarted >= getSheetDataRowLimit()) {
+					//시트당 최대 Row 수 초과시 현재 시트를 마무리하고 다음 시트로 분할
+					if(verticalMerger != null) {
+						verticalMerger.finish();
 					}
-
-					//셀값 적용
-					HSSFCell cell = excelRow.createCell(cellnum++);
-					cell.setCellValue(fieldValue);
-
-					//Style적용
-					HSSFCellStyle dataCellStyle = null;
-					//Style의 Align 선택처리
-					dataCellStyle = cellStyleMap.get(annotation.align());
-					if(dataCellStyle == null) {
-						if( fieldType.isAssignableFrom(Long.class) ||
-								fieldType.isAssignableFrom(Integer.class) ||
-								fieldType.isAssignableFrom(Short.class) ||
-								fieldType.isAssignableFrom(Double.class) ||
-								fieldType.isAssignableFrom(Float.class) ) {
-							dataCellStyle = cellStyleRight;
-						} else {
-							dataCellStyle = cellStyleDefaultFallback;
-						}
+					postRenderSheet(currentExcelSheet[0], currentDataRownumStarted, currentRownum[0]);
+					currentExcelSheet[0] = startSheet();
+					currentRownum[0] = currentDataRownumStarted;
+				}
+				if(dataItem.getClass() != boundItemType) {
+					//아이템 클래스별로 컬럼 실행계획을 한번만 Binding
+					boundItemType = dataItem.getClass();
+					columnBindings = bindColumns(boundItemType, cellStyleMap);
+					if(dataItemType == null) {
+						dataItemType = boundItemType;
 					}
-					cell.setCellStyle(dataCellStyle);
 				}
+				renderExcelRow(currentExcelSheet[0], currentRownum[0]++, dataItem, columnBindings);
+			}
+		});
+		if(this.verticalMerger != null) {
+			this.verticalMerger.finish();
+		}
+		return currentRownum[0];
+	}
+
+	/**
+	 * 출력 컬럼 순서에 따라 컬럼 실행계획, 날짜 Formatter, 코드표, Style을 Binding
+	 * @param itemType 출력할 데이터 아이템 클래스
+	 * @param cellStyleMap 정렬별 Data Cell Style 맵
+	 * @return 출력 컬럼 순서의 ColumnBinding 배열
+	 * @throws NoSuchMethodException 출력 컬럼의 getter가 없는 경우
+	 */
+	protected ColumnBinding[] bindColumns(Class<?> itemType, Map<ExcelColumn.ExcelAlign, CellStyle> cellStyleMap) throws NoSuchMethodException {
+		BHiveExcelColumnPlan plan = BHiveExcelColumnPlan.getPlan(itemType);
+		CellStyle cellStyleRight = cellStyleMap.get(ExcelColumn.ExcelAlign.Right);
+		CellStyle cellStyleDefaultFallback = cellStyleMap.get(ExcelColumn.ExcelAlign.Left);
+
+		ColumnBinding[] columnBindings = new ColumnBinding[columnOrderMap.size()];
+		int cellnum = 0;
+		for(String columnName : columnOrderMap.keySet()) {
+			BHiveExcelColumnPlan.Column column = plan.getColumn(columnName);
+			if(column == null) {
+				throw new NoSuchMethodException("Unknown property '" + columnName + "' on class '" + itemType + "'");
+			}
+			ExcelColumn annotation = this.anntationMap.get(columnName);
+
+			//Style의 Align 선택처리
+			CellStyle dataCellStyle = cellStyleMap.get(annotation.align());
+			HorizontalAlignment dataAlign = toHorizontalAlignment(annotation.align());
+			if(dataCellStyle == null) {
+				dataCellStyle = (column.isNumeric()) ? cellStyleRight : cellStyleDefaultFallback;
+				dataAlign = (column.isNumeric()) ? HorizontalAlignment.RIGHT : HorizontalAlignment.LEFT;
+			}
 
+			DateTimeFormatter dateTimeFormatter = (column.isDateTime()) ? plan.getDateTimeFormatter(annotation.dateTimeFormat()) : null;
+			//codeMap에 해당 필드용 코드변환 맵이 있으면 변환 (DateTime 형 제외)
+			Map<String, String> codeMap = (column.isDateTime()) ? null : fieldCodeMapList.get(columnName);
+
+			//날짜형 셀 Style (정렬 Style + 날짜 DataFormat), 정수 셀 Style (정렬 Style + 정수 DataFormat)
+			CellStyle dateCellStyle = null;
+			CellStyle integerCellStyle = null;
+			if(typedCellValue && dataCellStyle != null) {
+				if(column.isDateTime() || column.isDate()) {
+					dateCellStyle = getDateCellStyle(dataAlign, annotation.dateTimeFormat());
+				} else if(column.isNumeric()) {
+					integerCellStyle = getCellStyle(createDataCellStyleSpec(dataAlign).dataFormat(INTEGER_DATA_FORMAT));
+				}
 			}
+
+			columnBindings[cellnum++] = new ColumnBinding(column, annotation.dateTimeFormat(), dateTimeFormatter, codeMap, dataCellStyle, dateCellStyle, integerCellStyle);
 		}
-		return rownum;
+		return columnBindings;
+	}
+
+	/**
+	 * Data 출력용 Style에 날짜 DataFormat을 적용한 공유 Style 획득 (Workbook당 (정렬, 형식)별 한번만 생성)
+	 * @param align 정렬
+	 * @param dateTimeFormat 날짜형식 (Joda 형식)
+	 * @return 날짜 셀 Style
+	 */
+	protected CellStyle getDateCellStyle(HorizontalAlignment align, String dateTimeFormat) {
+		return getCellStyle(createDataCellStyleSpec(align).dataFormat(toExcelDateFormat(dateTimeFormat)));
+	}
+
+	/**
+	 * ExcelColumn 정렬을 셀 정렬로 변환
+	 * @param align ExcelColumn 정렬
+	 * @return 셀 정렬 (DefaultByType이면 null)
+	 */
+	private static HorizontalAlignment toHorizontalAlignment(ExcelColumn.ExcelAlign align) {
+		switch(align) {
+		case Left:
+			return HorizontalAlignment.LEFT;
+		case Center:
+			return HorizontalAlignment.CENTER;
+		case Right:
+			return HorizontalAlignment.RIGHT;
+		default:
+			return null;
+		}
+	}
+
+	/** 
+	 * 데이터 한 줄 렌더링 
+	 * @param excelSheet Sheet object
+	 * @param rownum 출력할 row index
+	 * @param dt 출력할 데이터 아이템
+	 * @param columnBindings 출력 컬럼 순서의 ColumnBinding 배열
+	 * @throws InvocationTargetException throws Invocation Target Exception
+	 */
+	protected void renderExcelRow(Sheet excelSheet, int rownum, Object dt, ColumnBinding[] columnBindings) throws InvocationTargetException {
+		Row excelRow = excelSheet.createRow(rownum);
+		for(int cellnum = 0; cellnum < columnBindings.length; cellnum++) {
+			ColumnBinding binding = columnBindings[cellnum];
+			Object value = binding.column.getValue(dt);
+
+			//셀값 적용
+			Cell cell = excelRow.createCell(cellnum);
+			if(setTypedCellValue(cell, binding, value)) {
+				if(widthEstimator != null) {
+					//날짜는 날짜형식 길이로 추정
+					widthEstimator.update(cellnum, (value instanceof Number || value instanceof Boolean) ? value.toString() : binding.dateTimeFormat);
+				}
+				if(verticalMerger != null) {
+					//숫자, 날짜 셀은 셀 형식이 적용된 출력값으로 비교
+					verticalMerger.setCellText(cellnum, mergeDataFormatter.formatCellValue(cell));
+				}
+			} else {
+				String fieldValue = binding.column.formatValue(value, binding.dateTimeFormatter, binding.codeMap);
+				cell.setCellValue(fieldValue);
+				cell.setCellStyle(binding.cellStyle);
+				if(widthEstimator != null) {
+					widthEstimator.update(cellnum, fieldValue);
+				}
+				if(verticalMerger != null) {
+					verticalMerger.setCellText(cellnum, fieldValue);
+				}
+			}
+		}
+		if(verticalMerger != null) {
+			verticalMerger.endRow(rownum);
+		}
+	}
+
+	/**
+	 * 숫자, Boolean, 날짜값을 Excel 고유 타입으로 셀에 적용
+	 * @param cell 대상 셀
+	 * @param binding 출력 컬럼 Binding
+	 * @param value 프로퍼티 값
+	 * @return 적용 여부 (false이면 문자열로 출력)
+	 */
+	protected boolean setTypedCellValue(Cell cell, ColumnBinding binding, Object value) {
+		if(!typedCellValue || value == null || binding.codeMap != null) {
+			return false;
+		}
+		if(value instanceof Number) {
+			if(!isExactDouble((Number)value)) {
+				return false;
+			}
+			cell.setCellValue(((Number)value).doubleValue());
+			cell.setCellStyle((binding.integerCellStyle != null && isIntegral((Number)value)) ? binding.integerCellStyle : binding.cellStyle);
+			return true;
+		}
+		if(value instanceof Boolean) {
+			cell.setCellValue(((Boolean)value).booleanValue());
+			cell.setCellStyle(binding.cellStyle);
+			return true;
+		}
+		if(binding.dateCellStyle != null) {
+			if(value instanceof ReadableInstant) {
+				cell.setCellValue(new Date(((ReadableInstant)value).getMillis()));
+			} else if(value instanceof Date) {
+				cell.setCellValue((Date)value);
+			} else {
+				return false;
+			}
+			cell.setCellStyle(binding.dateCellStyle);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Excel 숫자 셀로 변환해도 값이 유지되는 숫자인지 여부 (Excel 유효자리수 15자리 초과인 Long, BigDecimal등은 문자열로 출력)
+	 * @param value 숫자값
+	 * @return 숫자 셀 변환시 값 유지 여부
+	 */
+	private static boolean isExactDouble(Number value) {
+		if(value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Double || value instanceof Float) {
+			return true;
+		}
+		if(value instanceof Long) {
+			long longValue = value.longValue();
+			return longValue >= -MAX_EXCEL_EXACT_INTEGER && longValue <= MAX_EXCEL_EXACT_INTEGER;
+		}
+		if(value instanceof BigDecimal) {
+			//Excel의 유효자리수(15자리) 이내
+			return ((BigDecimal)value).precision() <= 15;
+		}
+		if(value instanceof BigInteger) {
+			return ((BigInteger)value).abs().compareTo(BigInteger.valueOf(MAX_EXCEL_EXACT_INTEGER)) <= 0;
+		}
+		return false;
+	}
+
+	/**
+	 * 정수값 여부 (정수 DataFormat 적용 대상)
+	 * @param value 숫자값
+	 * @return 정수 여부
+	 */
+	private static boolean isIntegral(Number value) {
+		if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+			return true;
+		}
+		return value instanceof BigDecimal && ((BigDecimal)value).scale() <= 0;
+	}
+
+	/**
+	 * Joda 날짜형식을 Excel DataFormat 형식으로 변환 (예: yyyy-MM-dd HH:mm:ss =&gt; yyyy-mm-dd hh:mm:ss)
+	 * @param dateTimeFormat Joda 날짜형식
+	 * @return Excel DataFormat 형식
+	 */
+	protected static String toExcelDateFormat(String dateTimeFormat) {
+		StringBuilder excelFormat = new StringBuilder();
+		boolean inQuote = false;
+		for(int i = 0; i < dateTimeFormat.length(); i++) {
+			char c = dateTimeFormat.charAt(i);
+			if(c == '\'') {
+				inQuote = !inQuote;
+				continue;
+			}
+			if(inQuote) {
+				excelFormat.append('\\').append(c);
+				continue;
+			}
+			switch (c) {
+			case 'y': case 'd': case 's': case 'h':
+				excelFormat.append(c);
+				break;
+			case 'M': case 'm':
+				excelFormat.append('m');
+				break;
+			case 'H': case 'k':
+				excelFormat.append('h');
+				break;
+			case 'S':
+				excelFormat.append('0');
+				break;
+			case 'E':
+				excelFormat.append('d');
+				break;
+			case 'a':
+				if(i == 0 || dateTimeFormat.charAt(i-1) != 'a') {
+					excelFormat.append("AM/PM");
+				}
+				break;
+			default:
+				if(Character.isLetter(c)) {
+					excelFormat.append('\\').append(c);
+				} else {
+					excelFormat.append(c);
+				}
+				break;
+			}
+		}
+		return excelFormat.toString();
+	}
+
+	/** 
+	 * 렌더링 후 처리
+	 * @param excelSheet Sheet object
+	 * @param dataRownumStarted 데이터 출력 시작 위치
+	 * @param rownum 최종 출력 위치
+	 * @throws UnsupportedEncodingException Unsupported Encoding Exception
+	 */
+	protected void postRenderSheet(Sheet excelSheet, int dataRownumStarted, int rownum) throws UnsupportedEncodingException {
+		if(excelSheet instanceof HSSFSheet) {
+			postRenderSheet((HSSFSheet)excelSheet, dataRownumStarted, rownum);
+			return;
+		}
+		postRenderSheetInternal(excelSheet, dataRownumStarted, rownum);
 	}
 
 	/** 
@@ -699,8 +1416,14 @@ public class BHiveExcelCommand {
 	 * @param dataRownumStarted 데이터 출력 시작 위치
 	 * @param rownum 최종 출력 위치
 	 * @throws UnsupportedEncodingException Unsupported Encoding Exception
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). postRenderSheet(Sheet, int, int) 사용
 	 */
+	@Deprecated
 	protected void postRenderSheet(HSSFSheet excelSheet, int dataRownumStarted, int rownum) throws UnsupportedEncodingException {
+		postRenderSheetInternal(excelSheet, dataRownumStarted, rownum);
+	}
+
+	private void postRenderSheetInternal(Sheet excelSheet, int dataRownumStarted, int rownum) throws UnsupportedEncodingException {
 		//Column의 Width 설정 (커스텀/AutoSize)
 		applyColumnWidth(excelSheet);
 
@@ -715,16 +1438,37 @@ public class BHiveExcelCommand {
 	}
 
 	/** 
-	 * 컬럼폭 적용 (기본: 자동폭 계산) 
+	 * 컬럼폭 적용 (기본: 출력값 길이로 추정, autoSizeColumn 설정시 자동폭 계산) 
+	 * @param excelSheet Sheet object
+	 */
+	protected void applyColumnWidth(Sheet excelSheet) {
+		if(excelSheet instanceof HSSFSheet) {
+			applyColumnWidth((HSSFSheet)excelSheet);
+			return;
+		}
+		applyColumnWidthInternal(excelSheet);
+	}
+
+	/** 
+	 * 컬럼폭 적용 (기본: 출력값 길이로 추정, autoSizeColumn 설정시 자동폭 계산) 
 	 * @param excelSheet HSSFSheet object
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). applyColumnWidth(Sheet) 사용
 	 */
+	@Deprecated
 	protected void applyColumnWidth(HSSFSheet excelSheet) {
+		applyColumnWidthInternal(excelSheet);
+	}
+
+	private void applyColumnWidthInternal(Sheet excelSheet) {
 		int cellnum = 0;
 		for(String field : columnOrderMap.keySet()) {
 			ExcelColumn annotation = anntationMap.get(field);
 			//width 처리
 			logger.trace("####[EXCEL] postRenderSheet => applyColumnWidth {} width: {}", field, annotation.width());
-			if(annotation.width() <= 0) {
+			if(annotation.width() <= 0 && !autoSizeColumn && widthEstimator != null) {
+				excelSheet.setColumnWidth(cellnum, widthEstimator.getColumnWidth(cellnum));
+				logger.trace("####[EXCEL] postRenderSheet => applyColumnWidth {} estimated({})", field, cellnum);
+			} else if(annotation.width() <= 0) {
 				int oldWidthByHeader = excelSheet.getColumnWidth(cellnum); //헤더, 그룹헤더처리시 지정된 AutoWidth
 				excelSheet.autoSizeColumn(cellnum);
 				excelSheet.setColumnWidth(cellnum, (int)(excelSheet.getColumnWidth(cellnum)*AUTO_SIZE_COLUMN_MULTIFIER));
@@ -740,12 +1484,35 @@ public class BHiveExcelCommand {
 	}
 
 	/** 
-	 * Merge Mode에 따른 Data Cell 병합 
+	 * Merge Mode에 따른 Data Cell 병합 (Row 출력시 병합처리기로 이미 병합된 경우는 제외)
+	 * @param excelSheet Sheet object
+	 * @param dataRownumStarted 처리 시작 row index
+	 * @param rownum int 처리할 row 갯수
+	 */
+	protected void applyDataCellMergeMode(Sheet excelSheet, int dataRownumStarted, int rownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			applyDataCellMergeMode((HSSFSheet)excelSheet, dataRownumStarted, rownum);
+			return;
+		}
+		applyDataCellMergeModeInternal(excelSheet, dataRownumStarted, rownum);
+	}
+
+	/** 
+	 * Merge Mode에 따른 Data Cell 병합 (Row 출력시 병합처리기로 이미 병합된 경우는 제외)
 	 * @param excelSheet HSSFSheet object
 	 * @param dataRownumStarted 처리 시작 row index
 	 * @param rownum int 처리할 row 갯수
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). applyDataCellMergeMode(Sheet, int, int) 사용
 	 */
+	@Deprecated
 	protected void applyDataCellMergeMode(HSSFSheet excelSheet, int dataRownumStarted, int rownum) {
+		applyDataCellMergeModeInternal(excelSheet, dataRownumStarted, rownum);
+	}
+
+	private void applyDataCellMergeModeInternal(Sheet excelSheet, int dataRownumStarted, int rownum) {
+		if(this.verticalMerger != null && this.verticalMerger.getRowCount() > 0) {
+			return;
+		}
 		switch (this.mergeMode) {
 		case MERGE_VERTICAL:
 			mergeVerticalAtAllColumn(excelSheet, dataRownumStarted, rownum);
@@ -758,11 +1525,29 @@ public class BHiveExcelCommand {
 		}
 	}
 
+	/** 
+	 * 컬럼 숨김적용
+	 * @param excelSheet Sheet object
+	 */
+	protected void applyColumnHidden(Sheet excelSheet) {
+		if(excelSheet instanceof HSSFSheet) {
+			applyColumnHidden((HSSFSheet)excelSheet);
+			return;
+		}
+		applyColumnHiddenInternal(excelSheet);
+	}
+
 	/** 
 	 * 컬럼 숨김적용
 	 * @param excelSheet HSSFSheet object
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). applyColumnHidden(Sheet) 사용
 	 */
+	@Deprecated
 	protected void applyColumnHidden(HSSFSheet excelSheet) {
+		applyColumnHiddenInternal(excelSheet);
+	}
+
+	private void applyColumnHiddenInternal(Sheet excelSheet) {
 		int cellnum = 0;
 		for(String field : columnOrderMap.keySet()) {
 			ExcelColumn annotation = anntationMap.get(field);
@@ -780,20 +1565,53 @@ public class BHiveExcelCommand {
  	 * @throws UnsupportedEncodingException throws Un supported Encoding Exception
 	 */
 	protected void setResponseHeader() throws UnsupportedEncodingException {
+		setResponseHeader(getExcelExtension());
+	}
+
+	/** 
+	 * 응답헤더 설정 (다운로드 파일명등...)
+	 * @param extension 다운로드 파일 확장자
+ 	 * @throws UnsupportedEncodingException throws Un supported Encoding Exception
+	 */
+	protected void setResponseHeader(String extension) throws UnsupportedEncodingException {
+		if(response == null) {
+			//분할 출력용 복사본은 응답헤더를 설정하지 않음
+			return;
+		}
 		//파일명
-		String attachmentFilename = FilenameUtils.removeExtension(filename) + "_" + now.toString("yyyyMMdd_HHmmss") + EXTENSTION;
+		String attachmentFilename = getAttachmentFilename(extension);
 		setAttachementFilenameHeader(attachmentFilename);
 		response.setHeader("Content-Transfer-Encoding", "binary");
 		//jQuery FileDownload Cookie
 		response.setHeader("Set-Cookie", "fileDownload=true; path=/");
 	}
 
+	/**
+	 * 다운로드 파일명
+	 * @param extension 다운로드 파일 확장자
+	 * @return 파일명 (ex: filename_yyyyMMdd_HHmmss.xlsx)
+	 */
+	public String getAttachmentFilename(String extension) {
+		return FilenameUtils.removeExtension(filename) + "_" + now.toString("yyyyMMdd_HHmmss") + extension;
+	}
+
 	/** 
 	 * 브라우저 종류에 따른 파일명 설정 
 	 * @param attachmentFilename 첨부 파일명
 	 * @throws UnsupportedEncodingException throws Un supported Encoding Exception
 	 */
 	private void setAttachementFilenameHeader(String attachmentFilename) throws UnsupportedEncodingException {
+		setAttachementFilenameHeader(request, response, attachmentFilename);
+	}
+
+	/** 
+	 * 브라우저 종류에 따른 파일명 설정 (요청과 다른 쓰레드에서 생성된 파일의 다운로드용)
+	 * @param request HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @param attachmentFilename 첨부 파일명
+	 * @throws UnsupportedEncodingException throws Un supported Encoding Exception
+	 */
+	protected static void setAttachementFilenameHeader(HttpServletRequest request, HttpServletResponse response, String attachmentFilename) throws UnsupportedEncodingException {
 		String user_agent = request.getHeader("user-agent");
 		boolean isInternetExplorer = (user_agent.indexOf("MSIE") > -1) || (user_agent.indexOf("Trident") > -1);
 		logger.trace("####[EXCEL/CSV] user_agent:"+user_agent);
@@ -813,7 +1631,7 @@ public class BHiveExcelCommand {
 	 * @param cellnum 대상셀 ColumnIndex
 	 * @param colSpan 가로 셀 폭
 	 */
-	protected static void mergeHorizontal(HSSFSheet excelSheet, int rownum, int cellnum, int colSpan) {
+	protected static void mergeHorizontal(Sheet excelSheet, int rownum, int cellnum, int colSpan) {
 		if(colSpan > 0) {
 			excelSheet.addMergedRegion(new CellRangeAddress(rownum, rownum, cellnum, cellnum + colSpan-1));
 		}
@@ -826,7 +1644,7 @@ public class BHiveExcelCommand {
 	 * @param cellnum 대상셀 ColumnIndex
 	 * @param rowSpan 세로 셀 폭
 	 */
-	protected static void mergeVertical(HSSFSheet excelSheet, int rownum, int cellnum, int rowSpan) {
+	protected static void mergeVertical(Sheet excelSheet, int rownum, int cellnum, int rowSpan) {
 		if(rowSpan > 0) {
 			excelSheet.addMergedRegion(new CellRangeAddress(rownum, rownum + rowSpan - 1, cellnum, cellnum));
 		}
@@ -840,7 +1658,7 @@ public class BHiveExcelCommand {
 	 * @param rowSpan 세로 셀 폭
 	 * @param colSpan 가로 셀 폭
 	 */
-	protected static void mergeRange(HSSFSheet excelSheet, int rownum, int cellnum, int rowSpan, int colSpan) {
+	protected static void mergeRange(Sheet excelSheet, int rownum, int cellnum, int rowSpan, int colSpan) {
 		if(rowSpan > 0 && colSpan > 0) {
 			excelSheet.addMergedRegion(new CellRangeAddress(rownum, rownum + rowSpan - 1, cellnum, cellnum + colSpan - 1));
 		}
@@ -851,7 +1669,26 @@ public class BHiveExcelCommand {
 	 * @param excelSheet 가로 병합할 sheet
 	 * @param atRownum 병합할 row index
 	 */
+	protected void mergeHorizontalByColumnCount(Sheet excelSheet, int atRownum) {
+		if(excelSheet instanceof HSSFSheet) {
+			mergeHorizontalByColumnCount((HSSFSheet)excelSheet, atRownum);
+			return;
+		}
+		mergeHorizontalByColumnCountInternal(excelSheet, atRownum);
+	}
+
+	/** 
+	 * 주어진 줄을 컬럼수만큼 가로병합(주로 제목부분 줄에 적용) 
+	 * @param excelSheet 가로 병합할 sheet
+	 * @param atRownum 병합할 row index
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). mergeHorizontalByColumnCount(Sheet, int) 사용
+	 */
+	@Deprecated
 	protected void mergeHorizontalByColumnCount(HSSFSheet excelSheet, int atRownum) {
+		mergeHorizontalByColumnCountInternal(excelSheet, atRownum);
+	}
+
+	private void mergeHorizontalByColumnCountInternal(Sheet excelSheet, int atRownum) {
 		int columnCount = this.columnOrderMap.size();
 		mergeHorizontal(excelSheet, atRownum, 0, columnCount);
 	}
@@ -862,7 +1699,27 @@ public class BHiveExcelCommand {
 	 * @param dataRownumStarted 병합시작할 row index
 	 * @param dataRownumMax 병합할 최대 row 갯수
 	 */
+	protected void mergeVerticalAtAllColumn(Sheet excelSheet, int dataRownumStarted, int dataRownumMax) {
+		if(excelSheet instanceof HSSFSheet) {
+			mergeVerticalAtAllColumn((HSSFSheet)excelSheet, dataRownumStarted, dataRownumMax);
+			return;
+		}
+		mergeVerticalAtAllColumnInternal(excelSheet, dataRownumStarted, dataRownumMax);
+	}
+
+	/** 
+	 * 컬럼데이터를 세로 Merge
+	 * @param excelSheet 가로 병합할 sheet
+	 * @param dataRownumStarted 병합시작할 row index
+	 * @param dataRownumMax 병합할 최대 row 갯수
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). mergeVerticalAtAllColumn(Sheet, int, int) 사용
+	 */
+	@Deprecated
 	protected void mergeVerticalAtAllColumn(HSSFSheet excelSheet, int dataRownumStarted, int dataRownumMax) {
+		mergeVerticalAtAllColumnInternal(excelSheet, dataRownumStarted, dataRownumMax);
+	}
+
+	private void mergeVerticalAtAllColumnInternal(Sheet excelSheet, int dataRownumStarted, int dataRownumMax) {
 		int columnCount = this.columnOrderMap.size();
 		for(int cellnum=0; cellnum<columnOrderMap.size(); cellnum++) {
 			mergeVerticalCellHasEqualValue(excelSheet, cellnum, dataRownumStarted, dataRownumMax, false, columnCount-1);
@@ -875,7 +1732,27 @@ public class BHiveExcelCommand {
 	 * @param dataRownumStarted 병합시작할 row index
 	 * @param dataRownumMax 병합할 최대 row 갯수
 	 */
+	protected void mergeVerticalHierarchyAtAllColumn(Sheet excelSheet, int dataRownumStarted, int dataRownumMax) {
+		if(excelSheet instanceof HSSFSheet) {
+			mergeVerticalHierarchyAtAllColumn((HSSFSheet)excelSheet, dataRownumStarted, dataRownumMax);
+			return;
+		}
+		mergeVerticalHierarchyAtAllColumnInternal(excelSheet, dataRownumStarted, dataRownumMax);
+	}
+
+	/** 
+	 * 컬럼데이터를 세로 Merge, 앞에서 부터 HIERARCHY 방식 사용 (1열이 7줄 합쳐지면 2열은 그 경계를 초과하여 합치치 않음) 
+	 * @param excelSheet 가로 병합할 sheet
+	 * @param dataRownumStarted 병합시작할 row index
+	 * @param dataRownumMax 병합할 최대 row 갯수
+	 * @deprecated 기존 HSSF 서브클래스 호환용 (HSSF 출력에서만 호출). mergeVerticalHierarchyAtAllColumn(Sheet, int, int) 사용
+	 */
+	@Deprecated
 	protected void mergeVerticalHierarchyAtAllColumn(HSSFSheet excelSheet, int dataRownumStarted, int dataRownumMax) {
+		mergeVerticalHierarchyAtAllColumnInternal(excelSheet, dataRownumStarted, dataRownumMax);
+	}
+
+	private void mergeVerticalHierarchyAtAllColumnInternal(Sheet excelSheet, int dataRownumStarted, int dataRownumMax) {
 		int columnCount = this.columnOrderMap.size();
 		if(columnCount > 0) {
 			mergeVerticalCellHasEqualValue(excelSheet, 0, dataRownumStarted, dataRownumMax, true, columnCount-1);
@@ -891,7 +1768,7 @@ public class BHiveExcelCommand {
 	 * @param hierarchy 트리형으로 적용
 	 * @param cellnumMax 최대 Cellnum (초과경계값)
 	 */
-	protected static void mergeVerticalCellHasEqualValue(HSSFSheet excelSheet, int cellnum, int dataRownumStarted, int dataRownumMax, boolean hierarchy, int cellnumMax) {
+	protected static void mergeVerticalCellHasEqualValue(Sheet excelSheet, int cellnum, int dataRownumStarted, int dataRownumMax, boolean hierarchy, int cellnumMax) {
 		logger.trace("mergeVerticalCell - cellnum: {}, dataRownumStarted: {}, dataRownumMax: {}, hierarchy: {}, cellnumMax: {}", cellnum, dataRownumStarted, dataRownumMax, hierarchy, cellnumMax);
 		if(dataRownumStarted >= dataRownumMax) {
 			return;
@@ -899,10 +1776,12 @@ public class BHiveExcelCommand {
 		if(hierarchy && cellnum >= cellnumMax) {
 			return;
 		}
-		HSSFRow beginRow = null;
-		HSSFCell beginCell = null;
-		HSSFRow currentRow = null;
-		HSSFCell currentCell = null;
+		//숫자, 날짜 셀은 셀 형식이 적용된 출력값으로 비교
+		DataFormatter dataFormatter = new DataFormatter();
+		Row beginRow = null;
+		Cell beginCell = null;
+		Row currentRow = null;
+		Cell currentCell = null;
 		int rowSpan = 1;
 		for(int rownum = dataRownumStarted; rownum < dataRownumMax; rownum++) {
 			if(beginRow == null) {
@@ -914,7 +1793,7 @@ public class BHiveExcelCommand {
 			currentRow = excelSheet.getRow(rownum);
 			currentCell = currentRow.getCell(cellnum);
 
-			boolean isEqual = beginCell.toString().equals(currentCell.toString());
+			boolean isEqual = dataFormatter.formatCellValue(beginCell).equals(dataFormatter.formatCellValue(currentCell));
 			boolean isRemainRow = (rownum < dataRownumMax-1);
 			if(isEqual) {
 				//equal
@@ -946,14 +1825,14 @@ public class BHiveExcelCommand {
 	 * @param cellnumStart 컬럼시작
 	 * @param cellnumEnd 컬럼끝 (초과경계값)
 	 */
-	protected static void mergeHorizontalCellHasEqualValue(HSSFSheet excelSheet, int rownum, int cellnumStart, int cellnumEnd) {
+	protected static void mergeHorizontalCellHasEqualValue(Sheet excelSheet, int rownum, int cellnumStart, int cellnumEnd) {
 		logger.trace("mergeHorizontalCell - rownum: {}, cellnumStart: {}, cellnumEnd: {}", rownum, cellnumStart, cellnumEnd);
 		if (cellnumStart >= cellnumEnd) {
 			return;
 		}
-		HSSFRow row = excelSheet.getRow(rownum);
-		HSSFCell beginCell = null;
-		HSSFCell currentCell = null;
+		Row row = excelSheet.getRow(rownum);
+		Cell beginCell = null;
+		Cell currentCell = null;
 		int cellSpan = 1;
 		for(int cellnum = cellnumStart; cellnum < cellnumEnd; cellnum++) {
 			logger.trace(" cellnum:{}", cellnum);
@@ -1010,6 +1889,80 @@ public class BHiveExcelCommand {
 		}
 	}
 
+	/** 
+	 * CSV 생성. 컬럼 실행계획 기반 고속 출력 (Excel과 동일하게 코드표, 날짜형식 적용)
+	 * @param out 출력 스트림 (응답 또는 gzip 스트림. 닫지 않음)
+	 * @param writeBom UTF-8 BOM 출력 여부 (Excel에서 한글 인식)
+	 * @param request HttpServletRequest object
+	 * @param response HttpServletResponse object
+	 */
+	public void buildCsvDocument(OutputStream out, boolean writeBom, HttpServletRequest request, HttpServletResponse response) {
+		this.request = request;
+		this.response = response;
+		try {
+			setResponseCSVHeader();
+			writeCsv(out, writeBom);
+		} catch (Exception e) {
+			checkDataItemTypeWithMetadataClass();
+			throw new BHiveRuntimeException("Failed to create csv.", e);
+		}
+	}
+
+	/** 
+	 * CSV 출력 (UTF-8)
+	 * @param out 출력 스트림 (닫지 않음)
+	 * @param writeBom UTF-8 BOM 출력 여부
+	 * @throws Exception 데이터 조회 또는 CSV 출력 오류
+	 */
+	public void writeCsv(OutputStream out, boolean writeBom) throws Exception {
+		//출력을 위한 설정정보 구성
+		prepareMetadata();
+
+		final BHiveCsvWriter writer = new BHiveCsvWriter(new OutputStreamWriter(out, "UTF-8"));
+		try {
+			if(writeBom) {
+				writer.writeBom();
+			}
+			if(!StringUtils.isEmpty(this.title)) {
+				writer.writeField(this.title);
+				writer.endRow();
+			}
+			for(String field : columnOrderMap.keySet()) {
+				String headerValue1 = this.groupHeaderMap.get(field);
+				String headerValue2 = this.headerMap.get(field);
+				if(!StringUtils.isEmpty(headerValue1)) {
+					headerValue2 = headerValue1 + " " + headerValue2;
+				}
+				writer.writeField(headerValue2);
+			}
+			writer.endRow();
+
+			final Map<ExcelColumn.ExcelAlign, CellStyle> noCellStyleMap = new HashMap<ExcelColumn.ExcelAlign, CellStyle>();
+			dataSource.fetch(new BHiveExcelDataSource.RowHandler() {
+				private Class<?> boundItemType;
+				private ColumnBinding[] columnBindings;
+
+				public void handleRow(Object dataItem) throws Exception {
+					if(dataItem.getClass() != boundItemType) {
+						boundItemType = dataItem.getClass();
+						columnBindings = bindColumns(boundItemType, noCellStyleMap);
+						if(dataItemType == null) {
+							dataItemType = boundItemType;
+						}
+					}
+					for (ColumnBinding binding : columnBindings) {
+						Object value = binding.column.getValue(dataItem);
+						writer.writeField(binding.column.formatValue(value, binding.dateTimeFormatter, binding.codeMap));
+					}
+					writer.endRow();
+				}
+			});
+		} finally {
+			writer.finish();
+		}
+		logger.trace("####[CSV] writeCsv ok");
+	}
+
 	/** 
 	 * CSV 헤더 생성 
 	 * @param model CSV 로 생성할 데이터
@@ -1037,13 +1990,18 @@ public class BHiveExcelCommand {
 	/** 
 	 * CSV 데이터 생성
 	 * @param model CSV 로 생성할 데이터
-	 * @throws IOException throws IO Exception
+	 * @throws Exception 데이터 조회 또는 CSV 출력 오류
 	 */
-	private void renderCsvRows(Map<String, Object> model) throws IOException {
-		String[] columns = columnOrderMap.keySet().toArray(new String[0]);
-		for (Object dt : dataList) {
-			csvWriter.write(dt, columns);
-		}
+	private void renderCsvRows(Map<String, Object> model) throws Exception {
+		final String[] columns = columnOrderMap.keySet().toArray(new String[0]);
+		dataSource.fetch(new BHiveExcelDataSource.RowHandler() {
+			public void handleRow(Object dataItem) throws Exception {
+				if(dataItemType == null) {
+					dataItemType = dataItem.getClass();
+				}
+				csvWriter.write(dataItem, columns);
+			}
+		});
 		logger.trace("####[CSV] writeRows ok");
 	}
 
@@ -1052,6 +2010,9 @@ public class BHiveExcelCommand {
 	 * @throws IOException throws IO Exception
 	 */
 	protected void setResponseCSVHeader() throws IOException {
+		if(response == null) {
+			return;
+		}
 		//파일명
 		String attachmentFilename = FilenameUtils.removeExtension(filename) + "_" + now.toString("yyyyMMdd_HHmmss") + EXTENSION_CSV;
 		setAttachementFilenameHeader(attachmentFilename);
@@ -1076,6 +2037,14 @@ public class BHiveExcelCommand {
 		this.sheetName = sheetName;
 	}
 
+	public int getMaxDataRowsPerSheet() {
+		return maxDataRowsPerSheet;
+	}
+
+	public void setMaxDataRowsPerSheet(int maxDataRowsPerSheet) {
+		this.maxDataRowsPerSheet = maxDataRowsPerSheet;
+	}
+
 	public BHiveExcelMergeMode getMergeMode() {
 		return mergeMode;
 	}
@@ -1084,4 +2053,54 @@ public class BHiveExcelCommand {
 		this.mergeMode = mergeMode;
 	}
 
+	public boolean isAutoSizeColumn() {
+		return autoSizeColumn;
+	}
+
+	public void setAutoSizeColumn(boolean autoSizeColumn) {
+		this.autoSizeColumn = autoSizeColumn;
+	}
+
+	public boolean isTypedCellValue() {
+		return typedCellValue;
+	}
+
+	public void setTypedCellValue(boolean typedCellValue) {
+		this.typedCellValue = typedCellValue;
+	}
+
+	/**
+	 * 출력 컬럼 Binding (컬럼 실행계획 + 출력 요청별 Formatter, 코드표, Style)
+	 */
+	protected static class ColumnBinding {
+		/** 컬럼 실행계획 */
+		protected final BHiveExcelColumnPlan.Column column;
+		/** 날짜형식 (ExcelColumn.dateTimeFormat) */
+		protected final String dateTimeFormat;
+		/** 날짜 Formatter (날짜형 컬럼만) */
+		protected final DateTimeFormatter dateTimeFormatter;
+		/** 코드표 (없으면 null) */
+		protected final Map<String, String> codeMap;
+		/** Data Cell Style */
+		protected final CellStyle cellStyle;
+		/** 날짜 셀 Style (typedCellValue 모드의 날짜형 컬럼만) */
+		protected final CellStyle dateCellStyle;
+		/** 정수 셀 Style (typedCellValue 모드의 숫자형 컬럼만) */
+		protected final CellStyle integerCellStyle;
+
+		public ColumnBinding(BHiveExcelColumnPlan.Column column, String dateTimeFormat, DateTimeFormatter dateTimeFormatter, Map<String, String> codeMap, CellStyle cellStyle, CellStyle dateCellStyle) {
+			this(column, dateTimeFormat, dateTimeFormatter, codeMap, cellStyle, dateCellStyle, null);
+		}
+
+		public ColumnBinding(BHiveExcelColumnPlan.Column column, String dateTimeFormat, DateTimeFormatter dateTimeFormatter, Map<String, String> codeMap, CellStyle cellStyle, CellStyle dateCellStyle, CellStyle integerCellStyle) {
+			this.column = column;
+			this.dateTimeFormat = dateTimeFormat;
+			this.dateTimeFormatter = dateTimeFormatter;
+			this.codeMap = codeMap;
+			this.cellStyle = cellStyle;
+			this.dateCellStyle = dateCellStyle;
+			this.integerCellStyle = integerCellStyle;
+		}
+	}
+
 }
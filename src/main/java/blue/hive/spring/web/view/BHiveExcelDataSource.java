@@ -0,0 +1,33 @@
+package blue.hive.spring.web.view;
+
+/**
+ * Excel/CSV 출력 데이터 공급자
+ *
+ * 전체 목록을 List로 적재하지 않고 한 건씩 RowHandler에 전달하여
+ * 출력 메모리 사용량이 데이터 건수에 비례하지 않도록 한다.
+ * (예: MyBatis ResultHandler 기반 blue.hive.mybatis.support.BHiveMyBatisExcelDataSource)
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public interface BHiveExcelDataSource {
+
+	/**
+	 * 데이터를 순서대로 handler에 전달
+	 * @param handler 데이터 한 건씩 처리할 handler
+	 * @throws Exception 데이터 조회 또는 handler 처리 오류
+	 */
+	void fetch(RowHandler handler) throws Exception;
+
+	/**
+	 * 데이터 한 건 처리 handler
+	 */
+	interface RowHandler {
+
+		/**
+		 * 데이터 한 건 처리
+		 * @param dataItem 출력할 데이터 아이템
+		 * @throws Exception 처리 오류
+		 */
+		void handleRow(Object dataItem) throws Exception;
+	}
+}
@@ -0,0 +1,131 @@
+package blue.hive.spring.web.view;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 비동기 엑셀 출력 작업 상태 (진행상태 조회 응답용)
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelExportJob {
+
+	/** 작업 상태 */
+	public enum Status {
+		/** 실행 대기 */
+		WAITING,
+		/** 출력중 */
+		RUNNING,
+		/** 출력 완료 (다운로드 가능) */
+		COMPLETED,
+		/** 실패 */
+		FAILED
+	}
+
+	/** 작업 ID */
+	private final String jobId;
+
+	/** 다운로드 파일명 */
+	private final String filename;
+
+	/** 작업 등록 시간 */
+	private final DateTime createdTime = new DateTime();
+
+	/** 작업 상태 */
+	private volatile Status status = Status.WAITING;
+
+	/** 출력한 데이터 Row 수 */
+	private final AtomicLong processedRows = new AtomicLong();
+
+	/** 작업 종료 시간 (완료 또는 실패) */
+	private volatile DateTime completedTime;
+
+	/** 실패 메시지 */
+	private volatile String errorMessage;
+
+	/** Spool 파일 */
+	private final File file;
+
+	/** 작업 등록자 (로그인 사용자 또는 세션 ID, 요청 밖에서 등록했으면 null) */
+	private final String owner;
+
+	public BHiveExcelExportJob(String jobId, String filename, File file) {
+		this(jobId, filename, file, null);
+	}
+
+	public BHiveExcelExportJob(String jobId, String filename, File file, String owner) {
+		this.jobId = jobId;
+		this.filename = filename;
+		this.file = file;
+		this.owner = owner;
+	}
+
+	void running() {
+		this.status = Status.RUNNING;
+	}
+
+	void completed() {
+		this.completedTime = new DateTime();
+		this.status = Status.COMPLETED;
+	}
+
+	void failed(String errorMessage) {
+		this.errorMessage = errorMessage;
+		this.completedTime = new DateTime();
+		this.status = Status.FAILED;
+	}
+
+	void increaseProcessedRows() {
+		processedRows.incrementAndGet();
+	}
+
+	/**
+	 * 종료 여부 (완료 또는 실패)
+	 * @return 종료 여부
+	 */
+	public boolean isDone() {
+		return status == Status.COMPLETED || status == Status.FAILED;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public DateTime getCreatedTime() {
+		return createdTime;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public long getProcessedRows() {
+		return processedRows.get();
+	}
+
+	public DateTime getCompletedTime() {
+		return completedTime;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	@JsonIgnore
+	public File getFile() {
+		return file;
+	}
+
+	@JsonIgnore
+	public String getOwner() {
+		return owner;
+	}
+}
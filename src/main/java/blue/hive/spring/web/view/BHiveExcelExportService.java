@@ -0,0 +1,357 @@
+package blue.hive.spring.web.view;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+/**
+ * 비동기 엑셀 출력 서비스
+ *
+ * 요청 쓰레드에서 엑셀을 출력하지 않고 작업을 등록한 뒤 작업 ID를 반환한다.
+ * 엑셀은 taskExecutor에서 spoolDirectory의 임시파일(.xlsx, SXSSF)로 출력되며
+ * 클라이언트는 getJob으로 진행상태(출력 Row 수)를 조회하고 완료후 writeResult로 다운로드한다.
+ *
+ * 동시 출력 작업 수는 maxConcurrentJobs로 제한하며 초과시 등록을 거부한다.
+ * 종료된 작업의 파일은 retentionMillis 경과후 cleanupExpiredJobs에서 삭제한다.
+ *
+ * 작업 등록시 등록자(로그인 사용자, 미로그인이면 세션 ID)를 기록하며
+ * getJob, writeResult는 등록자와 같은 사용자(세션)의 요청에서만 작업을 반환한다. (다른 사용자에게는 없는 작업으로 처리)
+ *
+ * 작업 목록과 Spool 파일은 서버(JVM) 메모리와 로컬 디스크에만 있으므로
+ * 클러스터 환경에서는 등록, 조회, 다운로드 요청이 같은 서버로 가도록 Sticky Session을 설정해야 한다.
+ * maxConcurrentJobs도 서버별 제한이며 클러스터 전체의 동시 작업 수는 (서버 수 x maxConcurrentJobs)까지 늘어난다.
+ *
+ * <pre>
+ * //출력 요청
+ * String jobId = excelExportService.submit(new BHiveExcelCommand(dataSource, SampleVO.class, messageSource));
+ * //진행상태 조회
+ * BHiveExcelExportJob job = excelExportService.getJob(jobId);
+ * //다운로드
+ * excelExportService.writeResult(jobId, request, response);
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelExportService implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(BHiveExcelExportService.class);
+
+	/** 출력을 실행할 Executor */
+	private AsyncTaskExecutor taskExecutor;
+
+	/** 출력파일 Spool 디렉토리 */
+	private File spoolDirectory = new File(System.getProperty("java.io.tmpdir"), "bhive-excel-export");
+
+	/** 동시 출력 작업 수 제한 (실행 대기 포함) */
+	private int maxConcurrentJobs = 2;
+
+	/** 종료된 작업 보관시간 (ms) */
+	private long retentionMillis = 60 * 60 * 1000L;
+
+	/** SXSSF 메모리에 유지할 Row 수 */
+	private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	/** 작업 ID - 작업 */
+	private final ConcurrentMap<String, BHiveExcelExportJob> jobMap = new ConcurrentHashMap<String, BHiveExcelExportJob>();
+
+	/** 동시 출력 작업 수 제한 */
+	private volatile Semaphore jobPermits;
+
+	public BHiveExcelExportService() {
+	}
+
+	public BHiveExcelExportService(AsyncTaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * 출력 작업 등록 (등록자는 현재 요청의 로그인 사용자 또는 세션)
+	 * @param command 출력할 엑셀 커맨드 (요청 쓰레드에서 메타정보를 구성하여 작업 쓰레드에 전달)
+	 * @return 작업 ID
+	 */
+	public String submit(final BHiveExcelCommand command) {
+		cleanupExpiredJobs();
+
+		final String owner = resolveOwner(null);
+
+		final Semaphore permits = getJobPermits();
+		if(!permits.tryAcquire()) {
+			throw new BHiveRuntimeException("엑셀 출력 작업이 많습니다. 잠시후 다시 시도하세요.");
+		}
+
+		final String jobId = UUID.randomUUID().toString();
+		try {
+			//헤더 다국어는 요청 로케일 기준 (요청 쓰레드에서 구성)
+			command.prepareMetadata();
+
+			FileUtils.forceMkdir(spoolDirectory);
+			final BHiveExcelExportJob job = new BHiveExcelExportJob(jobId, command.getAttachmentFilename(BHiveExcelCommand.EXTENSION_XLSX), new File(spoolDirectory, jobId + BHiveExcelCommand.EXTENSION_XLSX), owner);
+			command.dataSource = new CountingDataSource(command.dataSource, job);
+			jobMap.put(jobId, job);
+
+			taskExecutor.execute(new Runnable() {
+				public void run() {
+					try {
+						render(command, job);
+					} finally {
+						permits.release();
+					}
+				}
+			});
+		} catch (Exception e) {
+			jobMap.remove(jobId);
+			permits.release();
+			throw new BHiveRuntimeException("Failed to submit excel export.", e);
+		}
+		logger.debug("excel export submitted: {}", jobId);
+		return jobId;
+	}
+
+	/**
+	 * 작업 쓰레드에서 Spool 파일로 출력
+	 * @param command 출력할 엑셀 커맨드
+	 * @param job 작업
+	 */
+	protected void render(BHiveExcelCommand command, BHiveExcelExportJob job) {
+		job.running();
+		SXSSFWorkbook workbook = null;
+		try {
+			workbook = new SXSSFWorkbook(new XSSFWorkbook(), rowAccessWindowSize, true);
+			command.renderWorkbook(workbook);
+			OutputStream os = new FileOutputStream(job.getFile());
+			try {
+				workbook.write(os);
+			} finally {
+				IOUtils.closeQuietly(os);
+			}
+			job.completed();
+			logger.debug("excel export completed: {}, rows: {}", job.getJobId(), job.getProcessedRows());
+		} catch (Throwable e) {
+			//OutOfMemoryError 등 Error도 작업을 실패로 표시하고 Spool 파일을 삭제한 후 다시 던짐
+			logger.error("excel export failed: " + job.getJobId(), e);
+			FileUtils.deleteQuietly(job.getFile());
+			job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+			if(e instanceof Error) {
+				throw (Error) e;
+			}
+		} finally {
+			if(workbook != null) {
+				workbook.dispose();
+			}
+		}
+	}
+
+	/**
+	 * 작업 조회 (진행상태 Polling용)
+	 * @param jobId 작업 ID
+	 * @return 작업 (없거나 만료되었거나 다른 사용자의 작업이면 null)
+	 */
+	public BHiveExcelExportJob getJob(String jobId) {
+		return getOwnedJob(jobId, null);
+	}
+
+	/**
+	 * 완료된 작업의 파일을 응답으로 전송 (Content-disposition 등 응답헤더는 동기 출력과 동일)
+	 * @param jobId 작업 ID
+	 * @param request HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @throws IOException 파일 전송 오류
+	 */
+	public void writeResult(String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		BHiveExcelExportJob job = getOwnedJob(jobId, request);
+		if(job == null) {
+			throw new BHiveRuntimeException("엑셀 출력 작업을 찾을 수 없습니다.");
+		}
+		if(job.getStatus() != BHiveExcelExportJob.Status.COMPLETED) {
+			throw new BHiveRuntimeException("엑셀 출력이 완료되지 않았습니다. (" + job.getStatus() + ")");
+		}
+
+		File file = job.getFile();
+		response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+		response.setHeader("Content-Length", String.valueOf(file.length()));
+		BHiveExcelCommand.setAttachementFilenameHeader(request, response, job.getFilename());
+		response.setHeader("Content-Transfer-Encoding", "binary");
+		//jQuery FileDownload Cookie
+		response.setHeader("Set-Cookie", "fileDownload=true; path=/");
+		FileUtils.copyFile(file, response.getOutputStream());
+		response.flushBuffer();
+	}
+
+	/**
+	 * 현재 요청의 등록자와 같은 사용자(세션)의 작업 조회
+	 * @param jobId 작업 ID
+	 * @param request HttpServletRequest (null이면 현재 쓰레드의 요청)
+	 * @return 작업 (없거나 다른 사용자의 작업이면 null)
+	 */
+	private BHiveExcelExportJob getOwnedJob(String jobId, HttpServletRequest request) {
+		if(jobId == null) {
+			return null;
+		}
+		BHiveExcelExportJob job = jobMap.get(jobId);
+		if(job == null) {
+			return null;
+		}
+		String owner = resolveOwner(request);
+		if(!ObjectUtils.nullSafeEquals(job.getOwner(), owner)) {
+			logger.warn("excel export job owner mismatch: {}", jobId);
+			return null;
+		}
+		return job;
+	}
+
+	/**
+	 * 작업 등록자 식별값
+	 *
+	 * 로그인 사용자는 사용자명, 미로그인(익명)이면 세션 ID를 사용한다.
+	 * 요청 밖(배치 등)에서 호출하면 null이며 등록자가 null인 작업은 요청 밖에서만 조회할 수 있다.
+	 * @param request HttpServletRequest (null이면 현재 쓰레드의 요청)
+	 * @return 등록자 식별값
+	 */
+	protected String resolveOwner(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if(authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		if(request == null) {
+			RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+			if(requestAttributes instanceof ServletRequestAttributes) {
+				request = ((ServletRequestAttributes) requestAttributes).getRequest();
+			}
+		}
+		if(request == null) {
+			return null;
+		}
+		return "session:" + request.getSession(true).getId();
+	}
+
+	/**
+	 * 보관시간이 지난 종료된 작업과 파일 삭제 (작업 등록시에도 실행)
+	 */
+	public void cleanupExpiredJobs() {
+		DateTime expired = new DateTime().minus(retentionMillis);
+		Iterator<BHiveExcelExportJob> it = jobMap.values().iterator();
+		while (it.hasNext()) {
+			BHiveExcelExportJob job = it.next();
+			if(job.isDone() && job.getCompletedTime().isBefore(expired)) {
+				it.remove();
+				FileUtils.deleteQuietly(job.getFile());
+				logger.debug("excel export expired: {}", job.getJobId());
+			}
+		}
+	}
+
+	/**
+	 * 종료시 남은 Spool 파일 삭제
+	 */
+	@Override
+	public void destroy() {
+		for (BHiveExcelExportJob job : jobMap.values()) {
+			FileUtils.deleteQuietly(job.getFile());
+		}
+		jobMap.clear();
+	}
+
+	private Semaphore getJobPermits() {
+		Semaphore permits = jobPermits;
+		if(permits == null) {
+			synchronized (this) {
+				if(jobPermits == null) {
+					jobPermits = new Semaphore(Math.max(maxConcurrentJobs, 1));
+				}
+				permits = jobPermits;
+			}
+		}
+		return permits;
+	}
+
+	public AsyncTaskExecutor getTaskExecutor() {
+		return taskExecutor;
+	}
+
+	public void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	public File getSpoolDirectory() {
+		return spoolDirectory;
+	}
+
+	public void setSpoolDirectory(File spoolDirectory) {
+		this.spoolDirectory = spoolDirectory;
+	}
+
+	public int getMaxConcurrentJobs() {
+		return maxConcurrentJobs;
+	}
+
+	public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+		this.maxConcurrentJobs = maxConcurrentJobs;
+		this.jobPermits = null;
+	}
+
+	public long getRetentionMillis() {
+		return retentionMillis;
+	}
+
+	public void setRetentionMillis(long retentionMillis) {
+		this.retentionMillis = retentionMillis;
+	}
+
+	public int getRowAccessWindowSize() {
+		return rowAccessWindowSize;
+	}
+
+	public void setRowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = rowAccessWindowSize;
+	}
+
+	/**
+	 * 출력 Row 수를 작업 진행상태에 반영하는 데이터 공급자
+	 */
+	private static class CountingDataSource implements BHiveExcelDataSource {
+		private final BHiveExcelDataSource dataSource;
+		private final BHiveExcelExportJob job;
+
+		CountingDataSource(BHiveExcelDataSource dataSource, BHiveExcelExportJob job) {
+			this.dataSource = dataSource;
+			this.job = job;
+		}
+
+		public void fetch(final RowHandler handler) throws Exception {
+			dataSource.fetch(new RowHandler() {
+				public void handleRow(Object dataItem) throws Exception {
+					handler.handleRow(dataItem);
+					job.increaseProcessedRows();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package blue.hive.spring.web.view;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * 대용량 Excel 분할 병렬 출력기
+ *
+ * 데이터 공급자의 Row를 partitionRows 단위로 나누어 각각 독립된 SXSSF Workbook(.xlsx)으로 출력하고
+ * 결과를 순서대로 zip으로 묶는다. POI Workbook은 쓰레드 안전하지 않으므로 하나의 Workbook을 여러 쓰레드가 나누어 쓰지 않고
+ * 분할된 Workbook 단위로 taskExecutor에서 병렬 처리한다.
+ * 동시에 처리중인 분할 수는 maxConcurrentPartitions로 제한하여 메모리 사용량을 일정하게 유지한다.
+ * (제한에 도달하면 데이터 공급자의 조회가 대기한다)
+ * taskExecutor가 없으면 호출 쓰레드에서 순차 처리한다.
+ * 실패하면 완료된 분할의 임시파일을 삭제하고 진행중인 작업을 취소(interrupt)하며,
+ * 취소 후에 렌더링을 마친 작업은 스스로 임시파일을 삭제한다.
+ * zip은 commons-compress(ZipArchiveOutputStream)로 출력하여 Entry 파일명은 UTF-8(Language Encoding Flag)로 기록하고
+ * 4GB를 넘는 Entry나 65535개를 넘는 Entry가 있을 때만 Zip64로 기록한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelPartitionWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(BHiveExcelPartitionWriter.class);
+
+	/** 분할 출력을 실행할 Executor (null: 호출 쓰레드에서 순차 처리) */
+	private AsyncTaskExecutor taskExecutor;
+
+	/** Workbook당 데이터 Row 수 */
+	private int partitionRows = 100000;
+
+	/** 동시에 처리할 최대 분할 수 */
+	private int maxConcurrentPartitions = Runtime.getRuntime().availableProcessors();
+
+	/** SXSSF 메모리에 유지할 Row 수 */
+	private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	public BHiveExcelPartitionWriter() {
+	}
+
+	public BHiveExcelPartitionWriter(AsyncTaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * 분할 출력후 zip으로 묶어 출력
+	 * @param command 출력할 엑셀 커맨드
+	 * @param out zip 출력 스트림
+	 * @return 출력된 Workbook 수
+	 * @throws Exception 데이터 조회 또는 렌더링 오류
+	 */
+	public int write(final BHiveExcelCommand command, OutputStream out) throws Exception {
+		//메타정보는 한번만 구성하여 분할 출력용 복사본이 공유
+		command.prepareMetadata();
+		final Semaphore permits = new Semaphore(Math.max(maxConcurrentPartitions, 1));
+		final List<Future<File>> futures = new ArrayList<Future<File>>();
+		final PartitionFiles partitionFiles = new PartitionFiles();
+
+		try {
+			final List<List<Object>> buffer = new ArrayList<List<Object>>();
+			buffer.add(new ArrayList<Object>());
+			command.dataSource.fetch(new BHiveExcelDataSource.RowHandler() {
+				public void handleRow(Object dataItem) throws Exception {
+					List<Object> partition = buffer.get(0);
+					partition.add(dataItem);
+					if(partition.size() >= partitionRows) {
+						futures.add(submit(command.copyForPartition(partition), permits, partitionFiles));
+						buffer.set(0, new ArrayList<Object>());
+					}
+				}
+			});
+			if(!buffer.get(0).isEmpty() || futures.isEmpty()) {
+				futures.add(submit(command.copyForPartition(buffer.get(0)), permits, partitionFiles));
+			}
+
+			//분할 순서대로 zip entry 추가
+			ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(out);
+			zipOut.setEncoding("UTF-8");
+			zipOut.setUseZip64(Zip64Mode.AsNeeded);
+			for (int i = 0; i < futures.size(); i++) {
+				File file = getResult(futures.get(i));
+				try {
+					//크기를 미리 지정하여 Seek할 수 없는 응답 스트림에서도 Zip64 필요여부를 Entry 시작시 결정
+					zipOut.putArchiveEntry(new ZipArchiveEntry(file, command.getPartitionFilename(i + 1)));
+					FileUtils.copyFile(file, zipOut);
+					zipOut.closeArchiveEntry();
+				} finally {
+					FileUtils.deleteQuietly(file);
+				}
+			}
+			zipOut.finish();
+			zipOut.flush();
+			return futures.size();
+		} catch (Exception e) {
+			cleanup(futures, partitionFiles);
+			throw e;
+		}
+	}
+
+	/**
+	 * 분할 출력 작업 등록 (동시 처리 분할 수 초과시 대기)
+	 */
+	private Future<File> submit(final BHiveExcelCommand partitionCommand, final Semaphore permits, final PartitionFiles partitionFiles) throws InterruptedException {
+		permits.acquire();
+		Callable<File> task = new Callable<File>() {
+			public File call() throws Exception {
+				try {
+					File file = renderPartition(partitionCommand);
+					if(!partitionFiles.add(file)) {
+						//이미 실패처리된 출력: 결과를 가져갈 곳이 없으므로 삭제
+						FileUtils.deleteQuietly(file);
+						throw new CancellationException("partition render completed after cancellation.");
+					}
+					return file;
+				} finally {
+					permits.release();
+				}
+			}
+		};
+		if(taskExecutor == null) {
+			FutureTask<File> future = new FutureTask<File>(task);
+			future.run();
+			return future;
+		}
+		try {
+			return taskExecutor.submit(task);
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * 분할된 데이터를 임시파일(.xlsx)로 출력
+	 * @param partitionCommand 분할 출력용 커맨드
+	 * @return 임시파일
+	 * @throws Exception 렌더링 오류
+	 */
+	protected File renderPartition(BHiveExcelCommand partitionCommand) throws Exception {
+		SXSSFWorkbook workbook = new SXSSFWorkbook(new XSSFWorkbook(), rowAccessWindowSize, true);
+		File file = File.createTempFile("bhive-excel-", BHiveExcelCommand.EXTENSION_XLSX);
+		try {
+			partitionCommand.renderWorkbook(workbook);
+			if(Thread.interrupted()) {
+				throw new InterruptedException("partition render cancelled.");
+			}
+			OutputStream os = new FileOutputStream(file);
+			try {
+				workbook.write(os);
+			} finally {
+				IOUtils.closeQuietly(os);
+			}
+			if(Thread.interrupted()) {
+				throw new InterruptedException("partition render cancelled.");
+			}
+			return file;
+		} catch (Exception e) {
+			FileUtils.deleteQuietly(file);
+			throw e;
+		} finally {
+			workbook.dispose();
+		}
+	}
+
+	private File getResult(Future<File> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof Exception) {
+				throw (Exception)cause;
+			}
+			throw e;
+		}
+	}
+
+	/** 실패시 완료된 임시파일 삭제, 진행중인 작업 취소 (취소 후 완료되는 작업은 스스로 임시파일 삭제) */
+	private void cleanup(List<Future<File>> futures, PartitionFiles partitionFiles) {
+		int deleted = partitionFiles.abort();
+		for (Future<File> future : futures) {
+			future.cancel(true);
+		}
+		logger.trace("partition cleanup - cancelled: {}, deleted files: {}", futures.size(), deleted);
+	}
+
+	/**
+	 * 분할 출력 임시파일 목록 (실패처리 이후에 완료된 작업의 파일은 등록하지 않음)
+	 */
+	private static class PartitionFiles {
+		private final List<File> files = new ArrayList<File>();
+		private boolean aborted = false;
+
+		/**
+		 * 완료된 임시파일 등록
+		 * @return 실패처리되었으면 false
+		 */
+		synchronized boolean add(File file) {
+			if(aborted) {
+				return false;
+			}
+			files.add(file);
+			return true;
+		}
+
+		/**
+		 * 실패처리하고 등록된 임시파일 삭제
+		 * @return 삭제한 파일 수
+		 */
+		synchronized int abort() {
+			aborted = true;
+			int deleted = 0;
+			for (File file : files) {
+				if(FileUtils.deleteQuietly(file)) {
+					deleted++;
+				}
+			}
+			files.clear();
+			return deleted;
+		}
+	}
+
+	public AsyncTaskExecutor getTaskExecutor() {
+		return taskExecutor;
+	}
+
+	public void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	public int getPartitionRows() {
+		return partitionRows;
+	}
+
+	public void setPartitionRows(int partitionRows) {
+		this.partitionRows = partitionRows;
+	}
+
+	public int getMaxConcurrentPartitions() {
+		return maxConcurrentPartitions;
+	}
+
+	public void setMaxConcurrentPartitions(int maxConcurrentPartitions) {
+		this.maxConcurrentPartitions = maxConcurrentPartitions;
+	}
+
+	public int getRowAccessWindowSize() {
+		return rowAccessWindowSize;
+	}
+
+	public void setRowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = rowAccessWindowSize;
+	}
+}
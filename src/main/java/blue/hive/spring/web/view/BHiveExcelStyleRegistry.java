@@ -0,0 +1,270 @@
+package blue.hive.spring.web.view;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Workbook별 CellStyle/Font 캐시
+ *
+ * 배경색, 정렬, 폰트, 테두리, 줄바꿈, 데이터형식이 같은 CellStyle과 Font는 Workbook당 한번만 생성한다.
+ * 셀마다 Style을 생성하면 HSSF의 Style 개수 제한(4,000개)에 걸리고 파일 크기가 커지므로
+ * 반복 출력시에는 이 캐시에서 Style을 얻어서 사용한다.
+ * 반환된 CellStyle/Font는 같은 Spec을 사용하는 모든 셀이 공유하므로 수정하지 않는다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelStyleRegistry {
+
+	/** 대상 Workbook */
+	private final Workbook workbook;
+
+	/** FontSpec - Font */
+	private final Map<FontSpec, Font> fontMap = new HashMap<FontSpec, Font>();
+
+	/** StyleSpec - CellStyle */
+	private final Map<StyleSpec, CellStyle> cellStyleMap = new HashMap<StyleSpec, CellStyle>();
+
+	public BHiveExcelStyleRegistry(Workbook workbook) {
+		this.workbook = workbook;
+	}
+
+	/**
+	 * Font 획득 (없으면 생성)
+	 * @param spec 폰트 속성
+	 * @return Font (공유되므로 수정하지 않음)
+	 */
+	public Font getFont(FontSpec spec) {
+		Font font = fontMap.get(spec);
+		if(font == null) {
+			font = workbook.createFont();
+			font.setFontHeightInPoints(spec.heightInPoints);
+			font.setColor(spec.color);
+			font.setBold(spec.bold);
+			if(spec.name != null) {
+				font.setFontName(spec.name);
+			}
+			font.setUnderline(spec.underline);
+			fontMap.put(spec, font);
+		}
+		return font;
+	}
+
+	/**
+	 * CellStyle 획득 (없으면 생성)
+	 * @param spec Style 속성
+	 * @return CellStyle (공유되므로 수정하지 않음)
+	 */
+	public CellStyle getCellStyle(StyleSpec spec) {
+		CellStyle cellStyle = cellStyleMap.get(spec);
+		if(cellStyle == null) {
+			StyleSpec key = spec.copy();
+			cellStyle = workbook.createCellStyle();
+			if(key.bgColor >= 0) {
+				cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+				cellStyle.setFillForegroundColor(key.bgColor);
+			}
+			cellStyle.setAlignment(key.align);
+			cellStyle.setVerticalAlignment(key.valign);
+			if(key.font != null) {
+				cellStyle.setFont(getFont(key.font));
+			}
+			if(key.borderStyle != BorderStyle.NONE) {
+				cellStyle.setLeftBorderColor(key.borderColor);
+				cellStyle.setRightBorderColor(key.borderColor);
+				cellStyle.setTopBorderColor(key.borderColor);
+				cellStyle.setBottomBorderColor(key.borderColor);
+				cellStyle.setBorderLeft(key.borderStyle);
+				cellStyle.setBorderRight(key.borderStyle);
+				cellStyle.setBorderTop(key.borderStyle);
+				cellStyle.setBorderBottom(key.borderStyle);
+			}
+			cellStyle.setWrapText(key.wrapText);
+			if(key.dataFormat != null) {
+				cellStyle.setDataFormat(workbook.createDataFormat().getFormat(key.dataFormat));
+			}
+			cellStyleMap.put(key, cellStyle);
+		}
+		return cellStyle;
+	}
+
+	public Workbook getWorkbook() {
+		return workbook;
+	}
+
+	/**
+	 * 생성된 CellStyle 수
+	 * @return CellStyle 수
+	 */
+	public int getCellStyleCount() {
+		return cellStyleMap.size();
+	}
+
+	/**
+	 * 생성된 Font 수
+	 * @return Font 수
+	 */
+	public int getFontCount() {
+		return fontMap.size();
+	}
+
+	/**
+	 * 폰트 속성 (Font 캐시 Key)
+	 */
+	public static class FontSpec {
+		private final short heightInPoints;
+		private final short color;
+		private final boolean bold;
+		private final String name;
+		private final byte underline;
+
+		/**
+		 * 생성자
+		 * @param heightInPoints 폰트 크기
+		 * @param color 폰트 색
+		 * @param bold 굵게
+		 * @param name 폰트명 (null: Workbook 기본)
+		 * @param underline 밑줄 (Font.U_NONE 등)
+		 */
+		public FontSpec(short heightInPoints, short color, boolean bold, String name, byte underline) {
+			this.heightInPoints = heightInPoints;
+			this.color = color;
+			this.bold = bold;
+			this.name = name;
+			this.underline = underline;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof FontSpec)) {
+				return false;
+			}
+			FontSpec other = (FontSpec)obj;
+			return heightInPoints == other.heightInPoints && color == other.color && bold == other.bold
+					&& underline == other.underline && ObjectUtils.nullSafeEquals(name, other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = heightInPoints;
+			result = 31 * result + color;
+			result = 31 * result + (bold ? 1 : 0);
+			result = 31 * result + underline;
+			result = 31 * result + ObjectUtils.nullSafeHashCode(name);
+			return result;
+		}
+	}
+
+	/**
+	 * CellStyle 속성 (CellStyle 캐시 Key)
+	 */
+	public static class StyleSpec {
+		private short bgColor = -1;
+		private HorizontalAlignment align = HorizontalAlignment.GENERAL;
+		private VerticalAlignment valign = VerticalAlignment.BOTTOM;
+		private FontSpec font;
+		private short borderColor = 0;
+		private BorderStyle borderStyle = BorderStyle.NONE;
+		private boolean wrapText = false;
+		private String dataFormat;
+
+		/**
+		 * 배경색 (SOLID_FOREGROUND 채우기)
+		 * @param bgColor 배경색 index
+		 * @return this
+		 */
+		public StyleSpec bgColor(short bgColor) {
+			this.bgColor = bgColor;
+			return this;
+		}
+
+		public StyleSpec align(HorizontalAlignment align, VerticalAlignment valign) {
+			this.align = align;
+			this.valign = valign;
+			return this;
+		}
+
+		public StyleSpec font(FontSpec font) {
+			this.font = font;
+			return this;
+		}
+
+		/**
+		 * 상하좌우 테두리
+		 * @param borderColor 테두리 색 index
+		 * @param borderStyle 테두리 모양
+		 * @return this
+		 */
+		public StyleSpec border(short borderColor, BorderStyle borderStyle) {
+			this.borderColor = borderColor;
+			this.borderStyle = borderStyle;
+			return this;
+		}
+
+		public StyleSpec wrapText(boolean wrapText) {
+			this.wrapText = wrapText;
+			return this;
+		}
+
+		/**
+		 * 데이터 형식
+		 * @param dataFormat Excel 형식 문자열 (ex: yyyy-mm-dd, #,##0)
+		 * @return this
+		 */
+		public StyleSpec dataFormat(String dataFormat) {
+			this.dataFormat = dataFormat;
+			return this;
+		}
+
+		StyleSpec copy() {
+			StyleSpec copy = new StyleSpec();
+			copy.bgColor = bgColor;
+			copy.align = align;
+			copy.valign = valign;
+			copy.font = font;
+			copy.borderColor = borderColor;
+			copy.borderStyle = borderStyle;
+			copy.wrapText = wrapText;
+			copy.dataFormat = dataFormat;
+			return copy;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof StyleSpec)) {
+				return false;
+			}
+			StyleSpec other = (StyleSpec)obj;
+			return bgColor == other.bgColor && align == other.align && valign == other.valign
+					&& borderColor == other.borderColor && borderStyle == other.borderStyle && wrapText == other.wrapText
+					&& ObjectUtils.nullSafeEquals(font, other.font) && ObjectUtils.nullSafeEquals(dataFormat, other.dataFormat);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = bgColor;
+			result = 31 * result + align.hashCode();
+			result = 31 * result + valign.hashCode();
+			result = 31 * result + borderColor;
+			result = 31 * result + borderStyle.hashCode();
+			result = 31 * result + (wrapText ? 1 : 0);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(font);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(dataFormat);
+			return result;
+		}
+	}
+}
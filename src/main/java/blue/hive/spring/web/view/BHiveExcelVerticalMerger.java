@@ -0,0 +1,138 @@
+package blue.hive.spring.web.view;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * Data Cell 세로 병합 처리기 (Row 출력과 동시에 한번에 처리)
+ *
+ * 출력된 Row를 다시 읽지 않고 컬럼별 연속구간의 시작 Row와 표시값만 유지하다가 값이 바뀌는 시점에 병합영역을 추가한다.
+ * 따라서 SXSSF(Streaming)처럼 이미 Flush된 Row를 읽을 수 없는 경우에도 병합할 수 있다.
+ * 병합 결과는 BHiveExcelCommand.mergeVerticalCellHasEqualValue와 동일하다.
+ *  - MERGE_VERTICAL: 컬럼별로 값이 같은 연속 Row를 병합
+ *  - MERGE_VERTICAL_HIERARCHY: 앞 컬럼들의 값이 모두 같은 연속 Row 안에서만 병합하며 마지막 컬럼은 병합하지 않음
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelVerticalMerger {
+
+	/** 병합영역을 추가할 시트 */
+	private final Sheet excelSheet;
+
+	/** 앞 컬럼 기준 HIERARCHY 병합 여부 */
+	private final boolean hierarchy;
+
+	/** 병합대상 컬럼수 */
+	private final int mergeColumnCount;
+
+	/** 컬럼별 현재 연속구간의 시작 Row */
+	private final int[] runStartRownums;
+
+	/** 컬럼별 현재 연속구간의 표시값 */
+	private final String[] runTexts;
+
+	/** 출력중인 Row의 컬럼별 표시값 */
+	private final String[] rowTexts;
+
+	/** 마지막으로 출력된 Row (-1: 없음) */
+	private int lastRownum = -1;
+
+	/** 처리한 Row 수 */
+	private int rowCount = 0;
+
+	/**
+	 * 생성자
+	 * @param excelSheet 병합영역을 추가할 시트
+	 * @param columnCount 출력 컬럼수
+	 * @param hierarchy 앞 컬럼 기준 HIERARCHY 병합 여부
+	 */
+	public BHiveExcelVerticalMerger(Sheet excelSheet, int columnCount, boolean hierarchy) {
+		this.excelSheet = excelSheet;
+		this.hierarchy = hierarchy;
+		//HIERARCHY 병합은 마지막 컬럼을 병합하지 않음
+		this.mergeColumnCount = (hierarchy) ? Math.max(columnCount - 1, 0) : columnCount;
+		this.runStartRownums = new int[mergeColumnCount];
+		this.runTexts = new String[mergeColumnCount];
+		this.rowTexts = new String[mergeColumnCount];
+	}
+
+	/**
+	 * 출력중인 Row의 셀 표시값 설정
+	 * @param cellnum 컬럼 index
+	 * @param text 셀 표시값 (null은 빈값)
+	 */
+	public void setCellText(int cellnum, String text) {
+		if(cellnum < mergeColumnCount) {
+			rowTexts[cellnum] = (text == null) ? "" : text;
+		}
+	}
+
+	/**
+	 * Row 출력 완료. 값이 바뀐 컬럼의 이전 연속구간을 병합
+	 * @param rownum 출력된 Row index
+	 */
+	public void endRow(int rownum) {
+		rowCount++;
+		if(lastRownum < 0) {
+			for(int cellnum = 0; cellnum < mergeColumnCount; cellnum++) {
+				startRun(cellnum, rownum);
+			}
+			lastRownum = rownum;
+			return;
+		}
+		if(hierarchy) {
+			//값이 바뀐 첫 컬럼부터 뒤의 모든 컬럼의 연속구간 종료
+			int changedCellnum = mergeColumnCount;
+			for(int cellnum = 0; cellnum < mergeColumnCount; cellnum++) {
+				if(!rowTexts[cellnum].equals(runTexts[cellnum])) {
+					changedCellnum = cellnum;
+					break;
+				}
+			}
+			for(int cellnum = changedCellnum; cellnum < mergeColumnCount; cellnum++) {
+				closeRun(cellnum, lastRownum);
+				startRun(cellnum, rownum);
+			}
+		} else {
+			for(int cellnum = 0; cellnum < mergeColumnCount; cellnum++) {
+				if(!rowTexts[cellnum].equals(runTexts[cellnum])) {
+					closeRun(cellnum, lastRownum);
+					startRun(cellnum, rownum);
+				}
+			}
+		}
+		lastRownum = rownum;
+	}
+
+	/**
+	 * 출력 완료. 남은 연속구간을 병합
+	 */
+	public void finish() {
+		if(lastRownum < 0) {
+			return;
+		}
+		for(int cellnum = 0; cellnum < mergeColumnCount; cellnum++) {
+			closeRun(cellnum, lastRownum);
+		}
+		lastRownum = -1;
+	}
+
+	/**
+	 * 처리한 Row 수
+	 * @return 처리한 Row 수
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	private void startRun(int cellnum, int rownum) {
+		runStartRownums[cellnum] = rownum;
+		runTexts[cellnum] = rowTexts[cellnum];
+	}
+
+	private void closeRun(int cellnum, int endRownum) {
+		if(endRownum > runStartRownums[cellnum]) {
+			excelSheet.addMergedRegion(new CellRangeAddress(runStartRownums[cellnum], endRownum, cellnum, cellnum));
+		}
+	}
+}
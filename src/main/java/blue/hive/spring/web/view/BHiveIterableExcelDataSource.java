@@ -0,0 +1,30 @@
+package blue.hive.spring.web.view;
+
+/**
+ * Iterable(List등) 기반 Excel/CSV 출력 데이터 공급자
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+@SuppressWarnings("rawtypes")
+public class BHiveIterableExcelDataSource implements BHiveExcelDataSource {
+
+	/** 출력할 데이터 */
+	private final Iterable dataItems;
+
+	/**
+	 * 생성자
+	 * @param dataItems 출력할 데이터 (Iterator 기반으로 한 건씩 전달)
+	 */
+	public BHiveIterableExcelDataSource(Iterable dataItems) {
+		this.dataItems = dataItems;
+	}
+
+	public void fetch(RowHandler handler) throws Exception {
+		if(dataItems == null) {
+			return;
+		}
+		for (Object dataItem : dataItems) {
+			handler.handleRow(dataItem);
+		}
+	}
+}
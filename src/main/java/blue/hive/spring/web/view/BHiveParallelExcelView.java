@@ -0,0 +1,56 @@
+package blue.hive.spring.web.view;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.view.AbstractView;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+
+/**
+ * 초대용량 엑셀 분할 병렬 출력 View (여러 .xlsx Workbook을 zip으로 묶어 응답)
+ *
+ * BHiveExcelPartitionWriter 설정(taskExecutor, partitionRows, maxConcurrentPartitions)에 따라
+ * 데이터를 Workbook 단위로 나누어 병렬 출력한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveParallelExcelView extends AbstractView {
+
+	/** 분할 출력기 */
+	private BHiveExcelPartitionWriter partitionWriter = new BHiveExcelPartitionWriter();
+
+	public BHiveParallelExcelView() {
+		setContentType("application/zip");
+	}
+
+	public BHiveExcelPartitionWriter getPartitionWriter() {
+		return partitionWriter;
+	}
+
+	public void setPartitionWriter(BHiveExcelPartitionWriter partitionWriter) {
+		this.partitionWriter = partitionWriter;
+	}
+
+	@Override
+	protected boolean generatesDownloadContent() {
+		return true;
+	}
+
+	@Override
+	protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+		BHiveExcelCommand command = (BHiveExcelCommand)model.get(BHiveExcelCommand.MODEL_KEY);
+		if(command == null) {
+			logger.error("BHiveExcelCommand cannot found at Model");
+			throw new BHiveRuntimeException("엑셀파일 생성에 실패하였습니다.");
+		}
+
+		response.setContentType(getContentType());
+		command.buildZipExcelDocument(partitionWriter, request, response);
+		response.flushBuffer();
+	}
+}
@@ -0,0 +1,66 @@
+package blue.hive.spring.web.view;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.web.servlet.view.document.AbstractXlsxStreamingView;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+
+/**
+ * 대용량 엑셀(.xlsx) 출력용 Streaming View (SXSSF)
+ *
+ * 지정된 rowAccessWindowSize 만큼의 Row만 메모리에 유지하고 나머지는 임시파일로 Flush하므로
+ * 출력 Row 수와 무관하게 Heap 사용량이 일정하게 유지된다.
+ * BHiveExcelCommand의 ExcelColumn 메타정보, 헤더/그룹헤더, 코드표, 병합처리를 그대로 사용한다.
+ * (세로 병합은 Row 출력과 동시에 처리되므로 Flush된 Row를 다시 읽지 않는다)
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveStreamingExcelView extends AbstractXlsxStreamingView {
+
+	/** 메모리에 유지할 Row 수 (초과분은 임시파일로 Flush) */
+	private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	/** 임시파일 gzip 압축 여부 */
+	private boolean compressTempFiles = true;
+
+	public int getRowAccessWindowSize() {
+		return rowAccessWindowSize;
+	}
+
+	public void setRowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = rowAccessWindowSize;
+	}
+
+	public boolean isCompressTempFiles() {
+		return compressTempFiles;
+	}
+
+	public void setCompressTempFiles(boolean compressTempFiles) {
+		this.compressTempFiles = compressTempFiles;
+	}
+
+	@Override
+	protected SXSSFWorkbook createWorkbook(Map<String, Object> model, HttpServletRequest request) {
+		return new SXSSFWorkbook(new XSSFWorkbook(), rowAccessWindowSize, compressTempFiles);
+	}
+
+	@Override
+	protected void buildExcelDocument(Map<String, Object> model, Workbook workbook, HttpServletRequest request, HttpServletResponse response) throws Exception {
+
+		BHiveExcelCommand command = (BHiveExcelCommand)model.get(BHiveExcelCommand.MODEL_KEY);
+		if(command == null) {
+			logger.error("BHiveExcelCommand cannot found at Model");
+			throw new BHiveRuntimeException("엑셀파일 생성에 실패하였습니다.");
+		}
+
+		command.buildExcelDocument(workbook, request, response);
+	}
+}
@@ -1,5 +1,7 @@
 package blue.hive.util;
 
+import java.nio.charset.Charset;
+
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -8,9 +10,16 @@ import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import blue.hive.crypto.AES256CryptoHolder;
+import blue.hive.crypto.AES256CryptoKeyring;
+
 /**
  * 암복호화 관련 유틸
  *
+ * encode는 Keyring 설정과 관계없이 기존 고정 Key로 암호화하므로 decode(data, key)로 복호화할 수 있다.
+ * encodeWithKeyring은 AES256CryptoHolder의 Keyring 활성 Key로 암호화하여 Key ID Envelope("keyId$")를 붙이며,
+ * decode(data)는 Envelope가 있으면 Envelope의 Key ID로, 없으면 기존 고정 Key로 복호화한다.
+ *
  * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
  */
 public class BHiveCryptoUtil {
@@ -41,6 +50,39 @@ public class BHiveCryptoUtil {
 		return resStr;
 	}
 
+	/**
+	 * AES256CryptoHolder의 Keyring 활성 Key로 암호화하여 Key ID Envelope를 붙인 Base64 문자열 획득 (decode(data)로 복호화)
+	 * @param data 평문
+	 * @return Base64 암호문 (Keyring이 없거나 활성 Key가 없으면 기존 고정 Key로 암호화한 encode 결과)
+	 */
+	public static String encodeWithKeyring(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		AES256CryptoKeyring keyring = AES256CryptoHolder.getKeyring();
+		if (keyring != null && keyring.getActiveCrypto() != null) {
+			return keyring.encryptBytesToBase64(data);
+		}
+		return encode(data);
+	}
+
+	/**
+	 * encode, encodeWithKeyring의 암호문을 Key ID Envelope의 Key로 복호화 (Keyring이 없거나 Envelope가 없으면 기존 고정 Key 사용)
+	 * @param data Base64 암호문
+	 * @return 평문
+	 */
+	public static byte[] decode(byte[] data) {
+		if (data.length == 0) {
+			return null;
+		}
+		AES256CryptoKeyring keyring = AES256CryptoHolder.getKeyring();
+		String cipherString = new String(data, Charset.forName("UTF-8"));
+		if (keyring != null && AES256CryptoKeyring.hasKeyId(cipherString)) {
+			return keyring.decryptBase64ToBytes(cipherString);
+		}
+		return decode(data, key);
+	}
+
 	public static byte[] decode(byte[] data, String input_key) {
 		if (data.length == 0) {
 			return null;
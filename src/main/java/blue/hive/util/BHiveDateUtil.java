@@ -3,6 +3,7 @@ package blue.hive.util;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 import org.joda.time.DateTime;
 import org.joda.time.Days;
@@ -21,6 +22,15 @@ import blue.hive.util.anyframe.StringUtil;
  */
 public class BHiveDateUtil {
 
+	private static final Pattern PATTERN_ISO_DATE_TIME_ZONE = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\x2E\\d{3}[+-]{1}\\d{2}:\\d{2}$");
+	private static final Pattern PATTERN_ISO_LOCAL_DATE_TIME = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\x2E\\d{3}$");
+
+	private static final DateTimeFormatter FORMATTER_DASH_DATE = DateTimeFormat.forPattern("yyyy-MM-dd");
+	private static final DateTimeFormatter FORMATTER_SLASH_DATE = DateTimeFormat.forPattern("yyyy/MM/dd");
+	private static final DateTimeFormatter FORMATTER_DATE = DateTimeFormat.forPattern("yyyyMMdd");
+	private static final DateTimeFormatter FORMATTER_DATE_TIME = DateTimeFormat.forPattern("yyyyMMddHHmmss");
+	private static final DateTimeFormatter FORMATTER_DASH_DATE_TIME = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
+
 	/**
 	 * 문자열을 Joda DateTime으로 변환
 	 * @param dateString yyyy/MM/dd, yyyy-MM-dd, yyyyMMdd, yyyyMMddHHmmss, yyyy-MM-dd HH:mm:ss, yyyy-MM-dd'T'HH:mm:ss.SSSZ
@@ -42,21 +52,11 @@ public class BHiveDateUtil {
 			return null;
 		}
 
-		DateTimeFormatter dateFormatter = null;
-
-		if(dateString.matches("^\\d{4}-\\d{2}-\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy-MM-dd");
-		} else if(dateString.matches("^\\d{4}/\\d{2}/\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy/MM/dd");
-		} else if(dateString.matches("^\\d{8}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyyMMdd");
-		} else if(dateString.matches("^\\d{4}\\d{2}\\d{2}\\d{2}\\d{2}\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyyMMddHHmmss");
-		} else if(dateString.matches("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
-		} else if(dateString.matches("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\x2E\\d{3}[+-]{1}\\d{2}:\\d{2}$")) {
+		DateTimeFormatter dateFormatter = getDateFormatter(dateString);
+		if(dateFormatter == null && PATTERN_ISO_DATE_TIME_ZONE.matcher(dateString).matches()) {
 			dateFormatter = ISODateTimeFormat.dateTime();
-		} else {
+		}
+		if(dateFormatter == null) {
 			if(throwException) {
 				throw new BHiveInvalidFormatException("Invalid DateTime Format. ['" + dateString + "']");
 			} else {
@@ -87,21 +87,11 @@ public class BHiveDateUtil {
 			return null;
 		}
 
-		DateTimeFormatter dateFormatter = null;
-
-		if(dateString.matches("^\\d{4}-\\d{2}-\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy-MM-dd");
-		} else if(dateString.matches("^\\d{4}/\\d{2}/\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy/MM/dd");
-		} else if(dateString.matches("^\\d{8}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyyMMdd");
-		} else if(dateString.matches("^\\d{4}\\d{2}\\d{2}\\d{2}\\d{2}\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyyMMddHHmmss");
-		} else if(dateString.matches("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}$")) {
-			dateFormatter = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
-		} else if(dateString.matches("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\x2E\\d{3}$")) {
+		DateTimeFormatter dateFormatter = getDateFormatter(dateString);
+		if(dateFormatter == null && PATTERN_ISO_LOCAL_DATE_TIME.matcher(dateString).matches()) {
 			dateFormatter = ISODateTimeFormat.dateHourMinuteSecondMillis();
-		} else {
+		}
+		if(dateFormatter == null) {
 			if(throwException) {
 				throw new BHiveInvalidFormatException("Invalid DateTime Format. ['" + dateString + "']");
 			} else {
@@ -112,6 +102,50 @@ public class BHiveDateUtil {
 	}
 	
 	
+	/**
+	 * 길이와 구분자 위치로 날짜 문자열의 Formatter 선택 (정규식 없이 판별)
+	 * @param dateString 날짜 문자열
+	 * @return Formatter (yyyy-MM-dd, yyyy/MM/dd, yyyyMMdd, yyyyMMddHHmmss, yyyy-MM-dd HH:mm:ss 형식이 아니면 null)
+	 */
+	private static DateTimeFormatter getDateFormatter(String dateString) {
+		switch (dateString.length()) {
+		case 8:
+			return isDigits(dateString, 0, 8) ? FORMATTER_DATE : null;
+		case 10:
+			if(!isDigits(dateString, 0, 4) || !isDigits(dateString, 5, 7) || !isDigits(dateString, 8, 10)) {
+				return null;
+			}
+			if(dateString.charAt(4) == '-' && dateString.charAt(7) == '-') {
+				return FORMATTER_DASH_DATE;
+			}
+			if(dateString.charAt(4) == '/' && dateString.charAt(7) == '/') {
+				return FORMATTER_SLASH_DATE;
+			}
+			return null;
+		case 14:
+			return isDigits(dateString, 0, 14) ? FORMATTER_DATE_TIME : null;
+		case 19:
+			if(dateString.charAt(4) == '-' && dateString.charAt(7) == '-' && dateString.charAt(10) == ' ' && dateString.charAt(13) == ':' && dateString.charAt(16) == ':'
+					&& isDigits(dateString, 0, 4) && isDigits(dateString, 5, 7) && isDigits(dateString, 8, 10)
+					&& isDigits(dateString, 11, 13) && isDigits(dateString, 14, 16) && isDigits(dateString, 17, 19)) {
+				return FORMATTER_DASH_DATE_TIME;
+			}
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	private static boolean isDigits(String value, int begin, int end) {
+		for (int i = begin; i < end; i++) {
+			char c = value.charAt(i);
+			if(c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * 문자열을 Joda LocalDateTime으로 변환
 	 * @param dateString date string value
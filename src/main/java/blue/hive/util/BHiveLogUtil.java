@@ -7,12 +7,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.ServletRequest;
 
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
@@ -28,6 +30,62 @@ import ch.qos.logback.core.ConsoleAppender;
  */
 public class BHiveLogUtil {
 
+	/** 요청 추적 ID HTTP 헤더 */
+	public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+	/** 요청 추적 ID MDC Key */
+	public static final String MDC_CORRELATION_ID = "correlationId";
+
+	/** 외부에서 받은 요청 추적 ID 최대 길이 */
+	private static final int MAX_CORRELATION_ID_LENGTH = 64;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * 현재 쓰레드(MDC)의 요청 추적 ID
+	 * @return 요청 추적 ID (없으면 null)
+	 */
+	public static String getCorrelationId() {
+		return MDC.get(MDC_CORRELATION_ID);
+	}
+
+	/**
+	 * 요청 추적 ID 생성 (16자리 16진수)
+	 * 
+	 * 로그 상관관계 확인용이므로 SecureRandom 대신 ThreadLocalRandom을 사용한다.
+	 * 
+	 * @return 요청 추적 ID
+	 */
+	public static String createCorrelationId() {
+		long value = ThreadLocalRandom.current().nextLong();
+		char[] chars = new char[16];
+		for (int i = 15; i >= 0; i--) {
+			chars[i] = HEX_DIGITS[(int)(value & 0xF)];
+			value >>>= 4;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * 외부에서 받은 요청 추적 ID를 사용할 수 있는지 검사 (로그/헤더 Injection 방지)
+	 * @param correlationId 요청 추적 ID
+	 * @return 64자 이하의 영문, 숫자, '-', '_', '.', ':' 로만 구성되었으면 true
+	 */
+	public static boolean isValidCorrelationId(String correlationId) {
+		if(correlationId == null || correlationId.length() == 0 || correlationId.length() > MAX_CORRELATION_ID_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < correlationId.length(); i++) {
+			char c = correlationId.charAt(i);
+			boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+					|| c == '-' || c == '_' || c == '.' || c == ':';
+			if(!valid) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * 전체 Appender 목록 획득
 	 * @param isStartedOnly 시작된 Appender 목록만 획득
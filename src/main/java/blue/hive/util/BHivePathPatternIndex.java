@@ -0,0 +1,209 @@
+package blue.hive.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * 미리 컴파일된 Ant 경로 패턴 목록
+ *
+ * 패턴의 앞쪽 고정 Segment(와일드카드가 없는 Segment)로 Prefix Trie를 구성하여
+ * 요청 경로의 Segment를 따라 내려가면서 만나는 패턴만 AntPathMatcher로 검사한다.
+ * 경로의 결과(일치한 첫번째 패턴 위치)는 크기가 제한된 ConcurrentHashMap에 보관하므로 반복 요청은 Lock 없는 Map 조회로 끝난다.
+ * 캐시가 가득 차면 전체를 비우고 다시 채운다. (접근 순서를 관리하지 않으므로 요청 쓰레드간 경합이 없음)
+ * 생성후 변경되지 않으므로 여러 쓰레드에서 공유할 수 있다.
+ *
+ * <pre>
+ * BHivePathPatternIndex index = new BHivePathPatternIndex(Arrays.asList("/api/**", "/admin/*.do"));
+ * index.matches("/api/user/1"); //true
+ * index.indexOf("/admin/list.do"); //1
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHivePathPatternIndex {
+
+	/** 기본 캐시 크기 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
+	private static final String PATH_SEPARATOR = "/";
+
+	/** 일치하는 패턴 없음 */
+	private static final Integer NO_MATCH = Integer.valueOf(-1);
+
+	private final List<String> patterns;
+	private final boolean caseSensitive;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final Node root = new Node();
+
+	/** 경로 - 일치한 첫번째 패턴 위치 (가득 차면 비움) */
+	private final ConcurrentMap<String, Integer> decisionCache;
+	private final int cacheSize;
+
+	public BHivePathPatternIndex(Collection<String> patterns) {
+		this(patterns, DEFAULT_CACHE_SIZE, true);
+	}
+
+	/**
+	 * 생성자
+	 * @param patterns Ant 경로 패턴 목록 (순서대로 우선순위)
+	 * @param cacheSize 경로 결과 캐시 크기 (0이면 캐시하지 않음)
+	 * @param caseSensitive 대소문자 구분 여부
+	 */
+	public BHivePathPatternIndex(Collection<String> patterns, int cacheSize, boolean caseSensitive) {
+		this.patterns = patterns == null ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<String>(patterns));
+		this.caseSensitive = caseSensitive;
+		this.pathMatcher.setCaseSensitive(caseSensitive);
+		for (int i = 0; i < this.patterns.size(); i++) {
+			add(i, this.patterns.get(i));
+		}
+		this.cacheSize = cacheSize;
+		this.decisionCache = cacheSize > 0 ? new ConcurrentHashMap<String, Integer>(cacheSize * 4 / 3 + 1) : null;
+	}
+
+	private void add(int index, String pattern) {
+		Node node = root;
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, PATH_SEPARATOR, false, true)) {
+			if(isWildcardSegment(segment)) {
+				break;
+			}
+			node = node.child(normalize(segment));
+		}
+		node.entries.add(new Entry(index, pattern));
+	}
+
+	/**
+	 * 경로와 일치하는 첫번째 패턴 위치
+	 * @param path 검사할 경로
+	 * @return 패턴 위치 (없으면 -1)
+	 */
+	public int indexOf(String path) {
+		if(path == null || patterns.isEmpty()) {
+			return -1;
+		}
+		if(decisionCache != null) {
+			Integer cached = decisionCache.get(path);
+			if(cached != null) {
+				return cached.intValue();
+			}
+		}
+		int index = lookup(path);
+		if(decisionCache != null) {
+			if(decisionCache.size() >= cacheSize) {
+				//다양한 경로(PathVariable 등)로 가득 차면 비우고 다시 채움
+				decisionCache.clear();
+			}
+			decisionCache.put(path, index < 0 ? NO_MATCH : Integer.valueOf(index));
+		}
+		return index;
+	}
+
+	/**
+	 * 경로와 일치하는 패턴이 있는지 여부
+	 * @param path 검사할 경로
+	 * @return 일치하면 true
+	 */
+	public boolean matches(String path) {
+		return indexOf(path) >= 0;
+	}
+
+	/**
+	 * 경로와 일치하는 첫번째 패턴
+	 * @param path 검사할 경로
+	 * @return 패턴 (없으면 null)
+	 */
+	public String getMatchingPattern(String path) {
+		int index = indexOf(path);
+		return index < 0 ? null : patterns.get(index);
+	}
+
+	private int lookup(String path) {
+		int best = Integer.MAX_VALUE;
+		Node node = root;
+		String[] segments = StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR, false, true);
+		int depth = 0;
+		while (node != null) {
+			for (Entry entry : node.entries) {
+				if(entry.index < best && pathMatcher.match(entry.pattern, path)) {
+					best = entry.index;
+				}
+			}
+			if(depth >= segments.length || node.children == null) {
+				break;
+			}
+			node = node.children.get(normalize(segments[depth++]));
+		}
+		return best == Integer.MAX_VALUE ? -1 : best;
+	}
+
+	private String normalize(String segment) {
+		return caseSensitive ? segment : segment.toLowerCase();
+	}
+
+	private static boolean isWildcardSegment(String segment) {
+		return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+	}
+
+	public List<String> getPatterns() {
+		return patterns;
+	}
+
+	public boolean isEmpty() {
+		return patterns.isEmpty();
+	}
+
+	/**
+	 * 캐시된 경로 결과 삭제
+	 */
+	public void clearCache() {
+		if(decisionCache != null) {
+			decisionCache.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return patterns.toString();
+	}
+
+	/**
+	 * Trie 노드 (고정 Segment)
+	 */
+	private static class Node {
+		private Map<String, Node> children;
+		private final List<Entry> entries = new ArrayList<Entry>(1);
+
+		Node child(String segment) {
+			if(children == null) {
+				children = new HashMap<String, Node>();
+			}
+			Node child = children.get(segment);
+			if(child == null) {
+				child = new Node();
+				children.put(segment, child);
+			}
+			return child;
+		}
+	}
+
+	/**
+	 * 패턴과 우선순위
+	 */
+	private static class Entry {
+		private final int index;
+		private final String pattern;
+
+		Entry(int index, String pattern) {
+			this.index = index;
+			this.pattern = pattern;
+		}
+	}
+}
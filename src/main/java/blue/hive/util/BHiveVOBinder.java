@@ -0,0 +1,404 @@
+package blue.hive.util;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDateTime;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import blue.hive.exception.BHiveRuntimeException;
+import blue.hive.exception.BHiveValidationException;
+import blue.hive.type.BHiveValueEnum;
+
+/**
+ * Map - VO 바인더
+ *
+ * VO 클래스별로 한번만 프로퍼티 setter(MethodHandle)와 타입 변환기 배열을 구성하여 캐시하고
+ * 바인딩시에는 Reflection 없이 배열만 순회한다. (Map, SearchMap, MyBatis Map 결과)
+ *
+ * 지원 타입: String, 숫자(Integer, Long, Short, Double, Float, BigDecimal 및 primitive), Boolean(Y/N, T/F, true/false),
+ * Joda DateTime, LocalDateTime, Date, Enum(BHiveValueEnum의 값 또는 이름), 그외 대입 가능한 타입
+ * Map에 없는 프로퍼티는 변경하지 않으며 변환 오류는 BindingResult의 FieldError(typeMismatch)로 수집한다.
+ * 정수 타입(Integer, Long, Short)과 Boolean으로의 숫자 변환은 문자열과 같이 소수점 이하가 있거나 범위를 넘으면 변환 오류이다.
+ *
+ * <pre>
+ * SampleVO vo = BHiveVOBinder.forClass(SampleVO.class).bind(map);
+ * List&lt;SampleVO&gt; list = BHiveVOBinder.forClass(SampleVO.class).bindList(mapList);
+ * </pre>
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ * @param <T> VO 타입
+ */
+public class BHiveVOBinder<T> {
+
+	/** VO 클래스별 바인더 캐시 */
+	private static final ConcurrentMap<Class<?>, BHiveVOBinder<?>> binderCache = new ConcurrentReferenceHashMap<Class<?>, BHiveVOBinder<?>>();
+
+	/** VO 클래스 */
+	private final Class<T> voClass;
+
+	/** 기본 생성자 (없으면 null) */
+	private final MethodHandle constructor;
+
+	/** 프로퍼티 바인딩 */
+	private final PropertyBinding[] bindings;
+
+	private BHiveVOBinder(Class<T> voClass) {
+		this.voClass = voClass;
+		MethodHandle constructor = null;
+		try {
+			Constructor<T> defaultConstructor = voClass.getDeclaredConstructor();
+			if(!defaultConstructor.isAccessible()) {
+				defaultConstructor.setAccessible(true);
+			}
+			constructor = MethodHandles.lookup().unreflectConstructor(defaultConstructor).asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException e) {
+			//기본 생성자가 없으면 bind(target, map)만 사용 가능
+		} catch (IllegalAccessException e) {
+			//기본 생성자가 없으면 bind(target, map)만 사용 가능
+		}
+		this.constructor = constructor;
+		this.bindings = createBindings(voClass);
+	}
+
+	/**
+	 * VO 클래스의 바인더 획득 (캐시)
+	 * @param voClass VO 클래스
+	 * @return 바인더
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BHiveVOBinder<T> forClass(Class<T> voClass) {
+		BHiveVOBinder<T> binder = (BHiveVOBinder<T>)binderCache.get(voClass);
+		if(binder == null) {
+			binder = new BHiveVOBinder<T>(voClass);
+			BHiveVOBinder<T> existing = (BHiveVOBinder<T>)binderCache.putIfAbsent(voClass, binder);
+			if(existing != null) {
+				binder = existing;
+			}
+		}
+		return binder;
+	}
+
+	/**
+	 * Map을 새 VO로 바인딩
+	 * @param map 키(프로퍼티명)-값 맵
+	 * @return VO
+	 * @throws BHiveValidationException 변환 오류 (getErrors로 FieldError 확인)
+	 */
+	public T bind(Map<String, ?> map) {
+		T target = newInstance();
+		BindingResult errors = bind(target, map);
+		if(errors.hasErrors()) {
+			throw new BHiveValidationException("Failed to bind map to " + voClass.getSimpleName() + ".", errors);
+		}
+		return target;
+	}
+
+	/**
+	 * Map을 VO에 바인딩 (오류시 예외를 발생시키지 않음)
+	 * @param target 대상 VO
+	 * @param map 키(프로퍼티명)-값 맵
+	 * @return 바인딩 결과 (변환 오류는 typeMismatch FieldError)
+	 */
+	public BindingResult bind(T target, Map<String, ?> map) {
+		BindingResult errors = new BeanPropertyBindingResult(target, StringUtils.uncapitalize(voClass.getSimpleName()));
+		for (PropertyBinding binding : bindings) {
+			Object value = map.get(binding.name);
+			if(value == null && !map.containsKey(binding.name)) {
+				continue;
+			}
+			try {
+				Object converted = binding.converter.convert(value);
+				if(converted == null && binding.primitive) {
+					continue;
+				}
+				binding.setter.invokeExact(target, converted);
+			} catch (Throwable e) {
+				if(e instanceof Error) {
+					throw (Error)e;
+				}
+				String[] codes = errors.resolveMessageCodes("typeMismatch", binding.name);
+				errors.addError(new FieldError(errors.getObjectName(), binding.name, value, true, codes,
+						new Object[] { binding.name }, "Failed to convert '" + value + "' to " + binding.type.getSimpleName()));
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * Map 목록을 VO 목록으로 바인딩 (MyBatis Map 결과)
+	 * @param mapList 키(프로퍼티명)-값 맵 목록
+	 * @return VO 목록
+	 * @throws BHiveValidationException 변환 오류 (첫 오류 Row의 FieldError. 메시지에 Row index 포함)
+	 */
+	public List<T> bindList(List<? extends Map<String, ?>> mapList) {
+		List<T> result = new ArrayList<T>(mapList.size());
+		for (int i = 0; i < mapList.size(); i++) {
+			T target = newInstance();
+			BindingResult errors = bind(target, mapList.get(i));
+			if(errors.hasErrors()) {
+				throw new BHiveValidationException("Failed to bind map[" + i + "] to " + voClass.getSimpleName() + ".", errors);
+			}
+			result.add(target);
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		if(constructor == null) {
+			throw new BHiveRuntimeException("No default constructor: " + voClass.getName());
+		}
+		try {
+			return (T)(Object)constructor.invokeExact();
+		} catch (Throwable e) {
+			throw new BHiveRuntimeException("Failed to create instance: " + voClass.getName(), e);
+		}
+	}
+
+	/**
+	 * 쓰기 가능한 프로퍼티(setter) 또는 선언된 필드의 바인딩 구성
+	 */
+	private static PropertyBinding[] createBindings(Class<?> voClass) {
+		Map<String, PropertyBinding> bindingMap = new LinkedHashMap<String, PropertyBinding>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+		try {
+			for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(voClass)) {
+				Method writeMethod = PropertyUtils.getWriteMethod(descriptor);
+				if(writeMethod == null) {
+					continue;
+				}
+				if(!writeMethod.isAccessible()) {
+					writeMethod.setAccessible(true);
+				}
+				Class<?> type = descriptor.getPropertyType();
+				bindingMap.put(descriptor.getName(), new PropertyBinding(descriptor.getName(), type, lookup.unreflect(writeMethod).asType(setterType)));
+			}
+			//setter가 없는 필드 (기존 setVOProperties 호환)
+			for (Class<?> clazz = voClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if(Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || bindingMap.containsKey(field.getName())) {
+						continue;
+					}
+					field.setAccessible(true);
+					bindingMap.put(field.getName(), new PropertyBinding(field.getName(), field.getType(), lookup.unreflectSetter(field).asType(setterType)));
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new BHiveRuntimeException("Failed to create binder: " + voClass.getName(), e);
+		}
+		return bindingMap.values().toArray(new PropertyBinding[bindingMap.size()]);
+	}
+
+	/**
+	 * 프로퍼티 바인딩 (setter, 변환기)
+	 */
+	private static class PropertyBinding {
+		private final String name;
+		private final Class<?> type;
+		private final boolean primitive;
+		private final MethodHandle setter;
+		private final ValueConverter converter;
+
+		PropertyBinding(String name, Class<?> type, MethodHandle setter) {
+			this.name = name;
+			this.type = type;
+			this.primitive = type.isPrimitive();
+			this.setter = setter;
+			this.converter = createConverter(ClassUtils.resolvePrimitiveIfNecessary(type));
+		}
+	}
+
+	/**
+	 * 값 변환기
+	 */
+	private interface ValueConverter {
+		Object convert(Object value) throws Exception;
+	}
+
+	/**
+	 * 대상 타입의 변환기 생성
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ValueConverter createConverter(final Class<?> type) {
+		if(type == String.class) {
+			return new ValueConverter() {
+				public Object convert(Object value) {
+					return (value == null) ? null : value.toString();
+				}
+			};
+		}
+		if(type == Integer.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return toBigDecimal(value).intValueExact(); }
+				Object fromString(String value) { return Integer.valueOf(value); }
+			};
+		}
+		if(type == Long.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return toBigDecimal(value).longValueExact(); }
+				Object fromString(String value) { return Long.valueOf(value); }
+			};
+		}
+		if(type == Short.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return toBigDecimal(value).shortValueExact(); }
+				Object fromString(String value) { return Short.valueOf(value); }
+			};
+		}
+		if(type == Double.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return value.doubleValue(); }
+				Object fromString(String value) { return Double.valueOf(value); }
+			};
+		}
+		if(type == Float.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return value.floatValue(); }
+				Object fromString(String value) { return Float.valueOf(value); }
+			};
+		}
+		if(type == BigDecimal.class) {
+			return new NumberConverter() {
+				Object fromNumber(Number value) { return toBigDecimal(value); }
+				Object fromString(String value) { return new BigDecimal(value); }
+			};
+		}
+		if(type == Boolean.class) {
+			return new ValueConverter() {
+				public Object convert(Object value) {
+					if(value == null || value instanceof Boolean) {
+						return value;
+					}
+					if(value instanceof Number) {
+						return toBigDecimal((Number)value).intValueExact() != 0;
+					}
+					String text = value.toString().trim();
+					if("Y".equalsIgnoreCase(text) || "T".equalsIgnoreCase(text) || "true".equalsIgnoreCase(text)) {
+						return Boolean.TRUE;
+					} else if("N".equalsIgnoreCase(text) || "F".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+						return Boolean.FALSE;
+					} else if(text.isEmpty()) {
+						return null;
+					}
+					throw new IllegalArgumentException("Invalid boolean: " + text);
+				}
+			};
+		}
+		if(type == DateTime.class) {
+			return new ValueConverter() {
+				public Object convert(Object value) {
+					if(value == null || value instanceof DateTime) {
+						return value;
+					}
+					if(value instanceof Date || value instanceof Long) {
+						return new DateTime(value);
+					}
+					return BHiveDateUtil.parseToDateTime(value.toString());
+				}
+			};
+		}
+		if(type == LocalDateTime.class) {
+			return new ValueConverter() {
+				public Object convert(Object value) {
+					if(value == null || value instanceof LocalDateTime) {
+						return value;
+					}
+					if(value instanceof Date || value instanceof Long) {
+						return new LocalDateTime(value);
+					}
+					return BHiveDateUtil.parseToLocalDateTime(value.toString());
+				}
+			};
+		}
+		if(type.isEnum()) {
+			//값/이름 문자열 - Enum 상수 (BHiveEnumUtil.parseEnumValueOf와 동일한 기준)
+			final Map<String, Object> enumMap = new HashMap<String, Object>();
+			for (Object constant : type.getEnumConstants()) {
+				enumMap.put(constant.toString(), constant);
+			}
+			for (Object constant : type.getEnumConstants()) {
+				if(constant instanceof BHiveValueEnum && ((BHiveValueEnum)constant).getValue() != null) {
+					enumMap.put(((BHiveValueEnum)constant).getValue().toString(), constant);
+				}
+			}
+			return new ValueConverter() {
+				public Object convert(Object value) {
+					if(value == null || type.isInstance(value)) {
+						return value;
+					}
+					String text = value.toString();
+					if(text.isEmpty()) {
+						return null;
+					}
+					Object constant = enumMap.get(text);
+					if(constant == null) {
+						throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + text);
+					}
+					return constant;
+				}
+			};
+		}
+		return new ValueConverter() {
+			public Object convert(Object value) {
+				if(value == null || type.isInstance(value)) {
+					return value;
+				}
+				throw new IllegalArgumentException("Cannot assign " + value.getClass().getName() + " to " + type.getName());
+			}
+		};
+	}
+
+	/**
+	 * 숫자를 값 손실 없이 BigDecimal로 변환 (정수 변환은 intValueExact 등으로 잘림/Overflow시 ArithmeticException)
+	 */
+	private static BigDecimal toBigDecimal(Number value) {
+		return (value instanceof BigDecimal) ? (BigDecimal)value : new BigDecimal(value.toString());
+	}
+
+	/**
+	 * 숫자 변환기 (빈 문자열은 null)
+	 */
+	private static abstract class NumberConverter implements ValueConverter {
+		public Object convert(Object value) {
+			if(value == null) {
+				return null;
+			}
+			if(value instanceof Number) {
+				return fromNumber((Number)value);
+			}
+			String text = value.toString().trim();
+			if(text.isEmpty()) {
+				return null;
+			}
+			return fromString(text);
+		}
+
+		abstract Object fromNumber(Number value);
+
+		abstract Object fromString(String value);
+	}
+}
@@ -3,15 +3,20 @@ package blue.hive.util;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.beanutils.PropertyUtils;
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.validation.BindingResult;
 
 import blue.hive.annotation.Display;
 import blue.hive.annotation.ExcelColumn;
@@ -27,26 +32,22 @@ public class BHiveVOUtil {
 
 	protected static Logger logger = LoggerFactory.getLogger(BHiveVOUtil.class);
 
+	/**
+	 * VO 클래스별 Annotation 메타정보 캐시
+	 * (SoftReference 기반이므로 웹어플리케이션 재배포시 ClassLoader를 계속 붙잡지 않음)
+	 */
+	private static final ConcurrentMap<Class<?>, ClassMetadata> classMetadataCache = new ConcurrentReferenceHashMap<Class<?>, ClassMetadata>();
+
+	/** (클래스, 메시지 소스, Prefix, 로케일)별 다국어 필드명 맵 캐시 */
+	private static final ConcurrentMap<NameMapKey, Map<String, String>> nameMapCache = new ConcurrentReferenceHashMap<NameMapKey, Map<String, String>>();
+
 	/**
 	 * Display Annotation의 order 속성으로 정렬된 필드-순서 맵을 획득
 	 * @param voClass 대상 VO
 	 * @return Display Annotation의 order 속성으로 정렬된 필드-순서 맵
 	 */
 	public static Map<String, Integer> getDisplayOrderMap(Class<?> voClass) {
-		Field[] fields = voClass.getDeclaredFields();
-		Map<String, Integer> voFieldOrderMap = new HashMap<String, Integer>();
-		for(Field field : fields) {
-			String fieldName = field.getName();
-			//노출 순서
-			int displayOrder = Integer.MAX_VALUE;
-			Display displayAnnotation = field.getAnnotation(Display.class);
-			if(displayAnnotation != null) {
-				displayOrder = displayAnnotation.order();
-			}
-			voFieldOrderMap.put(fieldName, displayOrder);
-		}
-		voFieldOrderMap = BHiveCollectionUtil.sortByValues(voFieldOrderMap);
-		return voFieldOrderMap;
+		return new LinkedHashMap<String, Integer>(getClassMetadata(voClass).getDisplayOrderMap());
 	}
 
 	/**
@@ -67,15 +68,20 @@ public class BHiveVOUtil {
 	 * @return Display Annotation의 name 속성으로 필드-필드명 맵
 	 */
 	public static Map<String, String> getDisplayNameMap(Class<?> voClass, MessageSource messageSource, String prefix, Locale locale) {
-		Field[] fields = voClass.getDeclaredFields();
+		NameMapKey key = new NameMapKey(voClass, NameMapKey.DISPLAY_NAME, messageSource, prefix, locale);
+		Map<String, String> cached = nameMapCache.get(key);
+		if(cached != null) {
+			return new HashMap<String, String>(cached);
+		}
+
 		Map<String, String> voFieldNameMap = new HashMap<String, String>();
-		for(Field field : fields) {
+		for(Map.Entry<String, Display> entry : getClassMetadata(voClass).getDisplayAnnotationMap().entrySet()) {
 			//기본 필드명
-			String fieldName = field.getName();
+			String fieldName = entry.getKey();
 
 			//@DisplayName
 			String displayName = null;
-			Display displayAnnotation = field.getAnnotation(Display.class);
+			Display displayAnnotation = entry.getValue();
 
 			if(displayAnnotation != null) {
 				displayName = displayAnnotation.name();
@@ -92,7 +98,8 @@ public class BHiveVOUtil {
 			}
 			voFieldNameMap.put(fieldName, displayName);
 		}
-		return voFieldNameMap;
+		nameMapCache.put(key, voFieldNameMap);
+		return new HashMap<String, String>(voFieldNameMap);
 	}
 
 	/**
@@ -115,19 +122,17 @@ public class BHiveVOUtil {
 	 * @return Display Annotation의 name 속성으로 필드명
 	 */
 	public static String getDisplayName(Class<?> voClass, String declaredFieldName, MessageSource messageSource, String prefix, Locale locale) {
-		Field field;
-		try {
-			field = voClass.getDeclaredField(declaredFieldName);
-		} catch (Exception e) {
-			throw new BHiveRuntimeException("Failed to get declared field.", e);
+		Map<String, Display> displayAnnotationMap = getClassMetadata(voClass).getDisplayAnnotationMap();
+		if(!displayAnnotationMap.containsKey(declaredFieldName)) {
+			throw new BHiveRuntimeException("Failed to get declared field.", new NoSuchFieldException(declaredFieldName));
 		}
 
 		//기본 필드명
-		String fieldName = field.getName();
+		String fieldName = declaredFieldName;
 
 		//@DisplayName
 		String displayName = null;
-		Display displayAnnotation = field.getAnnotation(Display.class);
+		Display displayAnnotation = displayAnnotationMap.get(declaredFieldName);
 
 		if(displayAnnotation != null) {
 			displayName = displayAnnotation.name();
@@ -145,24 +150,17 @@ public class BHiveVOUtil {
 	}
 
 	/**
-	 * map의 값으로 VO의 필드값을 설정
+	 * map의 값으로 VO의 필드값을 설정 (BHiveVOBinder 사용. 변환 오류는 경고 로그만 남기고 나머지 필드는 설정)
 	 * @param voClass 필드값을 설정한 VO
 	 * @param map 키-값 맵
+	 * @deprecated 변환 오류를 확인하려면 BHiveVOBinder.forClass(voClass).bind(vo, map) 사용
 	 */
+	@Deprecated
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public static void setVOProperties(Object voClass, Map<String, Object> map){
-		try {
-			for(Field field: voClass.getClass().getDeclaredFields()){
-				if (field.getType().equals(DateTime.class)) {
-					field.set(voClass, BHiveDateUtil.parseToDateTime(map.get(field.getName().toString()).toString()));
-				} else if (field.getType().equals(Integer.class)) {
-					field.set(voClass, map.get(field.getName()));
-				} else {
-					field.set(voClass, map.get(field.getName().toString()));
-				}
-			}
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		BindingResult errors = BHiveVOBinder.forClass((Class)voClass.getClass()).bind(voClass, map);
+		if(errors.hasErrors()) {
+			logger.warn("Failed to set VO properties: {}", errors.getFieldErrors());
 		}
 	}
 
@@ -202,25 +200,7 @@ public class BHiveVOUtil {
 	 * @return ExcelCoumn Annotation의 order 속성으로 정렬된 필드-순서 맵
 	 */
 	public static Map<String, Integer> getExcelColumnOrderMap(Class<?> voClass) {
-		Map<String, Integer> voFieldOrderMap = new HashMap<String, Integer>();
-
-		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(voClass);
-		for (PropertyDescriptor descriptor : descriptors) {
-			ExcelColumn excelColumnAnnotation = getExcelColumnAnnotation(voClass, descriptor);
-			if(excelColumnAnnotation == null || excelColumnAnnotation.ignore()) {
-				continue;
-			}
-
-			String columnName = descriptor.getName();
-			//노출 순서
-			int excelColumnOrder = Integer.MAX_VALUE;
-			excelColumnOrder = excelColumnAnnotation.order();
-
-			voFieldOrderMap.put(columnName, excelColumnOrder);
-		}
-
-		voFieldOrderMap = BHiveCollectionUtil.sortByValues(voFieldOrderMap);
-		return voFieldOrderMap;
+		return new LinkedHashMap<String, Integer>(getClassMetadata(voClass).getExcelColumnOrderMap());
 	}
 
 	/**
@@ -241,17 +221,18 @@ public class BHiveVOUtil {
 	 * @return ExcelColumn Annotation의 groupname 속성으로 필드-필드그룹명 맵
 	 */
 	public static Map<String, String> getExcelColumnGroupNameMap(Class<?> voClass, MessageSource messageSource, String prefix, Locale locale) {
-		Map<String, String> voFieldNameMap = new HashMap<String, String>();
+		NameMapKey key = new NameMapKey(voClass, NameMapKey.EXCEL_GROUP_NAME, messageSource, prefix, locale);
+		Map<String, String> cached = nameMapCache.get(key);
+		if(cached != null) {
+			return new HashMap<String, String>(cached);
+		}
 
-		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(voClass);
-		for (PropertyDescriptor descriptor : descriptors) {
-			ExcelColumn excelColumnAnnotation = getExcelColumnAnnotation(voClass, descriptor);
-			if(excelColumnAnnotation == null || excelColumnAnnotation.ignore()) {
-				continue;
-			}
+		Map<String, String> voFieldNameMap = new HashMap<String, String>();
+		for (Map.Entry<String, ExcelColumn> entry : getClassMetadata(voClass).getExcelColumnAnnotationMap().entrySet()) {
+			ExcelColumn excelColumnAnnotation = entry.getValue();
 
 			//기본 필드명
-			String columnName = descriptor.getName();
+			String columnName = entry.getKey();
 			//@ExcelColumn.groupname
 			String excelColumnName = null;
 			excelColumnName = excelColumnAnnotation.groupname();
@@ -268,7 +249,8 @@ public class BHiveVOUtil {
 			voFieldNameMap.put(columnName, excelColumnName);
 		}
 
-		return voFieldNameMap;
+		nameMapCache.put(key, voFieldNameMap);
+		return new HashMap<String, String>(voFieldNameMap);
 	}
 
 	/**
@@ -289,17 +271,18 @@ public class BHiveVOUtil {
 	 * @return ExcelColumn Annotation의 name 속성으로 필드-필드명 맵
 	 */
 	public static Map<String, String> getExcelColumnNameMap(Class<?> voClass, MessageSource messageSource, String prefix, Locale locale) {
-		Map<String, String> voFieldNameMap = new HashMap<String, String>();
+		NameMapKey key = new NameMapKey(voClass, NameMapKey.EXCEL_NAME, messageSource, prefix, locale);
+		Map<String, String> cached = nameMapCache.get(key);
+		if(cached != null) {
+			return new HashMap<String, String>(cached);
+		}
 
-		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(voClass);
-		for (PropertyDescriptor descriptor : descriptors) {
-			ExcelColumn excelColumnAnnotation = getExcelColumnAnnotation(voClass, descriptor);
-			if(excelColumnAnnotation == null || excelColumnAnnotation.ignore()) {
-				continue;
-			}
+		Map<String, String> voFieldNameMap = new HashMap<String, String>();
+		for (Map.Entry<String, ExcelColumn> entry : getClassMetadata(voClass).getExcelColumnAnnotationMap().entrySet()) {
+			ExcelColumn excelColumnAnnotation = entry.getValue();
 
 			//기본 필드명
-			String columnName = descriptor.getName();
+			String columnName = entry.getKey();
 			//@ExcelColumn.name
 			String excelColumnName = null;
 			excelColumnName = excelColumnAnnotation.name();
@@ -316,7 +299,8 @@ public class BHiveVOUtil {
 			voFieldNameMap.put(columnName, excelColumnName);
 		}
 
-		return voFieldNameMap;
+		nameMapCache.put(key, voFieldNameMap);
+		return new HashMap<String, String>(voFieldNameMap);
 	}
 
 	/**
@@ -325,18 +309,148 @@ public class BHiveVOUtil {
 	 * @return ExcelCoumn Annotation의 필드-Annotation 맵
 	 */
 	public static Map<String, ExcelColumn> getExcelColumnAnnotationMap(Class<?> voClass) {
-		Map<String, ExcelColumn> voFieldOrderMap = new HashMap<String, ExcelColumn>();
+		return new HashMap<String, ExcelColumn>(getClassMetadata(voClass).getExcelColumnAnnotationMap());
+	}
+
+	////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * 메타정보 캐시 초기화 (클래스 재로딩시)
+	 */
+	public static void clearCache() {
+		classMetadataCache.clear();
+		nameMapCache.clear();
+	}
 
-		PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(voClass);
-		for (PropertyDescriptor descriptor : descriptors) {
-			ExcelColumn excelColumnAnnotation = getExcelColumnAnnotation(voClass, descriptor);
-			if(excelColumnAnnotation == null || excelColumnAnnotation.ignore()) {
-				continue;
+	/**
+	 * 다국어 필드명 캐시 초기화 (메시지 소스 재로딩시)
+	 */
+	public static void clearMessageCache() {
+		nameMapCache.clear();
+	}
+
+	/**
+	 * VO 클래스의 Annotation 메타정보 획득 (캐시)
+	 * @param voClass 대상 VO
+	 * @return VO 클래스의 Annotation 메타정보
+	 */
+	private static ClassMetadata getClassMetadata(Class<?> voClass) {
+		ClassMetadata metadata = classMetadataCache.get(voClass);
+		if(metadata == null) {
+			metadata = new ClassMetadata(voClass);
+			ClassMetadata existing = classMetadataCache.putIfAbsent(voClass, metadata);
+			if(existing != null) {
+				metadata = existing;
 			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * VO 클래스의 Display, ExcelColumn Annotation 메타정보 (변경하지 않음)
+	 */
+	private static class ClassMetadata {
+		/** 선언된 필드-Display Annotation (선언 순서. Annotation이 없으면 null) */
+		private final Map<String, Display> displayAnnotationMap;
+		/** Display 필드-순서 (순서로 정렬) */
+		private final Map<String, Integer> displayOrderMap;
+		/** ExcelColumn 프로퍼티-Annotation (ignore 제외) */
+		private final Map<String, ExcelColumn> excelColumnAnnotationMap;
+		/** ExcelColumn 프로퍼티-순서 (순서로 정렬) */
+		private final Map<String, Integer> excelColumnOrderMap;
+
+		ClassMetadata(Class<?> voClass) {
+			Map<String, Display> displayAnnotationMap = new LinkedHashMap<String, Display>();
+			Map<String, Integer> displayOrderMap = new HashMap<String, Integer>();
+			for(Field field : voClass.getDeclaredFields()) {
+				String fieldName = field.getName();
+				//노출 순서
+				int displayOrder = Integer.MAX_VALUE;
+				Display displayAnnotation = field.getAnnotation(Display.class);
+				if(displayAnnotation != null) {
+					displayOrder = displayAnnotation.order();
+				}
+				displayAnnotationMap.put(fieldName, displayAnnotation);
+				displayOrderMap.put(fieldName, displayOrder);
+			}
+			this.displayAnnotationMap = Collections.unmodifiableMap(displayAnnotationMap);
+			this.displayOrderMap = Collections.unmodifiableMap(BHiveCollectionUtil.sortByValues(displayOrderMap));
+
+			Map<String, ExcelColumn> excelColumnAnnotationMap = new LinkedHashMap<String, ExcelColumn>();
+			Map<String, Integer> excelColumnOrderMap = new HashMap<String, Integer>();
+			PropertyDescriptor[] descriptors = PropertyUtils.getPropertyDescriptors(voClass);
+			for (PropertyDescriptor descriptor : descriptors) {
+				ExcelColumn excelColumnAnnotation = getExcelColumnAnnotation(voClass, descriptor);
+				if(excelColumnAnnotation == null || excelColumnAnnotation.ignore()) {
+					continue;
+				}
+				String columnName = descriptor.getName();
+				excelColumnAnnotationMap.put(columnName, excelColumnAnnotation);
+				excelColumnOrderMap.put(columnName, excelColumnAnnotation.order());
+			}
+			this.excelColumnAnnotationMap = Collections.unmodifiableMap(excelColumnAnnotationMap);
+			this.excelColumnOrderMap = Collections.unmodifiableMap(BHiveCollectionUtil.sortByValues(excelColumnOrderMap));
+		}
+
+		Map<String, Display> getDisplayAnnotationMap() {
+			return displayAnnotationMap;
+		}
+
+		Map<String, Integer> getDisplayOrderMap() {
+			return displayOrderMap;
+		}
+
+		Map<String, ExcelColumn> getExcelColumnAnnotationMap() {
+			return excelColumnAnnotationMap;
+		}
+
+		Map<String, Integer> getExcelColumnOrderMap() {
+			return excelColumnOrderMap;
+		}
+	}
+
+	/**
+	 * 다국어 필드명 맵 캐시 Key (클래스, 맵 종류, 메시지 소스, Prefix, 로케일)
+	 */
+	private static class NameMapKey {
+		static final int DISPLAY_NAME = 0;
+		static final int EXCEL_NAME = 1;
+		static final int EXCEL_GROUP_NAME = 2;
+
+		private final Class<?> voClass;
+		private final int kind;
+		private final MessageSource messageSource;
+		private final String prefix;
+		private final Locale locale;
+
+		NameMapKey(Class<?> voClass, int kind, MessageSource messageSource, String prefix, Locale locale) {
+			this.voClass = voClass;
+			this.kind = kind;
+			this.messageSource = messageSource;
+			this.prefix = prefix;
+			this.locale = locale;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof NameMapKey)) {
+				return false;
+			}
+			NameMapKey other = (NameMapKey)obj;
+			return voClass == other.voClass && kind == other.kind && messageSource == other.messageSource
+					&& ObjectUtils.nullSafeEquals(prefix, other.prefix) && ObjectUtils.nullSafeEquals(locale, other.locale);
+		}
 
-			String columnName = descriptor.getName();
-			voFieldOrderMap.put(columnName, excelColumnAnnotation);
+		@Override
+		public int hashCode() {
+			int result = voClass.hashCode();
+			result = 31 * result + kind;
+			result = 31 * result + System.identityHashCode(messageSource);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(prefix);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(locale);
+			return result;
 		}
-		return voFieldOrderMap;
 	}
 }
@@ -0,0 +1,128 @@
+package blue.hive.crypto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * AES256CryptoKeyring 테스트
+ *
+ * Key ID Envelope("keyId$") 형식과 Key 교체(rotate) 후 기존 암호문, 이전 Key 암호문, 새 Key 암호문의 복호화를 확인한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class AES256CryptoKeyringTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final String SECRET_KEY_1 = "0123456789abcdef0123456789abcdef";
+	private static final String SECRET_KEY_2 = "fedcba9876543210fedcba9876543210";
+
+	@Test
+	public void testEnvelopeFormat() {
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring();
+		keyring.addKey("k1", SECRET_KEY_1);
+
+		String cipherString = keyring.encryptStringToBase64("hello");
+		assertTrue(cipherString.startsWith("k1$"));
+		assertFalse(cipherString.startsWith("k1$" + AES256Crypto.ENVELOPE_GCM_HEADER));
+		assertTrue(AES256CryptoKeyring.hasKeyId(cipherString));
+		assertFalse(AES256CryptoKeyring.hasKeyId(new AES256Crypto(SECRET_KEY_1).encryptStringToBase64("hello")));
+		//Envelope를 뗀 나머지는 해당 Key의 CBC 암호문
+		assertThat(cipherString.substring(3), is(new AES256Crypto(SECRET_KEY_1).encryptStringToBase64("hello")));
+	}
+
+	@Test
+	public void testGcmEnvelopeFormat() {
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring(AES256Crypto.GCM_CIPHER_ALGORITHM);
+		keyring.addKey("k1", SECRET_KEY_1);
+
+		String cipherString = keyring.encryptStringToBase64("hello");
+		assertTrue(cipherString.startsWith("k1$" + AES256Crypto.ENVELOPE_GCM_HEADER));
+		assertThat(keyring.decryptBase64String(cipherString), is("hello"));
+
+		String bytesString = keyring.encryptBytesToBase64("bytes".getBytes(UTF8));
+		assertTrue(bytesString.startsWith("k1$"));
+		assertFalse(bytesString.startsWith("k1$" + AES256Crypto.ENVELOPE_GCM_HEADER));
+		assertThat(new String(keyring.decryptBase64ToBytes(bytesString), UTF8), is("bytes"));
+	}
+
+	@Test
+	public void testRotateDecryptsLegacyAndEnveloped() {
+		String legacyString = new AES256Crypto(SECRET_KEY_1).encryptStringToBase64("legacy");
+
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring();
+		keyring.addKey("k1", SECRET_KEY_1);
+		String k1String = keyring.encryptStringToBase64("first");
+
+		keyring.rotate("k2", SECRET_KEY_2);
+		keyring.setLegacyKeyId("k1");
+		assertThat(keyring.getActiveKeyId(), is("k2"));
+		String k2String = keyring.encryptStringToBase64("second");
+		assertTrue(k2String.startsWith("k2$"));
+
+		assertThat(keyring.decryptBase64String(legacyString), is("legacy"));
+		assertThat(keyring.decryptBase64String(k1String), is("first"));
+		assertThat(keyring.decryptBase64String(k2String), is("second"));
+		assertThat(new String(keyring.decryptBase64StringToBytes(k1String), UTF8), is("first"));
+	}
+
+	@Test
+	public void testLegacyUsesActiveKeyWithoutLegacyKeyId() {
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring();
+		keyring.addKey("k1", SECRET_KEY_1);
+		keyring.rotate("k2", SECRET_KEY_2);
+
+		String legacyString = new AES256Crypto(SECRET_KEY_2).encryptStringToBase64("legacy");
+		assertThat(keyring.decryptBase64String(legacyString), is("legacy"));
+	}
+
+	@Test
+	public void testUnknownKeyIdReturnsNull() {
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring();
+		keyring.addKey("k1", SECRET_KEY_1);
+		String cipherString = keyring.encryptStringToBase64("hello");
+
+		assertThat(keyring.decryptBase64String("zz" + cipherString.substring(2)), is(nullValue()));
+	}
+
+	@Test
+	public void testStreamAfterRotate() throws IOException {
+		byte[] plainBytes = new byte[1000];
+		for(int i = 0; i < plainBytes.length; i++) {
+			plainBytes[i] = (byte)i;
+		}
+
+		AES256CryptoKeyring keyring = new AES256CryptoKeyring(AES256Crypto.GCM_CIPHER_ALGORITHM);
+		keyring.addKey("k1", SECRET_KEY_1);
+		byte[] k1Bytes = encryptWithStream(keyring, plainBytes);
+		assertThat(new String(k1Bytes, 0, 7, UTF8), is("k1$" + AES256Crypto.ENVELOPE_GCM_HEADER));
+
+		keyring.rotate("k2", SECRET_KEY_2);
+		byte[] k2Bytes = encryptWithStream(keyring, plainBytes);
+		assertThat(new String(k2Bytes, 0, 7, UTF8), is("k2$" + AES256Crypto.ENVELOPE_GCM_HEADER));
+
+		assertArrayEquals(plainBytes, IOUtils.toByteArray(keyring.getDecryptChiperInputStream(new ByteArrayInputStream(k1Bytes))));
+		assertArrayEquals(plainBytes, IOUtils.toByteArray(keyring.getDecryptChiperInputStream(new ByteArrayInputStream(k2Bytes))));
+	}
+
+	private static byte[] encryptWithStream(AES256CryptoKeyring keyring, byte[] plainBytes) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		OutputStream os = keyring.getEncryptChiperOutputStream(bos);
+		os.write(plainBytes);
+		os.close();
+		return bos.toByteArray();
+	}
+}
@@ -0,0 +1,215 @@
+package blue.hive.crypto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import blue.hive.exception.BHiveRuntimeException;
+
+/**
+ * AES256Crypto 테스트
+ *
+ * CBC의 Stream/버퍼 암호화 결과가 같은지, GCM Envelope 암호문의 암복호화와 인증 실패, 기존 CBC 암호문 허용여부를 확인한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class AES256CryptoTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final String SECRET_KEY = "0123456789abcdef0123456789abcdef";
+
+	/** 블록 경계 전후와 여러 블록 크기 */
+	private static final int[] PLAIN_LENGTHS = { 1, 2, 3, 15, 16, 17, 31, 32, 33, 100, 1000, 5000 };
+
+	@Test
+	public void testCbcEncryptToBase64SameAsStream() throws IOException {
+		AES256Crypto crypto = new AES256Crypto(SECRET_KEY);
+		for(int length : PLAIN_LENGTHS) {
+			byte[] plainBytes = createPlainBytes(length);
+
+			ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+			crypto.encryptToBase64(plainBytes, 0, plainBytes.length, buffered);
+
+			ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+			OutputStream os = crypto.getEncryptChiperOutputStream(streamed);
+			os.write(plainBytes);
+			os.close();
+
+			assertArrayEquals("length: " + length, streamed.toByteArray(), buffered.toByteArray());
+		}
+	}
+
+	@Test
+	public void testCbcBufferedOutputStreamSameAsStream() throws IOException {
+		AES256Crypto crypto = new AES256Crypto(SECRET_KEY);
+		for(int length : PLAIN_LENGTHS) {
+			byte[] plainBytes = createPlainBytes(length);
+
+			//threshold보다 작으면 버퍼, 크면 Stream으로 전환
+			ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+			OutputStream bufferedOs = crypto.getBufferedEncryptChiperOutputStream(buffered, 64);
+			bufferedOs.write(plainBytes);
+			bufferedOs.close();
+
+			ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+			OutputStream os = crypto.getEncryptChiperOutputStream(streamed);
+			os.write(plainBytes);
+			os.close();
+
+			assertArrayEquals("length: " + length, streamed.toByteArray(), buffered.toByteArray());
+		}
+	}
+
+	@Test
+	public void testCbcDecryptStreamSameAsBuffered() throws IOException {
+		AES256Crypto crypto = new AES256Crypto(SECRET_KEY);
+		for(int length : PLAIN_LENGTHS) {
+			byte[] plainBytes = createPlainBytes(length);
+			byte[] cipherBytes = encryptWithStream(crypto, plainBytes);
+
+			assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getDecryptChiperInputStream(new ByteArrayInputStream(cipherBytes))));
+			assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getBufferedDecryptChiperInputStream(new ByteArrayInputStream(cipherBytes), cipherBytes.length, Integer.MAX_VALUE)));
+			assertArrayEquals(plainBytes, crypto.decryptBase64StringToBytes(new String(cipherBytes, UTF8)));
+		}
+	}
+
+	@Test
+	public void testCbcHasNoEnvelopeHeader() {
+		AES256Crypto crypto = new AES256Crypto(SECRET_KEY);
+		String cipherString = crypto.encryptStringToBase64("hello");
+		assertTrue(!cipherString.startsWith(AES256Crypto.ENVELOPE_GCM_HEADER));
+		assertThat(crypto.decryptBase64String(cipherString), is("hello"));
+	}
+
+	@Test
+	public void testGcmRoundTrip() throws IOException {
+		AES256Crypto crypto = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, SECRET_KEY);
+		assertTrue(crypto.isGcmMode());
+
+		String cipherString = crypto.encryptStringToBase64("hello 안녕");
+		assertTrue(cipherString.startsWith(AES256Crypto.ENVELOPE_GCM_HEADER));
+		assertThat(crypto.decryptBase64String(cipherString), is("hello 안녕"));
+		//메시지마다 Nonce가 다름
+		assertThat(crypto.encryptStringToBase64("hello 안녕"), not(is(cipherString)));
+
+		for(int length : PLAIN_LENGTHS) {
+			byte[] plainBytes = createPlainBytes(length);
+
+			ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+			crypto.encryptToBase64(plainBytes, 0, plainBytes.length, buffered);
+			byte[] streamed = encryptWithStream(crypto, plainBytes);
+			assertTrue(AES256Crypto.isEnvelopeHeader(buffered.toByteArray(), 0, buffered.size()));
+			assertTrue(AES256Crypto.isEnvelopeHeader(streamed, 0, streamed.length));
+
+			for(byte[] cipherBytes : new byte[][] { buffered.toByteArray(), streamed }) {
+				assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getDecryptChiperInputStream(new ByteArrayInputStream(cipherBytes))));
+				assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getBufferedDecryptChiperInputStream(new ByteArrayInputStream(cipherBytes), cipherBytes.length, Integer.MAX_VALUE)));
+			}
+		}
+
+		byte[] cipherBytes = crypto.encryptBytes("bytes".getBytes(UTF8));
+		assertThat(new String(crypto.decryptToBytes(cipherBytes), UTF8), is("bytes"));
+	}
+
+	@Test
+	public void testGcmTamperedTagReturnsNull() {
+		AES256Crypto crypto = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, SECRET_KEY);
+		String cipherString = crypto.encryptStringToBase64("hello");
+
+		byte[] cipherBytes = Base64.decodeBase64(cipherString.substring(AES256Crypto.ENVELOPE_HEADER_LENGTH));
+		cipherBytes[cipherBytes.length - 1] ^= 0x01; //인증 Tag 변조
+		String tampered = AES256Crypto.ENVELOPE_GCM_HEADER + Base64.encodeBase64String(cipherBytes);
+
+		assertThat(crypto.decryptBase64String(tampered), is(nullValue()));
+		assertThat(crypto.decryptBase64StringToBytes(tampered), is(nullValue()));
+	}
+
+	@Test
+	public void testGcmWithWrongKeyReturnsNull() {
+		String cipherString = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, SECRET_KEY).encryptStringToBase64("hello");
+		AES256Crypto other = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, "fedcba9876543210fedcba9876543210");
+		assertThat(other.decryptBase64String(cipherString), is(nullValue()));
+	}
+
+	@Test
+	public void testGcmDecryptsLegacyCiphertext() throws IOException {
+		byte[] plainBytes = createPlainBytes(100);
+		AES256Crypto cbc = new AES256Crypto(SECRET_KEY);
+		String legacyString = cbc.encryptStringToBase64("hello");
+		byte[] legacyBytes = encryptWithStream(cbc, plainBytes);
+
+		AES256Crypto crypto = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, SECRET_KEY);
+		assertTrue(crypto.isAllowLegacyCiphertext());
+		assertThat(crypto.decryptBase64String(legacyString), is("hello"));
+		assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getDecryptChiperInputStream(new ByteArrayInputStream(legacyBytes))));
+		assertArrayEquals(plainBytes, IOUtils.toByteArray(crypto.getBufferedDecryptChiperInputStream(new ByteArrayInputStream(legacyBytes), legacyBytes.length, Integer.MAX_VALUE)));
+		//기존 CBC 응답용 처리기
+		assertThat(crypto.getLegacyCrypto().encryptStringToBase64("hello"), is(legacyString));
+	}
+
+	@Test
+	public void testGcmRejectsLegacyCiphertext() throws IOException {
+		byte[] plainBytes = createPlainBytes(100);
+		AES256Crypto cbc = new AES256Crypto(SECRET_KEY);
+		String legacyString = cbc.encryptStringToBase64("hello");
+		byte[] legacyBytes = encryptWithStream(cbc, plainBytes);
+
+		AES256Crypto crypto = new AES256Crypto(AES256Crypto.GCM_CIPHER_ALGORITHM, SECRET_KEY);
+		crypto.setAllowLegacyCiphertext(false);
+		assertThat(crypto.decryptBase64String(legacyString), is(nullValue()));
+		assertThat(crypto.decryptBase64StringToBytes(legacyString), is(nullValue()));
+		try {
+			crypto.getDecryptChiperInputStream(new ByteArrayInputStream(legacyBytes));
+			fail("legacy cipher text must be rejected.");
+		} catch (BHiveRuntimeException ex) {
+			//expected
+		}
+		try {
+			crypto.getBufferedDecryptChiperInputStream(new ByteArrayInputStream(legacyBytes), legacyBytes.length, Integer.MAX_VALUE);
+			fail("legacy cipher text must be rejected.");
+		} catch (IOException ex) {
+			//expected
+		}
+
+		//GCM 암호문은 그대로 처리
+		assertThat(crypto.decryptBase64String(crypto.encryptStringToBase64("hello")), is("hello"));
+	}
+
+	@Test
+	public void testCbcIgnoresAllowLegacyCiphertext() {
+		AES256Crypto crypto = new AES256Crypto(SECRET_KEY);
+		crypto.setAllowLegacyCiphertext(false);
+		assertThat(crypto.decryptBase64String(crypto.encryptStringToBase64("hello")), is("hello"));
+	}
+
+	private static byte[] encryptWithStream(AES256Crypto crypto, byte[] plainBytes) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		OutputStream os = crypto.getEncryptChiperOutputStream(bos);
+		os.write(plainBytes);
+		os.close();
+		return bos.toByteArray();
+	}
+
+	private static byte[] createPlainBytes(int length) {
+		byte[] plainBytes = new byte[length];
+		for(int i = 0; i < length; i++) {
+			plainBytes[i] = (byte)(i * 31 + 7);
+		}
+		return plainBytes;
+	}
+}
@@ -0,0 +1,232 @@
+package blue.hive.spring.web.view;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * BHiveExcelVerticalMerger 테스트
+ *
+ * 같은 Row를 BHiveExcelVerticalMerger와 기존 BHiveExcelCommand.mergeVerticalCellHasEqualValue로 각각 처리하여
+ * MERGE_VERTICAL, MERGE_VERTICAL_HIERARCHY 병합영역이 같은지 비교한다.
+ *
+ * @author DongMan Kwon <a href="mailto:dmkwon@intellicode.co.kr">dmkwon@intellicode.co.kr</a>
+ */
+public class BHiveExcelVerticalMergerTest {
+
+	/** 헤더 Row 다음부터 데이터 출력 */
+	private static final int DATA_ROWNUM_STARTED = 1;
+
+	private Workbook workbook;
+	private CellStyle dateCellStyle;
+	private DataFormatter dataFormatter;
+
+	@Before
+	public void setUp() {
+		workbook = new HSSFWorkbook();
+		dateCellStyle = workbook.createCellStyle();
+		dateCellStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+		dataFormatter = new DataFormatter();
+	}
+
+	/**
+	 * 연속구간, 단일 Row, null/빈값, 숫자/날짜 셀, 앞 컬럼 경계가 모두 포함된 데이터
+	 * 컬럼: 그룹, 하위그룹, 금액, 일자, 비고
+	 */
+	private Object[][] createFixtureRows() {
+		return new Object[][] {
+			{ "A", "x", Integer.valueOf(1000), date(2020, 1, 1, 9), "p" },
+			{ "A", "x", Double.valueOf(1000.0), date(2020, 1, 1, 18), "p" },	//같은 표시값의 숫자, 시간만 다른 날짜
+			{ "A", "y", null, date(2020, 1, 2, 0), "p" },
+			{ "A", "y", "", date(2020, 1, 2, 0), "q" },						//null과 빈값은 같은 값
+			{ "B", "y", "", date(2020, 1, 2, 0), "q" },						//앞 컬럼만 바뀜
+			{ "B", "y", Long.valueOf(2000), null, "q" },
+			{ "C", "z", Long.valueOf(2000), null, "r" },					//단일 Row 그룹
+			{ "D", "z", new BigDecimal("3"), null, "r" },
+			{ "D", "z", Integer.valueOf(3), null, "r" },
+		};
+	}
+
+	@Test
+	public void testMergeVerticalSameAsLegacy() {
+		assertSameAsLegacy(createFixtureRows(), false);
+	}
+
+	@Test
+	public void testMergeVerticalHierarchySameAsLegacy() {
+		assertSameAsLegacy(createFixtureRows(), true);
+	}
+
+	@Test
+	public void testMergeVerticalRegions() {
+		List<String> regions = mergeWithMerger(createFixtureRows(), false);
+		assertTrue(regions.contains("A2:A5"));
+		assertTrue(regions.contains("B4:B7"));	//앞 컬럼 경계와 무관하게 병합
+		assertTrue(regions.contains("C2:C3"));	//숫자는 표시값으로 비교
+		assertTrue(regions.contains("C4:C6"));	//null과 빈값
+		assertTrue(regions.contains("D2:D3"));	//날짜는 날짜형식 표시값으로 비교
+		assertTrue(regions.contains("E8:E10"));
+	}
+
+	@Test
+	public void testMergeVerticalHierarchyRegions() {
+		List<String> regions = mergeWithMerger(createFixtureRows(), true);
+		assertTrue(regions.contains("A2:A5"));
+		assertTrue(regions.contains("B4:B5"));	//앞 컬럼 경계에서 끊김
+		assertTrue(regions.contains("B6:B7"));
+		assertFalse(regions.contains("B4:B7"));
+		assertFalse(regions.contains("E8:E10"));	//마지막 컬럼은 병합하지 않음
+	}
+
+	@Test
+	public void testSingleRow() {
+		Object[][] rows = new Object[][] {
+			{ "A", "x", Integer.valueOf(1) },
+		};
+		assertSameAsLegacy(rows, false);
+		assertSameAsLegacy(rows, true);
+		assertThat(mergeWithMerger(rows, false).size(), is(0));
+	}
+
+	@Test
+	public void testAllDifferentRows() {
+		Object[][] rows = new Object[][] {
+			{ "A", "x", Integer.valueOf(1) },
+			{ "B", "y", Integer.valueOf(2) },
+			{ "C", "z", Integer.valueOf(3) },
+		};
+		assertSameAsLegacy(rows, false);
+		assertSameAsLegacy(rows, true);
+		assertThat(mergeWithMerger(rows, true).size(), is(0));
+	}
+
+	@Test
+	public void testAllNullRows() {
+		Object[][] rows = new Object[][] {
+			{ null, null, "" },
+			{ "", null, null },
+			{ null, "", null },
+		};
+		assertSameAsLegacy(rows, false);
+		assertSameAsLegacy(rows, true);
+		assertThat(mergeWithMerger(rows, false).size(), is(3));
+	}
+
+	@Test
+	public void testNoRows() {
+		Object[][] rows = new Object[0][];
+		assertThat(mergeWithMerger(rows, false).size(), is(0));
+		assertThat(mergeWithLegacy(rows, false, 3).size(), is(0));
+	}
+
+	private void assertSameAsLegacy(Object[][] rows, boolean hierarchy) {
+		List<String> expected = mergeWithLegacy(rows, hierarchy, rows[0].length);
+		List<String> actual = mergeWithMerger(rows, hierarchy);
+		assertThat(actual, is(expected));
+	}
+
+	/**
+	 * 기존 방식: Row를 모두 출력한 후 다시 읽어서 병합
+	 */
+	private List<String> mergeWithLegacy(Object[][] rows, boolean hierarchy, int columnCount) {
+		Sheet sheet = createSheet();
+		int rownum = DATA_ROWNUM_STARTED;
+		for(Object[] values : rows) {
+			writeRow(sheet, rownum++, values, null);
+		}
+		if(hierarchy) {
+			BHiveExcelCommand.mergeVerticalCellHasEqualValue(sheet, 0, DATA_ROWNUM_STARTED, rownum, true, columnCount-1);
+		} else {
+			for(int cellnum = 0; cellnum < columnCount; cellnum++) {
+				BHiveExcelCommand.mergeVerticalCellHasEqualValue(sheet, cellnum, DATA_ROWNUM_STARTED, rownum, false, columnCount-1);
+			}
+		}
+		return getMergedRegions(sheet);
+	}
+
+	/**
+	 * 한번에 처리: Row 출력과 동시에 병합
+	 */
+	private List<String> mergeWithMerger(Object[][] rows, boolean hierarchy) {
+		Sheet sheet = createSheet();
+		int columnCount = (rows.length > 0) ? rows[0].length : 0;
+		BHiveExcelVerticalMerger merger = new BHiveExcelVerticalMerger(sheet, columnCount, hierarchy);
+		int rownum = DATA_ROWNUM_STARTED;
+		for(Object[] values : rows) {
+			writeRow(sheet, rownum, values, merger);
+			merger.endRow(rownum++);
+		}
+		merger.finish();
+		assertThat(merger.getRowCount(), is(rows.length));
+		return getMergedRegions(sheet);
+	}
+
+	private Sheet createSheet() {
+		Sheet sheet = workbook.createSheet();
+		sheet.createRow(0).createCell(0).setCellValue("HEADER");
+		return sheet;
+	}
+
+	/**
+	 * Row 출력 (null은 셀을 만들지 않음)
+	 */
+	private void writeRow(Sheet sheet, int rownum, Object[] values, BHiveExcelVerticalMerger merger) {
+		Row row = sheet.createRow(rownum);
+		for(int cellnum = 0; cellnum < values.length; cellnum++) {
+			Object value = values[cellnum];
+			Cell cell = null;
+			if(value instanceof Number) {
+				cell = row.createCell(cellnum);
+				cell.setCellValue(((Number) value).doubleValue());
+			} else if(value instanceof Date) {
+				cell = row.createCell(cellnum);
+				cell.setCellValue((Date) value);
+				cell.setCellStyle(dateCellStyle);
+			} else if(value != null) {
+				cell = row.createCell(cellnum);
+				cell.setCellValue(value.toString());
+			}
+			if(merger != null) {
+				merger.setCellText(cellnum, (cell == null) ? null : dataFormatter.formatCellValue(cell));
+			}
+		}
+	}
+
+	/**
+	 * 병합영역 목록 (처리 순서가 다르므로 정렬하여 비교)
+	 */
+	private static List<String> getMergedRegions(Sheet sheet) {
+		List<String> regions = new ArrayList<String>();
+		for(CellRangeAddress region : sheet.getMergedRegions()) {
+			regions.add(region.formatAsString());
+		}
+		Collections.sort(regions);
+		return regions;
+	}
+
+	private static Date date(int year, int month, int day, int hour) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(year, month - 1, day, hour, 0, 0);
+		return calendar.getTime();
+	}
+}